@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.manipulation;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * A cache of computed labels of Java elements, keyed by the element handle and the rendering
+ * flags. A label only shows properties of the element and of its ancestors, e.g. the parameter
+ * names of a method or the enclosing method of a local type, and everything else is part of the
+ * handle. So when the Java model changes, including reconciles of working copies, the labels of
+ * the changed elements and of their descendants are removed, and all other labels are kept.
+ * <p>
+ * Clients read the generation with {@link #getGeneration()} before computing a label and pass it
+ * to {@link #put(IJavaElement, long, Object, int)}, so that labels computed from a model that
+ * changed in the meantime are not cached.
+ * </p>
+ *
+ * @param <T> the type of the labels
+ * @since 1.11
+ */
+public class JavaElementLabelCache<T> implements IElementChangedListener {
+
+	/** The maximal number of cached labels, the cache is cleared when it is exceeded */
+	private static final int MAX_SIZE= 50000;
+
+	/** The delta flags which do not change the label of the element itself */
+	private static final int CHILDREN_FLAGS= IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_AST_AFFECTED;
+
+	private static final class Key {
+		private final IJavaElement fElement;
+		private final long fFlags;
+
+		Key(IJavaElement element, long flags) {
+			fElement= element;
+			fFlags= flags;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fFlags == other.fFlags && fElement.equals(other.fElement);
+		}
+
+		@Override
+		public int hashCode() {
+			return fElement.hashCode() * 31 + (int) (fFlags ^ (fFlags >>> 32));
+		}
+	}
+
+	private final ConcurrentHashMap<Key, T> fLabels= new ConcurrentHashMap<>();
+	private final AtomicInteger fGeneration= new AtomicInteger();
+
+	/**
+	 * Creates a label cache that listens to changes of the Java model until it is disposed.
+	 */
+	public JavaElementLabelCache() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	/**
+	 * Returns whether the label of the given element can be cached. Labels of resolved
+	 * elements are not cached, because resolved elements are equal to their unresolved
+	 * counterparts.
+	 *
+	 * @param element the element
+	 * @return <code>true</code> if the label can be cached
+	 */
+	public static boolean isCacheable(IJavaElement element) {
+		switch (element.getElementType()) {
+			case IJavaElement.TYPE:
+				return !((IType) element).isResolved();
+			case IJavaElement.METHOD:
+				return !((IMethod) element).isResolved();
+			case IJavaElement.FIELD:
+				return !((IField) element).isResolved();
+			case IJavaElement.LOCAL_VARIABLE:
+			case IJavaElement.TYPE_PARAMETER:
+				// may have been created from a binding
+				return false;
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Returns the cached label of the given element.
+	 *
+	 * @param element the element
+	 * @param flags the rendering flags
+	 * @return the label, or <code>null</code> if not cached
+	 */
+	public T get(IJavaElement element, long flags) {
+		return fLabels.get(new Key(element, flags));
+	}
+
+	/**
+	 * Returns the current generation of the cache, which changes whenever labels are removed
+	 * because the Java model has changed.
+	 *
+	 * @return the generation
+	 */
+	public int getGeneration() {
+		return fGeneration.get();
+	}
+
+	/**
+	 * Caches the label of the given element, unless labels have been removed since the
+	 * given generation.
+	 *
+	 * @param element the element
+	 * @param flags the rendering flags
+	 * @param label the label
+	 * @param generation the generation read before the label was computed
+	 */
+	public void put(IJavaElement element, long flags, T label, int generation) {
+		if (generation != fGeneration.get())
+			return;
+		if (fLabels.size() >= MAX_SIZE)
+			clear();
+		Key key= new Key(element, flags);
+		fLabels.put(key, label);
+		if (generation != fGeneration.get()) {
+			// invalidated concurrently, the label may be stale
+			fLabels.remove(key);
+		}
+	}
+
+	/**
+	 * Removes all labels from the cache.
+	 */
+	public void clear() {
+		fGeneration.incrementAndGet();
+		fLabels.clear();
+	}
+
+	/**
+	 * Stops listening to changes of the Java model and removes all labels.
+	 */
+	public void dispose() {
+		JavaCore.removeElementChangedListener(this);
+		clear();
+	}
+
+	/**
+	 * Removes the labels of the given elements and of their descendants.
+	 *
+	 * @param elements the changed elements
+	 */
+	public void invalidate(Set<IJavaElement> elements) {
+		fGeneration.incrementAndGet();
+		for (Iterator<Key> iter= fLabels.keySet().iterator(); iter.hasNext();) {
+			if (isAffected(iter.next().fElement, elements))
+				iter.remove();
+		}
+	}
+
+	private static boolean isAffected(IJavaElement element, Set<IJavaElement> changed) {
+		for (IJavaElement current= element; current != null; current= current.getParent()) {
+			if (changed.contains(current))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		Set<IJavaElement> changed= new HashSet<>();
+		collectChangedElements(event.getDelta(), changed);
+		if (!changed.isEmpty())
+			invalidate(changed);
+	}
+
+	private static void collectChangedElements(IJavaElementDelta delta, Set<IJavaElement> changed) {
+		// a content change of a compilation unit is reported for the unit, even if it only
+		// changed properties of its members that are not compared in fine-grained deltas,
+		// e.g. parameter names
+		if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~CHILDREN_FLAGS) != 0) {
+			changed.add(delta.getElement());
+			return;
+		}
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			collectChangedElements(children[i], changed);
+		}
+	}
+}
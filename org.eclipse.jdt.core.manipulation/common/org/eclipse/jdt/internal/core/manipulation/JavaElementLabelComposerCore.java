@@ -115,8 +115,49 @@ public class JavaElementLabelComposerCore {
 		}
 	}
 
+	/**
+	 * A buffer backed by a {@link StringBuilder}, for labels that are composed by a single thread.
+	 *
+	 * @since 1.11
+	 */
+	public static class FlexibleStringBuilderCore extends FlexibleBufferCore {
+		private final StringBuilder fStringBuilder;
+
+		public FlexibleStringBuilderCore(StringBuilder stringBuilder) {
+			fStringBuilder= stringBuilder;
+		}
+
+		@Override
+		public FlexibleBufferCore append(char ch) {
+			fStringBuilder.append(ch);
+			return this;
+		}
+
+		@Override
+		public FlexibleBufferCore append(String string) {
+			fStringBuilder.append(string);
+			return this;
+		}
+
+		@Override
+		public int length() {
+			return fStringBuilder.length();
+		}
+
+		@Override
+		public String toString() {
+			return fStringBuilder.toString();
+		}
+	}
+
 	final static long QUALIFIER_FLAGS= JavaElementLabelsCore.P_COMPRESSED | JavaElementLabelsCore.USE_RESOLVED;
 
+	/** The capacity beyond which a builder is not kept for reuse */
+	private static final int MAX_REUSED_CAPACITY= 1024;
+
+	/** The builder of each thread that is available for reuse, or <code>null</code> while it is in use */
+	private static final ThreadLocal<StringBuilder> fgBuilders= new ThreadLocal<>();
+
 	/*
 	 * Package name compression
 	 */
@@ -149,6 +190,44 @@ public class JavaElementLabelComposerCore {
 		this(new FlexibleStringBufferCore(buffer));
 	}
 
+	/**
+	 * Creates a new java element composer based on the given builder.
+	 *
+	 * @param builder the string builder
+	 * @since 1.11
+	 */
+	public JavaElementLabelComposerCore(StringBuilder builder) {
+		this(new FlexibleStringBuilderCore(builder));
+	}
+
+	/**
+	 * Returns an empty builder of the current thread, to be passed back with
+	 * {@link #releaseBuilder(StringBuilder)} once the label has been composed.
+	 * A new builder is returned if the builder of the thread is in use.
+	 *
+	 * @return an empty string builder
+	 * @since 1.11
+	 */
+	public static StringBuilder acquireBuilder() {
+		StringBuilder builder= fgBuilders.get();
+		if (builder == null)
+			return new StringBuilder();
+		fgBuilders.set(null);
+		builder.setLength(0);
+		return builder;
+	}
+
+	/**
+	 * Makes the given builder available for reuse by the current thread.
+	 *
+	 * @param builder a builder returned by {@link #acquireBuilder()}
+	 * @since 1.11
+	 */
+	public static void releaseBuilder(StringBuilder builder) {
+		if (builder.capacity() <= MAX_REUSED_CAPACITY)
+			fgBuilders.set(builder);
+	}
+
 	/**
 	 * Appends the label for a Java element with the flags as defined by this class.
 	 *
@@ -394,9 +394,39 @@ public final class JavaElementLabelsCore {
 	 * @return the label of the Java element
 	 */
 	public static String getElementLabel(IJavaElement element, long flags) {
-		StringBuffer result= new StringBuffer();
-		getElementLabel(element, flags, result);
-		return org.eclipse.jdt.internal.core.manipulation.util.Strings.markJavaElementLabelLTR(result.toString());
+		boolean cacheable= JavaElementLabelCache.isCacheable(element);
+		JavaElementLabelCache<String> cache= null;
+		int generation= 0;
+		if (cacheable) {
+			cache= getLabelCache();
+			generation= cache.getGeneration();
+			String label= cache.get(element, flags);
+			if (label != null)
+				return label;
+		}
+
+		StringBuilder builder= JavaElementLabelComposerCore.acquireBuilder();
+		String label;
+		try {
+			new JavaElementLabelComposerCore(builder).appendElementLabel(element, flags);
+			label= org.eclipse.jdt.internal.core.manipulation.util.Strings.markJavaElementLabelLTR(builder.toString());
+		} finally {
+			JavaElementLabelComposerCore.releaseBuilder(builder);
+		}
+		if (cacheable)
+			cache.put(element, flags, label, generation);
+		return label;
+	}
+
+	private static JavaElementLabelCache<String> getLabelCache() {
+		return LabelCacheHolder.CACHE;
+	}
+
+	/**
+	 * Creates the label cache on first use.
+	 */
+	private static class LabelCacheHolder {
+		static final JavaElementLabelCache<String> CACHE= new JavaElementLabelCache<>();
 	}
 
 	/**
@@ -32,6 +32,8 @@ public class JavaManipulationPlugin extends Plugin implements DebugOptionsListen
 
 	public static boolean DEBUG_AST_PROVIDER;
 
+	public static boolean DEBUG_REWRITE_POOL;
+
 	//The shared instance.
 	private static JavaManipulationPlugin fgDefault;
 
@@ -118,5 +120,6 @@ public class JavaManipulationPlugin extends Plugin implements DebugOptionsListen
 	@Override
 	public void optionsChanged(DebugOptions options) {
 		DEBUG_AST_PROVIDER= options.getBooleanOption("org.eclipse.jdt.core.manipulation/debug/ASTProvider", false); //$NON-NLS-1$
+		DEBUG_REWRITE_POOL= options.getBooleanOption("org.eclipse.jdt.core.manipulation/debug/RewritePool", false); //$NON-NLS-1$
 	}
 }
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.refactoring.structure;
 
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -73,6 +74,9 @@ public class CompilationUnitRewrite {
 	private boolean fBindingsRecovery= false;
 	private final WorkingCopyOwner fOwner;
 	private IDocument fRememberContent= null;
+	private CompilationUnitRewritePool fPool;
+	private boolean fIsParsedRoot= false; // the root has been parsed by this rewrite and can be parsed again
+	private SoftReference<CompilationUnit> fDiscardedRoot;
 
 
 	public CompilationUnitRewrite(ICompilationUnit cu) {
@@ -321,11 +325,43 @@ public class CompilationUnitRewrite {
 	}
 
 	public CompilationUnit getRoot() {
-		if (fRoot == null)
-			fRoot= new RefactoringASTParser(IASTSharedValues.SHARED_AST_LEVEL).parse(fCu, fOwner, fResolveBindings, fStatementsRecovery, fBindingsRecovery, null);
+		if (fRoot == null) {
+			if (fDiscardedRoot != null) {
+				fRoot= fDiscardedRoot.get();
+				fDiscardedRoot= null;
+			}
+			if (fRoot == null)
+				fRoot= new RefactoringASTParser(IASTSharedValues.SHARED_AST_LEVEL).parse(fCu, fOwner, fResolveBindings, fStatementsRecovery, fBindingsRecovery, null);
+			fIsParsedRoot= true;
+			if (fPool != null)
+				fPool.rootRetained(this, fRoot);
+		} else if (fPool != null) {
+			fPool.rootAccessed(this);
+		}
 		return fRoot;
 	}
 
+	void setPool(CompilationUnitRewritePool pool) {
+		fPool= pool;
+		if (fRoot != null && pool != null)
+			pool.rootRetained(this, fRoot);
+	}
+
+	/**
+	 * Releases the strong reference to the AST of this rewrite if nothing has been recorded on
+	 * it yet. The AST is kept softly reachable and parsed again if it has been garbage collected
+	 * when it is accessed the next time. ASTs passed by clients are never discarded.
+	 *
+	 * @return <code>true</code> if the AST has been discarded
+	 */
+	boolean discardRoot() {
+		if (fRoot == null || !fIsParsedRoot || fRewrite != null || fImportRewrite != null || fImportRemover != null)
+			return false;
+		fDiscardedRoot= new SoftReference<>(fRoot);
+		fRoot= null;
+		return true;
+	}
+
 	public AST getAST() {
 		return getRoot().getAST();
 	}
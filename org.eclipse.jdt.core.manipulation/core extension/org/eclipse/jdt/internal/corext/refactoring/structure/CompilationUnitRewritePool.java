@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.refactoring.structure;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.core.manipulation.JavaManipulationPlugin;
+
+/**
+ * Bounds the memory retained by the ASTs of the {@link CompilationUnitRewrite}s of a refactoring.
+ * <p>
+ * The pool estimates the size of each AST from the length of its source. When the estimated size
+ * of all ASTs exceeds the budget, the ASTs of the least recently used rewrites that have not
+ * recorded any changes are discarded, see {@link CompilationUnitRewrite#discardRoot()}. A discarded
+ * AST stays softly reachable, so clients that still hold nodes or bindings of it get the same AST
+ * back, and it is parsed again from the compilation unit after it has been garbage collected.
+ * </p>
+ * <p>
+ * The pool is not thread-safe, it is meant to be used by the thread that creates the changes of a
+ * refactoring. {@link #dispose()} reports the peak retained size if the
+ * <code>org.eclipse.jdt.core.manipulation/debug/RewritePool</code> option is set.
+ * </p>
+ */
+public final class CompilationUnitRewritePool {
+
+	/** A rough estimate of the memory retained by a resolved AST per character of source */
+	private static final int BYTES_PER_CHARACTER= 40;
+
+	private static final String DEBUG_PREFIX= "RewritePool > "; //$NON-NLS-1$
+
+	private final String fName;
+	private final long fBudget;
+
+	/** The estimated size of the retained ASTs by rewrite, in access order */
+	private final LinkedHashMap<CompilationUnitRewrite, Long> fRetained= new LinkedHashMap<>(16, 0.75f, true);
+	private long fRetainedSize= 0;
+	private long fPeakSize= 0;
+	private int fRetainCount= 0;
+	private int fDiscardCount= 0;
+	private boolean fDisposed= false;
+
+	/**
+	 * Creates a pool with a budget of a quarter of the maximal heap size.
+	 *
+	 * @param name the name of the refactoring, used for tracing
+	 */
+	public CompilationUnitRewritePool(String name) {
+		this(name, Runtime.getRuntime().maxMemory() / 4);
+	}
+
+	/**
+	 * Creates a pool.
+	 *
+	 * @param name the name of the refactoring, used for tracing
+	 * @param budget the estimated number of bytes the ASTs may retain
+	 */
+	public CompilationUnitRewritePool(String name, long budget) {
+		fName= name;
+		fBudget= budget;
+	}
+
+	/**
+	 * Adds a rewrite to this pool. The AST of the rewrite is accounted for as soon as it is
+	 * created.
+	 *
+	 * @param rewrite the rewrite
+	 */
+	public void add(CompilationUnitRewrite rewrite) {
+		rewrite.setPool(this);
+	}
+
+	void rootRetained(CompilationUnitRewrite rewrite, CompilationUnit root) {
+		if (fDisposed)
+			return;
+		long size= (long) root.getLength() * BYTES_PER_CHARACTER;
+		Long previous= fRetained.put(rewrite, Long.valueOf(size));
+		if (previous != null)
+			fRetainedSize-= previous.longValue();
+		fRetainedSize+= size;
+		fRetainCount++;
+		fPeakSize= Math.max(fPeakSize, fRetainedSize);
+		if (fRetainedSize > fBudget)
+			discardRoots(rewrite);
+	}
+
+	void rootAccessed(CompilationUnitRewrite rewrite) {
+		fRetained.get(rewrite); // moves the rewrite to the end of the access order
+	}
+
+	private void discardRoots(CompilationUnitRewrite current) {
+		for (Iterator<Entry<CompilationUnitRewrite, Long>> iter= fRetained.entrySet().iterator(); iter.hasNext() && fRetainedSize > fBudget;) {
+			Entry<CompilationUnitRewrite, Long> entry= iter.next();
+			CompilationUnitRewrite rewrite= entry.getKey();
+			if (rewrite != current && rewrite.discardRoot()) {
+				iter.remove();
+				fRetainedSize-= entry.getValue().longValue();
+				fDiscardCount++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the estimated number of bytes retained by the ASTs of this pool.
+	 *
+	 * @return the retained size
+	 */
+	public long getRetainedSize() {
+		return fRetainedSize;
+	}
+
+	/**
+	 * Returns the highest estimated number of bytes retained by the ASTs of this pool so far.
+	 *
+	 * @return the peak retained size
+	 */
+	public long getPeakRetainedSize() {
+		return fPeakSize;
+	}
+
+	/**
+	 * Removes all rewrites from this pool. The rewrites keep their ASTs.
+	 */
+	public void dispose() {
+		fDisposed= true;
+		if (JavaManipulationPlugin.DEBUG_REWRITE_POOL) {
+			System.out.println(DEBUG_PREFIX + fName + ": peak retained " + (fPeakSize / 1024) + " KB of " + (fBudget / 1024) + " KB, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ fRetainCount + " ASTs retained, " + fDiscardCount + " discarded"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		for (Iterator<CompilationUnitRewrite> iter= fRetained.keySet().iterator(); iter.hasNext();) {
+			iter.next().setPool(null);
+		}
+		fRetained.clear();
+		fRetainedSize= 0;
+	}
+}
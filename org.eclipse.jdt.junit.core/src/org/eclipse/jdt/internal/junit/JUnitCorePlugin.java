@@ -83,6 +83,7 @@ public class JUnitCorePlugin extends Plugin {
 	public static final String JUNIT_SRC_HOME= "JUNIT_SRC_HOME";  //$NON-NLS-1$
 
 	private static final String HISTORY_DIR_NAME= "history"; //$NON-NLS-1$
+	private static final String STATISTICS_DIR_NAME= "statistics"; //$NON-NLS-1$
 
 	private final JUnitModel fJUnitModel= new JUnitModel();
 
@@ -289,6 +290,14 @@ public class JUnitCorePlugin extends Plugin {
 		return fIsStopped;
 	}
 
+	public static File getStatisticsDirectory() throws IllegalStateException {
+		File statisticsDir= getDefault().getStateLocation().append(STATISTICS_DIR_NAME).toFile();
+		if (! statisticsDir.isDirectory()) {
+			statisticsDir.mkdir();
+		}
+		return statisticsDir;
+	}
+
 	public static File getHistoryDirectory() throws IllegalStateException {
 		File historyDir= getDefault().getStateLocation().append(HISTORY_DIR_NAME).toFile();
 		if (! historyDir.isDirectory()) {
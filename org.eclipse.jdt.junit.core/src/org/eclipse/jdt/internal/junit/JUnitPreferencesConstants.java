@@ -46,6 +46,15 @@ public class JUnitPreferencesConstants {
 
 	public static final boolean ENABLE_ASSERTIONS_DEFAULT= true;
 
+	/**
+	 * Boolean preference controlling whether per-test durations and failures are
+	 * recorded and passed to the test runner, so that tests that are likely to fail
+	 * quickly are run first.
+	 */
+	public static final String PRIORITIZE_BY_DURATION= JUnitCorePlugin.PLUGIN_ID + ".prioritize_by_duration"; //$NON-NLS-1$
+
+	public static final boolean PRIORITIZE_BY_DURATION_DEFAULT= false;
+
 	/**
 	 * List of active stack filters. A String containing a comma separated list
 	 * of fully qualified type names/patterns.
@@ -34,6 +34,7 @@ public class JunitPreferenceInitializer extends AbstractPreferenceInitializer {
 
 		prefs.putBoolean(JUnitPreferencesConstants.SHOW_ON_ERROR_ONLY, false);
 		prefs.putBoolean(JUnitPreferencesConstants.ENABLE_ASSERTIONS, JUnitPreferencesConstants.ENABLE_ASSERTIONS_DEFAULT);
+		prefs.putBoolean(JUnitPreferencesConstants.PRIORITIZE_BY_DURATION, JUnitPreferencesConstants.PRIORITIZE_BY_DURATION_DEFAULT);
 
 		List<String> defaults= JUnitPreferencesConstants.createDefaultStackFiltersList();
 		String[] filters= defaults.toArray(new String[defaults.size()]);
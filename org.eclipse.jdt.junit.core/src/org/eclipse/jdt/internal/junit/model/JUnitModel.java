@@ -249,6 +249,68 @@ public final class JUnitModel {
 		}
 	}
 
+	/**
+	 * Records per-test statistics of launched test runs when prioritization by
+	 * duration is enabled.
+	 */
+	private static final class TestStatisticsRecorder implements ITestRunSessionListener {
+
+		@Override
+		public void sessionAdded(final TestRunSession testRunSession) {
+			if (testRunSession.getLaunch() == null || !TestStatisticsStore.isEnabled())
+				return;
+
+			testRunSession.addTestSessionListener(new ITestSessionListener() {
+				@Override
+				public void sessionStarted() {
+				}
+				@Override
+				public void sessionEnded(long elapsedTime) {
+					testRunSession.removeTestSessionListener(this);
+					try {
+						TestStatisticsStore.record(testRunSession);
+					} catch (IOException e) {
+						JUnitCorePlugin.log(e);
+					}
+				}
+				@Override
+				public void sessionStopped(long elapsedTime) {
+					testRunSession.removeTestSessionListener(this);
+				}
+				@Override
+				public void sessionTerminated() {
+					testRunSession.removeTestSessionListener(this);
+				}
+				@Override
+				public void testAdded(TestElement testElement) {
+				}
+				@Override
+				public void runningBegins() {
+				}
+				@Override
+				public void testStarted(TestCaseElement testCaseElement) {
+				}
+				@Override
+				public void testEnded(TestCaseElement testCaseElement) {
+				}
+				@Override
+				public void testFailed(TestElement testElement, Status status, String trace, String expected, String actual) {
+				}
+				@Override
+				public void testReran(TestCaseElement testCaseElement, Status status, String trace, String expectedResult, String actualResult) {
+				}
+				@Override
+				public boolean acceptsSwapToDisk() {
+					return true;
+				}
+			});
+		}
+
+		@Override
+		public void sessionRemoved(TestRunSession testRunSession) {
+		}
+	}
+
 	private final ListenerList<ITestRunSessionListener> fTestRunSessionListeners= new ListenerList<>();
 	/**
 	 * Active test run sessions, youngest first.
@@ -292,6 +354,7 @@ public final class JUnitModel {
 //		}
 
 		addTestRunSessionListener(new LegacyTestRunSessionListener());
+		addTestRunSessionListener(new TestStatisticsRecorder());
 	}
 
 	/**
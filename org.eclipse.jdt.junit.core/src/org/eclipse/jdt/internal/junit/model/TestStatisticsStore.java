@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.junit.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.junit.model.ITestElement;
+
+import org.eclipse.core.runtime.Platform;
+
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.JUnitPreferencesConstants;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+
+/**
+ * Persists per-test run counts, failure counts and average durations across
+ * test runs, one file per Java project. The file format is read by
+ * <code>org.eclipse.jdt.internal.junit.runner.TestStatistics</code> in the
+ * test runner VM: one line per test, <code>runs\tfailures\tmillis\ttestName</code>.
+ */
+public final class TestStatisticsStore {
+
+	/**
+	 * Runs beyond which counts are halved, so that old results fade out.
+	 */
+	private static final long MAX_RUNS= 32;
+
+	/**
+	 * Maximum number of tests remembered per project.
+	 */
+	private static final int MAX_TESTS= 100000;
+
+	private TestStatisticsStore() {
+	}
+
+	public static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(JUnitCorePlugin.CORE_PLUGIN_ID, JUnitPreferencesConstants.PRIORITIZE_BY_DURATION,
+				JUnitPreferencesConstants.PRIORITIZE_BY_DURATION_DEFAULT, null);
+	}
+
+	/**
+	 * @param project the launched project
+	 * @return the statistics file for the project; the file may not exist yet
+	 */
+	public static File getStatisticsFile(IJavaProject project) {
+		return new File(JUnitCorePlugin.getStatisticsDirectory(), project.getElementName() + ".txt"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Merges the results of a finished test run into the statistics of its project.
+	 *
+	 * @param session the finished test run session
+	 * @throws IOException if the statistics could not be read or written
+	 */
+	public static synchronized void record(TestRunSession session) throws IOException {
+		IJavaProject project= session.getLaunchedProject();
+		if (project == null)
+			return;
+		File file= getStatisticsFile(project);
+		Map<String, long[]> statistics= file.isFile() ? read(file) : new LinkedHashMap<>();
+		if (collect(session.getTestRoot(), statistics)) {
+			write(file, statistics);
+		}
+	}
+
+	private static boolean collect(ITestElement element, Map<String, long[]> statistics) {
+		if (element instanceof TestSuiteElement) {
+			boolean changed= false;
+			for (ITestElement child : ((TestSuiteElement) element).getChildren()) {
+				changed|= collect(child, statistics);
+			}
+			return changed;
+		}
+		if (!(element instanceof TestCaseElement))
+			return false;
+
+		TestCaseElement testCase= (TestCaseElement) element;
+		Status status= testCase.getStatus();
+		double seconds= testCase.getElapsedTimeInSeconds();
+		if (!status.isDone() || status.isNotRun() || testCase.isIgnored() || testCase.isAssumptionFailure() || Double.isNaN(seconds))
+			return false;
+
+		String name= testCase.getTestName();
+		long millis= Math.round(seconds * 1000);
+		long[] entry= statistics.get(name);
+		if (entry == null) {
+			if (statistics.size() >= MAX_TESTS)
+				return false;
+			entry= new long[3];
+			statistics.put(name, entry);
+		}
+		if (entry[0] >= MAX_RUNS) {
+			entry[0]/= 2;
+			entry[1]/= 2;
+		}
+		entry[2]= (entry[2] * entry[0] + millis) / (entry[0] + 1);
+		entry[0]++;
+		if (status.isErrorOrFailure())
+			entry[1]++;
+		return true;
+	}
+
+	static Map<String, long[]> read(File file) throws IOException {
+		Map<String, long[]> statistics= new LinkedHashMap<>();
+		try (BufferedReader br= new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line= br.readLine()) != null) {
+				String[] parts= line.split("\t", 4); //$NON-NLS-1$
+				if (parts.length != 4)
+					continue;
+				try {
+					statistics.put(parts[3], new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]) });
+				} catch (NumberFormatException e) {
+					// skip malformed line
+				}
+			}
+		}
+		return statistics;
+	}
+
+	static void write(File file, Map<String, long[]> statistics) throws IOException {
+		File tmp= new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+		try (BufferedWriter bw= new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+			for (Entry<String, long[]> entry : statistics.entrySet()) {
+				long[] value= entry.getValue();
+				bw.write(value[0] + "\t" + value[1] + "\t" + value[2] + "\t" + entry.getKey()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				bw.newLine();
+			}
+		}
+		file.delete();
+		if (!tmp.renameTo(file))
+			throw new IOException("Cannot write " + file); //$NON-NLS-1$
+	}
+}
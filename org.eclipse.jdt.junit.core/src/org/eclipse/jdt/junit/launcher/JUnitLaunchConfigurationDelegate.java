@@ -71,6 +71,7 @@ import org.eclipse.jdt.internal.junit.launcher.ITestKind;
 import org.eclipse.jdt.internal.junit.launcher.JUnitLaunchConfigurationConstants;
 import org.eclipse.jdt.internal.junit.launcher.JUnitRuntimeClasspathEntry;
 import org.eclipse.jdt.internal.junit.launcher.TestKindRegistry;
+import org.eclipse.jdt.internal.junit.model.TestStatisticsStore;
 import org.eclipse.jdt.internal.junit.util.CoreTestSearchEngine;
 import org.eclipse.jdt.internal.junit.util.IJUnitStatusConstants;
 
@@ -468,6 +469,15 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 			programArguments.add(testFailureNames);
 		}
 
+		IJavaProject launchedProject= getJavaProject(configuration);
+		if (launchedProject != null && TestStatisticsStore.isEnabled()) {
+			File statisticsFile= TestStatisticsStore.getStatisticsFile(launchedProject);
+			if (statisticsFile.isFile()) {
+				programArguments.add("-testStatistics"); //$NON-NLS-1$
+				programArguments.add(statisticsFile.getAbsolutePath());
+			}
+		}
+
 		String uniqueId= configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_UNIQUE_ID, ""); //$NON-NLS-1$
 		if (!uniqueId.trim().isEmpty()) {
 			programArguments.add("-uniqueId"); //$NON-NLS-1$
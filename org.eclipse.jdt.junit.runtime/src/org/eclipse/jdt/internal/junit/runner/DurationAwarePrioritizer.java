@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.Vector;
+
+import junit.extensions.TestDecorator;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Reorders the tests of every suite by descending expected failures per unit
+ * of run time, based on {@link TestStatistics} recorded in previous runs.
+ */
+public class DurationAwarePrioritizer implements ITestPrioritizer {
+
+	private final TestStatistics fStatistics;
+
+	/**
+	 * Sums of failure probabilities (Double) and expected durations (Long) per test,
+	 * stored as Object[2].
+	 */
+	private final IdentityHashMap fEstimates= new IdentityHashMap();
+
+	public DurationAwarePrioritizer(TestStatistics statistics) {
+		fStatistics= statistics;
+	}
+
+	public Test prioritize(Test suite) {
+		estimate(suite);
+		doPrioritize(suite);
+		fEstimates.clear();
+		return suite;
+	}
+
+	private void doPrioritize(Test test) {
+		if (test instanceof TestSuite) {
+			Vector tests= (Vector) FailuresFirstPrioritizer.getField(test, "fTests"); //$NON-NLS-1$
+			if (tests == null)
+				return;
+			for (int i= 0; i < tests.size(); i++) {
+				doPrioritize((Test) tests.get(i));
+			}
+			// stable sort: tests with equal priority keep their declaration order
+			Collections.sort(tests, new Comparator() {
+				public int compare(Object o1, Object o2) {
+					double p1= getPriority((Test) o1);
+					double p2= getPriority((Test) o2);
+					return p1 > p2 ? -1 : p1 < p2 ? 1 : 0;
+				}
+			});
+		} else if (test instanceof TestDecorator) {
+			doPrioritize(((TestDecorator) test).getTest());
+		}
+	}
+
+	private double getPriority(Test test) {
+		Object[] estimate= (Object[]) fEstimates.get(test);
+		if (estimate == null)
+			return 0;
+		return TestStatistics.getPriority(((Double) estimate[0]).doubleValue(), ((Long) estimate[1]).longValue());
+	}
+
+	private Object[] estimate(Test test) {
+		double probabilities= 0;
+		long durations= 0;
+		if (test instanceof TestCase) {
+			String name= test.toString();
+			probabilities= fStatistics.getFailureProbability(name);
+			durations= fStatistics.getExpectedDuration(name);
+		} else if (test instanceof TestSuite) {
+			for (Enumeration e= ((TestSuite) test).tests(); e.hasMoreElements();) {
+				Object[] childEstimate= estimate((Test) e.nextElement());
+				probabilities+= ((Double) childEstimate[0]).doubleValue();
+				durations+= ((Long) childEstimate[1]).longValue();
+			}
+		} else if (test instanceof TestDecorator) {
+			Object[] childEstimate= estimate(((TestDecorator) test).getTest());
+			probabilities= ((Double) childEstimate[0]).doubleValue();
+			durations= ((Long) childEstimate[1]).longValue();
+		} else {
+			// unknown kind of test: assume average tests without history
+			int count= Math.max(1, test.countTestCases());
+			probabilities= count * fStatistics.getFailureProbability(test.toString());
+			durations= count * fStatistics.getExpectedDuration(test.toString());
+		}
+		Object[] estimate= new Object[] { new Double(probabilities), new Long(durations) };
+		fEstimates.put(test, estimate);
+		return estimate;
+	}
+}
@@ -130,6 +130,11 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 
 	private String[] fFailureNames;
 
+	/**
+	 * Historical test statistics used to prioritize tests, or <code>null</code>.
+	 */
+	private TestStatistics fTestStatistics;
+
 	private ITestLoader fLoader;
 
 	private MessageSender fSender;
@@ -200,6 +205,7 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * -host: the host to connect to default local host
 	 * -port: the port to connect to, mandatory argument
 	 * -keepalive: keep the process alive after a test run
+	 * -teststatistics: the name of a file containing historical test statistics
      * </pre>
      */
 	public static void main(String[] args) {
@@ -284,6 +290,17 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 				}
 				i++;
 
+			} else if (args[i].toLowerCase().equals("-teststatistics")) { //$NON-NLS-1$
+				String testStatisticsFile= args[i+1];
+				try {
+					fTestStatistics= TestStatistics.read(new File(testStatisticsFile));
+				} catch (IOException e) {
+					throw new IllegalArgumentException("Cannot read teststatistics file.");		 //$NON-NLS-1$
+				}
+				if (fDebugMode)
+					System.out.println("Test statistics: " + fTestStatistics.size()); //$NON-NLS-1$
+				i++;
+
 			} else if(args[i].toLowerCase().equals("-port")) { //$NON-NLS-1$
 				fPort= Integer.parseInt(args[i+1]);
 				i++;
@@ -763,6 +780,14 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 		runTests(fTestClassNames, fTestName, execution);
 	}
 
+	/**
+	 * @return the historical statistics to prioritize tests by, or <code>null</code>
+	 *         if tests should not be prioritized by duration
+	 */
+	public TestStatistics getTestStatistics() {
+		return fTestStatistics;
+	}
+
 	public ITestLoader getTestLoader() {
 		return fLoader;
 	}
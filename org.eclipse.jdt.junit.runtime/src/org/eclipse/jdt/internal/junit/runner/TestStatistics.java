@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+
+/**
+ * Historical run statistics of individual tests, as recorded by the IDE.
+ * <p>
+ * The statistics file contains one line per test of the form
+ * <code>runs&lt;TAB&gt;failures&lt;TAB&gt;averageMillis&lt;TAB&gt;testName</code>,
+ * where <code>testName</code> is the display name of the test as used for the
+ * <code>-testfailures</code> file.
+ * </p>
+ * <p>
+ * A test's priority is its estimated failure probability per millisecond of
+ * expected run time. Running tests in descending priority order surfaces
+ * likely failures as early as possible.
+ * </p>
+ */
+public class TestStatistics {
+
+	/**
+	 * Runs, failures and average duration in milliseconds, keyed by test name.
+	 */
+	private final HashMap fEntries= new HashMap();
+
+	private long fTotalDuration;
+
+	/**
+	 * Records statistics for a test.
+	 *
+	 * @param testName the display name of the test
+	 * @param runs number of recorded runs
+	 * @param failures number of recorded runs that failed or had an error
+	 * @param averageMillis average duration of a run in milliseconds
+	 */
+	public void put(String testName, long runs, long failures, long averageMillis) {
+		long[] old= (long[]) fEntries.put(testName, new long[] { runs, failures, averageMillis });
+		if (old != null)
+			fTotalDuration-= old[2];
+		fTotalDuration+= averageMillis;
+	}
+
+	/**
+	 * @param testName the display name of the test
+	 * @return the estimated probability that the test fails. Tests without
+	 *         history are considered as likely to fail as to pass.
+	 */
+	public double getFailureProbability(String testName) {
+		long[] entry= (long[]) fEntries.get(testName);
+		if (entry == null)
+			return 0.5d;
+		// Laplace smoothing, so that a single run does not yield 0 or 1
+		return (entry[1] + 1d) / (entry[0] + 2d);
+	}
+
+	/**
+	 * @param testName the display name of the test
+	 * @return the expected duration of the test in milliseconds (at least 1).
+	 *         Tests without history are assumed to take the average duration
+	 *         of all known tests.
+	 */
+	public long getExpectedDuration(String testName) {
+		long[] entry= (long[]) fEntries.get(testName);
+		if (entry == null)
+			return fEntries.isEmpty() ? 1 : Math.max(1, fTotalDuration / fEntries.size());
+		return Math.max(1, entry[2]);
+	}
+
+	/**
+	 * Computes the priority of a group of tests.
+	 *
+	 * @param failureProbabilitySum the sum of the failure probabilities of the tests
+	 * @param durationSum the sum of the expected durations of the tests
+	 * @return the expected number of failures per millisecond
+	 */
+	public static double getPriority(double failureProbabilitySum, long durationSum) {
+		return failureProbabilitySum / Math.max(1, durationSum);
+	}
+
+	/**
+	 * Reads statistics from a file.
+	 *
+	 * @param file the statistics file
+	 * @return the statistics
+	 * @throws IOException if the file cannot be read
+	 */
+	public static TestStatistics read(File file) throws IOException {
+		TestStatistics statistics= new TestStatistics();
+		BufferedReader br= new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8")); //$NON-NLS-1$
+		try {
+			String line;
+			while ((line= br.readLine()) != null) {
+				int first= line.indexOf('\t');
+				int second= first == -1 ? -1 : line.indexOf('\t', first + 1);
+				int third= second == -1 ? -1 : line.indexOf('\t', second + 1);
+				if (third == -1)
+					continue;
+				try {
+					long runs= Long.parseLong(line.substring(0, first));
+					long failures= Long.parseLong(line.substring(first + 1, second));
+					long millis= Long.parseLong(line.substring(second + 1, third));
+					statistics.put(line.substring(third + 1), runs, failures, millis);
+				} catch (NumberFormatException e) {
+					// skip malformed line
+				}
+			}
+		} finally {
+			br.close();
+		}
+		return statistics;
+	}
+
+	public int size() {
+		return fEntries.size();
+	}
+}
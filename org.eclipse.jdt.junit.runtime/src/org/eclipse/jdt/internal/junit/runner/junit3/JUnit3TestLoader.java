@@ -25,6 +25,7 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.eclipse.jdt.internal.junit.runner.DurationAwarePrioritizer;
 import org.eclipse.jdt.internal.junit.runner.FailuresFirstPrioritizer;
 import org.eclipse.jdt.internal.junit.runner.ITestLoader;
 import org.eclipse.jdt.internal.junit.runner.ITestPrioritizer;
@@ -32,6 +33,7 @@ import org.eclipse.jdt.internal.junit.runner.ITestReference;
 import org.eclipse.jdt.internal.junit.runner.JUnitMessages;
 import org.eclipse.jdt.internal.junit.runner.NullPrioritizer;
 import org.eclipse.jdt.internal.junit.runner.RemoteTestRunner;
+import org.eclipse.jdt.internal.junit.runner.TestStatistics;
 
 public class JUnit3TestLoader implements ITestLoader {
 	private static final String SUITE_METHODNAME= "suite"; //$NON-NLS-1$
@@ -49,9 +51,14 @@ public class JUnit3TestLoader implements ITestLoader {
 		else
 			prioritizer= new NullPrioritizer();
 
+		TestStatistics statistics= listener != null ? listener.getTestStatistics() : null;
+		ITestPrioritizer durationPrioritizer= statistics != null ? (ITestPrioritizer) new DurationAwarePrioritizer(statistics) : new NullPrioritizer();
+
 		for (int i= 0; i < suites.length; i++) {
 			Class testClassName= testClasses[i];
 			Test test= getTest(testClassName, testName, listener);
+			// previous failures are moved to the front after ordering by duration
+			durationPrioritizer.prioritize(test);
 			prioritizer.prioritize(test);
 			suites[i]= new JUnit3TestReference(test);
 		}
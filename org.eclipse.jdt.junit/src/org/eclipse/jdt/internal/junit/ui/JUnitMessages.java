@@ -223,6 +223,8 @@ public final class JUnitMessages extends NLS {
 
 	public static String JUnitPreferencePage_enableassertionscheckbox_label;
 
+	public static String JUnitPreferencePage_prioritizeByDuration_label;
+
 	public static String JUnitPreferencePage_showInAllViews_label;
 
 	public static String JUnitQuickFixProcessor_add_assert_description;
@@ -42,6 +42,7 @@ import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
 
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.DefaultScope;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 
@@ -104,6 +105,7 @@ public class JUnitPreferencePage extends PreferencePage implements IWorkbenchPre
 
 	private Button fEnableAssertionsCheckBox;
 	private Button fShowInAllViewsCheckBox;
+	private Button fPrioritizeByDurationCheckBox;
 
 	// Step filter widgets
 	private Label fFilterViewerLabel;
@@ -352,6 +354,7 @@ public class JUnitPreferencePage extends PreferencePage implements IWorkbenchPre
 
 		createEnableAssertionsCheckbox(composite);
 		createShowInAllViewsCheckbox(composite);
+		createPrioritizeByDurationCheckbox(composite);
 		createStackFilterPreferences(composite);
 		Dialog.applyDialogFont(composite);
 		return composite;
@@ -375,6 +378,16 @@ public class JUnitPreferencePage extends PreferencePage implements IWorkbenchPre
 		setShowInAllViewsCheckBoxSelection(JUnitUIPreferencesConstants.getShowInAllViews());
 	}
 	
+	private void createPrioritizeByDurationCheckbox(Composite container) {
+		fPrioritizeByDurationCheckBox= new Button(container, SWT.CHECK | SWT.WRAP);
+		fPrioritizeByDurationCheckBox.setText(JUnitMessages.JUnitPreferencePage_prioritizeByDuration_label);
+		GridData gd= getButtonGridData(fPrioritizeByDurationCheckBox);
+		fPrioritizeByDurationCheckBox.setLayoutData(gd);
+		SWTUtil.setButtonDimensionHint(fPrioritizeByDurationCheckBox);
+		fPrioritizeByDurationCheckBox.setSelection(Platform.getPreferencesService().getBoolean(JUnitCorePlugin.CORE_PLUGIN_ID,
+				JUnitPreferencesConstants.PRIORITIZE_BY_DURATION, JUnitPreferencesConstants.PRIORITIZE_BY_DURATION_DEFAULT, null));
+	}
+
 	/**
 	 * Programatic access to enable assertions checkbox
 	 * @return boolean indicating check box selected or not
@@ -770,6 +783,7 @@ public class JUnitPreferencePage extends PreferencePage implements IWorkbenchPre
 	public boolean performOk() {
 		AssertionVMArg.setEnableAssertionsPreference(getAssertionCheckBoxSelection());
 		JUnitUIPreferencesConstants.setShowInAllViews(getShowInAllViewsCheckBoxSelection());
+		InstanceScope.INSTANCE.getNode(JUnitCorePlugin.CORE_PLUGIN_ID).putBoolean(JUnitPreferencesConstants.PRIORITIZE_BY_DURATION, fPrioritizeByDurationCheckBox.getSelection());
 		fStackFilterContentProvider.saveFilters();
 		return true;
 	}
@@ -785,6 +799,8 @@ public class JUnitPreferencePage extends PreferencePage implements IWorkbenchPre
 				.getBoolean(JUnitPreferencesConstants.ENABLE_ASSERTIONS, JUnitPreferencesConstants.ENABLE_ASSERTIONS_DEFAULT));
 		fShowInAllViewsCheckBox.setSelection(DefaultScope.INSTANCE.getNode(JUnitPlugin.PLUGIN_ID)
 				.getBoolean(JUnitUIPreferencesConstants.SHOW_IN_ALL_VIEWS, JUnitUIPreferencesConstants.SHOW_IN_ALL_VIEWS_DEFAULT));
+		fPrioritizeByDurationCheckBox.setSelection(DefaultScope.INSTANCE.getNode(JUnitCorePlugin.CORE_PLUGIN_ID)
+				.getBoolean(JUnitPreferencesConstants.PRIORITIZE_BY_DURATION, JUnitPreferencesConstants.PRIORITIZE_BY_DURATION_DEFAULT));
 		fStackFilterContentProvider.setDefaults();
 	}
 
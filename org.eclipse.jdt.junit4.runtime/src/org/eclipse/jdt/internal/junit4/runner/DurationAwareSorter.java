@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.junit4.runner;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.runner.Description;
+
+import org.eclipse.jdt.internal.junit.runner.TestStatistics;
+
+/**
+ * Comparator for descriptions to sort by descending expected failures per unit
+ * of run time. The estimate of a suite is derived from the sums of the failure
+ * probabilities and expected durations of its transitive children.
+ */
+public class DurationAwareSorter implements Comparator<Description> {
+
+	private final TestStatistics fStatistics;
+
+	private final Map<Description, Double> fPriorities= new HashMap<Description, Double>();
+
+	/**
+	 * Creates a sorter.
+	 *
+	 * @param statistics historical statistics of the tests, keyed by the description's display string
+	 */
+	public DurationAwareSorter(TestStatistics statistics) {
+		fStatistics= statistics;
+	}
+
+	/**
+	 * Compares two descriptions based on their priorities.
+	 * @param d1 the first Description to compare with
+	 * @param d2 the second Description to compare with
+	 * @return -1 if d1 has the higher priority, 1 if d2 has the higher priority, 0 otherwise
+	 */
+	public int compare(Description d1, Description d2) {
+		double p1= getPriority(d1);
+		double p2= getPriority(d2);
+		return p1 > p2 ? -1 : p1 < p2 ? 1 : 0;
+	}
+
+	private double getPriority(Description d) {
+		Double priority= fPriorities.get(d);
+		if (priority == null) {
+			double[] estimate= new double[2];
+			estimate(d, estimate);
+			priority= Double.valueOf(TestStatistics.getPriority(estimate[0], (long) estimate[1]));
+			fPriorities.put(d, priority);
+		}
+		return priority.doubleValue();
+	}
+
+	private void estimate(Description d, double[] estimate) {
+		if (d.isTest()) {
+			String name= d.getDisplayName();
+			estimate[0]+= fStatistics.getFailureProbability(name);
+			estimate[1]+= fStatistics.getExpectedDuration(name);
+		} else {
+			for (Description child : d.getChildren()) {
+				estimate(child, estimate);
+			}
+		}
+	}
+}
@@ -28,6 +28,7 @@ import org.junit.runner.Runner;
 import org.eclipse.jdt.internal.junit.runner.ITestLoader;
 import org.eclipse.jdt.internal.junit.runner.ITestReference;
 import org.eclipse.jdt.internal.junit.runner.RemoteTestRunner;
+import org.eclipse.jdt.internal.junit.runner.TestStatistics;
 import org.eclipse.jdt.internal.junit.runner.junit3.JUnit3TestLoader;
 import org.eclipse.jdt.internal.junit.runner.junit3.JUnit3TestReference;
 
@@ -70,23 +71,24 @@ public class JUnit4TestLoader implements ITestLoader {
 			Test test= jUnit3TestLoader.getTest(clazz, testName, listener);
 			return new JUnit3TestReference(test);
 		}
+		TestStatistics statistics= listener != null ? listener.getTestStatistics() : null;
 		if (testName != null) {
-			return createFilteredTest(clazz, testName, failureNames);
+			return createFilteredTest(clazz, testName, failureNames, statistics);
 		}
-		return createUnfilteredTest(clazz, failureNames);
+		return createUnfilteredTest(clazz, failureNames, statistics);
 	}
 
-	private ITestReference createFilteredTest(Class<?> clazz, String testName, String[] failureNames) {
+	private ITestReference createFilteredTest(Class<?> clazz, String testName, String[] failureNames, TestStatistics statistics) {
 		DescriptionMatcher matcher= DescriptionMatcher.create(clazz, testName);
 		SubForestFilter filter= new SubForestFilter(matcher);
-		Request request= sortByFailures(Request.classWithoutSuiteMethod(clazz).filterWith(filter), failureNames);
+		Request request= sortByFailures(sortByStatistics(Request.classWithoutSuiteMethod(clazz).filterWith(filter), statistics), failureNames);
 		Runner runner= request.getRunner();
 		Description description= getRootDescription(runner, matcher);
 		return new JUnit4TestReference(runner, description);
 	}
 
-	private ITestReference createUnfilteredTest(Class<?> clazz, String[] failureNames) {
-		Request request= sortByFailures(Request.aClass(clazz), failureNames);
+	private ITestReference createUnfilteredTest(Class<?> clazz, String[] failureNames, TestStatistics statistics) {
+		Request request= sortByFailures(sortByStatistics(Request.aClass(clazz), statistics), failureNames);
 		Runner runner= request.getRunner();
 		Description description= runner.getDescription();
 		return new JUnit4TestReference(runner, description);
@@ -99,6 +101,17 @@ public class JUnit4TestLoader implements ITestLoader {
 		return request;
 	}
 
+	/*
+	 * Sorting is stable, so applying this before sortByFailures(..) keeps the
+	 * duration-aware order among failed and among passed tests.
+	 */
+	private Request sortByStatistics(Request request, TestStatistics statistics) {
+		if (statistics != null) {
+			return request.sortWith(new DurationAwareSorter(statistics));
+		}
+		return request;
+	}
+
 	private boolean isJUnit3SetUpTest(Class<?> clazz, String testName) {
 		if (!Test.class.isAssignableFrom(clazz))
 			return false;
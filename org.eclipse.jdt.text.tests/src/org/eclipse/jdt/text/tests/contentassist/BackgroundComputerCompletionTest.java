@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.contentassist.ContentAssistant;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+
+import org.eclipse.jdt.ui.text.IJavaPartitions;
+import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
+import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
+
+import org.eclipse.jdt.internal.ui.javaeditor.EditorUtility;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.java.ContentAssistProcessor;
+import org.eclipse.jdt.internal.ui.text.java.JavaCompletionProcessor;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests computers that are contributed with <code>runsInBackground="true"</code>, see
+ * {@link BackgroundProposalComputer}.
+ */
+public class BackgroundComputerCompletionTest extends AbstractCompletionTest {
+
+	private static final Class<BackgroundComputerCompletionTest> THIS= BackgroundComputerCompletionTest.class;
+
+	private JavaEditor fEditor;
+	private ICompilationUnit fCU;
+	private int fOffset;
+
+	public static Test setUpTest(Test test) {
+		return new CompletionTestSetup(test);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(THIS, suiteName(THIS)));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		BackgroundProposalComputer.disable();
+		if (fEditor != null) {
+			fEditor.close(false);
+			fEditor= null;
+		}
+		super.tearDown();
+	}
+
+	private ICompletionProposal[] computeProposals() throws Exception {
+		String contents= "public class " + getName() + " {\n" +
+				"	void m() {\n" +
+				"		/*COMPLETE_HERE*/\n" +
+				"	}\n" +
+				"}\n";
+		fCU= CompletionTestSetup.getAnonymousTestPackage().createCompilationUnit(getName() + ".java", contents, true, new NullProgressMonitor());
+		fEditor= (JavaEditor) EditorUtility.openInEditor(fCU);
+		fOffset= contents.indexOf("/*COMPLETE_HERE*/");
+		fEditor.getViewer().setSelectedRange(fOffset, 0);
+
+		ContentAssistant assistant= new ContentAssistant();
+		assistant.setDocumentPartitioning(IJavaPartitions.JAVA_PARTITIONING);
+		JavaCompletionProcessor processor= new JavaCompletionProcessor(fEditor, assistant, IDocument.DEFAULT_CONTENT_TYPE);
+		Accessor accessor= new Accessor(processor, ContentAssistProcessor.class);
+		accessor.invoke("setCategoryIteration", new Object[0]);
+		accessor.set("fRepetition", 0);
+		return processor.computeCompletionProposals(fEditor.getViewer(), fOffset);
+	}
+
+	private static boolean contains(ICompletionProposal[] proposals, String displayString) {
+		for (int i= 0; i < proposals.length; i++) {
+			if (displayString.equals(proposals[i].getDisplayString()))
+				return true;
+		}
+		return false;
+	}
+
+	public void testComputerGetsCopyOfContext() throws Exception {
+		BackgroundProposalComputer.enable(0);
+		ICompletionProposal[] proposals= computeProposals();
+
+		assertTrue(contains(proposals, BackgroundProposalComputer.PROPOSAL));
+		assertNotNull(BackgroundProposalComputer.fgThread);
+		assertNotSame(Thread.currentThread(), BackgroundProposalComputer.fgThread);
+
+		ContentAssistInvocationContext context= BackgroundProposalComputer.fgContext;
+		assertTrue(context instanceof JavaContentAssistInvocationContext);
+		assertNull(context.getViewer());
+		assertEquals(fOffset, context.getInvocationOffset());
+		assertNotSame(fEditor.getViewer().getDocument(), context.getDocument());
+		assertEquals(fEditor.getViewer().getDocument().get(), context.getDocument().get());
+		assertEquals(fCU, ((JavaContentAssistInvocationContext) context).getCompilationUnit());
+		assertFalse(BackgroundProposalComputer.fgCanceled);
+	}
+
+	public void testTimedOutComputerIsCanceled() throws Exception {
+		BackgroundProposalComputer.enable(TimeUnit.MINUTES.toMillis(1));
+		ICompletionProposal[] proposals= computeProposals();
+
+		assertFalse(contains(proposals, BackgroundProposalComputer.PROPOSAL));
+		assertTrue(BackgroundProposalComputer.fgFinished.await(10, TimeUnit.SECONDS));
+		assertTrue(BackgroundProposalComputer.fgCanceled);
+	}
+}
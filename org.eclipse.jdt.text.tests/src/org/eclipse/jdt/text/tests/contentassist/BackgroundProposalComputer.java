@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.IContextInformation;
+
+import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposalComputer;
+
+import org.eclipse.jdt.internal.ui.text.java.JavaCompletionProposal;
+
+/**
+ * A proposal computer that runs in the background and records how it was invoked, see
+ * {@link BackgroundComputerCompletionTest}. It does nothing unless it has been enabled.
+ */
+public class BackgroundProposalComputer implements IJavaCompletionProposalComputer {
+
+	public static final String PROPOSAL= "backgroundProposal";
+
+	static volatile boolean fgEnabled= false;
+	static volatile long fgBlockMillis;
+	static volatile Thread fgThread;
+	static volatile ContentAssistInvocationContext fgContext;
+	static volatile boolean fgCanceled;
+	static volatile CountDownLatch fgFinished;
+
+	static void enable(long blockMillis) {
+		fgBlockMillis= blockMillis;
+		fgThread= null;
+		fgContext= null;
+		fgCanceled= false;
+		fgFinished= new CountDownLatch(1);
+		fgEnabled= true;
+	}
+
+	static void disable() {
+		fgEnabled= false;
+	}
+
+	@Override
+	public void sessionStarted() {
+		// not used
+	}
+
+	@Override
+	public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
+		if (!fgEnabled)
+			return Collections.emptyList();
+		try {
+			fgThread= Thread.currentThread();
+			fgContext= context;
+			long end= System.currentTimeMillis() + fgBlockMillis;
+			while (System.currentTimeMillis() < end) {
+				if (monitor.isCanceled()) {
+					fgCanceled= true;
+					break;
+				}
+				Thread.sleep(10);
+			}
+		} catch (InterruptedException e) {
+			fgCanceled= true;
+		} finally {
+			fgFinished.countDown();
+		}
+		int offset= context.getInvocationOffset();
+		return Collections.<ICompletionProposal> singletonList(new JavaCompletionProposal(PROPOSAL, offset, 0, null, PROPOSAL, 0));
+	}
+
+	@Override
+	public List<IContextInformation> computeContextInformation(ContentAssistInvocationContext context, IProgressMonitor monitor) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public String getErrorMessage() {
+		return null;
+	}
+
+	@Override
+	public void sessionEnded() {
+		// not used
+	}
+}
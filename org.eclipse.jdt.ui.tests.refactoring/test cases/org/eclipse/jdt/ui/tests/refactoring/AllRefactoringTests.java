@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -102,6 +102,7 @@ public class AllRefactoringTests {
 
 		//--binaries
 		suite.addTest(BinaryReferencesTests.suite());
+		suite.addTest(StubCreationOperationTests.suite());
 
 		// validate edit
 //		suite.addTest(ValidateEditTests.suite());
@@ -109,6 +110,7 @@ public class AllRefactoringTests {
 		//--helpers
 		suite.addTest(RenamingNameSuggestorTests.suite());
 		suite.addTest(DelegateCreatorTests.suite());
+		suite.addTest(CompilationUnitRewritePoolTests.suite());
 		return suite;
 	}
 }
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import org.eclipse.jdt.internal.corext.refactoring.structure.CompilationUnitRewrite;
+import org.eclipse.jdt.internal.corext.refactoring.structure.CompilationUnitRewritePool;
+import org.eclipse.jdt.internal.corext.refactoring.util.RefactoringASTParser;
+
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+
+/**
+ * Tests {@link CompilationUnitRewritePool} with a budget that is exceeded by every AST.
+ */
+public class CompilationUnitRewritePoolTests extends RefactoringTest {
+
+	private static final Class<CompilationUnitRewritePoolTests> clazz= CompilationUnitRewritePoolTests.class;
+
+	private CompilationUnitRewritePool fPool;
+
+	public CompilationUnitRewritePoolTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new RefactoringTestSetup(new TestSuite(clazz));
+	}
+
+	public static Test setUpTest(Test test) {
+		return new RefactoringTestSetup(test);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fPool= new CompilationUnitRewritePool("t", 1);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fPool.dispose();
+		super.tearDown();
+	}
+
+	private CompilationUnitRewrite createRewrite(String name) throws Exception {
+		ICompilationUnit cu= createCU(getPackageP(), name + ".java", "package p;\npublic class " + name + " {\n    void foo() {}\n}\n");
+		CompilationUnitRewrite rewrite= new CompilationUnitRewrite(cu);
+		fPool.add(rewrite);
+		return rewrite;
+	}
+
+	public void testUntouchedASTsAreDiscarded() throws Exception {
+		CompilationUnitRewrite rewrite1= createRewrite("A");
+		CompilationUnitRewrite rewrite2= createRewrite("B");
+
+		// a node keeps the AST reachable
+		TypeDeclaration type= (TypeDeclaration) rewrite1.getRoot().types().get(0);
+		long size1= fPool.getRetainedSize();
+		assertTrue(size1 > 0);
+
+		rewrite2.getRoot();
+		long size2= fPool.getRetainedSize();
+		assertEquals(size1 + size2, fPool.getPeakRetainedSize());
+
+		// the discarded AST is handed out again while it is reachable
+		assertSame(type.getRoot(), rewrite1.getRoot());
+		assertEquals(size1, fPool.getRetainedSize());
+	}
+
+	public void testRewritesWithChangesAreKept() throws Exception {
+		CompilationUnitRewrite rewrite1= createRewrite("A");
+		CompilationUnitRewrite rewrite2= createRewrite("B");
+		CompilationUnitRewrite rewrite3= createRewrite("C");
+
+		rewrite1.getASTRewrite();
+		rewrite2.getImportRewrite();
+		CompilationUnit root1= rewrite1.getRoot();
+		CompilationUnit root2= rewrite2.getRoot();
+		rewrite3.getRoot();
+
+		assertEquals(fPool.getPeakRetainedSize(), fPool.getRetainedSize());
+		assertSame(root1, rewrite1.getRoot());
+		assertSame(root2, rewrite2.getRoot());
+	}
+
+	public void testClientASTsAreKept() throws Exception {
+		ICompilationUnit cu= createCU(getPackageP(), "A.java", "package p;\npublic class A {\n}\n");
+		CompilationUnit root= new RefactoringASTParser(IASTSharedValues.SHARED_AST_LEVEL).parse(cu, true);
+		CompilationUnitRewrite rewrite1= new CompilationUnitRewrite(cu, root);
+		fPool.add(rewrite1);
+		long size1= fPool.getRetainedSize();
+		assertTrue(size1 > 0);
+
+		CompilationUnitRewrite rewrite2= createRewrite("B");
+		rewrite2.getRoot();
+		assertEquals(fPool.getPeakRetainedSize(), fPool.getRetainedSize());
+		assertSame(root, rewrite1.getRoot());
+
+		// the untouched AST is discarded, the client AST is kept
+		createRewrite("C").getRoot();
+		assertTrue(fPool.getRetainedSize() < fPool.getPeakRetainedSize());
+		assertSame(root, rewrite1.getRoot());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,8 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -41,6 +43,7 @@ import org.eclipse.jdt.core.ILocalVariable;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
@@ -1710,4 +1713,80 @@ public class RenameTypeTests extends RefactoringTest {
 		// Test references in annotations and type parameters
 		helper3("Try", "Bla", true, false, true);
 	}
+
+	private static ICompilationUnit[] createLocalUsers(IPackageFragment pack, String prefix, int count) throws Exception {
+		ICompilationUnit[] cus= new ICompilationUnit[count];
+		for (int i= 0; i < count; i++) {
+			String name= prefix + i;
+			String str= "package " + pack.getElementName() + ";\n" +
+					"import p.SomeClass;\n" +
+					"public class " + name + " {\n" +
+					"    void m() {\n" +
+					"        SomeClass someClass= new SomeClass();\n" +
+					"        someClass.toString();\n" +
+					"    }\n" +
+					"}\n";
+			cus[i]= createCU(pack, name + ".java", str);
+		}
+		return cus;
+	}
+
+	private void helperLocalsInSeveralProjects(boolean conflict) throws Exception {
+		// enough compilation units for several batches of ASTs per project
+		final int count= 45;
+		IJavaProject otherProject= JavaProjectHelper.createJavaProject("RenameTypeOther", "bin");
+		try {
+			assertNotNull(JavaProjectHelper.addRTJar(otherProject));
+			JavaProjectHelper.addRequiredProject(otherProject, getRoot().getJavaProject());
+			IPackageFragmentRoot otherRoot= JavaProjectHelper.addSourceContainer(otherProject, "src");
+			IPackageFragment otherPack= otherRoot.createPackageFragment("q", true, null);
+
+			IType someClass= getType(createCU(getPackageP(), "SomeClass.java", "package p;\npublic class SomeClass {\n}\n"), "SomeClass");
+			ICompilationUnit[] cus= createLocalUsers(getPackageP(), "User", count);
+			ICompilationUnit[] otherCus= createLocalUsers(otherPack, "OtherUser", count);
+			if (conflict) {
+				// the renamed local clashes with an existing one in the last batch of the other project
+				String str= "package q;\n" +
+						"import p.SomeClass;\n" +
+						"public class Z {\n" +
+						"    void m() {\n" +
+						"        SomeClass someClass= new SomeClass();\n" +
+						"        int someNewClass= 0;\n" +
+						"        someClass.toString();\n" +
+						"    }\n" +
+						"}\n";
+				createCU(otherPack, "Z.java", str);
+			}
+
+			RenameJavaElementDescriptor descriptor= createRefactoringDescriptor(someClass, "SomeNewClass");
+			setTheOptions(descriptor, true, false, true, null, RenamingNameSuggestor.STRATEGY_EMBEDDED);
+			RefactoringStatus status= performRefactoring(descriptor);
+			if (conflict) {
+				assertNotNull("was supposed to fail", status);
+				assertTrue(status.hasError());
+				return;
+			}
+			assertNull("was supposed to pass", status);
+
+			String expected= "SomeNewClass someNewClass= new SomeNewClass();";
+			for (int i= 0; i < count; i++) {
+				String source= getPackageP().getCompilationUnit(cus[i].getElementName()).getSource();
+				assertTrue(source, source.contains(expected));
+				source= otherPack.getCompilationUnit(otherCus[i].getElementName()).getSource();
+				assertTrue(source, source.contains(expected));
+			}
+		} finally {
+			JavaProjectHelper.delete(otherProject);
+		}
+	}
+
+	public void testSimilarElements35() throws Exception {
+		// Test local variables in several projects, analyzed in several batches
+		helperLocalsInSeveralProjects(false);
+	}
+
+	public void testSimilarElements36() throws Exception {
+		// Test local variable problem reporting from a later batch
+		helperLocalsInSeveralProjects(true);
+	}
 }
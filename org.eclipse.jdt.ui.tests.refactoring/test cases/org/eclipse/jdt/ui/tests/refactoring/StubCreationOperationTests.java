@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.filesystem.EFS;
+
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.corext.refactoring.binary.StubCreationOperation;
+
+/**
+ * Tests the stubs created by {@link StubCreationOperation} for a class folder.
+ */
+public class StubCreationOperationTests extends TestCase {
+
+	private IJavaProject fSource;
+	private IJavaProject fLibrary;
+	private IPackageFragment fPackage;
+	private File fOutput;
+
+	public StubCreationOperationTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(StubCreationOperationTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fSource= JavaProjectHelper.createJavaProject("StubSource", "bin");
+		JavaProjectHelper.addRTJar(fSource);
+		JavaProjectHelper.addSourceContainer(fSource, "src");
+
+		fLibrary= JavaProjectHelper.createJavaProject("StubLibrary", "bin");
+		JavaProjectHelper.addRTJar(fLibrary);
+		IFolder classes= fSource.getProject().getFolder("bin");
+		JavaProjectHelper.addToClasspath(fLibrary, JavaCore.newLibraryEntry(classes.getFullPath(), null, null));
+		fPackage= fLibrary.getPackageFragmentRoot(classes).getPackageFragment("p");
+
+		fOutput= Files.createTempDirectory("stubs").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		EFS.getStore(fOutput.toURI()).delete(EFS.NONE, null);
+		JavaProjectHelper.delete(fLibrary);
+		JavaProjectHelper.delete(fSource);
+	}
+
+	private void compileOuter(String innerMembers) throws Exception {
+		String str= "package p;\n" +
+				"public class Outer {\n" +
+				"    public void outer() {}\n" +
+				"    public static class Inner {\n" +
+				innerMembers +
+				"    }\n" +
+				"}\n";
+		fSource.getPackageFragmentRoot(fSource.getProject().getFolder("src")).createPackageFragment("p", true, null).createCompilationUnit("Outer.java", str, true, null);
+		fSource.getProject().build(IncrementalProjectBuilder.FULL_BUILD, null);
+	}
+
+	private String createOuterStub() throws Exception {
+		new StubCreationOperation(fOutput.toURI(), Collections.singletonList(fPackage)).run(null);
+		return new String(Files.readAllBytes(new File(fOutput, "p/Outer.java").toPath()));
+	}
+
+	public void testStubContainsMemberTypes() throws Exception {
+		compileOuter("        public void first() {}\n");
+		String stub= createOuterStub();
+		assertTrue(stub, stub.contains("outer("));
+		assertTrue(stub, stub.contains("Inner"));
+		assertTrue(stub, stub.contains("first("));
+	}
+
+	public void testChangedMemberTypeIsNotTakenFromCache() throws Exception {
+		compileOuter("        public void first() {}\n");
+		String stub= createOuterStub();
+		assertTrue(stub, stub.contains("first("));
+		assertFalse(stub, stub.contains("second("));
+
+		// only the class file of the member type changes
+		compileOuter("        public void first() {}\n        public void second() {}\n");
+		stub= createOuterStub();
+		assertTrue(stub, stub.contains("first("));
+		assertTrue(stub, stub.contains("second("));
+	}
+
+	public void testChangedSuperclassIsNotTakenFromCache() throws Exception {
+		// the superclass is compiled to a separate folder, so the library only sees the subclass
+		IPackageFragmentRoot base= JavaProjectHelper.addSourceContainer(fSource, "base", new IPath[0], new IPath[0], "basebin");
+		base.createPackageFragment("q", true, null).createCompilationUnit("Base.java", "package q;\npublic class Base {\n    public Base() {}\n}\n", true, null);
+		String str= "package p;\n" +
+				"public class Sub extends q.Base {\n" +
+				"    public Sub() {}\n" +
+				"}\n";
+		fSource.getPackageFragmentRoot(fSource.getProject().getFolder("src")).createPackageFragment("p", true, null).createCompilationUnit("Sub.java", str, true, null);
+		fSource.getProject().build(IncrementalProjectBuilder.FULL_BUILD, null);
+
+		// the superclass found in the library project changes, the class file of the subclass does not
+		IPackageFragment superPackage= JavaProjectHelper.addSourceContainer(fLibrary, "src").createPackageFragment("q", true, null);
+		superPackage.createCompilationUnit("Base.java", "package q;\npublic class Base {\n    public Base() {}\n}\n", true, null);
+		new StubCreationOperation(fOutput.toURI(), Collections.singletonList(fPackage)).run(null);
+		String stub= new String(Files.readAllBytes(new File(fOutput, "p/Sub.java").toPath()));
+		assertTrue(stub, stub.contains("super()"));
+
+		superPackage.createCompilationUnit("Base.java", "package q;\npublic class Base {\n    public Base(String name) {}\n}\n", true, null);
+		new StubCreationOperation(fOutput.toURI(), Collections.singletonList(fPackage)).run(null);
+		stub= new String(Files.readAllBytes(new File(fOutput, "p/Sub.java").toPath()));
+		assertFalse(stub, stub.contains("super()"));
+		assertTrue(stub, stub.contains("super("));
+	}
+
+	public void testStubIsWrittenWithCharsetOfContainer() throws Exception {
+		compileOuter("        public void first() {}\n");
+		IFolder folder= fLibrary.getProject().getFolder("stubs");
+		folder.create(true, true, null);
+		folder.setDefaultCharset("UTF-16", null);
+		new StubCreationOperation(folder.getLocationURI(), Collections.singletonList(fPackage)).run(null);
+		folder.refreshLocal(IResource.DEPTH_INFINITE, null);
+		IFile file= folder.getFile("p/Outer.java");
+		assertEquals("UTF-16", file.getCharset());
+		String stub= new String(Files.readAllBytes(file.getLocation().toFile().toPath()), StandardCharsets.UTF_16);
+		assertTrue(stub, stub.contains("outer("));
+	}
+}
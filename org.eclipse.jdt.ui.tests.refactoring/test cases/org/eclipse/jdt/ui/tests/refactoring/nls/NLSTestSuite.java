@@ -35,6 +35,7 @@ public class NLSTestSuite {
 		suite.addTest(NLSHintTest.suite());
         suite.addTest(NLSHintHelperTest.suite());
         suite.addTest(PropertyFileDocumentModellTest.suite());
+        suite.addTest(PropertyFileIndexTest.suite());
         suite.addTest(SimpleLineReaderTest.suite());
         suite.addTest(NLSHolderTest.suite());
         suite.addTest(NLSSubstitutionTest.suite());
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring.nls;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jface.text.Region;
+
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileIndex;
+
+import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class PropertyFileIndexTest extends TestCase {
+
+	private IJavaProject fJProject;
+	private IFile fFile;
+
+	public static Test suite() {
+		return new ProjectTestSetup(new TestSuite(PropertyFileIndexTest.class));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= ProjectTestSetup.getProject();
+		fFile= fJProject.getProject().getFile("messages" + System.currentTimeMillis() + ".properties");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (fFile.exists())
+			fFile.delete(true, null);
+	}
+
+	private void setContents(String contents) throws Exception {
+		ByteArrayInputStream stream= new ByteArrayInputStream(contents.getBytes("ISO-8859-1"));
+		if (fFile.exists())
+			fFile.setContents(stream, true, false, null);
+		else
+			fFile.create(stream, true, null);
+	}
+
+	public void testKeys() throws Exception {
+		String contents= "# comment\n" +
+				"first=1\n" +
+				"  second : 2\n" +
+				"multi= a\\\n" +
+				"  notAKey= b\n" +
+				"with\\ space= 3\n" +
+				"first= 4\n";
+		setContents(contents);
+
+		PropertyFileIndex index= PropertyFileIndex.get(fFile);
+		assertNotNull(index);
+		assertEquals(Arrays.asList("first", "second", "multi", "with space"), Arrays.asList(index.getKeys().toArray()));
+		assertEquals(Arrays.asList("first"), Arrays.asList(index.getDuplicateKeys().toArray()));
+		assertEquals("4", index.getProperty("first"));
+		assertTrue(index.containsKey("with space"));
+		assertFalse(index.containsKey("notAKey"));
+
+		assertEquals(new Region(contents.indexOf("first"), 5), index.getKeyRegion("first"));
+		assertEquals(new Region(contents.indexOf("second"), 6), index.getKeyRegion("second"));
+		assertEquals(new Region(contents.indexOf("with\\ space"), 11), index.getKeyRegion("with space"));
+		assertNull(index.getKeyRegion("notAKey"));
+	}
+
+	public void testReuseUntilModified() throws Exception {
+		setContents("key=value\n");
+		PropertyFileIndex index= PropertyFileIndex.get(fFile);
+		assertSame(index, PropertyFileIndex.get(fFile));
+
+		setContents("key=other\n");
+		PropertyFileIndex modified= PropertyFileIndex.get(fFile);
+		assertNotSame(index, modified);
+		assertEquals("other", modified.getProperty("key"));
+	}
+
+	public void testPropertiesAreCopied() throws Exception {
+		setContents("key=value\n");
+		Properties properties= PropertyFileIndex.get(fFile).getProperties();
+		properties.setProperty("key", "changed");
+		assertEquals("value", PropertyFileIndex.get(fFile).getProperty("key"));
+	}
+}
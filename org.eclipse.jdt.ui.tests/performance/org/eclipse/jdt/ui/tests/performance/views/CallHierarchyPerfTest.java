@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.test.OrderedTestSuite;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchyVisitor;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+public class CallHierarchyPerfTest extends JdtPerformanceTestCase {
+
+	/** The number of levels of the callee tree below the root */
+	private static final int LEVELS= 5;
+	private static final int CLASSES_PER_LEVEL= 2;
+	private static final int METHODS_PER_CLASS= 2;
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static IJavaProject fJProject1;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		@Override
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
+			IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject1, SRC_CONTAINER);
+			IPackageFragment pack= root.createPackageFragment("callees", true, null);
+			for (int level= 0; level <= LEVELS; level++) {
+				for (int c= 0; c < CLASSES_PER_LEVEL; c++) {
+					String name= getClassName(level, c);
+					pack.createCompilationUnit(name + ".java", createSource(name, level), true, null);
+				}
+			}
+		}
+
+		private static String createSource(String name, int level) {
+			StringBuffer buf= new StringBuffer();
+			buf.append("package callees;\n");
+			buf.append("public class ").append(name).append(" {\n");
+			for (int m= 0; m < METHODS_PER_CLASS; m++) {
+				buf.append("    public static void m").append(m).append("() {\n");
+				if (level < LEVELS) {
+					for (int c= 0; c < CLASSES_PER_LEVEL; c++) {
+						for (int n= 0; n < METHODS_PER_CLASS; n++)
+							buf.append("        ").append(getClassName(level + 1, c)).append(".m").append(n).append("();\n");
+					}
+				}
+				buf.append("    }\n");
+			}
+			buf.append("}\n");
+			return buf.toString();
+		}
+
+		private static String getClassName(int level, int c) {
+			return "Level" + level + (char) ('A' + c);
+		}
+
+		@Override
+		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	public static Test suite() {
+		return new MyTestSetup(new OrderedTestSuite(CallHierarchyPerfTest.class, new String[] {
+			"testExpandCallees"
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public CallHierarchyPerfTest(String name) {
+		super(name);
+	}
+
+	public void testExpandCallees() throws Exception {
+		measure(Performance.getDefault().getNullPerformanceMeter(), 2);
+		measure(fPerformanceMeter, 10);
+
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	private void measure(PerformanceMeter performanceMeter, int runs) throws Exception {
+		IMember method= MyTestSetup.fJProject1.findType("callees.Level0A").getMethods()[0];
+		for (int j= 0; j < runs; j++) {
+			joinBackgroudActivities();
+
+			final int[] count= new int[1];
+			performanceMeter.start();
+			MethodWrapper[] roots= CallHierarchy.getDefault().getCalleeRoots(new IMember[] { method });
+			for (int i= 0; i < roots.length; i++) {
+				roots[i].accept(new CallHierarchyVisitor() {
+					@Override
+					public boolean visit(MethodWrapper methodWrapper) {
+						count[0]++;
+						return true;
+					}
+				}, null);
+			}
+			performanceMeter.stop();
+
+			// every method above the last level calls each method of the next level
+			int expected= 0;
+			int calls= 1;
+			for (int level= 0; level <= LEVELS; level++) {
+				expected+= calls;
+				calls*= CLASSES_PER_LEVEL * METHODS_PER_CLASS;
+			}
+			assertEquals(expected, count[0]);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.JavaTestPlugin;
+import org.eclipse.test.OrderedTestSuite;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.ui.JavaElementLabels;
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+public class JavaElementLabelsPerfTest extends JdtPerformanceTestCase {
+
+	/** The number of labels computed in one run */
+	private static final int LABELS= 100000;
+
+	private static final long TEXT_FLAGS= JavaElementLabels.ALL_DEFAULT | JavaElementLabels.ALL_POST_QUALIFIED | JavaElementLabels.P_COMPRESSED;
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static IJavaProject fJProject1;
+		public static IPackageFragmentRoot fJunitSrcRoot;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		@Override
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
+			File junitSrcArchive= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.JUNIT_SRC_381);
+			fJunitSrcRoot= JavaProjectHelper.addSourceContainerWithImport(fJProject1, SRC_CONTAINER, junitSrcArchive, JavaProjectHelper.JUNIT_SRC_ENCODING);
+		}
+
+		@Override
+		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	public static Test suite() {
+		return new MyTestSetup(new OrderedTestSuite(JavaElementLabelsPerfTest.class, new String[] {
+			"testTextLabels",
+			"testStyledLabels"
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public JavaElementLabelsPerfTest(String name) {
+		super(name);
+	}
+
+	private static void addElements(IJavaElement[] children, List<IJavaElement> result) throws JavaModelException {
+		for (int i= 0; i < children.length; i++) {
+			IJavaElement element= children[i];
+			result.add(element);
+			if (element instanceof IPackageFragment || element instanceof ICompilationUnit || element.getElementType() == IJavaElement.TYPE)
+				addElements(((IParent) element).getChildren(), result);
+		}
+	}
+
+	private static IJavaElement[] getElements() throws JavaModelException {
+		List<IJavaElement> result= new ArrayList<>();
+		addElements(MyTestSetup.fJunitSrcRoot.getChildren(), result);
+		return result.toArray(new IJavaElement[result.size()]);
+	}
+
+	public void testTextLabels() throws Exception {
+		IJavaElement[] elements= getElements();
+		measure(Performance.getDefault().getNullPerformanceMeter(), elements, false, 2);
+		measure(fPerformanceMeter, elements, false, 10);
+
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	public void testStyledLabels() throws Exception {
+		IJavaElement[] elements= getElements();
+		measure(Performance.getDefault().getNullPerformanceMeter(), elements, true, 2);
+		measure(fPerformanceMeter, elements, true, 10);
+
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	private void measure(PerformanceMeter performanceMeter, IJavaElement[] elements, boolean styled, int runs) throws Exception {
+		assertTrue(elements.length > 0);
+		for (int j= 0; j < runs; j++) {
+			joinBackgroudActivities();
+
+			int length= 0;
+			performanceMeter.start();
+			for (int i= 0; i < LABELS; i++) {
+				IJavaElement element= elements[i % elements.length];
+				if (styled)
+					length+= JavaElementLabels.getStyledElementLabel(element, TEXT_FLAGS | JavaElementLabels.COLORIZE).length();
+				else
+					length+= JavaElementLabels.getElementLabel(element, TEXT_FLAGS).length();
+			}
+			performanceMeter.stop();
+			assertTrue(length > 0);
+		}
+	}
+}
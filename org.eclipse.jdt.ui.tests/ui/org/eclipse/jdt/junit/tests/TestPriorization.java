@@ -20,7 +20,9 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 
+import org.eclipse.jdt.internal.junit.runner.DurationAwarePrioritizer;
 import org.eclipse.jdt.internal.junit.runner.FailuresFirstPrioritizer;
+import org.eclipse.jdt.internal.junit.runner.TestStatistics;
 
 import junit.extensions.TestDecorator;
 import junit.extensions.TestSetup;
@@ -307,6 +309,59 @@ public class TestPriorization extends TestCase {
 		}
 	}
 
+	public void testReorderByDuration() {
+		// suite
+		//		D (fails often, slow)
+		//		E (never fails, fast)
+		//		F (fails often, fast)
+		TestSuite suite= createSuiteDEF();
+		TestStatistics statistics= new TestStatistics();
+		statistics.put("testD(org.eclipse.jdt.junit.tests.TestPriorizationSuite2)", 10, 8, 5000);
+		statistics.put("testE(org.eclipse.jdt.junit.tests.TestPriorizationSuite2)", 10, 0, 10);
+		statistics.put("testF(org.eclipse.jdt.junit.tests.TestPriorizationSuite2)", 10, 8, 10);
+		Test reordered= new DurationAwarePrioritizer(statistics).prioritize(suite);
+		List<String> order= new ArrayList<>();
+		collectOrder(reordered, order);
+		String[] expected= {
+				"testF", "testE", "testD"
+		};
+		checkOrder(expected, order);
+	}
+
+	public void testReorderByDurationWithPropagation() {
+		// suite
+		//		suite1
+		//			A
+		//			B
+		//			C
+		//		decorator
+		//			suite2
+		//				D
+		//				E
+		//				F (fails often, fast)
+		TestSuite suite= new TestSuite();
+		suite.addTest(createSuiteABC());
+		suite.addTest(new TestSetup(createSuiteDEF()) {
+			@Override
+			protected void setUp() throws Exception {
+			}
+		});
+		TestStatistics statistics= new TestStatistics();
+		statistics.put("testA(org.eclipse.jdt.junit.tests.TestPriorizationSuite1)", 10, 0, 100);
+		statistics.put("testB(org.eclipse.jdt.junit.tests.TestPriorizationSuite1)", 10, 0, 100);
+		statistics.put("testC(org.eclipse.jdt.junit.tests.TestPriorizationSuite1)", 10, 0, 100);
+		statistics.put("testD(org.eclipse.jdt.junit.tests.TestPriorizationSuite2)", 10, 0, 100);
+		statistics.put("testE(org.eclipse.jdt.junit.tests.TestPriorizationSuite2)", 10, 0, 100);
+		statistics.put("testF(org.eclipse.jdt.junit.tests.TestPriorizationSuite2)", 10, 9, 10);
+		Test reordered= new DurationAwarePrioritizer(statistics).prioritize(suite);
+		List<String> order= new ArrayList<>();
+		collectOrder(reordered, order);
+		String[] expected= {
+				"testF", "testD", "testE", "testA", "testB", "testC",
+		};
+		checkOrder(expected, order);
+	}
+
 	private TestSuite createSuiteDEF() {
 		// suite
 		//		D
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import junit.framework.TestSuite;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
 
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IInitializer;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
@@ -137,6 +138,30 @@ public class CallHierarchyTest extends TestCase {
         helper.assertCalls(expectedMethodsTo3, wrapper2.getCalls(new NullProgressMonitor()));
     }
 
+    public void testCalleesOfModifiedUnit() throws Exception {
+        helper.createSimpleClasses();
+
+        IMethod method= helper.getMethod4();
+        IMethod secondLevelMethod= helper.getMethod3();
+
+        // expanding the root caches the AST of B for the whole hierarchy
+        MethodWrapper wrapper= getSingleCalleeRoot(method);
+        MethodWrapper[] calls= wrapper.getCalls(new NullProgressMonitor());
+        Collection<IMember> expectedMethods= new ArrayList<>();
+        expectedMethods.add(secondLevelMethod);
+        helper.assertCalls(expectedMethods, calls);
+
+        ICompilationUnit cu= helper.getType2().getCompilationUnit();
+        cu.getBuffer().setContents(cu.getSource().replace("method1(); method2();", "method1();"));
+        cu.save(null, true);
+
+        // the changed modification stamp evicts the cached AST
+        MethodWrapper wrapper2= helper.findMethodWrapper(secondLevelMethod, calls);
+        Collection<IMember> expectedMethodsTo3= new ArrayList<>();
+        expectedMethodsTo3.add(helper.getMethod1());
+        helper.assertCalls(expectedMethodsTo3, wrapper2.getCalls(new NullProgressMonitor()));
+    }
+
     public void testCalleesNoResults() throws Exception {
         helper.createSimpleClasses();
 
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.swt.graphics.Image;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+
+import org.eclipse.jdt.ui.JavaElementImageDescriptor;
+
+import org.eclipse.jdt.internal.ui.JavaPluginImages;
+import org.eclipse.jdt.internal.ui.viewsupport.ImageDescriptorRegistry;
+import org.eclipse.jdt.internal.ui.viewsupport.JavaElementImageProvider;
+
+public class ImageDescriptorRegistryTest extends TestCase {
+
+	private ImageDescriptorRegistry fRegistry;
+
+	public static Test suite() {
+		return new TestSuite(ImageDescriptorRegistryTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fRegistry= new ImageDescriptorRegistry();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fRegistry.dispose();
+	}
+
+	private static ImageDescriptor createDescriptor(int flags) {
+		return new JavaElementImageDescriptor(JavaPluginImages.DESC_OBJS_CLASS, flags, JavaElementImageProvider.SMALL_SIZE);
+	}
+
+	public void testGetDecorated() throws Exception {
+		Image image= fRegistry.getDecorated(JavaPluginImages.DESC_OBJS_CLASS, JavaElementImageDescriptor.STATIC, JavaElementImageProvider.SMALL_SIZE);
+		assertNotNull(image);
+		assertEquals(1, fRegistry.getMissCount());
+		assertEquals(0, fRegistry.getHitCount());
+
+		assertSame(image, fRegistry.getDecorated(JavaPluginImages.DESC_OBJS_CLASS, JavaElementImageDescriptor.STATIC, JavaElementImageProvider.SMALL_SIZE));
+		assertEquals(1, fRegistry.getMissCount());
+		assertEquals(1, fRegistry.getHitCount());
+		assertEquals(1, fRegistry.getImageCount());
+
+		assertNotSame(image, fRegistry.getDecorated(JavaPluginImages.DESC_OBJS_CLASS, JavaElementImageDescriptor.FINAL, JavaElementImageProvider.SMALL_SIZE));
+		assertEquals(2, fRegistry.getImageCount());
+	}
+
+	public void testGetAndGetDecoratedShareImages() throws Exception {
+		Image image= fRegistry.get(createDescriptor(JavaElementImageDescriptor.STATIC));
+		assertSame(image, fRegistry.getDecorated(JavaPluginImages.DESC_OBJS_CLASS, JavaElementImageDescriptor.STATIC, JavaElementImageProvider.SMALL_SIZE));
+		assertSame(image, fRegistry.createOwner().getDecorated(JavaPluginImages.DESC_OBJS_CLASS, JavaElementImageDescriptor.STATIC, JavaElementImageProvider.SMALL_SIZE));
+		assertEquals(1, fRegistry.getImageCount());
+	}
+
+	public void testOwnerReleasesImages() throws Exception {
+		int count= 100;
+		ImageDescriptorRegistry.Owner owner= fRegistry.createOwner();
+		ImageDescriptorRegistry.Owner other= fRegistry.createOwner();
+		Image[] images= new Image[count];
+		for (int i= 0; i < count; i++) {
+			images[i]= owner.get(createDescriptor(i));
+			assertSame(images[i], owner.get(createDescriptor(i)));
+		}
+		Image shared= other.get(createDescriptor(0));
+		assertSame(images[0], shared);
+		assertEquals(count, fRegistry.getImageCount());
+
+		// all but the shared image are released, and only a bounded number of them are kept
+		owner.dispose();
+		assertFalse(shared.isDisposed());
+		int kept= 0;
+		for (int i= 1; i < count; i++) {
+			if (!images[i].isDisposed())
+				kept++;
+		}
+		assertTrue(kept < count - 1);
+		assertEquals(kept + 1, fRegistry.getImageCount());
+
+		other.dispose();
+		assertFalse(shared.isDisposed());
+		assertEquals(kept, fRegistry.getImageCount());
+	}
+
+	public void testReleasedImagesAreEvicted() throws Exception {
+		int count= 100;
+		Image[] images= new Image[count];
+		for (int i= 0; i < count; i++) {
+			images[i]= fRegistry.acquire(createDescriptor(i));
+			assertSame(images[i], fRegistry.acquire(createDescriptor(i)));
+		}
+		assertEquals(count, fRegistry.getImageCount());
+
+		for (int i= 0; i < count; i++) {
+			fRegistry.release(createDescriptor(i));
+			assertFalse(images[i].isDisposed());
+		}
+		assertEquals(count, fRegistry.getImageCount());
+
+		for (int i= 0; i < count; i++)
+			fRegistry.release(createDescriptor(i));
+		assertTrue(fRegistry.getImageCount() < count);
+		assertTrue(images[0].isDisposed());
+		assertFalse(images[count - 1].isDisposed());
+
+		// an evicted image is created again
+		Image recreated= fRegistry.acquire(createDescriptor(0));
+		assertNotSame(images[0], recreated);
+		assertFalse(recreated.isDisposed());
+		fRegistry.release(createDescriptor(0));
+	}
+
+	public void testImagesReturnedByGetAreNotEvicted() throws Exception {
+		Image pinned= fRegistry.get(createDescriptor(0));
+		assertSame(pinned, fRegistry.acquire(createDescriptor(0)));
+		fRegistry.release(createDescriptor(0));
+
+		for (int i= 1; i < 100; i++) {
+			fRegistry.acquire(createDescriptor(i));
+			fRegistry.release(createDescriptor(i));
+		}
+		assertFalse(pinned.isDisposed());
+		assertSame(pinned, fRegistry.get(createDescriptor(0)));
+	}
+
+	public void testDispose() throws Exception {
+		Image image= fRegistry.get(createDescriptor(0));
+		Image acquired= fRegistry.acquire(createDescriptor(1));
+		fRegistry.dispose();
+		assertTrue(image.isDisposed());
+		assertTrue(acquired.isDisposed());
+		assertEquals(0, fRegistry.getImageCount());
+	}
+}
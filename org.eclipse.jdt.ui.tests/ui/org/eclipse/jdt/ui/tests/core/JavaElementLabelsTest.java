@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,6 +35,8 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.ui.JavaElementLabels;
 import org.eclipse.jdt.ui.PreferenceConstants;
 
+import org.eclipse.jdt.internal.core.manipulation.JavaElementLabelCache;
+
 
 public class JavaElementLabelsTest extends CoreTests {
 
@@ -665,4 +667,66 @@ public class JavaElementLabelsTest extends CoreTests {
 		lab= JavaElementLabels.getTextLabel(foo2, JavaElementLabels.ALL_DEFAULT | JavaElementLabels.ALL_FULLY_QUALIFIED | JavaElementLabels.M_PARAMETER_ANNOTATIONS);
 		assertEqualString(lab, "org.test.Annotations.foo2(@Ann(value=\"\", cl=Annotations.class, ints={1, 2, -19}, ch='\\u0000', sh=32767, r=@Retention(value=RetentionPolicy.SOURCE)) String)");
 	}
+
+	public void testLabelAfterRenameOfParameter() throws Exception {
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment pack1= sourceFolder.createPackageFragment("org.test", false, null);
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package org.test;\n");
+		buf.append("import java.util.Vector;\n");
+		buf.append("public class Outer {\n");
+		buf.append("    void foo(Vector vec) { }\n");
+		buf.append("}\n");
+		String content= buf.toString();
+		ICompilationUnit cu= pack1.createCompilationUnit("Outer.java", content, false, null);
+		IJavaElement foo= cu.getElementAt(content.indexOf("foo"));
+
+		buf= new StringBuffer();
+		buf.append("package org.test;\n");
+		buf.append("public class Other {\n");
+		buf.append("    void bar(int count) { }\n");
+		buf.append("}\n");
+		String otherContent= buf.toString();
+		IJavaElement bar= pack1.createCompilationUnit("Other.java", otherContent, false, null).getElementAt(otherContent.indexOf("bar"));
+
+		long flags= JavaElementLabels.ALL_DEFAULT | JavaElementLabels.M_PARAMETER_NAMES;
+		assertExpectedLabel(foo, "foo(Vector vec)", flags);
+
+		JavaElementLabelCache<String> cache= new JavaElementLabelCache<>();
+		cu.becomeWorkingCopy(null);
+		try {
+			cache.put(foo, flags, "foo(Vector vec)", cache.getGeneration());
+			cache.put(bar, flags, "bar(int count)", cache.getGeneration());
+
+			// the reconcile delta of a renamed parameter does not report the method
+			cu.getBuffer().setContents(content.replace("vec", "list"));
+			cu.reconcile(ICompilationUnit.NO_AST, false, null, null);
+
+			assertExpectedLabel(foo, "foo(Vector list)", flags);
+			assertNull(cache.get(foo, flags));
+			assertEquals("bar(int count)", cache.get(bar, flags));
+		} finally {
+			cu.discardWorkingCopy();
+			cache.dispose();
+		}
+	}
+
+	public void testLabelAfterPreferenceChange() throws Exception {
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment packOrgTest= sourceFolder.createPackageFragment("org.test", false, null);
+
+		assertExpectedLabel(packOrgTest, "org.test", JavaElementLabels.P_COMPRESSED);
+
+		IPreferenceStore store= PreferenceConstants.getPreferenceStore();
+		store.setValue(PreferenceConstants.APPEARANCE_PKG_NAME_PATTERN_FOR_PKG_VIEW, "0");
+		store.setValue(PreferenceConstants.APPEARANCE_COMPRESS_PACKAGE_NAMES, true);
+		try {
+			assertExpectedLabel(packOrgTest, "test", JavaElementLabels.P_COMPRESSED);
+		} finally {
+			store.setToDefault(PreferenceConstants.APPEARANCE_PKG_NAME_PATTERN_FOR_PKG_VIEW);
+			store.setValue(PreferenceConstants.APPEARANCE_COMPRESS_PACKAGE_NAMES, false);
+		}
+		assertExpectedLabel(packOrgTest, "org.test", JavaElementLabels.P_COMPRESSED);
+	}
 }
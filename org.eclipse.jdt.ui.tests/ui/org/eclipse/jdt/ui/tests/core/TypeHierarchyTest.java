@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,19 +13,28 @@
  *******************************************************************************/
 package org.eclipse.jdt.ui.tests.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.jdt.testplugin.JavaProjectHelper;
 
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableItem;
+
 import org.eclipse.jface.text.IDocument;
 
 import org.eclipse.ui.IEditorPart;
 
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.ITypeHierarchyChangedListener;
+import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
 
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
@@ -33,6 +42,9 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.ui.JavaUI;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.typehierarchy.ITypeHierarchyLifeCycleListener;
+import org.eclipse.jdt.internal.ui.typehierarchy.MethodsViewer;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -297,4 +309,170 @@ public class TypeHierarchyTest extends TestCase {
 
 
 
+	public void testLifeCycleRefreshOnStructuralChange() throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJavaProject1, "src");
+		IPackageFragment pack1= root1.createPackageFragment("pack1", true, null);
+
+		ICompilationUnit cu1= pack1.getCompilationUnit("A.java");
+		IType type1= cu1.createType("public class A {\n}\n", null, true, null);
+
+		ICompilationUnit cu2= pack1.getCompilationUnit("B.java");
+		cu2.createType("public class B extends A {\n}\n", null, true, null);
+
+		final int[] refreshCount= new int[] {0};
+
+		TypeHierarchyLifeCycle lifeCycle= new TypeHierarchyLifeCycle(false);
+		lifeCycle.addChangedListener(new ITypeHierarchyLifeCycleListener() {
+			@Override
+			public void typeHierarchyChanged(TypeHierarchyLifeCycle typeHierarchyProvider, IType[] changedTypes) {
+				if (changedTypes == null)
+					refreshCount[0]++;
+			}
+		});
+		try {
+			lifeCycle.doHierarchyRefresh(new IJavaElement[] { type1 }, null);
+			assertTrue(lifeCycle.getHierarchy().contains(cu2.getType("B")));
+
+			// changes of members and new types outside of the hierarchy
+			setContents(cu2, "package pack1;\npublic class B extends A {\n    void foo() {}\n}\nclass C {\n}\n");
+			assertEquals(0, refreshCount[0]);
+
+			// new subtype
+			setContents(cu2, "package pack1;\npublic class B extends A {\n    void foo() {}\n}\nclass C extends B {\n}\n");
+			assertEquals(1, refreshCount[0]);
+
+			lifeCycle.doHierarchyRefresh(new IJavaElement[] { type1 }, null);
+			assertTrue(lifeCycle.getHierarchy().contains(cu2.getType("C")));
+
+			// changed super type
+			setContents(cu2, "package pack1;\npublic class B {\n    void foo() {}\n}\nclass C extends B {\n}\n");
+			assertEquals(2, refreshCount[0]);
+
+			lifeCycle.doHierarchyRefresh(new IJavaElement[] { type1 }, null);
+			assertFalse(lifeCycle.getHierarchy().contains(cu2.getType("B")));
+		} finally {
+			lifeCycle.freeHierarchy();
+		}
+	}
+
+	public void testLifeCycleRefreshOnQualifiedSuperTypeChange() throws Exception {
+		assertSuperTypeRebindingRefreshes(
+				"package r;\npublic class B extends p.A {\n}\n",
+				"package r;\npublic class B extends q.A {\n}\n");
+	}
+
+	public void testLifeCycleRefreshOnImportChange() throws Exception {
+		assertSuperTypeRebindingRefreshes(
+				"package r;\nimport p.A;\npublic class B extends A {\n}\n",
+				"package r;\nimport q.A;\npublic class B extends A {\n}\n");
+	}
+
+	/*
+	 * The super type of B changes from p.A to q.A while its simple name stays the same.
+	 */
+	private void assertSuperTypeRebindingRefreshes(String before, String after) throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJavaProject1, "src");
+		IType type1= root1.createPackageFragment("p", true, null).getCompilationUnit("A.java").createType("public class A {\n}\n", null, true, null);
+		root1.createPackageFragment("q", true, null).getCompilationUnit("A.java").createType("public class A {\n}\n", null, true, null);
+		ICompilationUnit cu= root1.createPackageFragment("r", true, null).createCompilationUnit("B.java", before, true, null);
+
+		final int[] refreshCount= new int[] {0};
+
+		TypeHierarchyLifeCycle lifeCycle= new TypeHierarchyLifeCycle(false);
+		lifeCycle.addChangedListener(new ITypeHierarchyLifeCycleListener() {
+			@Override
+			public void typeHierarchyChanged(TypeHierarchyLifeCycle typeHierarchyProvider, IType[] changedTypes) {
+				if (changedTypes == null)
+					refreshCount[0]++;
+			}
+		});
+		try {
+			lifeCycle.doHierarchyRefresh(new IJavaElement[] { type1 }, null);
+			assertTrue(lifeCycle.getHierarchy().contains(cu.getType("B")));
+
+			setContents(cu, after);
+			assertEquals(1, refreshCount[0]);
+
+			lifeCycle.doHierarchyRefresh(new IJavaElement[] { type1 }, null);
+			assertFalse(lifeCycle.getHierarchy().contains(cu.getType("B")));
+		} finally {
+			lifeCycle.freeHierarchy();
+		}
+	}
+
+	public void testMethodsViewerShowsAddedMethod() throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJavaProject1, "src");
+		IPackageFragment pack1= root1.createPackageFragment("pack1", true, null);
+
+		ICompilationUnit cu1= pack1.getCompilationUnit("A.java");
+		IType type1= cu1.createType("public class A {\n    public void a() {}\n}\n", null, true, null);
+
+		ICompilationUnit cu2= pack1.getCompilationUnit("B.java");
+		IType type2= cu2.createType("public class B extends A {\n    public void b() {}\n}\n", null, true, null);
+
+		final int[] refreshCount= new int[] {0};
+
+		TypeHierarchyLifeCycle lifeCycle= new TypeHierarchyLifeCycle(false);
+		Shell shell= new Shell();
+		final MethodsViewer viewer= new MethodsViewer(shell, lifeCycle);
+		lifeCycle.addChangedListener(new ITypeHierarchyLifeCycleListener() {
+			@Override
+			public void typeHierarchyChanged(TypeHierarchyLifeCycle typeHierarchyProvider, IType[] changedTypes) {
+				if (changedTypes == null)
+					refreshCount[0]++;
+				viewer.refresh();
+			}
+		});
+		try {
+			lifeCycle.doHierarchyRefresh(new IJavaElement[] { type2 }, null);
+			viewer.showInheritedMethods(true);
+			viewer.setInput(type2);
+
+			IMethod a= type1.getMethod("a", new String[0]);
+			IMethod b= type2.getMethod("b", new String[0]);
+			IMethod c= type1.getMethod("c", new String[0]);
+			List<Object> elements= getElements(viewer);
+			assertTrue(elements.contains(a));
+			assertTrue(elements.contains(b));
+			assertFalse(elements.contains(c));
+
+			// the members of the super type are cached for the inherited members of the subtype
+			setContents(cu1, "package pack1;\npublic class A {\n    public void a() {}\n    public void c() {}\n}\n");
+			assertEquals(0, refreshCount[0]);
+			elements= getElements(viewer);
+			assertTrue(elements.contains(a));
+			assertTrue(elements.contains(b));
+			assertTrue(elements.contains(c));
+
+			viewer.showInheritedMethods(false);
+			elements= getElements(viewer);
+			assertFalse(elements.contains(a));
+			assertTrue(elements.contains(b));
+
+			IMethod d= type2.getMethod("d", new String[0]);
+			setContents(cu2, "package pack1;\npublic class B extends A {\n    public void b() {}\n    public void d() {}\n}\n");
+			assertEquals(0, refreshCount[0]);
+			elements= getElements(viewer);
+			assertTrue(elements.contains(b));
+			assertTrue(elements.contains(d));
+		} finally {
+			viewer.dispose();
+			shell.dispose();
+			lifeCycle.freeHierarchy();
+		}
+	}
+
+	private static List<Object> getElements(MethodsViewer viewer) {
+		List<Object> elements= new ArrayList<>();
+		TableItem[] items= viewer.getTable().getItems();
+		for (int i= 0; i < items.length; i++) {
+			elements.add(items[i].getData());
+		}
+		return elements;
+	}
+
+	private static void setContents(ICompilationUnit cu, String contents) throws JavaModelException {
+		cu.getBuffer().setContents(contents);
+		cu.save(null, true);
+	}
 }
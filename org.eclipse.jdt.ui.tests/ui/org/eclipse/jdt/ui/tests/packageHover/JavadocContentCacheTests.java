@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.packageHover;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.ui.tests.core.CoreTests;
+import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
+
+import org.eclipse.jdt.internal.ui.text.javadoc.JavadocContentCache;
+
+/**
+ * Tests the invalidation of {@link JavadocContentCache}.
+ */
+public class JavadocContentCacheTests extends CoreTests {
+
+	private IJavaProject fJProject1;
+	private IPackageFragment fPack;
+	private JavadocContentCache fCache;
+
+	public JavadocContentCacheTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(JavadocContentCacheTests.class));
+	}
+
+	public static Test setUpTest(Test test) {
+		return new ProjectTestSetup(test);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject1= ProjectTestSetup.getProject();
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		fPack= root.createPackageFragment("p", true, null);
+		fCache= new JavadocContentCache();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fCache.dispose();
+		JavaProjectHelper.clear(fJProject1, ProjectTestSetup.getDefaultClasspath());
+	}
+
+	private ICompilationUnit createA(String doc) throws Exception {
+		String str= "package p;\n" +
+				"public class A {\n" +
+				"    /** " + doc + " */\n" +
+				"    public void foo() {}\n" +
+				"}\n";
+		return fPack.createCompilationUnit("A.java", str, true, null);
+	}
+
+	public void testChangedUnitIsInvalidated() throws Exception {
+		IMethod foo= createA("first").getType("A").getMethod("foo", new String[0]);
+		assertTrue(fCache.getHTMLContent(foo).contains("first"));
+		assertTrue(fCache.isCached(foo));
+
+		createA("second");
+		assertFalse(fCache.isCached(foo));
+		String content= fCache.getHTMLContent(foo);
+		assertTrue(content, content.contains("second"));
+		assertFalse(content, content.contains("first"));
+	}
+
+	public void testOtherUnitsStayCached() throws Exception {
+		createA("first");
+		String str= "package p;\n" +
+				"/** Type C */\n" +
+				"public class C {\n" +
+				"    /** Field c */\n" +
+				"    int c;\n" +
+				"}\n";
+		IType c= fPack.createCompilationUnit("C.java", str, true, null).getType("C");
+		fCache.getHTMLContent(c);
+		fCache.getHTMLContent(c.getField("c"));
+
+		createA("second");
+		assertTrue(fCache.isCached(c));
+		assertTrue(fCache.isCached(c.getField("c")));
+	}
+
+	public void testInheritedJavadocIsRefreshed() throws Exception {
+		createA("first");
+		String str= "package p;\n" +
+				"public class B extends A {\n" +
+				"    public void foo() {}\n" +
+				"}\n";
+		IMethod foo= fPack.createCompilationUnit("B.java", str, true, null).getType("B").getMethod("foo", new String[0]);
+		assertTrue(fCache.getHTMLContent(foo).contains("first"));
+
+		createA("second");
+		String content= fCache.getHTMLContent(foo);
+		assertTrue(content, content.contains("second"));
+	}
+}
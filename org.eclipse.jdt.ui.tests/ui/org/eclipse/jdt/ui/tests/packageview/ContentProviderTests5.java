@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -34,6 +34,10 @@ import org.eclipse.core.resources.IWorkspaceDescription;
 import org.eclipse.core.resources.ResourcesPlugin;
 
 import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
 
 import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IWorkbench;
@@ -49,6 +53,8 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.ui.PreferenceConstants;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.packageview.ChildrenPage;
+import org.eclipse.jdt.internal.ui.packageview.PackageExplorerContentProvider;
 import org.eclipse.jdt.internal.ui.packageview.PackageExplorerPart;
 import org.eclipse.jdt.internal.ui.util.CoreUtility;
 
@@ -67,6 +73,7 @@ import org.eclipse.jdt.internal.ui.util.CoreUtility;
 public class ContentProviderTests5 extends TestCase{
 	private boolean fEnableAutoBuildAfterTesting;
 	private ITreeContentProvider fProvider;
+	private PackageExplorerPart fPart;
 
 	private IJavaProject fJProject;
 	private IFile fDotClasspath;
@@ -127,6 +134,7 @@ public class ContentProviderTests5 extends TestCase{
 		IViewPart myPart= page.showView("org.eclipse.jdt.ui.PackageExplorer");
 		if (myPart instanceof PackageExplorerPart) {
 			PackageExplorerPart packageExplorerPart= (PackageExplorerPart) myPart;
+			fPart= packageExplorerPart;
 			packageExplorerPart.setShowLibrariesNode(false);
 			fProvider= (ITreeContentProvider) packageExplorerPart.getTreeViewer().getContentProvider();
 			setFolding(false);
@@ -261,6 +269,121 @@ public class ContentProviderTests5 extends TestCase{
 		assertEqualElements(new Object[] {b}, fProvider.getChildren(a));
 	}
 
+	public void testPagedChildren() throws Exception {
+		IPackageFragmentRoot src= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment p= src.createPackageFragment("p", true, null);
+		ICompilationUnit a= p.createCompilationUnit("A.java", "package p;public class A{}", true, null);
+		ICompilationUnit b= p.createCompilationUnit("B.java", "package p;public class B{}", true, null);
+		ICompilationUnit c= p.createCompilationUnit("C.java", "package p;public class C{}", true, null);
+
+		PackageExplorerContentProvider provider= (PackageExplorerContentProvider) fProvider;
+		provider.setChildrenPageSize(2);
+		try {
+			Object[] pages= provider.getChildren(p);
+			assertEquals(2, pages.length);
+			assertTrue(pages[0] instanceof ChildrenPage);
+			assertTrue(pages[1] instanceof ChildrenPage);
+			assertTrue(provider.hasChildren(pages[0]));
+			assertEquals(p, provider.getParent(pages[0]));
+
+			assertEquals(Arrays.asList(a, b), Arrays.asList(provider.getChildren(pages[0])));
+			assertEquals(Arrays.asList(c), Arrays.asList(provider.getChildren(pages[1])));
+			assertEquals(pages[0], provider.getParent(a));
+			assertEquals(pages[1], provider.getParent(c));
+
+			provider.setChildrenPageSize(3);
+			assertEqualElements(new Object[] {a, b, c}, provider.getChildren(p));
+			assertEquals(p, provider.getParent(c));
+		} finally {
+			provider.setChildrenPageSize(PackageExplorerContentProvider.DEFAULT_CHILDREN_PAGE_SIZE);
+		}
+	}
+
+	public void testRevealOnLaterPage() throws Exception {
+		IPackageFragmentRoot src= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment p= src.createPackageFragment("p", true, null);
+		p.createCompilationUnit("A.java", "package p;public class A{}", true, null);
+		p.createCompilationUnit("B.java", "package p;public class B{}", true, null);
+		ICompilationUnit c= p.createCompilationUnit("C.java", "package p;public class C{}", true, null);
+
+		PackageExplorerContentProvider provider= (PackageExplorerContentProvider) fProvider;
+		provider.setChildrenPageSize(2);
+		try {
+			// the package has never been expanded, so its pages are computed on demand
+			Object page= provider.getParent(c);
+			assertTrue(page instanceof ChildrenPage);
+			assertEquals(1, ((ChildrenPage) page).getIndex());
+			assertEquals(p, provider.getParent(page));
+
+			TreeViewer viewer= fPart.getTreeViewer();
+			viewer.setSelection(new StructuredSelection(c), true);
+			assertEquals(c, viewer.getStructuredSelection().getFirstElement());
+		} finally {
+			provider.setChildrenPageSize(PackageExplorerContentProvider.DEFAULT_CHILDREN_PAGE_SIZE);
+		}
+	}
+
+	public void testPagesOnlyContainUnfilteredChildren() throws Exception {
+		IPackageFragmentRoot src= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment p= src.createPackageFragment("p", true, null);
+		final ICompilationUnit a= p.createCompilationUnit("A.java", "package p;public class A{}", true, null);
+		ICompilationUnit b= p.createCompilationUnit("B.java", "package p;public class B{}", true, null);
+		ICompilationUnit c= p.createCompilationUnit("C.java", "package p;public class C{}", true, null);
+
+		PackageExplorerContentProvider provider= (PackageExplorerContentProvider) fProvider;
+		TreeViewer viewer= fPart.getTreeViewer();
+		ViewerFilter filter= new ViewerFilter() {
+			@Override
+			public boolean select(Viewer v, Object parentElement, Object element) {
+				return !a.equals(element);
+			}
+		};
+		provider.setChildrenPageSize(2);
+		viewer.addFilter(filter);
+		try {
+			assertEqualElements(new Object[] {b, c}, provider.getChildren(p));
+			assertEquals(p, provider.getParent(c));
+		} finally {
+			viewer.removeFilter(filter);
+			provider.setChildrenPageSize(PackageExplorerContentProvider.DEFAULT_CHILDREN_PAGE_SIZE);
+		}
+	}
+
+	public void testParentAfterChangeIsFoundWithoutComputingChildren() throws Exception {
+		IPackageFragmentRoot src= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment p= src.createPackageFragment("p", true, null);
+		p.createCompilationUnit("A.java", "package p;public class A{}", true, null);
+		p.createCompilationUnit("B.java", "package p;public class B{}", true, null);
+		ICompilationUnit c= p.createCompilationUnit("C.java", "package p;public class C{}", true, null);
+
+		PackageExplorerContentProvider provider= (PackageExplorerContentProvider) fProvider;
+		TreeViewer viewer= fPart.getTreeViewer();
+		final int[] filtered= new int[] {0};
+		ViewerFilter filter= new ViewerFilter() {
+			@Override
+			public boolean select(Viewer v, Object parentElement, Object element) {
+				filtered[0]++;
+				return true;
+			}
+		};
+		provider.setChildrenPageSize(2);
+		viewer.addFilter(filter);
+		try {
+			Object[] pages= provider.getChildren(p);
+			assertEquals(2, pages.length);
+
+			// the change clears the sorted children, but not the pages
+			ICompilationUnit d= p.createCompilationUnit("D.java", "package p;public class D{}", true, null);
+			filtered[0]= 0;
+			assertEquals(pages[1], provider.getParent(c));
+			assertEquals(p, provider.getParent(d));
+			assertEquals(0, filtered[0]);
+		} finally {
+			viewer.removeFilter(filter);
+			provider.setChildrenPageSize(PackageExplorerContentProvider.DEFAULT_CHILDREN_PAGE_SIZE);
+		}
+	}
+
 	private void assertEqualElements(Object[] expected, Object[] actual) {
 		assertEquals("array length", expected.length, actual.length);
 		exp: for (int i= 0; i < expected.length; i++) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 IBM Corporation and others.
+ * Copyright (c) 2013, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -181,6 +181,37 @@ public class ContentProviderTests6 extends TestCase {
 		assertTrue("Project not refreshed", !fMyPart.wasObjectRefreshed(fJProject)); //$NON-NLS-1$
 	}
 
+	public void testRefreshBelowRefreshedElementIsCoalesced() throws Exception {
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment pack1= sourceFolder.createPackageFragment("pack1", false, null);
+		IPackageFragment pack2= sourceFolder.createPackageFragment("pack2", false, null);
+		ICompilationUnit cu= pack1.createCompilationUnit("A.java", "package pack1; public class A {}", false, null);
+		ICompilationUnit cu2= pack2.createCompilationUnit("B.java", "package pack2; public class B {}", false, null);
+		ICompilationUnit cu3= pack2.createCompilationUnit("C.java", "package pack2; public class C {}", false, null);
+		while (fMyPart.getTreeViewer().getControl().getDisplay().readAndDispatch()) {
+		}
+		fMyPart.clear();
+		PackageExplorerContentProvider provider= (PackageExplorerContentProvider) fProvider;
+		long coalesced= provider.getCoalescedUpdateCount();
+
+		//send a delta that refreshes the source folder (two units added to pack2) and a unit below it
+		JavaElementDelta delta= new JavaElementDelta(sourceFolder.getJavaModel());
+		delta.changed(cu, IJavaElementDelta.F_CHILDREN);
+		delta.added(cu2);
+		delta.added(cu3);
+		IElementChangedListener listener= (IElementChangedListener)fProvider;
+		listener.elementChanged(new ElementChangedEvent(delta, ElementChangedEvent.POST_CHANGE));
+
+		//force events from display
+		while (fMyPart.getTreeViewer().getControl().getDisplay().readAndDispatch()) {
+		}
+
+		assertTrue("Source folder not refreshed", fMyPart.wasObjectRefreshed(sourceFolder)); //$NON-NLS-1$
+		assertFalse("Unit refreshed", fMyPart.wasObjectRefreshed(cu)); //$NON-NLS-1$
+		assertEquals("Number of refreshed objects", 1, fMyPart.getRefreshedObject().size()); //$NON-NLS-1$
+		assertTrue("No update coalesced", provider.getCoalescedUpdateCount() > coalesced); //$NON-NLS-1$
+	}
+
 	private void assertions() {
 		assertTrue("Refresh happened", fMyPart.hasRefreshHappened()); //$NON-NLS-1$
 		assertTrue("LibraryContainer Refreshed", fMyPart.wasObjectRefreshed(new LibraryContainer(fJProject))); //$NON-NLS-1$
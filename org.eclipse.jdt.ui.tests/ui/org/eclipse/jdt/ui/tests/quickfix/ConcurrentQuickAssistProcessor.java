@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.quickfix;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.ltk.core.refactoring.NullChange;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.ui.text.java.IInvocationContext;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
+import org.eclipse.jdt.ui.text.java.IProblemLocation;
+import org.eclipse.jdt.ui.text.java.IQuickAssistProcessor;
+import org.eclipse.jdt.ui.text.java.correction.ChangeCorrectionProposal;
+
+/**
+ * A quick assist processor that records how it was invoked, see {@link ConcurrentQuickAssistTest}.
+ * It does nothing unless it has been enabled.
+ */
+public class ConcurrentQuickAssistProcessor implements IQuickAssistProcessor {
+
+	public static final String PROPOSAL_NAME= "Concurrent assist";
+
+	static volatile boolean fgEnabled= false;
+	static volatile long fgBlockMillis;
+	static volatile Thread fgThread;
+	static volatile CompilationUnit fgASTRoot;
+	static volatile boolean fgInterrupted;
+	static volatile CountDownLatch fgFinished;
+
+	static void enable(long blockMillis) {
+		fgBlockMillis= blockMillis;
+		fgThread= null;
+		fgASTRoot= null;
+		fgInterrupted= false;
+		fgFinished= new CountDownLatch(1);
+		fgEnabled= true;
+	}
+
+	static void disable() {
+		fgEnabled= false;
+	}
+
+	@Override
+	public boolean hasAssists(IInvocationContext context) {
+		return fgEnabled;
+	}
+
+	@Override
+	public IJavaCompletionProposal[] getAssists(IInvocationContext context, IProblemLocation[] locations) {
+		if (!fgEnabled)
+			return null;
+		try {
+			fgThread= Thread.currentThread();
+			fgASTRoot= context.getASTRoot();
+			if (fgBlockMillis > 0)
+				Thread.sleep(fgBlockMillis);
+		} catch (InterruptedException e) {
+			fgInterrupted= true;
+		} finally {
+			fgFinished.countDown();
+		}
+		return new IJavaCompletionProposal[] { new ChangeCorrectionProposal(PROPOSAL_NAME, new NullChange(), 0) };
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.quickfix;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
+
+import org.eclipse.jdt.internal.ui.text.correction.AssistContext;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests the quick assist processors that run concurrently, see {@link ConcurrentQuickAssistProcessor}.
+ */
+public class ConcurrentQuickAssistTest extends QuickFixTest {
+
+	private static final Class<ConcurrentQuickAssistTest> THIS= ConcurrentQuickAssistTest.class;
+
+	private IJavaProject fJProject1;
+	private IPackageFragmentRoot fSourceFolder;
+
+	public ConcurrentQuickAssistTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(THIS));
+	}
+
+	public static Test setUpTest(Test test) {
+		return new ProjectTestSetup(test);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject1= ProjectTestSetup.getProject();
+		fSourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		ConcurrentQuickAssistProcessor.disable();
+		JavaProjectHelper.clear(fJProject1, ProjectTestSetup.getDefaultClasspath());
+	}
+
+	private AssistContext createContext() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E {\n");
+		buf.append("    public String foo() {\n");
+		buf.append("        return \"hello\";\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+		return getCorrectionContext(cu, buf.toString().indexOf("hello"), 0);
+	}
+
+	public void testConcurrentProcessorHasOwnAST() throws Exception {
+		AssistContext context= createContext();
+		ConcurrentQuickAssistProcessor.enable(0);
+
+		List<IJavaCompletionProposal> proposals= collectAssists(context, false);
+		assertProposalExists(proposals, ConcurrentQuickAssistProcessor.PROPOSAL_NAME);
+
+		assertNotSame(Thread.currentThread(), ConcurrentQuickAssistProcessor.fgThread);
+		assertNotNull(ConcurrentQuickAssistProcessor.fgASTRoot);
+		assertNotSame(context.getASTRoot(), ConcurrentQuickAssistProcessor.fgASTRoot);
+		assertEquals(context.getASTRoot().getLength(), ConcurrentQuickAssistProcessor.fgASTRoot.getLength());
+	}
+
+	public void testTimedOutProcessorIsInterrupted() throws Exception {
+		AssistContext context= createContext();
+		ConcurrentQuickAssistProcessor.enable(TimeUnit.MINUTES.toMillis(1));
+
+		long start= System.currentTimeMillis();
+		List<IJavaCompletionProposal> proposals= collectAssists(context, false);
+		assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(30));
+		assertProposalDoesNotExist(proposals, ConcurrentQuickAssistProcessor.PROPOSAL_NAME);
+
+		assertTrue(ConcurrentQuickAssistProcessor.fgFinished.await(10, TimeUnit.SECONDS));
+		assertTrue(ConcurrentQuickAssistProcessor.fgInterrupted);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -118,6 +118,7 @@ public class QuickFixTest extends TestCase {
 		suite.addTest(AnnotateAssistTest15.suite());
 		suite.addTest(AnnotateAssistTest18.suite());
 		suite.addTest(TypeAnnotationQuickFixTest.suite());
+		suite.addTest(ConcurrentQuickAssistTest.suite());
 
 		return new ProjectTestSetup(suite);
 	}
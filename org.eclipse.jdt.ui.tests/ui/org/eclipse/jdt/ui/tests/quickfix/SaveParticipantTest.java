@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2011 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,8 @@ package org.eclipse.jdt.ui.tests.quickfix;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 
+import org.eclipse.jface.text.IDocument;
+
 import org.eclipse.ui.PartInitException;
 
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -732,4 +734,63 @@ public class SaveParticipantTest extends CleanUpTestCase {
 
 		assertEquals(expected1, cu1.getBuffer().getContents());
 	}
+
+	public void testFormatChangesTrackedEdits() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo( Object o ) {\n");
+		buf.append("        String s= (String)o;\n");
+		buf.append("        String t= (String)o;\n");
+		buf.append("    }\n");
+		buf.append("    public void bar( Object o ) {\n");
+		buf.append("    }\n");
+		buf.append("}");
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", buf.toString(), false, null);
+
+		enable(CleanUpConstants.FORMAT_SOURCE_CODE);
+		enable(CleanUpConstants.FORMAT_SOURCE_CODE_CHANGES_ONLY);
+
+		JavaEditor editor= (JavaEditor) EditorUtility.openInEditor(cu1);
+		IDocument document= editor.getDocumentProvider().getDocument(editor.getEditorInput());
+
+		// a modified line and a line that is modified and changed back
+		String content= document.get();
+		document.replace(content.indexOf("t= "), 1, "t    ");
+		content= document.get();
+		int bar= content.indexOf("bar( ");
+		document.replace(bar, 0, "x");
+		document.replace(bar, 1, "");
+		editor.doSave(null);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo( Object o ) {\n");
+		buf.append("        String s= (String)o;\n");
+		buf.append("        String t = (String) o;\n");
+		buf.append("    }\n");
+		buf.append("    public void bar( Object o ) {\n");
+		buf.append("    }\n");
+		buf.append("}");
+		assertEquals(buf.toString(), cu1.getBuffer().getContents());
+
+		// only the modifications since the last save are formatted
+		content= document.get();
+		document.replace(content.indexOf("s= "), 1, "s ");
+		editor.doSave(null);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo( Object o ) {\n");
+		buf.append("        String s = (String) o;\n");
+		buf.append("        String t = (String) o;\n");
+		buf.append("    }\n");
+		buf.append("    public void bar( Object o ) {\n");
+		buf.append("    }\n");
+		buf.append("}");
+		assertEquals(buf.toString(), cu1.getBuffer().getContents());
+	}
 }
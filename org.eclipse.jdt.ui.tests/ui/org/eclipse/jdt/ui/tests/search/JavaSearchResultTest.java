@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.search.ui.ISearchResult;
+import org.eclipse.search.ui.text.Match;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+
+import org.eclipse.jdt.ui.search.ElementQuerySpecification;
+
+import org.eclipse.jdt.internal.ui.search.JavaSearchQuery;
+import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
+import org.eclipse.jdt.internal.ui.search.SearchResultUpdater;
+
+/**
+ * Tests the index of the elements with matches by container in {@link JavaSearchResult}, and the
+ * removal of matches by {@link SearchResultUpdater}.
+ */
+public class JavaSearchResultTest extends TestCase {
+
+	private static final Class<JavaSearchResultTest> THIS= JavaSearchResultTest.class;
+
+	private IJavaProject fJProject;
+	private IPackageFragment fPack;
+	private IPackageFragment fOtherPack;
+
+	public static Test suite() {
+		return new TestSuite(THIS);
+	}
+
+	public JavaSearchResultTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("SearchResultProject", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		fPack= root.createPackageFragment("p", true, null);
+		fOtherPack= root.createPackageFragment("q", true, null);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private IType createType(IPackageFragment pack, String name) throws Exception {
+		String str= "package " + pack.getElementName() + ";\n" +
+				"public class " + name + " {\n" +
+				"    public void foo() {}\n" +
+				"    public void bar() {}\n" +
+				"}\n";
+		return pack.createCompilationUnit(name + ".java", str, true, null).getType(name);
+	}
+
+	private JavaSearchQuery createQuery(IType type) {
+		ElementQuerySpecification spec= new ElementQuerySpecification(type, IJavaSearchConstants.REFERENCES,
+				SearchEngine.createJavaSearchScope(new IJavaElement[] { fJProject }), "");
+		return new JavaSearchQuery(spec) {
+			private final JavaSearchResult fResult= new JavaSearchResult(this);
+
+			@Override
+			public ISearchResult getSearchResult() {
+				return fResult;
+			}
+		};
+	}
+
+	private static void assertContents(Object[] expected, Object[] actual) {
+		Set<Object> expectedSet= new HashSet<>(Arrays.asList(expected));
+		Set<Object> actualSet= new HashSet<>(Arrays.asList(actual));
+		assertEquals(expectedSet, actualSet);
+	}
+
+	public void testContainerIndex() throws Exception {
+		IType a= createType(fPack, "A");
+		IType b= createType(fPack, "B");
+		IMethod aFoo= a.getMethod("foo", new String[0]);
+		IMethod aBar= a.getMethod("bar", new String[0]);
+		IMethod bFoo= b.getMethod("foo", new String[0]);
+		ICompilationUnit cuA= a.getCompilationUnit();
+		ICompilationUnit cuB= b.getCompilationUnit();
+
+		JavaSearchResult result= (JavaSearchResult) createQuery(a).getSearchResult();
+		assertContents(new Object[0], result.getContainers());
+
+		Match fooMatch1= new Match(aFoo, 0, 1);
+		Match fooMatch2= new Match(aFoo, 5, 1);
+		Match barMatch= new Match(aBar, 0, 1);
+		Match bMatch= new Match(bFoo, 0, 1);
+		result.addMatch(fooMatch1);
+		result.addMatches(new Match[] { fooMatch2, barMatch, bMatch });
+
+		assertEquals(cuA, JavaSearchResult.getContainer(aFoo));
+		assertContents(new Object[] { cuA, cuB }, result.getContainers());
+		assertContents(new Object[] { aFoo, aBar }, result.getElementsInContainer(cuA));
+		assertContents(new Object[] { bFoo }, result.getElementsInContainer(cuB));
+
+		// the element stays indexed while it has matches
+		result.removeMatch(fooMatch1);
+		assertContents(new Object[] { aFoo, aBar }, result.getElementsInContainer(cuA));
+		result.removeMatch(fooMatch2);
+		assertContents(new Object[] { aBar }, result.getElementsInContainer(cuA));
+
+		// the container is removed with its last element
+		result.removeMatches(new Match[] { barMatch });
+		assertContents(new Object[] { cuB }, result.getContainers());
+		assertContents(new Object[0], result.getElementsInContainer(cuA));
+
+		result.addMatch(fooMatch1);
+		assertContents(new Object[] { cuA, cuB }, result.getContainers());
+
+		result.removeAll();
+		assertContents(new Object[0], result.getContainers());
+		assertContents(new Object[0], result.getElementsInContainer(cuA));
+		assertContents(new Object[0], result.getElementsInContainer(cuB));
+		assertEquals(0, result.getMatchCount());
+	}
+
+	public void testUpdaterRemovesMatchesOfDeletedUnits() throws Exception {
+		IType a= createType(fPack, "A");
+		IType b= createType(fPack, "B");
+		IType c= createType(fOtherPack, "C");
+		IMethod aFoo= a.getMethod("foo", new String[0]);
+		IMethod bFoo= b.getMethod("foo", new String[0]);
+		IMethod cFoo= c.getMethod("foo", new String[0]);
+
+		JavaSearchQuery query= createQuery(a);
+		JavaSearchResult result= (JavaSearchResult) query.getSearchResult();
+		SearchResultUpdater updater= new SearchResultUpdater(result);
+		try {
+			result.addMatches(new Match[] { new Match(a, 0, 1), new Match(aFoo, 0, 1), new Match(bFoo, 0, 1), new Match(cFoo, 0, 1) });
+
+			// the removed compilation unit is looked up directly
+			a.getCompilationUnit().delete(true, null);
+			assertEquals(0, result.getMatchCount(a));
+			assertEquals(0, result.getMatchCount(aFoo));
+			assertEquals(1, result.getMatchCount(bFoo));
+			assertEquals(1, result.getMatchCount(cFoo));
+			assertContents(new Object[] { b.getCompilationUnit(), c.getCompilationUnit() }, result.getContainers());
+
+			// the removed package is matched against the containers
+			fOtherPack.delete(true, null);
+			assertEquals(0, result.getMatchCount(cFoo));
+			assertEquals(1, result.getMatchCount(bFoo));
+			assertContents(new Object[] { b.getCompilationUnit() }, result.getContainers());
+			assertContents(new Object[] { bFoo }, result.getElements());
+		} finally {
+			updater.queryRemoved(query);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -71,6 +71,11 @@ public class ParticipantTest extends TestCase {
 		protected String getNature() {
 			return JavaCore.NATURE_ID;
 		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return false;
+		}
 	}
 
 	public static Test suite() {
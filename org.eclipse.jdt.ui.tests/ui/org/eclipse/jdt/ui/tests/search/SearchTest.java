@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,7 @@ public class SearchTest {
 		suite.addTest(ParticipantTest.suite());
 		suite.addTest(FileAdapterTest.suite());
 		suite.addTest(NLSSearchTest.suite());
+		suite.addTest(JavaSearchResultTest.suite());
 		return suite;
 	}
 }
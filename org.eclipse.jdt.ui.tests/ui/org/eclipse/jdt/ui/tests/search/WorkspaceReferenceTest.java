@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,13 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
+
 /**
  */
 public class WorkspaceReferenceTest extends TestCase {
@@ -42,4 +49,24 @@ public class WorkspaceReferenceTest extends TestCase {
 	public void testFindOverridden() throws Exception {
 		assertEquals(6, SearchTestHelper.countMethodRefs("junit.framework.TestCase", "countTestCases", new String[0]));
 	}
+
+	public void testParallelSearchFindsSameMatches() throws Exception {
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		try {
+			store.setValue(PreferenceConstants.SEARCH_IN_PARALLEL, false);
+			JavaSearchResult sequential= (JavaSearchResult) SearchTestHelper.runTypeRefQuery("junit.framework.TestCase").getSearchResult();
+			store.setValue(PreferenceConstants.SEARCH_IN_PARALLEL, true);
+			JavaSearchResult parallel= (JavaSearchResult) SearchTestHelper.runTypeRefQuery("junit.framework.TestCase").getSearchResult();
+
+			assertTrue(sequential.getMatchCount() > 0);
+			assertEquals(sequential.getMatchCount(), parallel.getMatchCount());
+			Object[] elements= sequential.getElements();
+			assertEquals(elements.length, parallel.getElements().length);
+			for (int i= 0; i < elements.length; i++) {
+				assertEquals(sequential.getMatchCount(elements[i]), parallel.getMatchCount(elements[i]));
+			}
+		} finally {
+			store.setToDefault(PreferenceConstants.SEARCH_IN_PARALLEL);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -32,14 +32,10 @@ import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IModuleDescription;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.dom.ASTParser;
-import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchEngine;
 
-import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 import org.eclipse.jdt.internal.corext.refactoring.util.JavaElementUtil;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
@@ -298,21 +294,6 @@ public class CallHierarchy {
         return list.toArray(new StringMatcher[list.size()]);
     }
 
-    static CompilationUnit getCompilationUnitNode(IMember member, boolean resolveBindings) {
-    	ITypeRoot typeRoot= member.getTypeRoot();
-        try {
-	    	if (typeRoot.exists() && typeRoot.getBuffer() != null) {
-				ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
-				parser.setSource(typeRoot);
-				parser.setResolveBindings(resolveBindings);
-				return (CompilationUnit) parser.createAST(null);
-	    	}
-        } catch (JavaModelException e) {
-            JavaPlugin.log(e);
-        }
-        return null;
-    }
-
     public static boolean isPossibleInputElement(Object element){
     	if (! (element instanceof IMember))
     		return false;
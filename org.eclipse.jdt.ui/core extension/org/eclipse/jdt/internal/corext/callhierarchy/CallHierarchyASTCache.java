@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * A bounded cache of the ASTs of the compilation units and class files analyzed
+ * while expanding one call hierarchy. The ASTs are keyed by type root and by the
+ * modification stamp of the underlying resource, so that an AST is parsed again
+ * once the file has changed. Type roots whose buffer has unsaved changes are not
+ * cached.
+ * <p>
+ * When an AST with bindings is requested for a compilation unit, the compilation
+ * units of the sibling members that are not cached yet are parsed in the same
+ * {@link ASTParser#createASTs(ICompilationUnit[], String[], ASTRequestor, org.eclipse.core.runtime.IProgressMonitor)}
+ * batch, so that the bindings they have in common are only resolved once.
+ * </p>
+ * <p>
+ * The ASTs are shared by all wrappers of the call hierarchy, and the ASTs parsed in
+ * one batch share their binding environment. Clients that resolve bindings must
+ * therefore synchronize on the lock returned by {@link #getLock(CompilationUnit)}
+ * while they visit an AST. The lock is shared by the ASTs of a batch only, so ASTs
+ * with different binding environments are visited concurrently.
+ * </p>
+ * <p>
+ * The cache is cleared when the call hierarchy is no longer shown, see
+ * {@link MethodWrapper#clearASTCache()}.
+ * </p>
+ *
+ * @since 3.16
+ */
+final class CallHierarchyASTCache {
+
+	/** The maximal number of cached ASTs, which are large when bindings are resolved */
+	private static final int MAX_SIZE= 12;
+
+	/** The maximal number of compilation units parsed in one batch */
+	private static final int MAX_BATCH_SIZE= 6;
+
+	/** The property of the ASTs of a batch that holds the lock of their binding environment */
+	private static final String LOCK_PROPERTY= "org.eclipse.jdt.ui.callhierarchy.lock"; //$NON-NLS-1$
+
+	private static final class Key {
+		final ITypeRoot fTypeRoot;
+		final long fStamp;
+		final boolean fResolveBindings;
+
+		Key(ITypeRoot typeRoot, long stamp, boolean resolveBindings) {
+			fTypeRoot= typeRoot;
+			fStamp= stamp;
+			fResolveBindings= resolveBindings;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fStamp == other.fStamp && fResolveBindings == other.fResolveBindings && fTypeRoot.equals(other.fTypeRoot);
+		}
+
+		@Override
+		public int hashCode() {
+			return fTypeRoot.hashCode() ^ (int) (fStamp ^ (fStamp >>> 32)) ^ (fResolveBindings ? 1 : 0);
+		}
+	}
+
+	private final Map<Key, CompilationUnit> fASTs= new LinkedHashMap<Key, CompilationUnit>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, CompilationUnit> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	/**
+	 * Returns the AST of the type root of the given member.
+	 *
+	 * @param member the member
+	 * @param resolveBindings whether bindings are resolved
+	 * @param siblings the members whose compilation units may be parsed in the same
+	 *            batch, or <code>null</code>
+	 * @return the AST, or <code>null</code> if the type root has no source
+	 */
+	CompilationUnit getAST(IMember member, boolean resolveBindings, IMember[] siblings) {
+		ITypeRoot typeRoot= member.getTypeRoot();
+		try {
+			if (!typeRoot.exists() || typeRoot.getBuffer() == null)
+				return null;
+			long stamp= getStamp(typeRoot);
+			if (stamp == IResource.NULL_STAMP)
+				return createAST(typeRoot, resolveBindings);
+
+			Key key= new Key(typeRoot, stamp, resolveBindings);
+			CompilationUnit ast;
+			synchronized (fASTs) {
+				ast= fASTs.get(key);
+			}
+			if (ast != null)
+				return ast;
+
+			if (resolveBindings && typeRoot instanceof ICompilationUnit && siblings != null) {
+				List<ICompilationUnit> batch= new ArrayList<>();
+				List<Key> keys= new ArrayList<>();
+				batch.add((ICompilationUnit) typeRoot);
+				keys.add(key);
+				collectBatch(siblings, batch, keys);
+				if (batch.size() > 1) {
+					ast= createASTs(batch, keys);
+					if (ast != null)
+						return ast;
+				}
+			}
+
+			ast= createAST(typeRoot, resolveBindings);
+			synchronized (fASTs) {
+				fASTs.put(key, ast);
+			}
+			return ast;
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+		}
+		return null;
+	}
+
+	private void collectBatch(IMember[] siblings, List<ICompilationUnit> batch, List<Key> keys) throws JavaModelException {
+		ICompilationUnit unit= batch.get(0);
+		for (int i= 0; i < siblings.length && batch.size() < MAX_BATCH_SIZE; i++) {
+			ITypeRoot sibling= siblings[i].getTypeRoot();
+			if (!(sibling instanceof ICompilationUnit) || batch.contains(sibling))
+				continue;
+			// the compilation units of a batch must belong to the same project
+			if (!unit.getJavaProject().equals(sibling.getJavaProject()) || !sibling.exists() || sibling.getBuffer() == null)
+				continue;
+			long stamp= getStamp(sibling);
+			if (stamp == IResource.NULL_STAMP)
+				continue;
+			Key key= new Key(sibling, stamp, true);
+			synchronized (fASTs) {
+				if (fASTs.containsKey(key))
+					continue;
+			}
+			batch.add((ICompilationUnit) sibling);
+			keys.add(key);
+		}
+	}
+
+	private CompilationUnit createASTs(List<ICompilationUnit> batch, final List<Key> keys) {
+		final CompilationUnit[] result= new CompilationUnit[batch.size()];
+		final ICompilationUnit[] units= batch.toArray(new ICompilationUnit[batch.size()]);
+		ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setProject(units[0].getJavaProject());
+		parser.setResolveBindings(true);
+		parser.createASTs(units, new String[0], new ASTRequestor() {
+			@Override
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				for (int i= 0; i < units.length; i++) {
+					if (units[i].equals(source))
+						result[i]= ast;
+				}
+			}
+		}, null);
+		Object lock= new Object();
+		for (int i= 0; i < result.length; i++) {
+			if (result[i] != null)
+				result[i].setProperty(LOCK_PROPERTY, lock);
+		}
+		synchronized (fASTs) {
+			// put the requested AST last, so that it is evicted last
+			for (int i= result.length - 1; i >= 0; i--) {
+				if (result[i] != null)
+					fASTs.put(keys.get(i), result[i]);
+			}
+		}
+		return result[0];
+	}
+
+	/**
+	 * Returns the lock to hold while visiting the given AST returned by this cache.
+	 *
+	 * @param ast the AST
+	 * @return the lock shared by the ASTs with the same binding environment
+	 */
+	static Object getLock(CompilationUnit ast) {
+		Object lock= ast.getProperty(LOCK_PROPERTY);
+		return lock != null ? lock : ast;
+	}
+
+	/**
+	 * Releases the cached ASTs.
+	 */
+	void clear() {
+		synchronized (fASTs) {
+			fASTs.clear();
+		}
+	}
+
+	private static CompilationUnit createAST(ITypeRoot typeRoot, boolean resolveBindings) {
+		ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setSource(typeRoot);
+		parser.setResolveBindings(resolveBindings);
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	/**
+	 * Returns the stamp under which the AST of the type root is cached.
+	 *
+	 * @param typeRoot the type root
+	 * @return the modification stamp of the underlying resource, <code>0</code> for
+	 *         class files outside of the workspace, or {@link IResource#NULL_STAMP}
+	 *         if the AST cannot be cached
+	 * @throws JavaModelException if the buffer cannot be accessed
+	 */
+	private static long getStamp(ITypeRoot typeRoot) throws JavaModelException {
+		IBuffer buffer= typeRoot.getBuffer();
+		if (buffer == null || buffer.hasUnsavedChanges())
+			return IResource.NULL_STAMP;
+		IResource resource= typeRoot.getResource();
+		if (resource == null)
+			return typeRoot instanceof ICompilationUnit ? IResource.NULL_STAMP : 0;
+		return resource.getModificationStamp();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -89,7 +89,7 @@ class CalleeMethodWrapper extends MethodWrapper {
 	protected Map<String, MethodCall> findChildren(IProgressMonitor progressMonitor) {
     	IMember member= getMember();
 		if (member.exists()) {
-			CompilationUnit cu= CallHierarchy.getCompilationUnitNode(member, true);
+			CompilationUnit cu= getASTCache().getAST(member, true, getSiblingMembers());
 		    if (progressMonitor != null) {
 		        progressMonitor.worked(5);
 		    }
@@ -97,7 +97,11 @@ class CalleeMethodWrapper extends MethodWrapper {
 			if (cu != null) {
 				CalleeAnalyzerVisitor visitor = new CalleeAnalyzerVisitor(member, cu, progressMonitor);
 
-				cu.accept(visitor);
+				// the AST is shared with the other wrappers, and the ASTs of one batch share
+				// their binding environment, which is not thread-safe
+				synchronized (CallHierarchyASTCache.getLock(cu)) {
+					cu.accept(visitor);
+				}
 				return visitor.getCallees();
 			}
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.callhierarchy;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
@@ -47,6 +49,11 @@ public abstract class MethodWrapper extends PlatformObject {
      * This way previously found methods won't be searched again.
      */
     private Map<String, Map<String, MethodCall>> fMethodCache;
+    /*
+     * The ASTs of the compilation units analyzed for this call hierarchy, shared
+     * by all method wrappers of the hierarchy like the method cache.
+     */
+    private final CallHierarchyASTCache fASTCache;
     private final MethodCall fMethodCall;
     private final MethodWrapper fParent;
     private int fLevel;
@@ -61,9 +68,11 @@ public abstract class MethodWrapper extends PlatformObject {
 
         if (parent == null) {
             setMethodCache(new HashMap<String, Map<String, MethodCall>>());
+            fASTCache= new CallHierarchyASTCache();
             fLevel = 1;
         } else {
             setMethodCache(parent.getMethodCache());
+            fASTCache= parent.fASTCache;
             fLevel = parent.getLevel() + 1;
         }
 
@@ -200,6 +209,46 @@ public abstract class MethodWrapper extends PlatformObject {
         return result;
     }
 
+    /**
+     * Returns the AST cache shared by all method wrappers of this call hierarchy.
+     *
+     * @return the AST cache
+     * @since 3.16
+     */
+    CallHierarchyASTCache getASTCache() {
+        return fASTCache;
+    }
+
+    /**
+     * Releases the ASTs cached for this call hierarchy. Clients call this when the call
+     * hierarchy is no longer shown.
+     *
+     * @since 3.16
+     */
+    public void clearASTCache() {
+        fASTCache.clear();
+    }
+
+    /**
+     * Returns the members of the other children of the parent, whose callees are
+     * likely to be computed next.
+     *
+     * @return the members of the siblings, or <code>null</code> if this is a root
+     * @since 3.16
+     */
+    IMember[] getSiblingMembers() {
+        Map<String, MethodCall> siblings= fParent != null ? fParent.fElements : null;
+        if (siblings == null)
+            return null;
+        List<IMember> result= new ArrayList<>(siblings.size());
+        for (Iterator<MethodCall> iter= siblings.values().iterator(); iter.hasNext();) {
+            IMember member= iter.next().getMember();
+            if (!member.equals(getMember()))
+                result.add(member);
+        }
+        return result.toArray(new IMember[result.size()]);
+    }
+
     private void setMethodCache(Map<String, Map<String, MethodCall>> methodCache) {
         fMethodCache = methodCache;
     }
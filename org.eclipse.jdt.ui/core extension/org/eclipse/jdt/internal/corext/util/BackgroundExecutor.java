@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of daemon threads for work that is split into tasks that run concurrently.
+ * The pool is created on first use, and its threads terminate when they have been idle for
+ * a few seconds.
+ * <p>
+ * The number of threads is the number of available processors, but at least
+ * <code>minThreads</code> and at most <code>maxThreads</code>.
+ * </p>
+ */
+public final class BackgroundExecutor {
+
+	private static final long KEEP_ALIVE_SECONDS= 10;
+
+	private final String fThreadName;
+	private final int fThreadCount;
+
+	private ExecutorService fExecutor;
+
+	/**
+	 * Creates a background executor.
+	 *
+	 * @param threadName the name of the threads
+	 * @param minThreads the minimal number of threads
+	 * @param maxThreads the maximal number of threads
+	 */
+	public BackgroundExecutor(String threadName, int minThreads, int maxThreads) {
+		fThreadName= threadName;
+		fThreadCount= Math.max(minThreads, Math.min(maxThreads, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * @return the number of threads of this executor
+	 */
+	public int getThreadCount() {
+		return fThreadCount;
+	}
+
+	/**
+	 * Returns the shared executor service of this background executor. The executor service
+	 * must not be shut down.
+	 *
+	 * @return the executor service
+	 */
+	public synchronized ExecutorService get() {
+		if (fExecutor == null) {
+			fExecutor= create();
+		}
+		return fExecutor;
+	}
+
+	/**
+	 * Creates a new executor service with the threads of this background executor. Clients
+	 * must shut it down when they are done.
+	 *
+	 * @return the new executor service
+	 */
+	public ExecutorService create() {
+		ThreadPoolExecutor executor= new ThreadPoolExecutor(fThreadCount, fThreadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+			Thread thread= new Thread(runnable, fThreadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Removes the cancelled tasks from the queue of the shared executor service, so that the
+	 * cancelled tasks of earlier invocations do not delay the tasks of later ones.
+	 */
+	public synchronized void purge() {
+		if (fExecutor instanceof ThreadPoolExecutor) {
+			((ThreadPoolExecutor) fExecutor).purge();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,8 +17,17 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
@@ -33,11 +42,15 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.IPackageFragment;
 
+import org.eclipse.jdt.internal.corext.util.BackgroundExecutor;
+
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 
 /**
@@ -47,6 +60,9 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
  */
 public abstract class AbstractCodeCreationOperation implements IWorkspaceRunnable {
 
+	/** The threads computing and writing compilation units concurrently */
+	private static final BackgroundExecutor fgExecutor= new BackgroundExecutor("Code Creation", 1, 4); //$NON-NLS-1$
+
 	/** The URI where to output the stubs */
 	protected final URI fOutputURI;
 
@@ -70,6 +86,10 @@ public abstract class AbstractCodeCreationOperation implements IWorkspaceRunnabl
 
 	/**
 	 * Creates a new compilation unit with the given contents.
+	 * <p>
+	 * This method is called concurrently for the compilation units of a
+	 * package, so that their contents are written as one batch.
+	 * </p>
 	 *
 	 * @param store
 	 *            the file store
@@ -77,17 +97,19 @@ public abstract class AbstractCodeCreationOperation implements IWorkspaceRunnabl
 	 *            the name of the compilation unit
 	 * @param content
 	 *            the content of the compilation unit
+	 * @param encoding
+	 *            the encoding of the compilation unit
 	 * @param monitor
 	 *            the progress monitor to use
 	 * @throws CoreException
 	 *             if an error occurs while creating the compilation unit
 	 */
-	protected void createCompilationUnit(final IFileStore store, final String name, final String content, final IProgressMonitor monitor) throws CoreException {
+	protected void createCompilationUnit(final IFileStore store, final String name, final String content, final String encoding, final IProgressMonitor monitor) throws CoreException {
 		OutputStream stream= null;
 		try {
 			stream= new BufferedOutputStream(store.getChild(name).openOutputStream(EFS.NONE, new SubProgressMonitor(monitor, 1)));
 			try {
-				stream.write(content.getBytes());
+				stream.write(content.getBytes(encoding));
 			} catch (IOException exception) {
 				throw new CoreException(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, exception.getLocalizedMessage(), exception));
 			}
@@ -118,6 +140,25 @@ public abstract class AbstractCodeCreationOperation implements IWorkspaceRunnabl
 		store.mkdir(EFS.NONE, monitor);
 	}
 
+	/**
+	 * Returns the encoding of the compilation units to create. This is the
+	 * default charset of the workspace container at the output location, or
+	 * the workspace encoding if there is none.
+	 *
+	 * @return the encoding
+	 */
+	private String getEncoding() {
+		final IContainer[] containers= ResourcesPlugin.getWorkspace().getRoot().findContainersForLocationURI(fOutputURI);
+		if (containers.length > 0) {
+			try {
+				return containers[0].getDefaultCharset();
+			} catch (CoreException exception) {
+				JavaPlugin.log(exception);
+			}
+		}
+		return ResourcesPlugin.getEncoding();
+	}
+
 	/**
 	 * Returns the operation label.
 	 *
@@ -126,24 +167,108 @@ public abstract class AbstractCodeCreationOperation implements IWorkspaceRunnabl
 	protected abstract String getOperationLabel();
 
 	/**
-	 * Runs the stub generation on the specified class file.
+	 * Computes the compilation unit to create for the specified class file.
+	 * <p>
+	 * This method is called concurrently for the class files of a package.
+	 * </p>
 	 *
 	 * @param file
 	 *            the class file
-	 * @param parent
-	 *            the parent store
+	 * @param nested
+	 *            the class files of the package of <code>file</code> whose
+	 *            names start with the name of <code>file</code> followed by
+	 *            <code>$</code>, sorted by element name
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @return the name and the content of the compilation unit, or
+	 *         <code>null</code> if no compilation unit is created for the
+	 *         class file
+	 * @throws CoreException
+	 *             if an error occurs
+	 * @since 3.16
+	 */
+	protected abstract String[] computeCompilationUnit(IClassFile file, IClassFile[] nested, IProgressMonitor monitor) throws CoreException;
+
+	/**
+	 * Computes and creates the compilation units for the specified class files
+	 * in parallel.
+	 *
+	 * @param files
+	 *            the class files of a package
+	 * @param store
+	 *            the store of the package
+	 * @param encoding
+	 *            the encoding of the compilation units
+	 * @param executor
+	 *            the executor to compute the compilation units
 	 * @param monitor
 	 *            the progress monitor to use
 	 * @throws CoreException
 	 *             if an error occurs
 	 */
-	protected abstract void run(IClassFile file, IFileStore parent, IProgressMonitor monitor) throws CoreException;
+	private void createCompilationUnits(final IClassFile[] files, final IFileStore store, final String encoding, final ExecutorService executor, final IProgressMonitor monitor) throws CoreException {
+		final IClassFile[] sorted= files.clone();
+		Arrays.sort(sorted, (first, second) -> first.getElementName().compareTo(second.getElementName()));
+		final Map<String, List<IClassFile>> nested= new HashMap<>();
+		for (int index= 0; index < sorted.length; index++) {
+			final String name= sorted[index].getElementName();
+			for (int offset= name.indexOf('$'); offset > 0; offset= name.indexOf('$', offset + 1))
+				nested.computeIfAbsent(name.substring(0, offset), key -> new ArrayList<>()).add(sorted[index]);
+		}
+		final List<Future<Void>> futures= new ArrayList<>(files.length);
+		for (int index= 0; index < files.length; index++) {
+			final IClassFile file= files[index];
+			final String name= file.getElementName();
+			final int offset= name.lastIndexOf('.');
+			final List<IClassFile> list= nested.get(offset >= 0 ? name.substring(0, offset) : name);
+			final IClassFile[] members= list != null ? list.toArray(new IClassFile[list.size()]) : new IClassFile[0];
+			futures.add(executor.submit(() -> {
+				final String[] unit= computeCompilationUnit(file, members, new NullProgressMonitor());
+				if (unit != null)
+					createCompilationUnit(store, unit[0], unit[1], encoding, new NullProgressMonitor());
+				return null;
+			}));
+		}
+		try {
+			for (int index= 0; index < futures.size(); index++) {
+				waitFor(futures.get(index), monitor);
+				monitor.worked(100);
+			}
+		} finally {
+			for (int index= 0; index < futures.size(); index++)
+				futures.get(index).cancel(true);
+		}
+	}
+
+	private static void waitFor(final Future<Void> future, final IProgressMonitor monitor) throws CoreException {
+		while (true) {
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+			try {
+				future.get(100, TimeUnit.MILLISECONDS);
+				return;
+			} catch (TimeoutException exception) {
+				// check for cancellation again
+			} catch (InterruptedException exception) {
+				throw new OperationCanceledException();
+			} catch (ExecutionException exception) {
+				final Throwable cause= exception.getCause();
+				if (cause instanceof CoreException)
+					throw (CoreException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				throw new CoreException(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, cause.getLocalizedMessage(), cause));
+			}
+		}
+	}
 
 	@Override
 	public void run(IProgressMonitor monitor) throws CoreException {
 		if (monitor == null)
 			monitor= new NullProgressMonitor();
 		monitor.beginTask(getOperationLabel(), 100 * fPackages.size());
+		final String encoding= getEncoding();
+		final ExecutorService executor= fgExecutor.create();
 		try {
 			final StringBuilder builder= new StringBuilder(128);
 			for (final Iterator<IPackageFragment> iterator= fPackages.iterator(); iterator.hasNext();) {
@@ -171,16 +296,13 @@ public abstract class AbstractCodeCreationOperation implements IWorkspaceRunnabl
 				final IProgressMonitor subsubMonitor= new SubProgressMonitor(subMonitor, 30);
 				try {
 					subsubMonitor.beginTask(getOperationLabel(), size * 100);
-					for (int index= 0; index < size; index++) {
-						if (subMonitor.isCanceled())
-							throw new OperationCanceledException();
-						run(files[index], store, new SubProgressMonitor(subsubMonitor, 100));
-					}
+					createCompilationUnits(files, store, encoding, executor, subsubMonitor);
 				} finally {
 					subsubMonitor.done();
 				}
 			}
 		} finally {
+			executor.shutdownNow();
 			monitor.done();
 		}
 	}
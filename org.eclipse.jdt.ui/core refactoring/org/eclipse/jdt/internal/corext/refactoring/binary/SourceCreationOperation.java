@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2017 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,6 @@ package org.eclipse.jdt.internal.corext.refactoring.binary;
 import java.net.URI;
 import java.util.List;
 
-import org.eclipse.core.filesystem.IFileStore;
-
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -60,33 +58,18 @@ public class SourceCreationOperation extends AbstractCodeCreationOperation {
 		return RefactoringCoreMessages.SourceCreationOperation_creating_source_folder;
 	}
 
-	/**
-	 * Runs the stub generation on the specified class file.
-	 *
-	 * @param file
-	 *            the class file
-	 * @param parent
-	 *            the parent store
-	 * @param monitor
-	 *            the progress monitor to use
-	 * @throws CoreException
-	 *             if an error occurs
-	 */
 	@Override
-	protected void run(final IClassFile file, final IFileStore parent, final IProgressMonitor monitor) throws CoreException {
-		try {
-			monitor.beginTask(getOperationLabel(), 2);
-			final String source= file.getSource();
-			if (file instanceof IModularClassFile) {
-				createCompilationUnit(parent, JavaModelUtil.MODULE_INFO_JAVA, source != null ? source : "", monitor); //$NON-NLS-1$
-			} else {
-				final IType type= ((IOrdinaryClassFile) file).getType();
-				if (type.isAnonymous() || type.isLocal() || type.isMember())
-					return;
-				createCompilationUnit(parent, type.getElementName() + JavaModelUtil.DEFAULT_CU_SUFFIX, source != null ? source : "", monitor); //$NON-NLS-1$
-			}
-		} finally {
-			monitor.done();
+	protected String[] computeCompilationUnit(final IClassFile file, final IClassFile[] nested, final IProgressMonitor monitor) throws CoreException {
+		final String name;
+		if (file instanceof IModularClassFile) {
+			name= JavaModelUtil.MODULE_INFO_JAVA;
+		} else {
+			final IType type= ((IOrdinaryClassFile) file).getType();
+			if (type.isAnonymous() || type.isLocal() || type.isMember())
+				return null;
+			name= type.getElementName() + JavaModelUtil.DEFAULT_CU_SUFFIX;
 		}
+		final String source= file.getSource();
+		return new String[] { name, source != null ? source : "" }; //$NON-NLS-1$
 	}
 }
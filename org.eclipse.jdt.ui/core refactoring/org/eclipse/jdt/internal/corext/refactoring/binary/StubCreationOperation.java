@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,18 +14,24 @@
 package org.eclipse.jdt.internal.corext.refactoring.binary;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import org.eclipse.core.filesystem.IFileStore;
+import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IOrdinaryClassFile;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
 
 import org.eclipse.jdt.internal.corext.refactoring.RefactoringCoreMessages;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
@@ -38,6 +44,19 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
  */
 public class StubCreationOperation extends AbstractCodeCreationOperation {
 
+	/** The maximum number of characters of the cached stubs */
+	private static final int MAX_CACHED_CHARACTERS= 8 * 1024 * 1024;
+
+	/**
+	 * The stubs created recently, in access order, keyed by the hash of the
+	 * contents of their class files, the project and the superclasses resolved
+	 * in it. Re-importing an unchanged JAR reuses them.
+	 */
+	private static final LinkedHashMap<String, String[]> fgStubs= new LinkedHashMap<>(256, 0.75f, true);
+
+	/** The number of characters of the cached stubs */
+	private static int fgCachedCharacters= 0;
+
 	/** Should stubs for private member be generated as well? */
 	protected final boolean fStubInvisible;
 
@@ -74,32 +93,112 @@ public class StubCreationOperation extends AbstractCodeCreationOperation {
 		return RefactoringCoreMessages.StubCreationOperation_creating_type_stubs;
 	}
 
+	@Override
+	protected String[] computeCompilationUnit(final IClassFile file, final IClassFile[] nested, final IProgressMonitor monitor) throws CoreException {
+		if (!(file instanceof IOrdinaryClassFile))
+			return null;
+		final IType type= ((IOrdinaryClassFile) file).getType();
+		if (type.isAnonymous() || type.isLocal() || type.isMember())
+			return null;
+		final String key= computeCacheKey(file, nested);
+		if (key != null) {
+			synchronized (fgStubs) {
+				final String[] unit= fgStubs.get(key);
+				if (unit != null)
+					return unit;
+			}
+		}
+		final String[] unit= new String[] { type.getElementName() + JavaModelUtil.DEFAULT_CU_SUFFIX, new StubCreator(fStubInvisible).createStub(type, monitor) };
+		if (key != null) {
+			synchronized (fgStubs) {
+				final String[] previous= fgStubs.put(key, unit);
+				fgCachedCharacters+= getLength(key, unit) - (previous != null ? getLength(key, previous) : 0);
+				for (final Iterator<Map.Entry<String, String[]>> iterator= fgStubs.entrySet().iterator(); fgCachedCharacters > MAX_CACHED_CHARACTERS && iterator.hasNext();) {
+					final Map.Entry<String, String[]> entry= iterator.next();
+					fgCachedCharacters-= getLength(entry.getKey(), entry.getValue());
+					iterator.remove();
+				}
+			}
+		}
+		return unit;
+	}
+
+	private static int getLength(final String key, final String[] unit) {
+		return key.length() + unit[0].length() + unit[1].length();
+	}
+
 	/**
-	 * Runs the stub generation on the specified class file.
+	 * Computes the cache key of the stub for the specified class file. The stub
+	 * of a type includes its member types, and the <code>super(...)</code>
+	 * calls of their constructors depend on the superclasses found in the
+	 * project. The key is therefore computed from the contents of the class
+	 * file, the class files of its nested types, the project, and the
+	 * contents of the superclasses.
 	 *
 	 * @param file
 	 *            the class file
-	 * @param parent
-	 *            the parent store
-	 * @param monitor
-	 *            the progress monitor to use
-	 * @throws CoreException
-	 *             if an error occurs
+	 * @param nested
+	 *            the class files of the nested types
+	 * @return the cache key, or <code>null</code> if the stub cannot be cached
 	 */
-	@Override
-	protected void run(final IClassFile file, final IFileStore parent, final IProgressMonitor monitor) throws CoreException {
+	private String computeCacheKey(final IClassFile file, final IClassFile[] nested) {
 		try {
-			monitor.beginTask(RefactoringCoreMessages.StubCreationOperation_creating_type_stubs, 2);
-			SubProgressMonitor subProgressMonitor= new SubProgressMonitor(monitor, 1);
-			if (file instanceof IOrdinaryClassFile) {
-				final IType type= ((IOrdinaryClassFile) file).getType();
-				if (type.isAnonymous() || type.isLocal() || type.isMember())
-					return;
-				String source= new StubCreator(fStubInvisible).createStub(type, subProgressMonitor);
-				createCompilationUnit(parent, type.getElementName() + JavaModelUtil.DEFAULT_CU_SUFFIX, source, monitor);
+			final MessageDigest digest= MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+			final IJavaProject project= file.getJavaProject();
+			digest.update(project.getHandleIdentifier().getBytes(StandardCharsets.UTF_8));
+			digest.update(file.getBytes());
+			updateSuperclass(digest, project, ((IOrdinaryClassFile) file).getType());
+			for (int index= 0; index < nested.length; index++) {
+				final IClassFile current= nested[index];
+				digest.update(current.getElementName().getBytes(StandardCharsets.UTF_8));
+				digest.update(current.getBytes());
+				if (current instanceof IOrdinaryClassFile)
+					updateSuperclass(digest, project, ((IOrdinaryClassFile) current).getType());
+			}
+			final StringBuilder builder= new StringBuilder(42);
+			builder.append(fStubInvisible ? 'I' : 'V').append(':');
+			for (final byte value : digest.digest()) {
+				builder.append(Character.forDigit((value >> 4) & 0xF, 16));
+				builder.append(Character.forDigit(value & 0xF, 16));
+			}
+			return builder.toString();
+		} catch (NoSuchAlgorithmException exception) {
+			return null;
+		} catch (JavaModelException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * Updates the digest with the superclass of the specified type, resolved
+	 * the same way as by {@link StubCreator}.
+	 *
+	 * @param digest
+	 *            the digest to update
+	 * @param project
+	 *            the project to resolve the superclass in
+	 * @param type
+	 *            the type
+	 * @throws JavaModelException
+	 *             if the superclass cannot be read
+	 */
+	private static void updateSuperclass(final MessageDigest digest, final IJavaProject project, final IType type) throws JavaModelException {
+		String signature= type.getSuperclassTypeSignature();
+		if (signature == null)
+			return;
+		signature= Signature.getTypeErasure(signature);
+		final IType superclass= project.findType(Signature.getSignatureQualifier(signature), Signature.getSignatureSimpleName(signature));
+		if (superclass == null) {
+			digest.update((byte) 0);
+		} else {
+			digest.update(superclass.getHandleIdentifier().getBytes(StandardCharsets.UTF_8));
+			if (superclass.isBinary()) {
+				digest.update(superclass.getClassFile().getBytes());
+			} else {
+				final String source= superclass.getCompilationUnit().getSource();
+				if (source != null)
+					digest.update(source.getBytes(StandardCharsets.UTF_8));
 			}
-		} finally {
-			monitor.done();
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -58,6 +58,7 @@ public final class NLSMessages extends NLS {
 	public static String NLSPropertyFileModifier_replace_entry;
 	public static String NLSPropertyFileModifier_remove_entry;
 	public static String NLSPropertyFileModifier_remove_from_property_file;
+	public static String PropertiesFileEscapes_malformedEncoding;
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, NLSMessages.class);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 IBM Corporation and others.
+ * Copyright (c) 2010, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -11,14 +11,15 @@
  * Contributors:
  *     IBM Corporation - initial API and implementation
  *******************************************************************************/
-package org.eclipse.jdt.internal.ui.propertiesfileeditor;
+package org.eclipse.jdt.internal.corext.refactoring.nls;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 
 import org.eclipse.jdt.internal.corext.util.Messages;
 
-import org.eclipse.jdt.internal.ui.dialogs.StatusInfo;
+import org.eclipse.jdt.ui.JavaUI;
 
 /**
  * Helper class to convert between Java chars and the escaped form that must be used in .properties
@@ -166,8 +167,8 @@ public class PropertiesFileEscapes {
 					// Read the xxxx
 					int value= 0;
 					if (x > len - 4) {
-						String exceptionMessage= Messages.format(PropertiesFileEditorMessages.PropertiesFileHover_MalformedEncoding, outBuffer.toString() + s.substring(x - 2));
-						throw new CoreException(new StatusInfo(IStatus.WARNING, exceptionMessage));
+						String exceptionMessage= Messages.format(NLSMessages.PropertiesFileEscapes_malformedEncoding, outBuffer.toString() + s.substring(x - 2));
+						throw new CoreException(new Status(IStatus.WARNING, JavaUI.ID_PLUGIN, exceptionMessage));
 					}
 					StringBuilder buf= new StringBuilder("\\u"); //$NON-NLS-1$
 					int digit= 0;
@@ -200,8 +201,8 @@ public class PropertiesFileEscapes {
 		if (isValidEscapedString) {
 			return outBuffer.toString();
 		} else {
-			String exceptionMessage= Messages.format(PropertiesFileEditorMessages.PropertiesFileHover_MalformedEncoding, outBuffer.toString());
-			throw new CoreException(new StatusInfo(IStatus.WARNING, exceptionMessage));
+			String exceptionMessage= Messages.format(NLSMessages.PropertiesFileEscapes_malformedEncoding, outBuffer.toString());
+			throw new CoreException(new Status(IStatus.WARNING, JavaUI.ID_PLUGIN, exceptionMessage));
 		}
 	}
 
@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.refactoring.nls;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IStorage;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.ITextFileBufferManager;
+import org.eclipse.core.filebuffers.LocationKind;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+/**
+ * The keys, values and key positions of a property file, as used by the NLS search, the
+ * NLS string hover and the Externalize Strings wizard.
+ * <p>
+ * Indexes are cached per file and reused until the file or its open text file buffer is
+ * modified, so that large message bundles are only parsed again after they changed. The cache
+ * holds at most {@value #MAX_ENTRIES} files with a total of {@value #MAX_SIZE} characters;
+ * larger files are indexed on every request.
+ * </p>
+ * <p>
+ * Only the property files are indexed. The usages of the keys are not persisted: the NLS search
+ * finds the references to the accessor class with the Java search, whose index is already
+ * maintained incrementally, and only parses the compilation units that contain such references.
+ * </p>
+ *
+ * @since 3.16
+ */
+public final class PropertyFileIndex {
+
+	private static final int MAX_ENTRIES= 50;
+
+	private static final int MAX_SIZE= 4 * 1024 * 1024;
+
+	/**
+	 * LRU map of file paths to indexes.
+	 */
+	private static final LinkedHashMap<IPath, PropertyFileIndex> fgIndexes= new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * The number of characters of the cached files, guarded by {@link #fgIndexes}.
+	 */
+	private static long fgSize= 0;
+
+	/**
+	 * Properties that remember the keys that are defined more than once.
+	 */
+	private static final class DuplicateTrackingProperties extends Properties {
+		private static final long serialVersionUID= 1L;
+
+		private final Set<String> fKeys= new LinkedHashSet<>();
+		private final Set<String> fDuplicateKeys= new LinkedHashSet<>();
+
+		@Override
+		public synchronized Object put(Object key, Object value) {
+			if (!fKeys.add((String) key))
+				fDuplicateKeys.add((String) key);
+			return super.put(key, value);
+		}
+	}
+
+	/**
+	 * An index without keys, e.g. for a property file that cannot be read.
+	 */
+	public static final PropertyFileIndex EMPTY= new PropertyFileIndex("", 0, new DuplicateTrackingProperties(), Collections.<String, IRegion> emptyMap()); //$NON-NLS-1$
+
+	private final String fStamp;
+	private final int fSize;
+	private final Properties fProperties;
+	private final Set<String> fKeys;
+	private final Set<String> fDuplicateKeys;
+	private final Map<String, IRegion> fKeyRegions;
+
+	private PropertyFileIndex(String stamp, int size, DuplicateTrackingProperties properties, Map<String, IRegion> keyRegions) {
+		fStamp= stamp;
+		fSize= size;
+		fProperties= properties;
+		fKeys= Collections.unmodifiableSet(properties.fKeys);
+		fDuplicateKeys= Collections.unmodifiableSet(properties.fDuplicateKeys);
+		fKeyRegions= keyRegions;
+	}
+
+	/**
+	 * Returns the index of the given property file. If the file is open in a text file
+	 * buffer, the content of the buffer is indexed.
+	 *
+	 * @param storage the property file
+	 * @return the index or <code>null</code> if the file could not be read
+	 * @throws IllegalArgumentException if the file contains a malformed Unicode escape sequence
+	 */
+	public static PropertyFileIndex get(IStorage storage) {
+		IPath path= storage.getFullPath();
+		IDocument document= null;
+		ITextFileBufferManager manager= FileBuffers.getTextFileBufferManager();
+		if (manager != null && path != null) {
+			ITextFileBuffer buffer= manager.getTextFileBuffer(path, LocationKind.NORMALIZE);
+			if (buffer != null)
+				document= buffer.getDocument();
+		}
+
+		String stamp= computeStamp(storage, document);
+		if (stamp != null) {
+			synchronized (fgIndexes) {
+				PropertyFileIndex index= fgIndexes.get(path);
+				if (index != null && index.fStamp.equals(stamp))
+					return index;
+			}
+		}
+
+		PropertyFileIndex index;
+		try {
+			if (document != null) {
+				String content= document.get();
+				index= create(stamp, content.getBytes(), content);
+			} else {
+				byte[] bytes= readContents(storage);
+				String encoding= storage instanceof IFile ? ((IFile) storage).getCharset() : "ISO-8859-1"; //$NON-NLS-1$
+				String content;
+				try {
+					content= new String(bytes, encoding);
+				} catch (UnsupportedEncodingException e) {
+					content= new String(bytes, "ISO-8859-1"); //$NON-NLS-1$
+				}
+				index= create(stamp, bytes, content);
+			}
+		} catch (IOException e) {
+			return null;
+		} catch (CoreException e) {
+			return null;
+		}
+
+		if (stamp != null)
+			cache(path, index);
+		return index;
+	}
+
+	private static void cache(IPath path, PropertyFileIndex index) {
+		synchronized (fgIndexes) {
+			PropertyFileIndex previous= fgIndexes.remove(path);
+			if (previous != null)
+				fgSize-= previous.fSize;
+			if (index.fSize > MAX_SIZE)
+				return;
+			for (Iterator<PropertyFileIndex> iter= fgIndexes.values().iterator(); iter.hasNext() && (fgIndexes.size() >= MAX_ENTRIES || fgSize + index.fSize > MAX_SIZE);) {
+				fgSize-= iter.next().fSize;
+				iter.remove();
+			}
+			fgIndexes.put(path, index);
+			fgSize+= index.fSize;
+		}
+	}
+
+	private static String computeStamp(IStorage storage, IDocument document) {
+		if (document != null) {
+			if (!(document instanceof IDocumentExtension4))
+				return null;
+			long stamp= ((IDocumentExtension4) document).getModificationStamp();
+			if (stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+				return null;
+			return "D:" + stamp; //$NON-NLS-1$
+		}
+		if (storage instanceof IFile) {
+			IFile file= (IFile) storage;
+			return "F:" + file.getModificationStamp() + ':' + file.getLocalTimeStamp(); //$NON-NLS-1$
+		}
+		return null;
+	}
+
+	private static byte[] readContents(IStorage storage) throws CoreException, IOException {
+		ByteArrayOutputStream out= new ByteArrayOutputStream();
+		try (InputStream in= storage.getContents()) {
+			byte[] buffer= new byte[8192];
+			int read;
+			while ((read= in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static PropertyFileIndex create(String stamp, byte[] bytes, String content) throws IOException {
+		DuplicateTrackingProperties properties= new DuplicateTrackingProperties();
+		properties.load(new ByteArrayInputStream(bytes));
+		return new PropertyFileIndex(stamp == null ? "" : stamp, content.length(), properties, computeKeyRegions(content)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Computes the regions of the keys in the given property file content.
+	 *
+	 * @param content the content of the property file
+	 * @return the region of the first definition of each key, as it appears in the file
+	 */
+	private static Map<String, IRegion> computeKeyRegions(String content) {
+		Map<String, IRegion> regions= new HashMap<>();
+		int length= content.length();
+		int lineStart= 0;
+		boolean isContinuation= false;
+		while (lineStart < length) {
+			int lineEnd= lineStart;
+			while (lineEnd < length && content.charAt(lineEnd) != '\n' && content.charAt(lineEnd) != '\r')
+				lineEnd++;
+
+			int keyStart= lineStart;
+			while (keyStart < lineEnd && Character.isWhitespace(content.charAt(keyStart)))
+				keyStart++;
+			boolean isComment= keyStart < lineEnd && (content.charAt(keyStart) == '#' || content.charAt(keyStart) == '!');
+			if (!isContinuation && !isComment && keyStart < lineEnd) {
+				int keyEnd= keyStart;
+				while (keyEnd < lineEnd) {
+					char ch= content.charAt(keyEnd);
+					if (ch == '\\') {
+						keyEnd+= 2;
+						continue;
+					}
+					if (ch == '=' || ch == ':' || Character.isWhitespace(ch))
+						break;
+					keyEnd++;
+				}
+				keyEnd= Math.min(keyEnd, lineEnd);
+				String key= content.substring(keyStart, keyEnd);
+				try {
+					key= PropertiesFileEscapes.unescape(key);
+				} catch (CoreException e) {
+					// malformed \uxxxx encoding, keep the key as it is
+				}
+				if (!regions.containsKey(key))
+					regions.put(key, new Region(keyStart, keyEnd - keyStart));
+			}
+
+			if (!isComment || isContinuation) {
+				int backslashes= 0;
+				while (lineEnd - backslashes > lineStart && content.charAt(lineEnd - backslashes - 1) == '\\')
+					backslashes++;
+				isContinuation= backslashes % 2 == 1;
+			}
+
+			lineStart= lineEnd;
+			if (lineStart < length && content.charAt(lineStart) == '\r')
+				lineStart++;
+			if (lineStart < length && content.charAt(lineStart) == '\n')
+				lineStart++;
+		}
+		return regions;
+	}
+
+	/**
+	 * @return a new copy of the properties defined in the file
+	 */
+	public Properties getProperties() {
+		Properties properties= new Properties();
+		properties.putAll(fProperties);
+		return properties;
+	}
+
+	/**
+	 * @param key the key
+	 * @return the value of the key or <code>null</code> if the key is not defined
+	 */
+	public String getProperty(String key) {
+		return fProperties.getProperty(key);
+	}
+
+	/**
+	 * @param key the key
+	 * @return <code>true</code> if the key is defined in the file
+	 */
+	public boolean containsKey(String key) {
+		return fProperties.containsKey(key);
+	}
+
+	/**
+	 * @return the keys defined in the file, in the order of their first definition
+	 */
+	public Set<String> getKeys() {
+		return fKeys;
+	}
+
+	/**
+	 * @return the keys that are defined more than once in the file
+	 */
+	public Set<String> getDuplicateKeys() {
+		return fDuplicateKeys;
+	}
+
+	/**
+	 * Returns the region of the first definition of the given key in the file. The region
+	 * covers the key as it appears in the file, i.e. including escape characters.
+	 *
+	 * @param key the key
+	 * @return the region of the key or <code>null</code> if the key is not found
+	 */
+	public IRegion getKeyRegion(String key) {
+		return fKeyRegions.get(key);
+	}
+}
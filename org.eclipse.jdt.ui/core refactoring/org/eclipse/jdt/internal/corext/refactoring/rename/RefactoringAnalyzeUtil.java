@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -83,8 +83,21 @@ public class RefactoringAnalyzeUtil {
 	}
 
 	public static IProblem[] getIntroducedCompileProblems(CompilationUnit newCUNode, CompilationUnit oldCuNode) {
+		return getIntroducedCompileProblems(newCUNode, getProblems(oldCuNode));
+	}
+
+	/**
+	 * Returns the problems of the new AST that have no corresponding problem in the old
+	 * compilation unit.
+	 *
+	 * @param newCUNode the AST of the changed compilation unit
+	 * @param oldCuProblems the problems of the original compilation unit, see
+	 *            {@link #getProblems(CompilationUnit)}
+	 * @return the introduced problems
+	 */
+	public static IProblem[] getIntroducedCompileProblems(CompilationUnit newCUNode, IProblem[] oldCuProblems) {
 		Set<IProblem> subResult= new HashSet<>();
-		Set<IProblem> oldProblems= getOldProblems(oldCuNode);
+		Set<IProblem> oldProblems= new HashSet<>(Arrays.asList(oldCuProblems));
 		IProblem[] newProblems= ASTNodes.getProblems(newCUNode, ASTNodes.INCLUDE_ALL_PARENTS, ASTNodes.PROBLEMS);
 		for (int i= 0; i < newProblems.length; i++) {
 			IProblem correspondingOld= findCorrespondingProblem(oldProblems, newProblems[i]);
@@ -128,7 +141,14 @@ public class RefactoringAnalyzeUtil {
 		return getSimpleName(node);
 	}
 
-	private static Set<IProblem> getOldProblems(CompilationUnit oldCuNode) {
-		return new HashSet<>(Arrays.asList(ASTNodes.getProblems(oldCuNode, ASTNodes.INCLUDE_ALL_PARENTS, ASTNodes.PROBLEMS)));
+	/**
+	 * Returns the problems of the given AST, which can be kept instead of the AST to compute the
+	 * introduced problems later.
+	 *
+	 * @param cuNode the AST of a compilation unit
+	 * @return the problems of the compilation unit
+	 */
+	public static IProblem[] getProblems(CompilationUnit cuNode) {
+		return ASTNodes.getProblems(cuNode, ASTNodes.INCLUDE_ALL_PARENTS, ASTNodes.PROBLEMS);
 	}
 }
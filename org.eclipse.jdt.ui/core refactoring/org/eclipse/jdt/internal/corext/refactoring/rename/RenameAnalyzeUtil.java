@@ -19,11 +19,18 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
@@ -42,6 +49,7 @@ import org.eclipse.ltk.core.refactoring.TextEditChangeGroup;
 
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.ISourceReference;
 import org.eclipse.jdt.core.JavaModelException;
@@ -49,6 +57,8 @@ import org.eclipse.jdt.core.SourceRange;
 import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.IBinding;
@@ -69,12 +79,15 @@ import org.eclipse.jdt.internal.corext.refactoring.base.JavaStringStatusContext;
 import org.eclipse.jdt.internal.corext.refactoring.util.JavaStatusContext;
 import org.eclipse.jdt.internal.corext.refactoring.util.RefactoringASTParser;
 import org.eclipse.jdt.internal.corext.refactoring.util.TextChangeManager;
+import org.eclipse.jdt.internal.corext.util.BackgroundExecutor;
 import org.eclipse.jdt.internal.corext.util.Messages;
 import org.eclipse.jdt.internal.corext.util.SearchUtils;
 
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 class RenameAnalyzeUtil {
 
 	private static class ProblemNodeFinder {
@@ -83,26 +96,37 @@ class RenameAnalyzeUtil {
 			//static
 		}
 
-		public static SimpleName[] getProblemNodes(ASTNode methodNode, VariableDeclaration variableNode, TextEdit[] edits, TextChange change) {
-			String key= variableNode.resolveBinding().getKey();
-			NameNodeVisitor visitor= new NameNodeVisitor(edits, change, key);
-			methodNode.accept(visitor);
+		/**
+		 * Finds the names that refer to a renamed variable but have not been renamed, and the
+		 * renamed names that refer to another variable. The renamed variables are indexed by the
+		 * keys of their bindings, so that the AST is visited only once for all variables.
+		 *
+		 * @param cuNode the AST of the changed compilation unit
+		 * @param newRangesByKey the ranges of the renamed names in the changed compilation unit, by
+		 *            the binding key of the renamed variable
+		 * @return the problem nodes
+		 */
+		public static SimpleName[] getProblemNodes(CompilationUnit cuNode, Map<String, Set<IRegion>> newRangesByKey) {
+			NameNodeVisitor visitor= new NameNodeVisitor(newRangesByKey);
+			cuNode.accept(visitor);
 			return visitor.getProblemNodes();
 		}
 
 		private static class NameNodeVisitor extends ASTVisitor {
 
-			private Collection<IRegion> fRanges;
+			private Map<String, Set<IRegion>> fRangesByKey;
+			private Set<IRegion> fAllRanges;
 			private Collection<SimpleName> fProblemNodes;
-			private String fKey;
 
-			public NameNodeVisitor(TextEdit[] edits, TextChange change, String key) {
-				Assert.isNotNull(edits);
-				Assert.isNotNull(key);
+			public NameNodeVisitor(Map<String, Set<IRegion>> rangesByKey) {
+				Assert.isNotNull(rangesByKey);
 
-				fRanges= new HashSet<>(Arrays.asList(RefactoringAnalyzeUtil.getNewRanges(edits, change)));
+				fRangesByKey= rangesByKey;
+				fAllRanges= new HashSet<>();
+				for (Set<IRegion> ranges : rangesByKey.values()) {
+					fAllRanges.addAll(ranges);
+				}
 				fProblemNodes= new ArrayList<>(0);
-				fKey= key;
 			}
 
 			public SimpleName[] getProblemNodes() {
@@ -121,20 +145,20 @@ class RenameAnalyzeUtil {
 				if (binding == null)
 					return super.visit(node);
 
-				boolean keysEqual= fKey.equals(binding.getKey());
-				boolean rangeInSet= fRanges.contains(new Region(node.getStartPosition(), node.getLength()));
+				Set<IRegion> renamedRanges= fRangesByKey.get(binding.getKey());
+				Region range= new Region(node.getStartPosition(), node.getLength());
 
-				if (keysEqual && !rangeInSet)
-					fProblemNodes.add(node);
+				if (renamedRanges != null && !renamedRanges.contains(range))
+					fProblemNodes.add(node); // reference to a renamed variable that has not been renamed
 
-				if (!keysEqual && rangeInSet)
-					fProblemNodes.add(node);
+				if (renamedRanges == null && fAllRanges.contains(range))
+					fProblemNodes.add(node); // renamed reference to another variable
 
 				/*
-				 * if (!keyEquals && !rangeInSet)
+				 * if (renamedRanges == null && !rangeInSet)
 				 * 		ok, different local variable.
 				 *
-				 * if (keyEquals && rangeInSet)
+				 * if (renamedRanges != null && rangeInSet)
 				 * 		ok, renamed local variable & has been renamed.
 				 */
 
@@ -153,10 +177,96 @@ class RenameAnalyzeUtil {
 		}
 	}
 
+	/**
+	 * The local variable renames in one compilation unit, to be analyzed together with the renames
+	 * in other compilation units.
+	 */
+	static class LocalAnalyzeUnit {
+		public final ICompilationUnit fCompilationUnit;
+		public final LocalAnalyzePackage[] fAnalyzePackages;
+		public final TextChange fChange;
+		public final IProblem[] fOldProblems;
+
+		/**
+		 * @param analyzePackages the LocalAnalyzePackages containing the information about the local renames
+		 * @param cuChange the TextChange containing all local variable changes to be applied.
+		 * @param oldCUNode the fully (incl. bindings) resolved AST node of the original compilation
+		 *            unit, which is not referenced after the constructor returns
+		 */
+		public LocalAnalyzeUnit(final LocalAnalyzePackage[] analyzePackages, final TextChange cuChange, final CompilationUnit oldCUNode) {
+			fCompilationUnit= (ICompilationUnit) oldCUNode.getJavaElement();
+			fAnalyzePackages= analyzePackages;
+			fChange= cuChange;
+			fOldProblems= RefactoringAnalyzeUtil.getProblems(oldCUNode);
+		}
+	}
+
+	/**
+	 * The minimal number of compilation units for which a separate batch of ASTs is created.
+	 * Smaller batches would not outweigh the bindings that each batch has to resolve again.
+	 */
+	private static final int MIN_BATCH_SIZE= 20;
+
+	private static final BackgroundExecutor fgExecutor= new BackgroundExecutor("Rename Analysis", 2, 8); //$NON-NLS-1$
+
 	private RenameAnalyzeUtil() {
 		//no instance
 	}
 
+	/**
+	 * Runs the given tasks, concurrently if there is more than one, and waits until all of them
+	 * have finished. Each finished task counts as one unit of work.
+	 *
+	 * @param tasks the tasks
+	 * @param pm the progress monitor
+	 * @throws CoreException the first exception thrown by a task, in the order of the tasks
+	 */
+	private static void runAll(List<Callable<Object>> tasks, IProgressMonitor pm) throws CoreException {
+		if (tasks.size() == 1) {
+			try {
+				tasks.get(0).call();
+			} catch (CoreException | RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			pm.worked(1);
+			return;
+		}
+		List<Future<Object>> futures= new ArrayList<>(tasks.size());
+		for (Callable<Object> task : tasks) {
+			futures.add(fgExecutor.get().submit(task));
+		}
+		Throwable failure= null;
+		boolean interrupted= false;
+		for (Future<Object> future : futures) {
+			while (true) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					if (failure == null)
+						failure= e.getCause();
+				} catch (InterruptedException e) {
+					// the tasks use the working copies, wait until they are done
+					interrupted= true;
+					continue;
+				}
+				break;
+			}
+			pm.worked(1);
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		if (failure instanceof CoreException)
+			throw (CoreException) failure;
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw new IllegalStateException(failure);
+	}
+
 	static RefactoringStatus analyzeRenameChanges(TextChangeManager manager,  SearchResultGroup[] oldOccurrences, SearchResultGroup[] newOccurrences) {
 		RefactoringStatus result= new RefactoringStatus();
 		for (int i= 0; i < oldOccurrences.length; i++) {
@@ -184,17 +294,62 @@ class RenameAnalyzeUtil {
 		return null;
 	}
 
-	static ICompilationUnit[] createNewWorkingCopies(ICompilationUnit[] compilationUnitsToModify, TextChangeManager manager, WorkingCopyOwner owner, SubProgressMonitor pm) throws CoreException {
-		pm.beginTask("", compilationUnitsToModify.length); //$NON-NLS-1$
+	/**
+	 * Creates working copies with the content of the given compilation units after the changes of
+	 * the manager have been applied. The contents are set one after the other, the working copies
+	 * are then reconciled concurrently.
+	 *
+	 * @param compilationUnitsToModify the compilation units
+	 * @param manager the text change manager with the changes of the compilation units
+	 * @param owner the owner of the new working copies
+	 * @param pm the progress monitor
+	 * @return the new working copies, in the order of the compilation units
+	 * @throws CoreException if the new content cannot be computed, or if a working copy cannot be
+	 *             reconciled
+	 */
+	static ICompilationUnit[] createNewWorkingCopies(ICompilationUnit[] compilationUnitsToModify, TextChangeManager manager, final WorkingCopyOwner owner, SubProgressMonitor pm) throws CoreException {
+		pm.beginTask("", compilationUnitsToModify.length * 2); //$NON-NLS-1$
 		ICompilationUnit[] newWorkingCopies= new ICompilationUnit[compilationUnitsToModify.length];
-		for (int i= 0; i < compilationUnitsToModify.length; i++) {
-			ICompilationUnit cu= compilationUnitsToModify[i];
-			newWorkingCopies[i]= createNewWorkingCopy(cu, manager, owner, new SubProgressMonitor(pm, 1));
+		boolean success= false;
+		try {
+			List<Callable<Object>> reconciles= new ArrayList<>(compilationUnitsToModify.length);
+			for (int i= 0; i < compilationUnitsToModify.length; i++) {
+				ICompilationUnit cu= compilationUnitsToModify[i];
+				final ICompilationUnit newWc= cu.getWorkingCopy(owner, null);
+				newWorkingCopies[i]= newWc;
+				String previewContent= manager.get(cu).getPreviewContent(new NullProgressMonitor());
+				newWc.getBuffer().setContents(previewContent);
+				reconciles.add(() -> newWc.reconcile(ICompilationUnit.NO_AST, false, owner, null));
+				pm.worked(1);
+			}
+			runAll(reconciles, pm);
+			success= true;
+		} finally {
+			pm.done();
+			if (!success)
+				discardWorkingCopies(newWorkingCopies);
 		}
-		pm.done();
 		return newWorkingCopies;
 	}
 
+	/**
+	 * Discards the given working copies. Failures are logged, so that they do not hide the
+	 * exception of the analysis that created the working copies.
+	 *
+	 * @param workingCopies the working copies, may contain <code>null</code> elements
+	 */
+	private static void discardWorkingCopies(ICompilationUnit[] workingCopies) {
+		for (int i= 0; i < workingCopies.length; i++) {
+			if (workingCopies[i] != null) {
+				try {
+					workingCopies[i].discardWorkingCopy();
+				} catch (JavaModelException e) {
+					JavaPlugin.log(e);
+				}
+			}
+		}
+	}
+
 	static ICompilationUnit createNewWorkingCopy(ICompilationUnit cu, TextChangeManager manager,
 			WorkingCopyOwner owner, SubProgressMonitor pm) throws CoreException {
 		ICompilationUnit newWc= cu.getWorkingCopy(owner, null);
@@ -415,20 +570,104 @@ class RenameAnalyzeUtil {
 	 * @throws CoreException thrown if there was an error greating the preview content of the change
 	 */
 	public static RefactoringStatus analyzeLocalRenames(LocalAnalyzePackage[] analyzePackages, TextChange cuChange, CompilationUnit oldCUNode, boolean recovery) throws CoreException {
-
-		RefactoringStatus result= new RefactoringStatus();
 		ICompilationUnit compilationUnit= (ICompilationUnit) oldCUNode.getJavaElement();
 
 		String newCuSource= cuChange.getPreviewContent(new NullProgressMonitor());
 		CompilationUnit newCUNode= new RefactoringASTParser(IASTSharedValues.SHARED_AST_LEVEL).parse(newCuSource, compilationUnit, true, recovery, null);
 
-		result.merge(analyzeCompileErrors(newCuSource, newCUNode, oldCUNode));
+		return analyzeLocalRenames(analyzePackages, cuChange, newCuSource, newCUNode, RefactoringAnalyzeUtil.getProblems(oldCUNode));
+	}
+
+	/**
+	 * Analyzes the local variable renames in several compilation units, like
+	 * {@link #analyzeLocalRenames(LocalAnalyzePackage[], TextChange, CompilationUnit, boolean)}
+	 * does for one compilation unit. The changed compilation units are parsed in batches of ASTs
+	 * per project, which share the resolved bindings. Large projects are split into several
+	 * batches that are parsed concurrently.
+	 *
+	 * @param analyzeUnits the local variable renames of the compilation units
+	 * @param pm the progress monitor
+	 * @return a RefactoringStatus containing errors if compile errors or wrongly renamed nodes are
+	 *         found, in the order of the compilation units
+	 * @throws CoreException thrown if there was an error creating the preview content of a change
+	 */
+	static RefactoringStatus analyzeLocalRenames(final LocalAnalyzeUnit[] analyzeUnits, IProgressMonitor pm) throws CoreException {
+		final WorkingCopyOwner owner= new WorkingCopyOwner() { /* must subclass */ };
+		final ICompilationUnit[] newWorkingCopies= new ICompilationUnit[analyzeUnits.length];
+		final String[] newCuSources= new String[analyzeUnits.length];
+		final RefactoringStatus[] results= new RefactoringStatus[analyzeUnits.length];
+		final Map<ICompilationUnit, Integer> indexes= new HashMap<>();
+		Map<IJavaProject, List<ICompilationUnit>> workingCopiesByProject= new LinkedHashMap<>();
+		try {
+			pm.beginTask("", analyzeUnits.length * 2); //$NON-NLS-1$
+			for (int i= 0; i < analyzeUnits.length; i++) {
+				newCuSources[i]= analyzeUnits[i].fChange.getPreviewContent(new NullProgressMonitor());
+				// the working copies are parsed from their buffers, renaming locals does not change their structure
+				newWorkingCopies[i]= analyzeUnits[i].fCompilationUnit.getWorkingCopy(owner, null);
+				newWorkingCopies[i].getBuffer().setContents(newCuSources[i]);
+				indexes.put(newWorkingCopies[i], Integer.valueOf(i));
+
+				IJavaProject project= newWorkingCopies[i].getJavaProject();
+				List<ICompilationUnit> projectWorkingCopies= workingCopiesByProject.get(project);
+				if (projectWorkingCopies == null) {
+					projectWorkingCopies= new ArrayList<>();
+					workingCopiesByProject.put(project, projectWorkingCopies);
+				}
+				projectWorkingCopies.add(newWorkingCopies[i]);
+				pm.worked(1);
+			}
+
+			List<Callable<Object>> batches= new ArrayList<>();
+			for (Entry<IJavaProject, List<ICompilationUnit>> entry : workingCopiesByProject.entrySet()) {
+				final IJavaProject project= entry.getKey();
+				List<ICompilationUnit> projectWorkingCopies= entry.getValue();
+				int batchCount= Math.max(1, Math.min(fgExecutor.getThreadCount(), projectWorkingCopies.size() / MIN_BATCH_SIZE));
+				for (int b= 0; b < batchCount; b++) {
+					List<ICompilationUnit> batch= projectWorkingCopies.subList(projectWorkingCopies.size() * b / batchCount, projectWorkingCopies.size() * (b + 1) / batchCount);
+					final ICompilationUnit[] units= batch.toArray(new ICompilationUnit[batch.size()]);
+					batches.add(() -> {
+						ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+						parser.setWorkingCopyOwner(owner);
+						parser.setResolveBindings(true);
+						parser.setProject(project);
+						parser.setCompilerOptions(RefactoringASTParser.getCompilerOptions(project));
+						parser.createASTs(units, new String[0], new ASTRequestor() {
+							@Override
+							public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+								int i= indexes.get(source).intValue();
+								LocalAnalyzeUnit unit= analyzeUnits[i];
+								results[i]= analyzeLocalRenames(unit.fAnalyzePackages, unit.fChange, newCuSources[i], ast, unit.fOldProblems);
+							}
+						}, null);
+						return null;
+					});
+				}
+			}
+			IProgressMonitor batchesPm= new SubProgressMonitor(pm, analyzeUnits.length);
+			batchesPm.beginTask("", batches.size()); //$NON-NLS-1$
+			runAll(batches, batchesPm);
+			batchesPm.done();
+		} finally {
+			pm.done();
+			discardWorkingCopies(newWorkingCopies);
+		}
+
+		RefactoringStatus result= new RefactoringStatus();
+		for (int i= 0; i < results.length; i++) {
+			if (results[i] != null)
+				result.merge(results[i]);
+		}
+		return result;
+	}
+
+	private static RefactoringStatus analyzeLocalRenames(LocalAnalyzePackage[] analyzePackages, TextChange cuChange, String newCuSource, CompilationUnit newCUNode, IProblem[] oldProblems) {
+		RefactoringStatus result= new RefactoringStatus();
+		result.merge(analyzeCompileErrors(newCuSource, newCUNode, oldProblems));
 		if (result.hasError())
 			return result;
 
+		Map<String, Set<IRegion>> newRangesByKey= new HashMap<>();
 		for (int i= 0; i < analyzePackages.length; i++) {
-			ASTNode enclosing= getEnclosingBlockOrMethodOrLambda(analyzePackages[i].fDeclarationEdit, cuChange, newCUNode);
-
 			// get new declaration
 			IRegion newRegion= RefactoringAnalyzeUtil.getNewTextRange(analyzePackages[i].fDeclarationEdit, cuChange);
 			ASTNode newDeclaration= NodeFinder.perform(newCUNode, newRegion.getOffset(), newRegion.getLength());
@@ -437,9 +676,11 @@ class RenameAnalyzeUtil {
 			VariableDeclaration declaration= getVariableDeclaration((Name) newDeclaration);
 			Assert.isNotNull(declaration);
 
-			SimpleName[] problemNodes= ProblemNodeFinder.getProblemNodes(enclosing, declaration, analyzePackages[i].fOccurenceEdits, cuChange);
-			result.merge(RefactoringAnalyzeUtil.reportProblemNodes(newCuSource, problemNodes));
+			IRegion[] newRanges= RefactoringAnalyzeUtil.getNewRanges(analyzePackages[i].fOccurenceEdits, cuChange);
+			newRangesByKey.put(declaration.resolveBinding().getKey(), new HashSet<>(Arrays.asList(newRanges)));
 		}
+		SimpleName[] problemNodes= ProblemNodeFinder.getProblemNodes(newCUNode, newRangesByKey);
+		result.merge(RefactoringAnalyzeUtil.reportProblemNodes(newCuSource, problemNodes));
 		return result;
 	}
 
@@ -455,18 +696,9 @@ class RenameAnalyzeUtil {
 		return null;
 	}
 
-	private static ASTNode getEnclosingBlockOrMethodOrLambda(TextEdit declarationEdit, TextChange change, CompilationUnit newCUNode) {
-		ASTNode enclosing= RefactoringAnalyzeUtil.getBlock(declarationEdit, change, newCUNode);
-		if (enclosing == null)
-			enclosing= RefactoringAnalyzeUtil.getMethodDeclaration(declarationEdit, change, newCUNode);
-		if (enclosing == null)
-			enclosing= RefactoringAnalyzeUtil.getLambdaExpression(declarationEdit, change, newCUNode);
-		return enclosing;
-	}
-
-	private static RefactoringStatus analyzeCompileErrors(String newCuSource, CompilationUnit newCUNode, CompilationUnit oldCUNode) {
+	private static RefactoringStatus analyzeCompileErrors(String newCuSource, CompilationUnit newCUNode, IProblem[] oldProblems) {
 		RefactoringStatus result= new RefactoringStatus();
-		IProblem[] newProblems= RefactoringAnalyzeUtil.getIntroducedCompileProblems(newCUNode, oldCUNode);
+		IProblem[] newProblems= RefactoringAnalyzeUtil.getIntroducedCompileProblems(newCUNode, oldProblems);
 		for (int i= 0; i < newProblems.length; i++) {
 			IProblem problem= newProblems[i];
 			if (problem.isError())
@@ -1300,6 +1300,7 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 		final Set<IMethod> handledTopLevelMethods= new HashSet<>();
 		final Set<Warning> warnings= new HashSet<>();
 		final List<RefactoringProcessor> processors= new ArrayList<>();
+		final List<RenameAnalyzeUtil.LocalAnalyzeUnit> localAnalyzeUnits= new ArrayList<>();
 		fFinalSimilarElementToName= new HashMap<>();
 
 		CompilationUnit currentResolvedCU= null;
@@ -1308,7 +1309,7 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 		int current= 0;
 		final int max= fPreloadedElementToName.size();
 
-		progressMonitor.beginTask("", max * 3); //$NON-NLS-1$
+		progressMonitor.beginTask("", max * 3 + 1); //$NON-NLS-1$
 		progressMonitor.setTaskName(RefactoringCoreMessages.RenameTypeProcessor_checking_similarly_named_declarations_refactoring_conditions);
 
 		for (Iterator<IJavaElement> iter= fPreloadedElementToName.keySet().iterator(); iter.hasNext();) {
@@ -1331,10 +1332,7 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 
 			if (!newCU.equals(currentCU)) {
 
-				checkCUCompleteConditions(status, currentResolvedCU, currentCU, processors);
-
-				if (status.hasFatalError())
-					return status;
+				checkCUCompleteConditions(localAnalyzeUnits, currentResolvedCU, currentCU, processors);
 
 				// reset values
 				currentResolvedCU= null;
@@ -1430,7 +1428,13 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 		}
 
 		// check last CU
-		checkCUCompleteConditions(status, currentResolvedCU, currentCU, processors);
+		checkCUCompleteConditions(localAnalyzeUnits, currentResolvedCU, currentCU, processors);
+
+		// analyze the local renames of all CUs together
+		if (!localAnalyzeUnits.isEmpty()) {
+			RenameAnalyzeUtil.LocalAnalyzeUnit[] units= localAnalyzeUnits.toArray(new RenameAnalyzeUtil.LocalAnalyzeUnit[localAnalyzeUnits.size()]);
+			status.merge(RenameAnalyzeUtil.analyzeLocalRenames(units, new SubProgressMonitor(progressMonitor, 1)));
+		}
 
 		status.merge(addWarnings(warnings));
 
@@ -1438,9 +1442,9 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 		return status;
 	}
 
-	private void checkCUCompleteConditions(final RefactoringStatus status, CompilationUnit currentResolvedCU, ICompilationUnit currentCU, List<RefactoringProcessor> processors) throws CoreException {
+	private void checkCUCompleteConditions(final List<RenameAnalyzeUtil.LocalAnalyzeUnit> localAnalyzeUnits, CompilationUnit currentResolvedCU, ICompilationUnit currentCU, List<RefactoringProcessor> processors) {
 
-		// check local variable conditions
+		// collect local variable conditions, they are checked for all CUs at once
 		List<RefactoringProcessor> locals= getProcessorsOfType(processors, RenameLocalVariableProcessor.class);
 		if (!locals.isEmpty()) {
 			RenameAnalyzeUtil.LocalAnalyzePackage[] analyzePackages= new RenameAnalyzeUtil.LocalAnalyzePackage[locals.size()];
@@ -1457,7 +1461,7 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 				}
 				current++;
 			}
-			status.merge(RenameAnalyzeUtil.analyzeLocalRenames(analyzePackages, textChange, currentResolvedCU, false));
+			localAnalyzeUnits.add(new RenameAnalyzeUtil.LocalAnalyzeUnit(analyzePackages, textChange, currentResolvedCU));
 		}
 
 		/*
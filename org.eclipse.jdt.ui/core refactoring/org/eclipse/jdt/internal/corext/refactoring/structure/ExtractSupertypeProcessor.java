@@ -204,6 +204,8 @@ public final class ExtractSupertypeProcessor extends PullUpRefactoringProcessor
 		if (rewrite == null) {
 			rewrite= new CompilationUnitRewrite(fOwner, unit);
 			rewrite.rememberContent();
+			if (fRewritePool != null)
+				fRewritePool.add(rewrite);
 			rewrites.put(unit, rewrite);
 		}
 		return rewrite;
@@ -394,6 +394,9 @@ public class PullUpRefactoringProcessor extends HierarchyProcessor {
 	/** The map of compilation units to compilation unit rewrites */
 	protected Map<ICompilationUnit, CompilationUnitRewrite> fCompilationUnitRewrites;
 
+	/** The pool bounding the memory retained by the ASTs of the compilation unit rewrites */
+	protected CompilationUnitRewritePool fRewritePool;
+
 	/** Should method stubs be generated in subtypes? */
 	protected boolean fCreateMethodStubs= true;
 
@@ -788,6 +791,7 @@ public class PullUpRefactoringProcessor extends HierarchyProcessor {
 			if (result.hasFatalError())
 				return result;
 			fCompilationUnitRewrites= new HashMap<>(3);
+			fRewritePool= new CompilationUnitRewritePool(getProcessorName());
 			result.merge(checkProjectCompliance(getCompilationUnitRewrite(fCompilationUnitRewrites, getDeclaringType().getCompilationUnit()), getDestinationType(), fMembersToMove));
 			fChangeManager= createChangeManager(new SubProgressMonitor(monitor, 1), result);
 
@@ -1284,6 +1288,10 @@ public class PullUpRefactoringProcessor extends HierarchyProcessor {
 			return manager;
 		} finally {
 			fCompilationUnitRewrites.clear();
+			if (fRewritePool != null) {
+				fRewritePool.dispose();
+				fRewritePool= null;
+			}
 			monitor.done();
 		}
 	}
@@ -1512,6 +1520,8 @@ public class PullUpRefactoringProcessor extends HierarchyProcessor {
 		CompilationUnitRewrite rewrite= rewrites.get(unit);
 		if (rewrite == null) {
 			rewrite= new CompilationUnitRewrite(fOwner, unit);
+			if (fRewritePool != null)
+				fRewritePool.add(rewrite);
 			rewrites.put(unit, rewrite);
 		}
 		return rewrite;
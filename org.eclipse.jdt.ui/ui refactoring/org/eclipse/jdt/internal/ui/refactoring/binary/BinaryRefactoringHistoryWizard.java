@@ -430,40 +430,13 @@ public abstract class BinaryRefactoringHistoryWizard extends RefactoringHistoryW
 						fProcessedFragments.addAll(list);
 						final URI uri= fSourceFolder.getRawLocationURI();
 						if (uri != null) {
-							final IPackageFragmentRoot sourceFolder= fJavaProject.getPackageFragmentRoot(fSourceFolder);
 							IWorkspaceRunnable runnable= null;
-							if (canUseSourceAttachment()) {
-								runnable= new SourceCreationOperation(uri, list) {
-
-									private IPackageFragment fFragment= null;
-
-									@Override
-									protected final void createCompilationUnit(final IFileStore store, final String name, final String content, final IProgressMonitor pm) throws CoreException {
-										fFragment.createCompilationUnit(name, content, true, pm);
-									}
-
-									@Override
-									protected final void createPackageFragment(final IFileStore store, final String name, final IProgressMonitor pm) throws CoreException {
-										fFragment= sourceFolder.createPackageFragment(name, true, pm);
-									}
-								};
-							} else {
-								runnable= new StubCreationOperation(uri, list, true) {
-
-									private IPackageFragment fFragment= null;
-
-									@Override
-									protected final void createCompilationUnit(final IFileStore store, final String name, final String content, final IProgressMonitor pm) throws CoreException {
-										fFragment.createCompilationUnit(name, content, true, pm);
-									}
-
-									@Override
-									protected final void createPackageFragment(final IFileStore store, final String name, final IProgressMonitor pm) throws CoreException {
-										fFragment= sourceFolder.createPackageFragment(name, true, pm);
-									}
-								};
-							}
+							if (canUseSourceAttachment())
+								runnable= new SourceCreationOperation(uri, list);
+							else
+								runnable= new StubCreationOperation(uri, list, true);
 							try {
+								// the units are written to the file system in one batch and picked up by a single refresh
 								runnable.run(new SubProgressMonitor(monitor, 150, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
 							} finally {
 								fSourceFolder.refreshLocal(IResource.DEPTH_INFINITE, new SubProgressMonitor(monitor, 50, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
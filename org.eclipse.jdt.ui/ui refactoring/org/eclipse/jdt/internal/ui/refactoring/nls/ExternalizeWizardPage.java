@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,6 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.refactoring.nls;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -100,6 +99,8 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.corext.refactoring.nls.KeyValuePair;
 import org.eclipse.jdt.internal.corext.refactoring.nls.NLSRefactoring;
 import org.eclipse.jdt.internal.corext.refactoring.nls.NLSSubstitution;
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertiesFileEscapes;
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileIndex;
 
 import org.eclipse.jdt.ui.JavaElementImageDescriptor;
 import org.eclipse.jdt.ui.PreferenceConstants;
@@ -111,7 +112,6 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.JavaPluginImages;
 import org.eclipse.jdt.internal.ui.dialogs.StatusInfo;
 import org.eclipse.jdt.internal.ui.javaeditor.JavaSourceViewer;
-import org.eclipse.jdt.internal.ui.propertiesfileeditor.PropertiesFileEscapes;
 import org.eclipse.jdt.internal.ui.util.ExceptionHandler;
 import org.eclipse.jdt.internal.ui.util.SWTUtil;
 import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
@@ -700,17 +700,16 @@ class ExternalizeWizardPage extends UserInputWizardPage {
 	}
 
 	private Properties getProperties(IFile propertyFile) {
-		Properties props= new Properties();
 		try {
 			if (propertyFile.exists()) {
-				InputStream is= propertyFile.getContents();
-				props.load(is);
-				is.close();
+				PropertyFileIndex index= PropertyFileIndex.get(propertyFile);
+				if (index != null)
+					return index.getProperties();
 			}
-		} catch (Exception e) {
+		} catch (IllegalArgumentException e) {
 			// sorry no property
 		}
-		return props;
+		return new Properties();
 	}
 
 	private void createTableViewer(Composite composite) {
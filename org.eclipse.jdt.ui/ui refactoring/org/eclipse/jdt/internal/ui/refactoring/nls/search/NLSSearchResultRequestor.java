@@ -13,14 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.refactoring.nls.search;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Enumeration;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -28,11 +21,7 @@ import org.eclipse.core.runtime.IStatus;
 
 import org.eclipse.core.resources.IFile;
 
-import org.eclipse.core.filebuffers.FileBuffers;
-import org.eclipse.core.filebuffers.ITextFileBuffer;
-import org.eclipse.core.filebuffers.ITextFileBufferManager;
-import org.eclipse.core.filebuffers.LocationKind;
-
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Position;
 
 import org.eclipse.search.ui.text.Match;
@@ -52,10 +41,9 @@ import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
-import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileDocumentModel;
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileIndex;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 
-import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.JavaUIStatus;
 import org.eclipse.jdt.internal.ui.util.StringMatcher;
 
@@ -83,9 +71,18 @@ class NLSSearchResultRequestor extends SearchRequestor {
 
 	private NLSSearchResult fResult;
 	private IFile fPropertiesFile;
-	private Properties fProperties;
+	private PropertyFileIndex fPropertyFileIndex;
 	private HashSet<String> fUsedPropertyNames;
 
+	/**
+	 * The compilation unit whose source {@link #fScanner} is set to. Most references to the
+	 * accessor class are reported in batches per compilation unit.
+	 * @since 3.16
+	 */
+	private ICompilationUnit fScannedUnit;
+	private String fScannedSource;
+	private IScanner fScanner;
+
 	public NLSSearchResultRequestor(IFile propertiesFile, NLSSearchResult result) {
 		fPropertiesFile= propertiesFile;
 		fResult= result;
@@ -97,7 +94,17 @@ class NLSSearchResultRequestor extends SearchRequestor {
 	@Override
 	public void beginReporting() {
 		loadProperties();
-		fUsedPropertyNames= new HashSet<>(fProperties.size());
+		fUsedPropertyNames= new HashSet<>(fPropertyFileIndex.getKeys().size());
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.search.SearchRequestor#endReporting()
+	 */
+	@Override
+	public void endReporting() {
+		fScannedUnit= null;
+		fScannedSource= null;
+		fScanner= null;
 	}
 
 	/*
@@ -158,13 +165,12 @@ class NLSSearchResultRequestor extends SearchRequestor {
 
 	public void reportUnusedPropertyNames(IProgressMonitor pm) {
 		//Don't use endReporting() for long running operation.
-		pm.beginTask("", fProperties.size()); //$NON-NLS-1$
+		pm.beginTask("", fPropertyFileIndex.getKeys().size()); //$NON-NLS-1$
 		boolean hasUnused= false;
 		pm.setTaskName(NLSSearchMessages.NLSSearchResultRequestor_searching);
 		FileEntry groupElement= new FileEntry(fPropertiesFile, NLSSearchMessages.NLSSearchResultCollector_unusedKeys);
 
-		for (Enumeration<?> enumeration= fProperties.propertyNames(); enumeration.hasMoreElements();) {
-			String propertyName= (String) enumeration.nextElement();
+		for (String propertyName : fPropertyFileIndex.getKeys()) {
 			if (!fUsedPropertyNames.contains(propertyName)) {
 				addMatch(groupElement, propertyName);
 				hasUnused= true;
@@ -179,25 +185,12 @@ class NLSSearchResultRequestor extends SearchRequestor {
 
 
 	private void addMatch(FileEntry groupElement, String propertyName) {
-		/*
-		 * TODO (bug 63794): Should read in .properties file with our own reader and not
-		 * with Properties.load(InputStream) . Then, we can remember start position and
-		 * original version (not interpreting escape characters) for each property.
-		 *
-		 * The current workaround is to escape the key again before searching in the
-		 * .properties file. However, this can fail if the key is escaped in a different
-		 * manner than what PropertyFileDocumentModel.unwindEscapeChars(.) produces.
-		 */
-		String escapedPropertyName= PropertyFileDocumentModel.escape(propertyName, false);
-		int start= findPropertyNameStartPosition(escapedPropertyName);
-		int length;
-		if (start == -1) { // not found -> report at beginning
-			start= 0;
-			length= 0;
+		IRegion region= fPropertyFileIndex.getKeyRegion(propertyName);
+		if (region == null) { // not found -> report at beginning
+			fResult.addMatch(new Match(groupElement, 0, 0));
 		} else {
-			length= escapedPropertyName.length();
+			fResult.addMatch(new Match(groupElement, region.getOffset(), region.getLength()));
 		}
-		fResult.addMatch(new Match(groupElement, start, length));
 	}
 
 	/**
@@ -212,14 +205,14 @@ class NLSSearchResultRequestor extends SearchRequestor {
 			return false;
 
 		fUsedPropertyNames.add(key);
-		if (fProperties.getProperty(key) != null) {
+		if (fPropertyFileIndex.getProperty(key) != null) {
 			return true;
 		}
 		return false;
 	}
 
 	public boolean hasPropertyKey(String key) {
-		return fProperties.containsKey(key);
+		return fPropertyFileIndex.containsKey(key);
 	}
 
 	public boolean isUsedPropertyKey(String key) {
@@ -247,16 +240,7 @@ class NLSSearchResultRequestor extends SearchRequestor {
 		if (source == null)
 			return null;
 
-		IJavaProject javaProject= unit.getJavaProject();
-		IScanner scanner= null;
-		if (javaProject != null) {
-			String complianceLevel= javaProject.getOption(JavaCore.COMPILER_COMPLIANCE, true);
-			String sourceLevel= javaProject.getOption(JavaCore.COMPILER_SOURCE, true);
-			scanner= ToolFactory.createScanner(false, false, false, sourceLevel, complianceLevel);
-		} else {
-			scanner= ToolFactory.createScanner(false, false, false, false);
-		}
-		scanner.setSource(source.toCharArray());
+		IScanner scanner= getScanner(unit, source);
 		scanner.resetTo(keyPositionResult.getOffset() + keyPositionResult.getLength(), source.length());
 
 		try {
@@ -327,121 +311,48 @@ class NLSSearchResultRequestor extends SearchRequestor {
 	}
 
 	/**
-	 * Finds the start position in the property file. We assume that
-	 * the key is the first match on a line.
+	 * Returns a scanner whose source is set to the given source of the given unit.
 	 *
-	 * @param propertyName the property name
-	 * @return	the start position of the property name in the file, -1 if not found
+	 * @param unit the compilation unit
+	 * @param source the source of the unit
+	 * @return the scanner
+	 * @since 3.16
 	 */
-	private int findPropertyNameStartPosition(String propertyName) {
-		// Fix for http://dev.eclipse.org/bugs/show_bug.cgi?id=19319
-		InputStream stream= null;
-		LineReader lineReader= null;
-		String encoding;
-		try {
-			encoding= fPropertiesFile.getCharset();
-		} catch (CoreException e1) {
-			encoding= "ISO-8859-1";  //$NON-NLS-1$
-		}
-		try {
-			stream= createInputStream(fPropertiesFile);
-			lineReader= new LineReader(stream, encoding);
-		} catch (CoreException cex) {
-			// failed to get input stream
-			JavaPlugin.log(cex);
-			return -1;
-		} catch (IOException e) {
-			if (stream != null) {
-				try {
-					stream.close();
-				} catch (IOException ce) {
-					JavaPlugin.log(ce);
-				}
-			}
-			return -1;
-		}
-		int start= 0;
-		try {
-			StringBuffer buf= new StringBuffer(80);
-			int eols= lineReader.readLine(buf);
-			int keyLength= propertyName.length();
-			while (eols > 0) {
-				String line= buf.toString();
-				int i= line.indexOf(propertyName);
-				int charPos= i + keyLength;
-				char terminatorChar= 0;
-				boolean hasNoValue= (charPos >= line.length());
-				if (i > -1 && !hasNoValue)
-					terminatorChar= line.charAt(charPos);
-				if (line.trim().startsWith(propertyName) &&
-						(hasNoValue || Character.isWhitespace(terminatorChar) || terminatorChar == '=')) {
-					start += line.indexOf(propertyName);
-					eols= -17; // found key
-				} else {
-					start += line.length() + eols;
-					buf.setLength(0);
-					eols= lineReader.readLine(buf);
-				}
-			}
-			if (eols != -17)
-				start= -1; //key not found in file. See bug 63794. This can happen if the key contains escaped characters.
-		} catch (IOException ex) {
-			JavaPlugin.log(ex);
-			return -1;
-		} finally {
-			try {
-				lineReader.close();
-			} catch (IOException ex) {
-				JavaPlugin.log(ex);
-			}
+	private IScanner getScanner(ICompilationUnit unit, String source) {
+		if (fScanner != null && unit.equals(fScannedUnit) && source.equals(fScannedSource))
+			return fScanner;
+
+		IJavaProject javaProject= unit.getJavaProject();
+		IScanner scanner= null;
+		if (javaProject != null) {
+			String complianceLevel= javaProject.getOption(JavaCore.COMPILER_COMPLIANCE, true);
+			String sourceLevel= javaProject.getOption(JavaCore.COMPILER_SOURCE, true);
+			scanner= ToolFactory.createScanner(false, false, false, sourceLevel, complianceLevel);
+		} else {
+			scanner= ToolFactory.createScanner(false, false, false, false);
 		}
-		return start;
+		scanner.setSource(source.toCharArray());
+		fScannedUnit= unit;
+		fScannedSource= source;
+		fScanner= scanner;
+		return scanner;
 	}
 
 	private void loadProperties() {
-		Set<Object> duplicateKeys= new HashSet<>();
-		fProperties= new Properties(duplicateKeys);
-		InputStream stream;
-		try {
-			stream= new BufferedInputStream(createInputStream(fPropertiesFile));
-		} catch (CoreException ex) {
-			fProperties= new Properties();
-			return;
-		}
-		try {
-			fProperties.load(stream);
-		} catch (IOException ex) {
-			fProperties= new Properties();
+		fPropertyFileIndex= PropertyFileIndex.get(fPropertiesFile);
+		if (fPropertyFileIndex == null) {
+			fPropertyFileIndex= PropertyFileIndex.EMPTY;
 			return;
-		} finally {
-			try {
-				stream.close();
-			} catch (IOException ex) {
-			}
-			reportDuplicateKeys(duplicateKeys);
-		}
-	}
-
-	private InputStream createInputStream(IFile propertiesFile) throws CoreException {
-		ITextFileBufferManager manager= FileBuffers.getTextFileBufferManager();
-		if (manager != null) {
-			ITextFileBuffer buffer= manager.getTextFileBuffer(propertiesFile.getFullPath(), LocationKind.IFILE);
-			if (buffer != null) {
-				return new ByteArrayInputStream(buffer.getDocument().get().getBytes());
-			}
 		}
-
-		return propertiesFile.getContents();
+		reportDuplicateKeys();
 	}
 
-	private void reportDuplicateKeys(Set<Object> duplicateKeys) {
-		if (duplicateKeys.size() == 0)
+	private void reportDuplicateKeys() {
+		if (fPropertyFileIndex.getDuplicateKeys().isEmpty())
 			return;
 
 		FileEntry groupElement= new FileEntry(fPropertiesFile, NLSSearchMessages.NLSSearchResultCollector_duplicateKeys);
-		Iterator<Object> iter= duplicateKeys.iterator();
-		while (iter.hasNext()) {
-			String propertyName= (String) iter.next();
+		for (String propertyName : fPropertyFileIndex.getDuplicateKeys()) {
 			addMatch(groupElement, propertyName);
 		}
 		fResult.addFileEntryGroup(groupElement);
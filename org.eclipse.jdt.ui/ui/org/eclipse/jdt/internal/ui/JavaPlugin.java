@@ -115,6 +115,7 @@ import org.eclipse.jdt.internal.ui.text.PreferencesAdapter;
 import org.eclipse.jdt.internal.ui.text.folding.JavaFoldingStructureProviderRegistry;
 import org.eclipse.jdt.internal.ui.text.java.ContentAssistHistory;
 import org.eclipse.jdt.internal.ui.text.java.hover.JavaEditorTextHoverDescriptor;
+import org.eclipse.jdt.internal.ui.text.javadoc.JavadocContentCache;
 import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
 import org.eclipse.jdt.internal.ui.viewsupport.ImageDescriptorRegistry;
 import org.eclipse.jdt.internal.ui.viewsupport.ImagesOnFileSystemRegistry;
@@ -168,6 +169,8 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 
 	public static boolean DEBUG_RESULT_COLLECTOR;
 
+	public static boolean DEBUG_CORRECTION_PROCESSORS;
+
 	private static JavaPlugin fgJavaPlugin;
 
 	private static LinkedHashMap<String, Long> fgRepeatedMessages= new LinkedHashMap<String, Long>(20, 0.75f, true) {
@@ -230,6 +233,12 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 	 */
 	private ASTProvider fASTProvider;
 
+	/**
+	 * The cache of rendered Javadoc.
+	 * @since 3.16
+	 */
+	private JavadocContentCache fJavadocContentCache;
+
 	/**
 	 * The combined preference store.
 	 * @since 3.0
@@ -488,6 +497,11 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 				fASTProvider= null;
 			}
 
+			if (fJavadocContentCache != null) {
+				fJavadocContentCache.dispose();
+				fJavadocContentCache= null;
+			}
+
 			if (fWorkingCopyManager != null) {
 				fWorkingCopyManager.shutdown();
 				fWorkingCopyManager= null;
@@ -650,6 +664,19 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		return fASTProvider;
 	}
 
+	/**
+	 * Returns the cache of rendered Javadoc shared by the Javadoc hover and view.
+	 *
+	 * @return the Javadoc content cache
+	 * @since 3.16
+	 */
+	public synchronized JavadocContentCache getJavadocContentCache() {
+		if (fJavadocContentCache == null)
+			fJavadocContentCache= new JavadocContentCache();
+
+		return fJavadocContentCache;
+	}
+
 	public synchronized MembersOrderPreferenceCache getMemberOrderPreferenceCache() {
 		// initialized on startup
 		return fMembersOrderPreferenceCache;
@@ -1062,5 +1089,6 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		DEBUG_BREADCRUMB_ITEM_DROP_DOWN= options.getBooleanOption("org.eclipse.jdt.ui/debug/BreadcrumbItemDropDown", false); //$NON-NLS-1$
 		DEBUG_TYPE_CONSTRAINTS= options.getBooleanOption("org.eclipse.jdt.ui/debug/TypeConstraints", false); //$NON-NLS-1$
 		DEBUG_RESULT_COLLECTOR= options.getBooleanOption("org.eclipse.jdt.ui/debug/ResultCollector", false); //$NON-NLS-1$
+		DEBUG_CORRECTION_PROCESSORS= options.getBooleanOption("org.eclipse.jdt.ui/debug/CorrectionProcessors", false); //$NON-NLS-1$
 	}
 }
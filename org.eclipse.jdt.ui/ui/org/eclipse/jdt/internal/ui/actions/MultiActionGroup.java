@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 package org.eclipse.jdt.internal.ui.actions;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.widgets.Menu;
@@ -102,8 +104,14 @@ public class MultiActionGroup extends ActionGroup {
 						style= SWT.RADIO;
 
 					MenuItem mi= new MenuItem(menu, style, index);
-					ImageDescriptor d= fActions[j].getImageDescriptor();
-					mi.setImage(JavaPlugin.getImageDescriptorRegistry().get(d));
+					final ImageDescriptor d= fActions[j].getImageDescriptor();
+					mi.setImage(JavaPlugin.getImageDescriptorRegistry().acquire(d));
+					mi.addDisposeListener(new DisposeListener() {
+						@Override
+						public void widgetDisposed(DisposeEvent e) {
+							JavaPlugin.getImageDescriptorRegistry().release(d);
+						}
+					});
 					fItems[j]= mi;
 					mi.setText(fActions[j].getText());
 					mi.setSelection(fCurrentSelection == j);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -744,6 +744,9 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
 			getViewSite().getPage().removePartListener(fPartListener);
 			fPartListener= null;
 		}
+
+		setCalleeRoots(null);
+		setCallerRoots(null);
 		super.dispose();
 	}
 
@@ -917,6 +920,7 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
     }
 
     private void setCalleeRoots(MethodWrapper[] calleeRoots) {
+        clearASTCaches(fCalleeRoots);
         this.fCalleeRoots = calleeRoots;
     }
 
@@ -929,14 +933,23 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
     }
 
     private void setCallerRoots(MethodWrapper[] callerRoots) {
+        clearASTCaches(fCallerRoots);
         this.fCallerRoots = callerRoots;
     }
 
+    private static void clearASTCaches(MethodWrapper[] roots) {
+        if (roots != null) {
+            for (int i= 0; i < roots.length; i++) {
+                roots[i].clearASTCache();
+            }
+        }
+    }
+
     private MethodWrapper[] getCallerRoots() {
     	if (fCallerRoots != null && fCallerRoots.length > 0) {
     		// all caller roots have the same field mode, just check the first:
     		if (fCallerRoots[0].getFieldSearchMode() != fCurrentFieldMode) {
-    			fCallerRoots= null; // field mode changed, re-initialize below
+    			setCallerRoots(null); // field mode changed, re-initialize below
     		}
     	}
         if (fCallerRoots == null) {
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.DefaultPositionUpdater;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IPositionUpdater;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
+
+/**
+ * Tracks the regions of a file buffer's document that have been modified since the buffer
+ * was last in sync with its file, so that the changed lines needed by save participants can
+ * be computed without reading the file and comparing it with the whole document.
+ * <p>
+ * The tracker remembers the content of the document before the first modification and the
+ * modified ranges in both the remembered and the current content. Only the lines around the
+ * modified ranges are compared when the changed lines are requested.
+ * </p>
+ */
+final class ChangedLineTracker implements IDocumentListener {
+
+	/**
+	 * A modified range, in the current document and in the content before the first modification.
+	 */
+	private static final class Hunk {
+		final Position fPosition;
+		final int fBaseOffset;
+		final int fBaseLength;
+
+		Hunk(Position position, int baseOffset, int baseLength) {
+			fPosition= position;
+			fBaseOffset= baseOffset;
+			fBaseLength= baseLength;
+		}
+
+		int getDelta() {
+			return fPosition.getLength() - fBaseLength;
+		}
+	}
+
+	private final String fCategory= ChangedLineTracker.class.getName() + hashCode();
+	private final ITextFileBuffer fBuffer;
+	private final IDocument fDocument;
+	private final IPositionUpdater fPositionUpdater;
+
+	/** The content of the document before the first modification, or <code>null</code> if unmodified */
+	private String fBaseContent;
+	/** The modified ranges, sorted by offset and neither overlapping nor touching */
+	private final List<Hunk> fHunks= new ArrayList<>();
+	/** <code>true</code> if the modifications are not known */
+	private boolean fLost;
+
+	/** The merged range of the current modification, computed before the document changes */
+	private int fPendingOffset;
+	private int fPendingEnd;
+	private int fPendingBaseOffset;
+	private int fPendingBaseEnd;
+
+	/**
+	 * Creates a tracker and starts tracking the modifications of the buffer's document.
+	 *
+	 * @param buffer the file buffer
+	 */
+	ChangedLineTracker(ITextFileBuffer buffer) {
+		fBuffer= buffer;
+		fDocument= buffer.getDocument();
+		fPositionUpdater= new DefaultPositionUpdater(fCategory);
+		fDocument.addPositionCategory(fCategory);
+		fDocument.addPositionUpdater(fPositionUpdater);
+		fDocument.addDocumentListener(this);
+		// modifications made before the tracker was installed are not known
+		fLost= buffer.isDirty();
+	}
+
+	/**
+	 * Stops tracking the modifications.
+	 */
+	synchronized void dispose() {
+		fDocument.removeDocumentListener(this);
+		fDocument.removePositionUpdater(fPositionUpdater);
+		try {
+			fDocument.removePositionCategory(fCategory);
+		} catch (BadPositionCategoryException e) {
+			// already removed
+		}
+		fHunks.clear();
+		fBaseContent= null;
+	}
+
+	@Override
+	public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+		if (!fBuffer.isDirty()) {
+			// the document is in sync with the file, so the file content is the new base
+			reset();
+			fLost= !fBuffer.isSynchronized();
+		}
+		if (fLost)
+			return;
+		if (fBaseContent == null)
+			fBaseContent= fDocument.get();
+
+		int offset= event.getOffset();
+		int end= offset + event.getLength();
+		int first= indexOfFirstHunkEndingAtOrAfter(offset);
+		int last= first;
+		while (last < fHunks.size() && fHunks.get(last).fPosition.getOffset() <= end)
+			last++;
+
+		int delta= getDeltaBefore(first);
+		fPendingOffset= offset;
+		fPendingEnd= end;
+		fPendingBaseOffset= offset - delta;
+		fPendingBaseEnd= end - delta;
+		if (first < last) {
+			Hunk firstHunk= fHunks.get(first);
+			if (firstHunk.fPosition.getOffset() <= offset) {
+				fPendingOffset= firstHunk.fPosition.getOffset();
+				fPendingBaseOffset= firstHunk.fBaseOffset;
+			}
+			Hunk lastHunk= fHunks.get(last - 1);
+			int lastEnd= lastHunk.fPosition.getOffset() + lastHunk.fPosition.getLength();
+			for (int i= first; i < last; i++)
+				delta+= fHunks.get(i).getDelta();
+			if (lastEnd >= end) {
+				fPendingEnd= lastEnd;
+				fPendingBaseEnd= lastHunk.fBaseOffset + lastHunk.fBaseLength;
+			} else {
+				fPendingBaseEnd= end - delta;
+			}
+			for (int i= last - 1; i >= first; i--)
+				removeHunk(i);
+		}
+	}
+
+	@Override
+	public synchronized void documentChanged(DocumentEvent event) {
+		if (fLost)
+			return;
+		String text= event.getText();
+		int length= fPendingEnd - fPendingOffset - event.getLength() + (text != null ? text.length() : 0);
+		Position position= new Position(fPendingOffset, length);
+		try {
+			fDocument.addPosition(fCategory, position);
+		} catch (BadLocationException | BadPositionCategoryException e) {
+			fLost= true;
+			return;
+		}
+		fHunks.add(indexOfFirstHunkEndingAtOrAfter(fPendingOffset), new Hunk(position, fPendingBaseOffset, fPendingBaseEnd - fPendingBaseOffset));
+	}
+
+	/**
+	 * Returns the regions of the lines that have changed since the buffer was last in sync with
+	 * its file, like {@link EditorUtility#calculateChangedLineRegions(ITextFileBuffer, org.eclipse.core.runtime.IProgressMonitor)}.
+	 *
+	 * @return the regions of the changed lines, or <code>null</code> if the modifications have not
+	 *         been tracked and the file has to be compared with the document
+	 * @throws BadLocationException if fetching the line information fails
+	 */
+	synchronized IRegion[] getChangedLineRegions() throws BadLocationException {
+		if (fLost || !fBuffer.isSynchronized())
+			return null;
+		if (!fBuffer.isDirty() || fBaseContent == null)
+			return new IRegion[0];
+
+		List<IRegion> result= new ArrayList<>();
+		int index= 0;
+		while (index < fHunks.size()) {
+			// hunks that share a line are compared together
+			Hunk first= fHunks.get(index);
+			int startLine= fDocument.getLineOfOffset(first.fPosition.getOffset());
+			int endLine= getEndLine(first);
+			int last= index;
+			while (last + 1 < fHunks.size() && fDocument.getLineOfOffset(fHunks.get(last + 1).fPosition.getOffset()) <= endLine) {
+				last++;
+				endLine= Math.max(endLine, getEndLine(fHunks.get(last)));
+			}
+			Hunk lastHunk= fHunks.get(last);
+
+			int start= fDocument.getLineOffset(startLine);
+			IRegion endLineRegion= fDocument.getLineInformation(endLine);
+			String delimiter= fDocument.getLineDelimiter(endLine);
+			int end= endLineRegion.getOffset() + endLineRegion.getLength() + (delimiter != null ? delimiter.length() : 0);
+			int baseStart= first.fBaseOffset - (first.fPosition.getOffset() - start);
+			int baseEnd= lastHunk.fBaseOffset + lastHunk.fBaseLength + (end - lastHunk.fPosition.getOffset() - lastHunk.fPosition.getLength());
+
+			IDocument base= new Document(fBaseContent.substring(baseStart, baseEnd));
+			IDocument current= new Document(fDocument.get(start, end - start));
+			IRegion[] regions= EditorUtility.getChangedLineRegions(base, current);
+			for (int i= 0; i < regions.length; i++)
+				addRegion(result, new Region(start + regions[i].getOffset(), regions[i].getLength()));
+
+			index= last + 1;
+		}
+		return result.toArray(new IRegion[result.size()]);
+	}
+
+	private int getEndLine(Hunk hunk) throws BadLocationException {
+		Position position= hunk.fPosition;
+		if (position.getLength() == 0)
+			return fDocument.getLineOfOffset(position.getOffset());
+		return fDocument.getLineOfOffset(position.getOffset() + position.getLength() - 1);
+	}
+
+	/**
+	 * Adds the region to the result, merging it with the last region if the lines are successive.
+	 */
+	private void addRegion(List<IRegion> result, IRegion region) throws BadLocationException {
+		if (!result.isEmpty()) {
+			IRegion previous= result.get(result.size() - 1);
+			int previousEnd= previous.getOffset() + previous.getLength();
+			if (fDocument.getLineOfOffset(region.getOffset()) == fDocument.getLineOfOffset(previousEnd) + 1) {
+				result.set(result.size() - 1, new Region(previous.getOffset(), region.getOffset() + region.getLength() - previous.getOffset()));
+				return;
+			}
+		}
+		result.add(region);
+	}
+
+	private int indexOfFirstHunkEndingAtOrAfter(int offset) {
+		int low= 0;
+		int high= fHunks.size();
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			Position position= fHunks.get(mid).fPosition;
+			if (position.getOffset() + position.getLength() < offset)
+				low= mid + 1;
+			else
+				high= mid;
+		}
+		return low;
+	}
+
+	private int getDeltaBefore(int index) {
+		if (index == 0)
+			return 0;
+		Hunk previous= fHunks.get(index - 1);
+		Position position= previous.fPosition;
+		return position.getOffset() + position.getLength() - (previous.fBaseOffset + previous.fBaseLength);
+	}
+
+	private void removeHunk(int index) {
+		Hunk hunk= fHunks.remove(index);
+		try {
+			fDocument.removePosition(fCategory, hunk.fPosition);
+		} catch (BadPositionCategoryException e) {
+			fLost= true;
+		}
+	}
+
+	private void reset() {
+		for (int i= fHunks.size() - 1; i >= 0; i--)
+			removeHunk(i);
+		fBaseContent= null;
+		fLost= false;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -140,6 +140,10 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 	 */
 	static protected class CompilationUnitInfo extends FileInfo {
 		public ICompilationUnit fCopy;
+		/**
+		 * Tracks the lines changed since the last save, or <code>null</code>.
+		 */
+		ChangedLineTracker fChangedLineTracker;
 	}
 
 	/**
@@ -1042,6 +1046,9 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 		if (cuInfo.fModel != null)
 			cuInfo.fModel.addAnnotationModelListener(fGlobalAnnotationModelListener);
 
+		if (cuInfo.fTextFileBuffer != null)
+			cuInfo.fChangedLineTracker= new ChangedLineTracker(cuInfo.fTextFileBuffer);
+
 		return cuInfo;
 	}
 
@@ -1264,6 +1271,11 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 
 			if (cuInfo.fModel != null)
 				cuInfo.fModel.removeAnnotationModelListener(fGlobalAnnotationModelListener);
+
+			if (cuInfo.fChangedLineTracker != null) {
+				cuInfo.fChangedLineTracker.dispose();
+				cuInfo.fChangedLineTracker= null;
+			}
 		}
 		super.disposeFileInfo(element, info);
 	}
@@ -1352,6 +1364,28 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 		return new NullProgressMonitor();
 	}
 
+	/**
+	 * Returns the regions of the lines changed since the last save as tracked from the
+	 * modifications of the document.
+	 *
+	 * @param info the compilation unit info
+	 * @return the changed regions, or <code>null</code> if the modifications are not known
+	 *         and the document has to be compared with the file
+	 */
+	private IRegion[] getTrackedChangedLineRegions(CompilationUnitInfo info) {
+		if (info.fChangedLineTracker == null)
+			return null;
+		try {
+			return info.fChangedLineTracker.getChangedLineRegions();
+		} catch (BadLocationException e) {
+			JavaPlugin.log(e);
+			return null;
+		} catch (RuntimeException e) {
+			JavaPlugin.log(e);
+			return null;
+		}
+	}
+
 	protected void commitWorkingCopy(IProgressMonitor monitor, Object element, final CompilationUnitInfo info, boolean overwrite) throws CoreException {
 
 		if (monitor == null)
@@ -1399,7 +1433,9 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 				IRegion[] changedRegions= null;
 				if (needsChangedRegions) {
 					try {
-						changedRegions= EditorUtility.calculateChangedLineRegions(info.fTextFileBuffer, getSubProgressMonitor(monitor, 20));
+						changedRegions= getTrackedChangedLineRegions(info);
+						if (changedRegions == null)
+							changedRegions= EditorUtility.calculateChangedLineRegions(info.fTextFileBuffer, getSubProgressMonitor(monitor, 20));
 					} catch (CoreException ex) {
 						changedRegionException= ex;
 					} finally {
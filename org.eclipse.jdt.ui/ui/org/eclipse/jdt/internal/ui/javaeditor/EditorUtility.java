@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -785,55 +785,6 @@ public class EditorUtility {
 						monitor.done();
 					}
 				}
-
-				/**
-				 * Return regions of all lines which differ comparing <code>oldDocument</code>s
-				 * content with <code>currentDocument</code>s content. Successive lines are merged
-				 * into one region.
-				 * 
-				 * @param oldDocument a document containing the old content
-				 * @param currentDocument a document containing the current content
-				 * @return the changed regions
-				 * @throws BadLocationException if fetching the line information fails
-				 */
-				private IRegion[] getChangedLineRegions(IDocument oldDocument, IDocument currentDocument) throws BadLocationException {
-					/*
-					 * Do not change the type of those local variables. We use Object
-					 * here in order to prevent loading of the Compare plug-in at load
-					 * time of this class.
-					 */
-					Object leftSide= new LineComparator(oldDocument);
-					Object rightSide= new LineComparator(currentDocument);
-
-					RangeDifference[] differences= RangeDifferencer.findDifferences((IRangeComparator) leftSide, (IRangeComparator) rightSide);
-
-					//It holds that:
-					//1. Ranges are sorted:
-					//     forAll r1,r2 element differences: indexOf(r1)<indexOf(r2) -> r1.rightStart()<r2.rightStart();
-					//2. Successive changed lines are merged into on RangeDifference
-					//     forAll r1,r2 element differences: r1.rightStart()<r2.rightStart() -> r1.rightEnd()<r2.rightStart
-
-					ArrayList<IRegion> regions= new ArrayList<>();
-					for (int i= 0; i < differences.length; i++) {
-						RangeDifference curr= differences[i];
-						if (curr.kind() == RangeDifference.CHANGE && curr.rightLength() > 0) {
-							int startLine= curr.rightStart();
-							int endLine= curr.rightEnd() - 1;
-
-							IRegion startLineRegion= currentDocument.getLineInformation(startLine);
-							if (startLine == endLine) {
-								regions.add(startLineRegion);
-							} else {
-								IRegion endLineRegion= currentDocument.getLineInformation(endLine);
-								int startOffset= startLineRegion.getOffset();
-								int endOffset= endLineRegion.getOffset() + endLineRegion.getLength();
-								regions.add(new Region(startOffset, endOffset - startOffset));
-							}
-						}
-					}
-
-					return regions.toArray(new IRegion[regions.size()]);
-				}
 			});
 		} finally {
 			if (!errorStatus[0].isOK())
@@ -843,6 +794,55 @@ public class EditorUtility {
 		return result[0];
 	}
 
+	/**
+	 * Return regions of all lines which differ comparing <code>oldDocument</code>s
+	 * content with <code>currentDocument</code>s content. Successive lines are merged
+	 * into one region.
+	 * 
+	 * @param oldDocument a document containing the old content
+	 * @param currentDocument a document containing the current content
+	 * @return the changed regions
+	 * @throws BadLocationException if fetching the line information fails
+	 */
+	static IRegion[] getChangedLineRegions(IDocument oldDocument, IDocument currentDocument) throws BadLocationException {
+		/*
+		 * Do not change the type of those local variables. We use Object
+		 * here in order to prevent loading of the Compare plug-in at load
+		 * time of this class.
+		 */
+		Object leftSide= new LineComparator(oldDocument);
+		Object rightSide= new LineComparator(currentDocument);
+
+		RangeDifference[] differences= RangeDifferencer.findDifferences((IRangeComparator) leftSide, (IRangeComparator) rightSide);
+
+		//It holds that:
+		//1. Ranges are sorted:
+		//     forAll r1,r2 element differences: indexOf(r1)<indexOf(r2) -> r1.rightStart()<r2.rightStart();
+		//2. Successive changed lines are merged into on RangeDifference
+		//     forAll r1,r2 element differences: r1.rightStart()<r2.rightStart() -> r1.rightEnd()<r2.rightStart
+
+		ArrayList<IRegion> regions= new ArrayList<>();
+		for (int i= 0; i < differences.length; i++) {
+			RangeDifference curr= differences[i];
+			if (curr.kind() == RangeDifference.CHANGE && curr.rightLength() > 0) {
+				int startLine= curr.rightStart();
+				int endLine= curr.rightEnd() - 1;
+
+				IRegion startLineRegion= currentDocument.getLineInformation(startLine);
+				if (startLine == endLine) {
+					regions.add(startLineRegion);
+				} else {
+					IRegion endLineRegion= currentDocument.getLineInformation(endLine);
+					int startOffset= startLineRegion.getOffset();
+					int endOffset= endLineRegion.getOffset() + endLineRegion.getLength();
+					regions.add(new Region(startOffset, endOffset - startOffset));
+				}
+			}
+		}
+
+		return regions.toArray(new IRegion[regions.size()]);
+	}
+
 	/**
 	 * Creates and returns a new sub-progress monitor for the
 	 * given parent monitor.
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.packageview;
+
+import org.eclipse.core.runtime.IAdaptable;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IStorage;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.model.IWorkbenchAdapter;
+
+import org.eclipse.jdt.core.IJavaElement;
+
+import org.eclipse.jdt.internal.corext.util.Messages;
+
+/**
+ * A page of the children of an element that has too many children to show at once,
+ * e.g. a package with thousands of class files. The children of a page are only
+ * materialized in the viewer when the page is expanded.
+ * <p>
+ * Pages are equal if they have the same parent and index, so that their expansion state
+ * is kept when the parent is refreshed.
+ * </p>
+ *
+ * @see PackageExplorerContentProvider#setChildrenPageSize(int)
+ */
+public class ChildrenPage implements IAdaptable {
+
+	private static WorkbenchAdapterImpl fgAdapterInstance= new WorkbenchAdapterImpl();
+
+	private static class WorkbenchAdapterImpl implements IWorkbenchAdapter {
+
+		@Override
+		public Object[] getChildren(Object o) {
+			if (o instanceof ChildrenPage)
+				return ((ChildrenPage) o).getChildren();
+			return new Object[0];
+		}
+
+		@Override
+		public ImageDescriptor getImageDescriptor(Object o) {
+			if (o instanceof ChildrenPage)
+				return ((ChildrenPage) o).getImageDescriptor();
+			return null;
+		}
+
+		@Override
+		public String getLabel(Object o) {
+			if (o instanceof ChildrenPage)
+				return ((ChildrenPage) o).getLabel();
+			return new String();
+		}
+
+		@Override
+		public Object getParent(Object o) {
+			if (o instanceof ChildrenPage)
+				return ((ChildrenPage) o).getParent();
+			return null;
+		}
+	}
+
+	private final Object fParent;
+	private final int fIndex;
+	private final Object[] fChildren;
+
+	/**
+	 * @param parent the element whose children are paged
+	 * @param index the index of this page
+	 * @param children the children on this page, must not be empty
+	 */
+	public ChildrenPage(Object parent, int index, Object[] children) {
+		fParent= parent;
+		fIndex= index;
+		fChildren= children;
+	}
+
+	public Object getParent() {
+		return fParent;
+	}
+
+	public int getIndex() {
+		return fIndex;
+	}
+
+	public Object[] getChildren() {
+		return fChildren;
+	}
+
+	public String getLabel() {
+		return Messages.format(PackagesMessages.ChildrenPage_label, new String[] { getName(fChildren[0]), getName(fChildren[fChildren.length - 1]) });
+	}
+
+	public ImageDescriptor getImageDescriptor() {
+		return PlatformUI.getWorkbench().getSharedImages().getImageDescriptor(ISharedImages.IMG_OBJ_FOLDER);
+	}
+
+	private static String getName(Object element) {
+		if (element instanceof IJavaElement)
+			return ((IJavaElement) element).getElementName();
+		if (element instanceof IResource)
+			return ((IResource) element).getName();
+		if (element instanceof IStorage)
+			return ((IStorage) element).getName();
+		if (element instanceof IAdaptable) {
+			IWorkbenchAdapter adapter= ((IAdaptable) element).getAdapter(IWorkbenchAdapter.class);
+			if (adapter != null)
+				return adapter.getLabel(element);
+		}
+		return String.valueOf(element);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T getAdapter(Class<T> adapter) {
+		if (adapter == IWorkbenchAdapter.class)
+			return (T) fgAdapterInstance;
+		return null;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof ChildrenPage) {
+			ChildrenPage other= (ChildrenPage) obj;
+			return fIndex == other.fIndex && fParent.equals(other.fParent);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return fParent.hashCode() * 31 + fIndex;
+	}
+}
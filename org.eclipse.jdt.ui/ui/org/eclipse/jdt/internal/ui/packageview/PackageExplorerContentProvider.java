@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,9 +14,15 @@
 package org.eclipse.jdt.internal.ui.packageview;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
@@ -38,6 +44,8 @@ import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.IBasicPropertyConstants;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
 
 import org.eclipse.ui.IWorkingSet;
 import org.eclipse.ui.progress.UIJob;
@@ -82,6 +90,75 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	protected static final int GRANT_PARENT= 1 << 1;
 	protected static final int PROJECT= 1 << 2;
 
+	/**
+	 * Maximum time in milliseconds that a run of the update job spends on posted viewer
+	 * updates. Remaining updates are rescheduled, so that the UI stays responsive while
+	 * large deltas are processed.
+	 */
+	private static final long MAX_UPDATE_TIME= 100;
+
+	/**
+	 * Maximum number of ancestors inspected when checking whether an update is covered by a
+	 * pending refresh.
+	 */
+	private static final int MAX_ANCESTOR_DEPTH= 64;
+
+	/**
+	 * Default number of children per {@link ChildrenPage}.
+	 *
+	 * @see #setChildrenPageSize(int)
+	 */
+	public static final int DEFAULT_CHILDREN_PAGE_SIZE= 500;
+
+	/**
+	 * A posted viewer update that only affects the subtree of an element. Such an update is
+	 * dropped when a refresh of an ancestor is pending in the same batch of updates.
+	 */
+	private abstract static class SubtreeUpdate implements Runnable {
+		final Object fAffectedElement;
+
+		SubtreeUpdate(Object affectedElement) {
+			fAffectedElement= affectedElement;
+		}
+
+		/**
+		 * @return whether a refresh of the affected element itself covers this update
+		 */
+		abstract boolean isCoveredByOwnRefresh();
+
+		/**
+		 * @return whether this update can only be covered by refreshes that update labels
+		 */
+		abstract boolean needsLabelUpdate();
+	}
+
+	private final class RefreshUpdate extends SubtreeUpdate {
+		final boolean fUpdateLabels;
+
+		RefreshUpdate(Object element, boolean updateLabels) {
+			super(element);
+			fUpdateLabels= updateLabels;
+		}
+
+		@Override
+		boolean isCoveredByOwnRefresh() {
+			return false;
+		}
+
+		@Override
+		boolean needsLabelUpdate() {
+			return fUpdateLabels;
+		}
+
+		@Override
+		public void run() {
+			if (fAffectedElement == null || fViewer.testFindItems(fAffectedElement).length > 0) {
+				fViewer.refresh(fAffectedElement, fUpdateLabels);
+				fExecutedRefreshCount.incrementAndGet();
+			}
+		}
+	}
+
 	private TreeViewer fViewer;
 	private Object fInput;
 	private boolean fIsFlatLayout;
@@ -92,6 +169,45 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	private UIJob fUpdateJob;
 
+	private int fChildrenPageSize;
+
+	/**
+	 * The pages of elements whose children are currently paged. Access is synchronized on
+	 * this map.
+	 */
+	private final Map<Object, ChildrenPage[]> fPagesByParent= new HashMap<>();
+
+	/**
+	 * The page of each child of a paged element. Access is synchronized on
+	 * {@link #fPagesByParent}.
+	 */
+	private final Map<Object, ChildrenPage> fPageByChild= new HashMap<>();
+
+	/**
+	 * The pageable elements whose children have been computed and are not paged. Like
+	 * {@link #fPagesByParent}, kept across Java model changes, so that finding the parent of a
+	 * child does not compute the children again. Access is synchronized on {@link #fPagesByParent}.
+	 */
+	private final Set<Object> fUnpagedParents= new HashSet<>();
+
+	/**
+	 * The sorted but unfiltered children of pageable elements, so that expanding them again or
+	 * finding the page of a child does not compute and sort all children again. Cleared on any
+	 * Java model change. Access is synchronized on {@link #fPagesByParent}.
+	 */
+	private final Map<Object, Object[]> fSortedChildren= new HashMap<>();
+
+	/**
+	 * Incremented whenever {@link #fSortedChildren} is cleared, so that children computed
+	 * concurrently with a Java model change are not cached. Guarded by {@link #fPagesByParent}.
+	 */
+	private int fSortedChildrenGeneration;
+
+	private final AtomicLong fReceivedDeltaCount= new AtomicLong();
+	private final AtomicLong fRequestedUpdateCount= new AtomicLong();
+	private final AtomicLong fExecutedRefreshCount= new AtomicLong();
+	private final AtomicLong fCoalescedUpdateCount= new AtomicLong();
+
 	/**
 	 * We use a cache to know whether a package has a single child for the hierarchical representation.
 	 * This avoids looping over all packages for each call to
@@ -126,9 +242,11 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	@Override
 	public void elementChanged(final ElementChangedEvent event) {
+		fReceivedDeltaCount.incrementAndGet();
 		final ArrayList<Runnable> runnables= new ArrayList<>();
 		try {
 			clearPackageCache();
+			clearSortedChildren();
 
 			// 58952 delete project does not update Package Explorer [package explorer]
 			// if the input to the viewer is deleted then refresh to avoid the display of stale elements
@@ -144,6 +262,7 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 	protected final void executeRunnables(final Collection<Runnable> runnables) {
+		fRequestedUpdateCount.addAndGet(runnables.size());
 
 		// now post all collected runnables
 		Control ctrl= fViewer.getControl();
@@ -176,7 +295,7 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 					if (viewer != null && viewer.isBusy()) {
 						schedule(100); // reschedule when viewer is busy: bug 184991
 					} else {
-						runPendingUpdates();
+						runPendingUpdates(MAX_UPDATE_TIME);
 					}
 					return Status.OK_STATUS;
 				}
@@ -190,6 +309,17 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	 * Run all of the runnables that are the widget updates. Must be called in the display thread.
 	 */
 	public void runPendingUpdates() {
+		runPendingUpdates(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Runs the pending widget updates until the given time budget is used up. Updates that
+	 * did not run are kept pending and the update job is rescheduled. Must be called in the
+	 * display thread.
+	 *
+	 * @param maxTime the maximum time in milliseconds to spend
+	 */
+	private void runPendingUpdates(long maxTime) {
 		Collection<Runnable> pendingUpdates;
 		synchronized (this) {
 			pendingUpdates= fPendingUpdates;
@@ -198,16 +328,129 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 		if (pendingUpdates != null && fViewer != null) {
 			Control control = fViewer.getControl();
 			if (control != null && !control.isDisposed()) {
-				runUpdates(pendingUpdates);
+				List<Runnable> remaining= runUpdates(pendingUpdates, maxTime);
+				if (!remaining.isEmpty()) {
+					synchronized (this) {
+						if (fPendingUpdates != null)
+							remaining.addAll(fPendingUpdates);
+						fPendingUpdates= remaining;
+					}
+					postAsyncUpdate(control.getDisplay());
+				}
 			}
 		}
 	}
 
 	private void runUpdates(Collection<Runnable> runnables) {
-		Iterator<Runnable> runnableIterator = runnables.iterator();
-		while (runnableIterator.hasNext()){
-			runnableIterator.next().run();
+		runUpdates(runnables, Long.MAX_VALUE);
+	}
+
+	private List<Runnable> runUpdates(Collection<Runnable> runnables, long maxTime) {
+		List<Runnable> updates= coalesceUpdates(runnables);
+		long start= System.currentTimeMillis();
+		for (int i= 0; i < updates.size(); i++) {
+			if (i > 0 && System.currentTimeMillis() - start > maxTime) {
+				return new ArrayList<>(updates.subList(i, updates.size()));
+			}
+			updates.get(i).run();
 		}
+		return new ArrayList<>(0);
+	}
+
+	/**
+	 * Removes updates that are covered by a refresh of an ancestor in the same batch, and
+	 * merges duplicate refreshes of the same element.
+	 *
+	 * @param runnables the posted updates, in order
+	 * @return the updates that need to run, in order
+	 */
+	private List<Runnable> coalesceUpdates(Collection<Runnable> runnables) {
+		Map<Object, Boolean> refreshed= new HashMap<>();
+		for (Runnable runnable : runnables) {
+			if (runnable instanceof RefreshUpdate) {
+				RefreshUpdate refresh= (RefreshUpdate) runnable;
+				Boolean updateLabels= refreshed.get(refresh.fAffectedElement);
+				if (updateLabels == null || (!updateLabels.booleanValue() && refresh.fUpdateLabels))
+					refreshed.put(refresh.fAffectedElement, Boolean.valueOf(refresh.fUpdateLabels));
+			}
+		}
+		if (refreshed.isEmpty())
+			return new ArrayList<>(runnables);
+
+		List<Runnable> result= new ArrayList<>(runnables.size());
+		Map<Object, Object> emittedRefreshes= new HashMap<>();
+		for (Runnable runnable : runnables) {
+			if (runnable instanceof SubtreeUpdate) {
+				SubtreeUpdate update= (SubtreeUpdate) runnable;
+				if (isCoveredByRefresh(update, refreshed)) {
+					fCoalescedUpdateCount.incrementAndGet();
+					continue;
+				}
+				if (update instanceof RefreshUpdate) {
+					Object element= update.fAffectedElement;
+					if (emittedRefreshes.containsKey(element)) {
+						fCoalescedUpdateCount.incrementAndGet();
+						continue;
+					}
+					emittedRefreshes.put(element, element);
+					boolean updateLabels= refreshed.get(element).booleanValue();
+					if (updateLabels != ((RefreshUpdate) update).fUpdateLabels)
+						update= new RefreshUpdate(element, updateLabels);
+				}
+				result.add(update);
+			} else {
+				result.add(runnable);
+			}
+		}
+		return result;
+	}
+
+	private boolean isCoveredByRefresh(SubtreeUpdate update, Map<Object, Boolean> refreshed) {
+		boolean needsLabels= update.needsLabelUpdate();
+		if (covers(refreshed.get(null), needsLabels) || (fInput != null && !fInput.equals(update.fAffectedElement) && covers(refreshed.get(fInput), needsLabels)))
+			return update.fAffectedElement != null || update.isCoveredByOwnRefresh();
+		if (update.fAffectedElement == null)
+			return false;
+		Object current= update.isCoveredByOwnRefresh() ? update.fAffectedElement : getParent(update.fAffectedElement);
+		for (int depth= 0; current != null && depth < MAX_ANCESTOR_DEPTH; depth++) {
+			if (covers(refreshed.get(current), needsLabels))
+				return true;
+			current= getParent(current);
+		}
+		return false;
+	}
+
+	private static boolean covers(Boolean refreshUpdatesLabels, boolean needsLabels) {
+		return refreshUpdatesLabels != null && (refreshUpdatesLabels.booleanValue() || !needsLabels);
+	}
+
+	/**
+	 * @return the number of Java element change events received
+	 */
+	public long getReceivedDeltaCount() {
+		return fReceivedDeltaCount.get();
+	}
+
+	/**
+	 * @return the number of viewer updates posted while processing deltas
+	 */
+	public long getRequestedUpdateCount() {
+		return fRequestedUpdateCount.get();
+	}
+
+	/**
+	 * @return the number of viewer refreshes that were actually executed
+	 */
+	public long getExecutedRefreshCount() {
+		return fExecutedRefreshCount.get();
+	}
+
+	/**
+	 * @return the number of posted viewer updates that were dropped because a pending refresh
+	 *         of the same element or of an ancestor covered them
+	 */
+	public long getCoalescedUpdateCount() {
+		return fCoalescedUpdateCount.get();
 	}
 
 
@@ -229,6 +472,7 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	@Override
 	public void dispose() {
 		clearPackageCache();
+		clearPages();
 		JavaCore.removeElementChangedListener(this);
 		JavaPlugin.getDefault().getPreferenceStore().removePropertyChangeListener(this);
 		super.dispose();
@@ -295,8 +539,146 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 
+	/**
+	 * Sets the maximum number of children of a package fragment, package fragment root or
+	 * library container that are shown at once. Elements with more children get
+	 * {@link ChildrenPage}s as children, so that expanding them only creates the tree items
+	 * and labels of the expanded page.
+	 *
+	 * @param pageSize the number of children per page, or <code>0</code> to never page children
+	 */
+	public void setChildrenPageSize(int pageSize) {
+		fChildrenPageSize= pageSize;
+		clearPages();
+	}
+
+	private void clearPages() {
+		synchronized (fPagesByParent) {
+			fPagesByParent.clear();
+			fPageByChild.clear();
+			fUnpagedParents.clear();
+			fSortedChildren.clear();
+			fSortedChildrenGeneration++;
+		}
+	}
+
+	private void clearSortedChildren() {
+		synchronized (fPagesByParent) {
+			fSortedChildren.clear();
+			fSortedChildrenGeneration++;
+		}
+	}
+
+	private boolean isPageable(Object element) {
+		return fChildrenPageSize > 0 && (element instanceof IPackageFragment || element instanceof IPackageFragmentRoot || element instanceof PackageFragmentRootContainer);
+	}
+
+	/**
+	 * @param element the element to test
+	 * @return whether the children of the given element are currently shown in pages
+	 */
+	protected boolean isPaged(Object element) {
+		synchronized (fPagesByParent) {
+			return fPagesByParent.containsKey(element);
+		}
+	}
+
+	private Object[] getPagedChildren(Object parent) {
+		Object[] sorted;
+		int generation;
+		synchronized (fPagesByParent) {
+			sorted= fSortedChildren.get(parent);
+			generation= fSortedChildrenGeneration;
+		}
+		if (sorted == null) {
+			// pages must follow the order in which the viewer shows the children
+			sorted= getUnpagedChildren(parent).clone();
+			if (fViewer != null) {
+				ViewerComparator comparator= fViewer.getComparator();
+				if (comparator != null)
+					comparator.sort(fViewer, sorted);
+			}
+		}
+		// page what the viewer shows, not the children that are filtered out anyway
+		Object[] children= sorted;
+		if (fViewer != null) {
+			ViewerFilter[] filters= fViewer.getFilters();
+			for (int i= 0; i < filters.length; i++) {
+				children= filters[i].filter(fViewer, parent, children);
+			}
+		}
+
+		synchronized (fPagesByParent) {
+			if (generation == fSortedChildrenGeneration)
+				fSortedChildren.put(parent, sorted);
+			ChildrenPage[] oldPages= fPagesByParent.remove(parent);
+			if (oldPages != null) {
+				for (int i= 0; i < oldPages.length; i++) {
+					Object[] oldChildren= oldPages[i].getChildren();
+					for (int k= 0; k < oldChildren.length; k++) {
+						fPageByChild.remove(oldChildren[k]);
+					}
+				}
+			}
+			if (children.length <= fChildrenPageSize) {
+				fUnpagedParents.add(parent);
+				return children;
+			}
+			fUnpagedParents.remove(parent);
+
+			ChildrenPage[] pages= new ChildrenPage[(children.length + fChildrenPageSize - 1) / fChildrenPageSize];
+			for (int i= 0; i < pages.length; i++) {
+				Object[] pageChildren= Arrays.copyOfRange(children, i * fChildrenPageSize, Math.min(children.length, (i + 1) * fChildrenPageSize));
+				pages[i]= new ChildrenPage(parent, i, pageChildren);
+				for (int k= 0; k < pageChildren.length; k++) {
+					fPageByChild.put(pageChildren[k], pages[i]);
+				}
+			}
+			fPagesByParent.put(parent, pages);
+			return pages;
+		}
+	}
+
 	@Override
 	public Object[] getChildren(Object parentElement) {
+		if (parentElement instanceof ChildrenPage)
+			return ((ChildrenPage) parentElement).getChildren();
+		if (isPageable(parentElement))
+			return getPagedChildren(parentElement);
+		return getUnpagedChildren(parentElement);
+	}
+
+	@Override
+	public Object getParent(Object element) {
+		Object parent= super.getParent(element);
+		if (parent == null || !isPageable(parent))
+			return parent;
+		synchronized (fPagesByParent) {
+			ChildrenPage page= fPageByChild.get(element);
+			if (page != null)
+				return page;
+			if (fPagesByParent.containsKey(parent) || fUnpagedParents.contains(parent))
+				return parent; // not paged, or added after the pages were computed (see postAdd)
+		}
+		// the children of the parent have never been computed (e.g. when revealing the element),
+		// compute its pages once to find the page that contains the element
+		getPagedChildren(parent);
+		synchronized (fPagesByParent) {
+			ChildrenPage page= fPageByChild.get(element);
+			if (page != null)
+				return page;
+		}
+		return parent;
+	}
+
+	@Override
+	public boolean hasChildren(Object element) {
+		if (element instanceof ChildrenPage)
+			return true;
+		return super.hasChildren(element);
+	}
+
+	private Object[] getUnpagedChildren(Object parentElement) {
 		try {
 			if (parentElement instanceof IJavaModel)
 				return concatenate(getJavaProjects((IJavaModel)parentElement), getNonJavaProjects((IJavaModel)parentElement));
@@ -382,6 +764,13 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	@Override
 	protected Object internalGetParent(Object element) {
+		if (element instanceof ChildrenPage)
+			return ((ChildrenPage) element).getParent();
+		synchronized (fPagesByParent) {
+			ChildrenPage page= fPageByChild.get(element);
+			if (page != null)
+				return page;
+		}
 		if (!fIsFlatLayout && element instanceof IPackageFragment) {
 			return getHierarchicalPackageParent((IPackageFragment) element);
 		} else if (element instanceof IPackageFragmentRoot) {
@@ -411,6 +800,7 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 		super.inputChanged(viewer, oldInput, newInput);
 		fViewer= (TreeViewer)viewer;
+		clearPages();
 		if (oldInput == null && newInput != null) {
 			JavaCore.addElementChangedListener(this);
 		} else if (oldInput != null && newInput == null) {
@@ -858,7 +1248,17 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	 * @param runnables the resulting view changes as runnables (type {@link Runnable})
 	 */
 	 private void postUpdateIcon(final IJavaElement element, Collection<Runnable> runnables) {
-		 runnables.add(new Runnable() {
+		 runnables.add(new SubtreeUpdate(element) {
+			@Override
+			boolean isCoveredByOwnRefresh() {
+				return true;
+			}
+
+			@Override
+			boolean needsLabelUpdate() {
+				return true;
+			}
+
 			@Override
 			public void run() {
 				// 1GF87WR: ITPUI:ALL - SWTEx + NPE closing a workbench window.
@@ -939,10 +1339,12 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	public void setIsFlatLayout(boolean state) {
 		fIsFlatLayout= state;
+		clearSortedChildren();
 	}
 
 	public void setShowLibrariesNode(boolean state) {
 		fShowLibrariesNode= state;
+		clearSortedChildren();
 	}
 
 	private void postRefresh(Object root, int relation, Object affectedElement, Collection<Runnable> runnables) {
@@ -976,22 +1378,33 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 	protected void postRefresh(final List<Object> toRefresh, final boolean updateLabels, Collection<Runnable> runnables) {
-		runnables.add(new Runnable() {
+		for (Iterator<Object> iter= toRefresh.iterator(); iter.hasNext();) {
+			runnables.add(new RefreshUpdate(iter.next(), updateLabels));
+		}
+	}
+
+	protected void postAdd(Object parent, final Object element, Collection<Runnable> runnables) {
+		// an element that was shown before may still be mapped to its page: add it through the
+		// owner of the pages instead
+		final Object owner= parent instanceof ChildrenPage ? ((ChildrenPage) parent).getParent() : parent;
+		if (isPaged(owner)) {
+			// the new element belongs to one of the pages: recompute them
+			List<Object> toRefresh= new ArrayList<>(1);
+			toRefresh.add(owner);
+			postRefresh(toRefresh, false, runnables);
+			return;
+		}
+		runnables.add(new SubtreeUpdate(owner) {
 			@Override
-			public void run() {
-				Object[] elements= toRefresh.toArray();
-				for (int i= 0; i < elements.length; i++) {
-					Object element= elements[i];
-					if (element == null || fViewer.testFindItems(element).length > 0) {
-						fViewer.refresh(element, updateLabels);
-					}
-				}
+			boolean isCoveredByOwnRefresh() {
+				return true;
+			}
+
+			@Override
+			boolean needsLabelUpdate() {
+				return false;
 			}
-		});
-	}
 
-	protected void postAdd(final Object parent, final Object element, Collection<Runnable> runnables) {
-		runnables.add(new Runnable() {
 			@Override
 			public void run() {
 				Widget[] items= fViewer.testFindItems(element);
@@ -999,18 +1412,28 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 					Widget item= items[i];
 					if (item instanceof TreeItem && !item.isDisposed()) {
 						TreeItem parentItem= ((TreeItem) item).getParentItem();
-						if (parentItem != null && !parentItem.isDisposed() && parent.equals(parentItem.getData())) {
+						if (parentItem != null && !parentItem.isDisposed() && owner.equals(parentItem.getData())) {
 							return; // no add, element already added (most likely by a refresh)
 						}
 					}
 				}
-				fViewer.add(parent, element);
+				fViewer.add(owner, element);
 			}
 		});
 	}
 
 	protected void postRemove(final Object element, Collection<Runnable> runnables) {
-		runnables.add(new Runnable() {
+		runnables.add(new SubtreeUpdate(element) {
+			@Override
+			boolean isCoveredByOwnRefresh() {
+				return false;
+			}
+
+			@Override
+			boolean needsLabelUpdate() {
+				return false;
+			}
+
 			@Override
 			public void run() {
 				if (fViewer.testFindItems(element).length > 0) {
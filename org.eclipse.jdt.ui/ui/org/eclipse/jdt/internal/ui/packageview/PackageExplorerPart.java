@@ -288,6 +288,10 @@ public class PackageExplorerPart extends ViewPart
 
 		@Override
 		protected boolean isFiltered(Object object, Object parent, ViewerFilter[] filters) {
+			if (parent instanceof ChildrenPage) {
+				// the children of pages have been filtered when the pages were computed
+				return false;
+			}
 			boolean res= super.isFiltered(object, parent, filters);
 			if (res && isEssential(object)) {
 				return false;
@@ -594,6 +598,7 @@ public class PackageExplorerPart extends ViewPart
 		fContentProvider= createContentProvider();
 		fContentProvider.setIsFlatLayout(fIsCurrentLayoutFlat);
 		fContentProvider.setShowLibrariesNode(fShowLibrariesNode);
+		fContentProvider.setChildrenPageSize(PackageExplorerContentProvider.DEFAULT_CHILDREN_PAGE_SIZE);
 		fViewer.setContentProvider(fContentProvider);
 
 		fViewer.setComparer(createElementComparer());
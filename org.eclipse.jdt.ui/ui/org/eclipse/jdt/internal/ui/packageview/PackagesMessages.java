@@ -24,6 +24,7 @@ public final class PackagesMessages extends NLS {
 		// Do not instantiate
 	}
 
+	public static String ChildrenPage_label;
 	public static String DragAdapter_deleting;
 	public static String DragAdapter_problem;
 	public static String DragAdapter_problemTitle;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2012 IBM Corporation and others.
+ * Copyright (c) 2010, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -40,6 +40,8 @@ import org.eclipse.jface.text.source.ISourceViewerExtension3;
 
 import org.eclipse.ui.progress.WorkbenchJob;
 
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertiesFileEscapes;
+
 /**
  * Auto edit strategy that escapes a character if it cannot be encoded in the .properties file's
  * encoding.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -72,7 +72,6 @@ public final class PropertiesFileEditorMessages extends NLS {
 	public static String PropertiesCorrectionProcessor_rename_in_workspace_description;
 	public static String PropertiesFileAutoEditStrategy_showQuickAssist;
 	public static String PropertiesFileEditor_find_accessor_type;
-	public static String PropertiesFileHover_MalformedEncoding;
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, PropertiesFileEditorMessages.class);
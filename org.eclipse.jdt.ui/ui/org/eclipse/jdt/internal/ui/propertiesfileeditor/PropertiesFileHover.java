@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2011 IBM Corporation and others.
+ * Copyright (c) 2010, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,6 +35,8 @@ import org.eclipse.jface.text.ITypedRegion;
 
 import org.eclipse.ui.editors.text.EditorsUI;
 
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertiesFileEscapes;
+
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 
 /**
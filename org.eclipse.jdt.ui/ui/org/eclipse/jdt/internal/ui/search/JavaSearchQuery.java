@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,11 +15,19 @@ package org.eclipse.jdt.internal.ui.search;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
@@ -37,14 +45,17 @@ import org.eclipse.search.ui.text.Match;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
 
+import org.eclipse.jdt.internal.corext.util.BackgroundExecutor;
 import org.eclipse.jdt.internal.corext.util.Messages;
 import org.eclipse.jdt.internal.corext.util.SearchUtils;
 
 import org.eclipse.jdt.ui.JavaElementLabels;
+import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.search.ElementQuerySpecification;
 import org.eclipse.jdt.ui.search.IMatchPresentation;
 import org.eclipse.jdt.ui.search.IQueryParticipant;
@@ -60,6 +71,14 @@ public class JavaSearchQuery implements ISearchQuery {
 
 	private static final String PERF_SEARCH_PARTICIPANT= "org.eclipse.jdt.ui/perf/search/participants"; //$NON-NLS-1$
 
+	/**
+	 * Time in milliseconds after which the progress of concurrently running search tasks is
+	 * reported.
+	 */
+	private static final long PROGRESS_INTERVAL= 100;
+
+	private static final BackgroundExecutor fgSearchExecutor= new BackgroundExecutor("Java Search", 2, 8); //$NON-NLS-1$
+
 	private ISearchResult fResult;
 	private final List<QuerySpecification> fPatternDataList;
 
@@ -98,12 +117,78 @@ public class JavaSearchQuery implements ISearchQuery {
 		}
 	}
 
+	/**
+	 * A part of the search. When the parts run concurrently, the progress of each part is recorded
+	 * by its {@link TaskProgressMonitor} and reported by the thread that runs the query.
+	 */
+	private static abstract class SearchTask implements Callable<Object> {
+		private final int fTicks;
+		private final TaskProgressMonitor fMonitor= new TaskProgressMonitor();
+
+		protected SearchTask(int ticks) {
+			fTicks= ticks;
+		}
+
+		protected abstract void run(IProgressMonitor monitor) throws CoreException;
+
+		@Override
+		public Object call() throws CoreException {
+			try {
+				run(fMonitor);
+			} finally {
+				fMonitor.done();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Records the progress of a search task that runs in a background thread.
+	 */
+	private static class TaskProgressMonitor extends NullProgressMonitor {
+		private volatile int fTotalWork= IProgressMonitor.UNKNOWN;
+		private double fWorked;
+		private volatile boolean fDone;
+		private volatile String fSubTaskName;
+
+		@Override
+		public void beginTask(String name, int totalWork) {
+			fTotalWork= totalWork;
+		}
+
+		@Override
+		public synchronized void internalWorked(double work) {
+			fWorked+= work;
+		}
+
+		@Override
+		public void worked(int work) {
+			internalWorked(work);
+		}
+
+		@Override
+		public void subTask(String name) {
+			fSubTaskName= name;
+		}
+
+		@Override
+		public void done() {
+			fDone= true;
+		}
+
+		synchronized int getWorked(int ticks) {
+			if (fDone)
+				return ticks;
+			if (fTotalWork <= 0)
+				return 0;
+			return (int) Math.min(ticks, ticks * fWorked / fTotalWork);
+		}
+	}
+
 	@Override
 	public IStatus run(IProgressMonitor monitor) {
 		final JavaSearchResult textResult= (JavaSearchResult) getSearchResult();
 		textResult.removeAll();
-		// Don't need to pass in working copies in 3.0 here
-		SearchEngine engine= new SearchEngine();
 		try {
 
 			int totalTicks= 1000;
@@ -132,40 +217,21 @@ public class JavaSearchQuery implements ISearchQuery {
 				totalTicks+= ticks[i];
 			}
 
-			SearchPattern pattern= null;
 			String stringPattern= null;
-			
-			if (fPatternDataList.size() == 1) {
-				if (getFirstSpecification() instanceof ElementQuerySpecification) {
-					IJavaElement element= ((ElementQuerySpecification) getFirstSpecification()).getElement();
-					stringPattern= JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT);
-					if (!element.exists()) {
-						return new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, Messages.format(SearchMessages.JavaSearchQuery_error_element_does_not_exist, stringPattern), null);
-					}
-					pattern= SearchPattern.createPattern(element, getFirstSpecification().getLimitTo(), SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
-				} else if (getFirstSpecification() instanceof PatternQuerySpecification) {
-					PatternQuerySpecification patternSpec= (PatternQuerySpecification) getFirstSpecification();
-					stringPattern= patternSpec.getPattern();
-					int matchMode= getMatchMode(stringPattern) | SearchPattern.R_ERASURE_MATCH;
-					if (patternSpec.isCaseSensitive())
-						matchMode|= SearchPattern.R_CASE_SENSITIVE;
-					pattern= SearchPattern.createPattern(patternSpec.getPattern(), patternSpec.getSearchFor(), patternSpec.getLimitTo(), matchMode);
+			for (QuerySpecification querySpecification : fPatternDataList) {
+				if (!(querySpecification instanceof ElementQuerySpecification)) {
+					if (querySpecification instanceof PatternQuerySpecification && fPatternDataList.size() == 1)
+						stringPattern= ((PatternQuerySpecification) querySpecification).getPattern();
+					break;
 				}
-			} else {
-				for (QuerySpecification querySpecification : fPatternDataList) {
-					if (!(querySpecification instanceof ElementQuerySpecification)) {
-						break;
-					}
-					IJavaElement element= ((ElementQuerySpecification) querySpecification).getElement();
-					stringPattern= JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT);
-					if (!element.exists()) {
-						return new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, Messages.format(SearchMessages.JavaSearchQuery_error_element_does_not_exist, stringPattern), null);
-					}
-					SearchPattern elementPattern= SearchPattern.createPattern(element, getFirstSpecification().getLimitTo(), SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
-					pattern= pattern == null ? elementPattern : SearchPattern.createOrPattern(pattern, elementPattern);
+				IJavaElement element= ((ElementQuerySpecification) querySpecification).getElement();
+				stringPattern= JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT);
+				if (!element.exists()) {
+					return new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, Messages.format(SearchMessages.JavaSearchQuery_error_element_does_not_exist, stringPattern), null);
 				}
 			}
 
+			SearchPattern pattern= createSearchPattern();
 			if (pattern == null) {
 				return new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, Messages.format(SearchMessages.JavaSearchQuery_error_unsupported_pattern, stringPattern), null);
 			}
@@ -174,17 +240,98 @@ public class JavaSearchQuery implements ISearchQuery {
 			boolean ignorePotentials= NewSearchUI.arePotentialMatchesIgnored();
 			NewSearchResultCollector collector= new NewSearchResultCollector(textResult, ignorePotentials);
 
-
-			engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, getFirstSpecification().getScope(), collector, subMonitor.split(1000));
+			IJavaSearchScope scope= getFirstSpecification().getScope();
+			boolean inParallel= JavaPlugin.getDefault().getPreferenceStore().getBoolean(PreferenceConstants.SEARCH_IN_PARALLEL);
+			IJavaSearchScope[] partitions= inParallel ? SearchScopePartition.partition(scope) : null;
+			if (partitions == null)
+				partitions= new IJavaSearchScope[] { scope };
+
+			List<SearchTask> tasks= new ArrayList<>(partitions.length + participantDescriptors.length);
+			for (int i= 0; i < partitions.length; i++) {
+				// patterns are not shared by concurrent searches
+				SearchPattern partitionPattern= i == 0 ? pattern : createSearchPattern();
+				int partitionTicks= 1000 * (i + 1) / partitions.length - 1000 * i / partitions.length;
+				tasks.add(createPartitionTask(partitionPattern, partitions[i], collector, partitionTicks));
+			}
+			List<SearchTask> sequentialTasks= new ArrayList<>(participantDescriptors.length);
 			for (int i= 0; i < participantDescriptors.length; i++) {
-				final ISearchRequestor requestor= new SearchRequestor(participantDescriptors[i].getParticipant(), textResult);
-				final IProgressMonitor participantPM= subMonitor.split(ticks[i]);
+				SearchTask task= createParticipantTask(participantDescriptors[i], textResult, ticks[i]);
+				if (inParallel && participantDescriptors[i].getDescriptor().isThreadSafe())
+					tasks.add(task);
+				else
+					sequentialTasks.add(task);
+			}
 
-				final int iPrime= i;
+			if (inParallel && tasks.size() > 1) {
+				runConcurrently(tasks, subMonitor);
+			} else {
+				for (SearchTask task : tasks) {
+					task.run(subMonitor.split(task.fTicks));
+				}
+			}
+			// participants that are not declared thread-safe run one after the other in this thread
+			for (SearchTask task : sequentialTasks) {
+				task.run(subMonitor.split(task.fTicks));
+			}
+
+		} catch (CoreException e) {
+			return e.getStatus();
+		}
+		String message= Messages.format(SearchMessages.JavaSearchQuery_status_ok_message, String.valueOf(textResult.getMatchCount()));
+		return new Status(IStatus.OK, JavaPlugin.getPluginId(), 0, message, null);
+	}
+
+	/**
+	 * Creates the search pattern of the query specifications.
+	 *
+	 * @return the pattern, or <code>null</code> if the specifications are not supported
+	 */
+	private SearchPattern createSearchPattern() {
+		if (fPatternDataList.size() == 1) {
+			if (getFirstSpecification() instanceof ElementQuerySpecification) {
+				IJavaElement element= ((ElementQuerySpecification) getFirstSpecification()).getElement();
+				return SearchPattern.createPattern(element, getFirstSpecification().getLimitTo(), SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+			} else if (getFirstSpecification() instanceof PatternQuerySpecification) {
+				PatternQuerySpecification patternSpec= (PatternQuerySpecification) getFirstSpecification();
+				int matchMode= getMatchMode(patternSpec.getPattern()) | SearchPattern.R_ERASURE_MATCH;
+				if (patternSpec.isCaseSensitive())
+					matchMode|= SearchPattern.R_CASE_SENSITIVE;
+				return SearchPattern.createPattern(patternSpec.getPattern(), patternSpec.getSearchFor(), patternSpec.getLimitTo(), matchMode);
+			}
+			return null;
+		}
+		SearchPattern pattern= null;
+		for (QuerySpecification querySpecification : fPatternDataList) {
+			if (!(querySpecification instanceof ElementQuerySpecification)) {
+				break;
+			}
+			IJavaElement element= ((ElementQuerySpecification) querySpecification).getElement();
+			SearchPattern elementPattern= SearchPattern.createPattern(element, getFirstSpecification().getLimitTo(), SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+			pattern= pattern == null ? elementPattern : SearchPattern.createOrPattern(pattern, elementPattern);
+		}
+		return pattern;
+	}
+
+	private static SearchTask createPartitionTask(final SearchPattern pattern, final IJavaSearchScope scope, final NewSearchResultCollector collector, int ticks) {
+		return new SearchTask(ticks) {
+			@Override
+			protected void run(IProgressMonitor monitor) throws CoreException {
+				// Don't need to pass in working copies in 3.0 here
+				SearchEngine engine= new SearchEngine();
+				engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope, collector, monitor);
+			}
+		};
+	}
+
+	private SearchTask createParticipantTask(final SearchParticipantRecord participantDescriptor, JavaSearchResult textResult, int ticks) {
+		final ISearchRequestor requestor= new SearchRequestor(participantDescriptor.getParticipant(), textResult);
+		return new SearchTask(ticks) {
+			@Override
+			protected void run(final IProgressMonitor participantPM) {
 				ISafeRunnable runnable= new ISafeRunnable() {
 					@Override
 					public void handleException(Throwable exception) {
-						participantDescriptors[iPrime].getDescriptor().disable();
+						participantDescriptor.getDescriptor().disable();
 						String message= SearchMessages.JavaSearchQuery_error_participant_search;
 						JavaPlugin.log(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, message, exception));
 					}
@@ -192,7 +339,7 @@ public class JavaSearchQuery implements ISearchQuery {
 					@Override
 					public void run() throws Exception {
 
-						final IQueryParticipant participant= participantDescriptors[iPrime].getParticipant();
+						final IQueryParticipant participant= participantDescriptor.getParticipant();
 
 						final PerformanceStats stats= PerformanceStats.getStats(PERF_SEARCH_PARTICIPANT, participant);
 						stats.startRun();
@@ -207,12 +354,88 @@ public class JavaSearchQuery implements ISearchQuery {
 
 				SafeRunner.run(runnable);
 			}
+		};
+	}
 
-		} catch (CoreException e) {
-			return e.getStatus();
+	/**
+	 * Runs the given tasks concurrently and waits until all of them have finished. The progress
+	 * of the tasks is reported to the given monitor while they run. The tasks add their matches to
+	 * the search result as they find them; the result does not depend on the order in which the
+	 * matches are added.
+	 *
+	 * @param tasks the tasks to run
+	 * @param monitor the monitor of the query
+	 * @throws CoreException the first exception thrown by a task, in the order of the tasks
+	 */
+	private static void runConcurrently(List<SearchTask> tasks, SubMonitor monitor) throws CoreException {
+		ExecutorService executor= fgSearchExecutor.get();
+		List<Future<Object>> futures= new ArrayList<>(tasks.size());
+		for (SearchTask task : tasks) {
+			futures.add(executor.submit(task));
 		}
-		String message= Messages.format(SearchMessages.JavaSearchQuery_status_ok_message, String.valueOf(textResult.getMatchCount()));
-		return new Status(IStatus.OK, JavaPlugin.getPluginId(), 0, message, null);
+
+		boolean canceled= false;
+		boolean interrupted= false;
+		int reported= 0;
+		String reportedSubTaskName= null;
+		int next= 0; // the first task that may not have finished
+		while (next < futures.size()) {
+			try {
+				futures.get(next).get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+				next++;
+			} catch (TimeoutException e) {
+				// report the progress
+			} catch (ExecutionException e) {
+				// rethrown below
+				next++;
+			} catch (InterruptedException e) {
+				interrupted= true;
+			}
+			if (!canceled && (interrupted || monitor.isCanceled())) {
+				// the tasks still need to finish, they add matches to the result
+				canceled= true;
+				for (SearchTask task : tasks) {
+					task.fMonitor.setCanceled(true);
+				}
+			}
+
+			int worked= 0;
+			String subTaskName= null;
+			for (SearchTask task : tasks) {
+				worked+= task.fMonitor.getWorked(task.fTicks);
+				if (subTaskName == null && !task.fMonitor.fDone)
+					subTaskName= task.fMonitor.fSubTaskName;
+			}
+			if (worked > reported) {
+				monitor.worked(worked - reported);
+				reported= worked;
+			}
+			if (subTaskName != null && !subTaskName.equals(reportedSubTaskName)) {
+				monitor.subTask(subTaskName);
+				reportedSubTaskName= subTaskName;
+			}
+		}
+
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		for (Future<Object> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				Throwable cause= e.getCause();
+				if (cause instanceof CoreException)
+					throw (CoreException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new IllegalStateException(cause);
+			} catch (InterruptedException e) {
+				// all tasks have finished
+			}
+		}
+		if (canceled)
+			throw new OperationCanceledException();
 	}
 
 	private int getMatchMode(String pattern) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,9 @@
 package org.eclipse.jdt.internal.ui.search;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -25,6 +27,8 @@ import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.Match;
 import org.eclipse.search.ui.text.MatchFilter;
 
+import org.eclipse.jdt.core.IJavaElement;
+
 import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.ui.search.IMatchPresentation;
@@ -35,10 +39,16 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 
 	private final JavaSearchQuery fQuery;
 	private final Map<Object, IMatchPresentation> fElementsToParticipants;
+	/**
+	 * The elements with matches, grouped by their compilation unit or class file, or by
+	 * the element itself if it is not contained in one
+	 */
+	private final Map<Object, Set<Object>> fElementsByContainer;
 
 	public JavaSearchResult(JavaSearchQuery query) {
 		fQuery= query;
 		fElementsToParticipants= new HashMap<>();
+		fElementsByContainer= new HashMap<>();
 		setActiveMatchFilters(JavaMatchFilter.getLastUsedFilters());
 	}
 
@@ -81,20 +91,42 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 
 	boolean addMatch(Match match, IMatchPresentation participant) {
 		Object element= match.getElement();
-		if (fElementsToParticipants.get(element) != null) {
-			// TODO must access the participant id / label to properly report the error.
-			JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), 0, "A second search participant was found for an element", null)); //$NON-NLS-1$
-			return false;
+		synchronized (this) {
+			// participants may report matches concurrently
+			if (fElementsToParticipants.get(element) != null) {
+				// TODO must access the participant id / label to properly report the error.
+				JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), 0, "A second search participant was found for an element", null)); //$NON-NLS-1$
+				return false;
+			}
+			fElementsToParticipants.put(element, participant);
 		}
-		fElementsToParticipants.put(element, participant);
 		addMatch(match);
 		return true;
 	}
 
+	@Override
+	public void addMatch(Match match) {
+		super.addMatch(match);
+		synchronized (this) {
+			addToContainer(match.getElement());
+		}
+	}
+
+	@Override
+	public void addMatches(Match[] matches) {
+		super.addMatches(matches);
+		synchronized (this) {
+			for (int i= 0; i < matches.length; i++) {
+				addToContainer(matches[i].getElement());
+			}
+		}
+	}
+
 	@Override
 	public void removeAll() {
 		synchronized(this) {
 			fElementsToParticipants.clear();
+			fElementsByContainer.clear();
 		}
 		super.removeAll();
 	}
@@ -106,5 +138,78 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 				fElementsToParticipants.remove(match.getElement());
 		}
 		super.removeMatch(match);
+		synchronized (this) {
+			removeFromContainer(match.getElement());
+		}
+	}
+
+	@Override
+	public void removeMatches(Match[] matches) {
+		super.removeMatches(matches);
+		synchronized (this) {
+			for (int i= 0; i < matches.length; i++) {
+				Object element= matches[i].getElement();
+				if (getMatchCount(element) == 0)
+					fElementsToParticipants.remove(element);
+				removeFromContainer(element);
+			}
+		}
+	}
+
+	/**
+	 * Returns the compilation units, class files and other containers of the elements with matches.
+	 *
+	 * @return the containers
+	 * @see #getElementsInContainer(Object)
+	 */
+	public synchronized Object[] getContainers() {
+		return fElementsByContainer.keySet().toArray();
+	}
+
+	/**
+	 * Returns the elements with matches in the given container.
+	 *
+	 * @param container a compilation unit, class file or other container as returned by
+	 *            {@link #getContainer(Object)}
+	 * @return the elements with matches in the container
+	 */
+	public synchronized Object[] getElementsInContainer(Object container) {
+		Set<Object> elements= fElementsByContainer.get(container);
+		return elements != null ? elements.toArray() : new Object[0];
+	}
+
+	/**
+	 * Returns the container under which the elements with matches are grouped: the compilation
+	 * unit or class file of a Java element, or the element itself.
+	 *
+	 * @param element the element
+	 * @return the container of the element
+	 */
+	public static Object getContainer(Object element) {
+		if (element instanceof IJavaElement) {
+			Object openable= ((IJavaElement) element).getOpenable();
+			if (openable != null)
+				return openable;
+		}
+		return element;
+	}
+
+	private void addToContainer(Object element) {
+		Object container= getContainer(element);
+		Set<Object> elements= fElementsByContainer.get(container);
+		if (elements == null) {
+			elements= new HashSet<>();
+			fElementsByContainer.put(container, elements);
+		}
+		elements.add(element);
+	}
+
+	private void removeFromContainer(Object element) {
+		if (getMatchCount(element) > 0)
+			return;
+		Object container= getContainer(element);
+		Set<Object> elements= fElementsByContainer.get(container);
+		if (elements != null && elements.remove(element) && elements.isEmpty())
+			fElementsByContainer.remove(container);
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,9 +27,13 @@ import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
+/**
+ * Adds the matches found by the search engine to a search result. The collector is thread-safe
+ * and can be shared by searches that run concurrently.
+ */
 public class NewSearchResultCollector extends SearchRequestor {
-	private AbstractTextSearchResult fSearch;
-	private boolean fIgnorePotentials;
+	private final AbstractTextSearchResult fSearch;
+	private final boolean fIgnorePotentials;
 
 	public NewSearchResultCollector(AbstractTextSearchResult search, boolean ignorePotentials) {
 		super();
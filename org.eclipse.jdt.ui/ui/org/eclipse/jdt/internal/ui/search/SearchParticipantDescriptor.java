@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,7 @@ public class SearchParticipantDescriptor {
 		private static final String CLASS= "class"; //$NON-NLS-1$
 		private static final String NATURE= "nature"; //$NON-NLS-1$
 		private static final String ID= "id"; //$NON-NLS-1$
+		private static final String THREAD_SAFE= "threadSafe"; //$NON-NLS-1$
 
 		private IConfigurationElement fConfigurationElement;
 		private boolean fEnabled; //
@@ -77,6 +78,16 @@ public class SearchParticipantDescriptor {
 		return fEnabled;
 	}
 
+	/**
+	 * Returns whether the participant may search concurrently with the Java search and with other
+	 * thread-safe participants.
+	 *
+	 * @return <code>true</code> if the participant is declared thread-safe
+	 */
+	public boolean isThreadSafe() {
+		return Boolean.valueOf(fConfigurationElement.getAttribute(THREAD_SAFE)).booleanValue();
+	}
+
 	protected IQueryParticipant create() throws CoreException {
 		try {
 			return (IQueryParticipant) fConfigurationElement.createExecutableExtension(CLASS);
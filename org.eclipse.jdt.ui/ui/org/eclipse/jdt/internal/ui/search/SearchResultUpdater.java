@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -55,47 +55,65 @@ public class SearchResultUpdater implements IElementChangedListener, IQueryListe
 		Set<IAdaptable> removedElements= new HashSet<>();
 		Set<IAdaptable> potentiallyRemovedElements= new HashSet<>();
 		collectRemoved(potentiallyRemovedElements, removedElements, delta);
+		removedElements.addAll(potentiallyRemovedElements);
 		if (removedElements.size() > 0)
 			handleRemoved(removedElements);
-		if (potentiallyRemovedElements.size() > 0)
-			handleRemoved(potentiallyRemovedElements);
 		//System.out.println(this+"handled delta in: "+(System.currentTimeMillis()-t0));
 	}
 
 	private void handleRemoved(Set<IAdaptable> removedElements) {
-		Object[] elements= fResult.getElements();
-		for (int i= 0; i < elements.length; i++) {
-			if (isContainedInRemoved(removedElements, elements[i])) {
-				if (elements[i] instanceof IJavaElement) {
-					IJavaElement je= (IJavaElement)elements[i];
-					if (!je.exists()) {
-						//System.out.println("removing: "+je+" in "+fResult.getUserData());
-						Match[] matches= fResult.getMatches(elements[i]);
-						for (int j= 0; j < matches.length; j++) {
-							fResult.removeMatch(matches[j]);
-						}
-					}
-				} else if (elements[i] instanceof IResource) {
-					IResource resource= (IResource)elements[i];
-					if (!resource.exists()) {
-						//System.out.println("removing: "+resource+" in "+fResult.getUserData());
-						Match[] matches= fResult.getMatches(elements[i]);
-						for (int j= 0; j < matches.length; j++) {
-							fResult.removeMatch(matches[j]);
-						}
-					}
+		Set<Object> elements= collectContainedElements(removedElements);
+		for (Iterator<Object> iter= elements.iterator(); iter.hasNext();) {
+			Object element= iter.next();
+			boolean exists;
+			if (element instanceof IJavaElement) {
+				exists= ((IJavaElement) element).exists();
+			} else if (element instanceof IResource) {
+				exists= ((IResource) element).exists();
+			} else {
+				continue;
+			}
+			if (!exists) {
+				//System.out.println("removing: "+element+" in "+fResult.getUserData());
+				fResult.removeMatches(fResult.getMatches(element));
+			}
+		}
+	}
 
+	/**
+	 * Collects the elements with matches that are contained in one of the removed elements. The
+	 * elements are looked up by their container, so that only the matches of affected compilation
+	 * units are visited.
+	 *
+	 * @param removedElements the removed Java elements and resources
+	 * @return the elements with matches in the removed elements
+	 */
+	private Set<Object> collectContainedElements(Set<IAdaptable> removedElements) {
+		Set<Object> result= new HashSet<>();
+		Object[] containers= null;
+		for (Iterator<IAdaptable> iter= removedElements.iterator(); iter.hasNext();) {
+			IAdaptable removed= iter.next();
+			if (removed instanceof IJavaElement && ((IJavaElement) removed).getElementType() >= IJavaElement.COMPILATION_UNIT) {
+				// in a compilation unit or class file
+				addContainedElements(removed, JavaSearchResult.getContainer(removed), result);
+			} else {
+				if (containers == null)
+					containers= fResult.getContainers();
+				for (int i= 0; i < containers.length; i++) {
+					if (isParentOf(removed, containers[i]))
+						addContainedElements(removed, containers[i], result);
 				}
 			}
 		}
+		return result;
 	}
 
-	private boolean isContainedInRemoved(Set<IAdaptable> removedElements, Object object) {
-		for (Iterator<IAdaptable> elements= removedElements.iterator(); elements.hasNext();) {
-			if (isParentOf(elements.next(), object))
-				return true;
+	private void addContainedElements(IAdaptable removed, Object container, Set<Object> result) {
+		Object[] elements= fResult.getElementsInContainer(container);
+		for (int i= 0; i < elements.length; i++) {
+			if (isParentOf(removed, elements[i]))
+				result.add(elements[i]);
 		}
-		return false;
 	}
 
 	private boolean isParentOf(Object ancestor, Object descendant) {
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+
+/**
+ * A part of a Java search scope that can be searched independently of the other parts. A scope is
+ * partitioned by the projects and libraries it encloses: each project in the workspace forms a
+ * partition with its source folders, class folders and archives, and all external libraries form
+ * one more partition.
+ * <p>
+ * Every resource enclosed by the scope is enclosed by exactly one of its partitions, so searching
+ * all partitions finds the same matches as searching the scope.
+ * </p>
+ */
+final class SearchScopePartition implements IJavaSearchScope {
+
+	/**
+	 * The partition of each enclosing project or library path of the partitioned scope, shared by
+	 * all partitions.
+	 */
+	private static final class PathOwners {
+		private final Map<IPath, SearchScopePartition> fOwners= new HashMap<>();
+
+		SearchScopePartition getOwner(IPath path) {
+			// a resource belongs to the innermost enclosing project or library
+			for (IPath curr= path; curr.segmentCount() > 0; curr= curr.removeLastSegments(1)) {
+				SearchScopePartition owner= fOwners.get(curr);
+				if (owner != null)
+					return owner;
+			}
+			return null;
+		}
+	}
+
+	private final IJavaSearchScope fScope;
+	private final PathOwners fOwners;
+	private final List<IPath> fPaths;
+
+	private SearchScopePartition(IJavaSearchScope scope, PathOwners owners) {
+		fScope= scope;
+		fOwners= owners;
+		fPaths= new ArrayList<>();
+	}
+
+	/**
+	 * Partitions the given scope by the projects and libraries it encloses. The partitions are
+	 * ordered by the name of their project, followed by the partition of the external libraries.
+	 *
+	 * @param scope the scope to partition
+	 * @return the partitions of the scope, or <code>null</code> if the scope encloses only one
+	 *         project or library
+	 */
+	public static SearchScopePartition[] partition(IJavaSearchScope scope) {
+		IPath[] paths= scope.enclosingProjectsAndJars();
+		if (paths.length < 2)
+			return null;
+
+		PathOwners owners= new PathOwners();
+		Map<String, SearchScopePartition> projectPartitions= new HashMap<>();
+		SearchScopePartition libraryPartition= null;
+		for (int i= 0; i < paths.length; i++) {
+			IPath path= paths[i];
+			SearchScopePartition partition;
+			IResource resource= ResourcesPlugin.getWorkspace().getRoot().findMember(path);
+			if (resource != null) {
+				String projectName= resource.getProject().getName();
+				partition= projectPartitions.get(projectName);
+				if (partition == null) {
+					partition= new SearchScopePartition(scope, owners);
+					projectPartitions.put(projectName, partition);
+				}
+			} else {
+				if (libraryPartition == null)
+					libraryPartition= new SearchScopePartition(scope, owners);
+				partition= libraryPartition;
+			}
+			partition.fPaths.add(path);
+			owners.fOwners.put(path, partition);
+		}
+
+		List<SearchScopePartition> result= new ArrayList<>(projectPartitions.size() + 1);
+		String[] projectNames= projectPartitions.keySet().toArray(new String[projectPartitions.size()]);
+		Arrays.sort(projectNames);
+		for (int i= 0; i < projectNames.length; i++) {
+			result.add(projectPartitions.get(projectNames[i]));
+		}
+		if (libraryPartition != null)
+			result.add(libraryPartition);
+		if (result.size() < 2)
+			return null;
+		return result.toArray(new SearchScopePartition[result.size()]);
+	}
+
+	@Override
+	public boolean encloses(String resourcePath) {
+		int separatorIndex= resourcePath.indexOf(JAR_FILE_ENTRY_SEPARATOR);
+		String containerPath= separatorIndex == -1 ? resourcePath : resourcePath.substring(0, separatorIndex);
+		return fOwners.getOwner(new Path(containerPath)) == this && fScope.encloses(resourcePath);
+	}
+
+	@Override
+	public boolean encloses(IJavaElement element) {
+		return fOwners.getOwner(element.getPath()) == this && fScope.encloses(element);
+	}
+
+	@Override
+	public IPath[] enclosingProjectsAndJars() {
+		return fPaths.toArray(new IPath[fPaths.size()]);
+	}
+
+	@Deprecated
+	@Override
+	public boolean includesBinaries() {
+		return fScope.includesBinaries();
+	}
+
+	@Deprecated
+	@Override
+	public boolean includesClasspaths() {
+		return fScope.includesClasspaths();
+	}
+
+	@Deprecated
+	@Override
+	public void setIncludesBinaries(boolean includesBinaries) {
+		fScope.setIncludesBinaries(includesBinaries);
+	}
+
+	@Deprecated
+	@Override
+	public void setIncludesClasspaths(boolean includesClasspaths) {
+		fScope.setIncludesClasspaths(includesClasspaths);
+	}
+}
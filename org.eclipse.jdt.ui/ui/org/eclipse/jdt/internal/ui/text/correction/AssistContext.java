@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.correction;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
 
 import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.jface.text.source.TextInvocationContext;
@@ -38,6 +42,11 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 
 	private CompilationUnit fASTRoot;
 	private final SharedASTProviderCore.WAIT_FLAG fWaitFlag;
+	/**
+	 * The private ASTs to use, or <code>null</code> to use the shared AST.
+	 * @since 3.16
+	 */
+	private final ConcurrentASTs fConcurrentASTs;
 	/**
 	 * The cached node finder, can be null.
 	 * @since 3.6
@@ -49,12 +58,20 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 	 * @since 3.5
 	 */
 	private AssistContext(ICompilationUnit cu, ISourceViewer sourceViewer, IEditorPart editor, int offset, int length, SharedASTProviderCore.WAIT_FLAG waitFlag) {
+		this(cu, sourceViewer, editor, offset, length, waitFlag, null);
+	}
+
+	/*
+	 * @since 3.16
+	 */
+	private AssistContext(ICompilationUnit cu, ISourceViewer sourceViewer, IEditorPart editor, int offset, int length, SharedASTProviderCore.WAIT_FLAG waitFlag, ConcurrentASTs concurrentASTs) {
 		super(sourceViewer, offset, length);
 		Assert.isLegal(cu != null);
 		Assert.isLegal(waitFlag != null);
 		fCompilationUnit= cu;
 		fEditor= editor;
 		fWaitFlag= waitFlag;
+		fConcurrentASTs= concurrentASTs;
 	}
 	
 	/*
@@ -122,8 +139,24 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 		return getOffset();
 	}
 
+	/**
+	 * Returns a copy of this context for a processor that runs in another thread. ASTs and their
+	 * bindings must not be accessed by several threads at once, so the copy does not use the
+	 * shared AST but the private AST of the thread that requests it.
+	 *
+	 * @param concurrentASTs the private ASTs of the threads
+	 * @return the copy
+	 * @since 3.16
+	 */
+	AssistContext createConcurrentCopy(ConcurrentASTs concurrentASTs) {
+		return new AssistContext(fCompilationUnit, getSourceViewer(), fEditor, getOffset(), getLength(), fWaitFlag, concurrentASTs);
+	}
+
 	@Override
 	public CompilationUnit getASTRoot() {
+		if (fASTRoot == null && fConcurrentASTs != null) {
+			fASTRoot= fConcurrentASTs.get();
+		}
 		if (fASTRoot == null) {
 			fASTRoot= SharedASTProviderCore.getAST(fCompilationUnit, fWaitFlag, null);
 			if (fASTRoot == null) {
@@ -158,4 +191,52 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 		return fNodeFinder.getCoveredNode();
 	}
 
+	/**
+	 * The private ASTs of the concurrent copies of a context, created when they are first
+	 * requested. The processors that run one after the other in the same thread share the AST of
+	 * that thread, like the processors that run in the calling thread share the shared AST, so
+	 * that at most one AST per thread is created.
+	 *
+	 * @since 3.16
+	 */
+	static final class ConcurrentASTs {
+
+		private final ICompilationUnit fUnit;
+		private final IProgressMonitor fMonitor;
+		private final Map<Thread, CompilationUnit> fASTs= new HashMap<>();
+
+		/**
+		 * @param unit the compilation unit
+		 * @param monitor the monitor to cancel the creation of the ASTs with
+		 */
+		ConcurrentASTs(ICompilationUnit unit, IProgressMonitor monitor) {
+			fUnit= unit;
+			fMonitor= monitor;
+		}
+
+		CompilationUnit get() {
+			Thread thread= Thread.currentThread();
+			synchronized (this) {
+				CompilationUnit root= fASTs.get(thread);
+				if (root != null) {
+					return root;
+				}
+			}
+			// only the current thread creates its AST, so it is not created twice
+			CompilationUnit root= ASTResolving.createQuickFixAST(fUnit, fMonitor);
+			if (root != null) {
+				synchronized (this) {
+					fASTs.put(thread, root);
+				}
+			}
+			return root;
+		}
+
+		/**
+		 * @return the number of ASTs created so far
+		 */
+		synchronized int getCount() {
+			return fASTs.size();
+		}
+	}
 }
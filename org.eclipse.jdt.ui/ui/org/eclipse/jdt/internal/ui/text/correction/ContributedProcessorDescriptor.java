@@ -48,6 +48,11 @@ public final class ContributedProcessorDescriptor {
 	private String fRequiredSourceLevel;
 	private final Set<String> fHandledMarkerTypes;
 
+	private long fInvocationCount;
+	private long fTotalLatency;
+	private long fMaxLatency;
+	private long fTimeoutCount;
+
 	private static final String ID= "id"; //$NON-NLS-1$
 	private static final String CLASS= "class"; //$NON-NLS-1$
 
@@ -129,7 +134,7 @@ public final class ContributedProcessorDescriptor {
 		return false;
 	}
 
-	public Object getProcessor(ICompilationUnit cunit, Class<?> expectedType) {
+	public synchronized Object getProcessor(ICompilationUnit cunit, Class<?> expectedType) {
 		if (matches(cunit)) {
 			if (fProcessorInstance == null) {
 				try {
@@ -158,4 +163,49 @@ public final class ContributedProcessorDescriptor {
 		return fHandledMarkerTypes == null || fHandledMarkerTypes.contains(markerType);
 	}
 
+	public String getId() {
+		return fConfigurationElement.getAttribute(ID);
+	}
+
+	/**
+	 * Records the time a processor invocation took.
+	 *
+	 * @param millis the duration of the invocation in milliseconds
+	 * @param timedOut <code>true</code> if the invocation did not finish in time
+	 */
+	public synchronized void recordLatency(long millis, boolean timedOut) {
+		fInvocationCount++;
+		fTotalLatency+= millis;
+		fMaxLatency= Math.max(fMaxLatency, millis);
+		if (timedOut)
+			fTimeoutCount++;
+	}
+
+	public synchronized long getInvocationCount() {
+		return fInvocationCount;
+	}
+
+	/**
+	 * @return the average duration of an invocation in milliseconds
+	 */
+	public synchronized long getAverageLatency() {
+		return fInvocationCount == 0 ? 0 : fTotalLatency / fInvocationCount;
+	}
+
+	/**
+	 * @return the longest duration of an invocation in milliseconds
+	 */
+	public synchronized long getMaxLatency() {
+		return fMaxLatency;
+	}
+
+	public synchronized long getTimeoutCount() {
+		return fTimeoutCount;
+	}
+
+	@Override
+	public String toString() {
+		return getId() + " (" + getInvocationCount() + " invocations, average " + getAverageLatency() + "ms, max " + getMaxLatency() + "ms, " + getTimeoutCount() + " timeouts)"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,11 +17,19 @@ package org.eclipse.jdt.internal.ui.text.correction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
@@ -51,6 +59,7 @@ import org.eclipse.ltk.core.refactoring.NullChange;
 
 import org.eclipse.jdt.core.ICompilationUnit;
 
+import org.eclipse.jdt.internal.corext.util.BackgroundExecutor;
 import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.ui.JavaUI;
@@ -75,6 +84,13 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 	private static ContributedProcessorDescriptor[] fgContributedAssistProcessors= null;
 	private static ContributedProcessorDescriptor[] fgContributedCorrectionProcessors= null;
 
+	/**
+	 * Time in milliseconds after which the proposals of a processor are no longer waited for.
+	 */
+	private static final long PROCESSOR_TIMEOUT= 5000;
+
+	private static final BackgroundExecutor fgProcessorExecutor= new BackgroundExecutor("Java Correction Processor", 2, 4); //$NON-NLS-1$
+
 	private static ContributedProcessorDescriptor[] getProcessorDescriptors(String contributionId, boolean testMarkerTypes) {
 		IConfigurationElement[] elements= Platform.getExtensionRegistry().getConfigurationElementsFor(JavaUI.ID_PLUGIN, contributionId);
 		ArrayList<ContributedProcessorDescriptor> res= new ArrayList<>(elements.length);
@@ -366,55 +382,116 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 
 	}
 
-	private static class SafeCorrectionCollector extends SafeCorrectionProcessorAccess {
-		private final IInvocationContext fContext;
-		private final Collection<IJavaCompletionProposal> fProposals;
-		private IProblemLocation[] fLocations;
-
-		public SafeCorrectionCollector(IInvocationContext context, Collection<IJavaCompletionProposal> proposals) {
+	/**
+	 * Collects the proposals of a single processor.
+	 */
+	private static abstract class SafeProposalCollector extends SafeCorrectionProcessorAccess {
+		protected final ContributedProcessorDescriptor fProcessorDescriptor;
+		protected IInvocationContext fContext;
+		protected final IProblemLocation[] fLocations;
+		private final List<IJavaCompletionProposal> fProposals= new ArrayList<>();
+
+		/** The duration of the processor invocation, or <code>-1</code> while it runs */
+		private long fLatency= -1;
+		/** <code>true</code> if the proposals are no longer waited for */
+		private boolean fAbandoned= false;
+
+		public SafeProposalCollector(ContributedProcessorDescriptor descriptor, IInvocationContext context, IProblemLocation[] locations) {
+			fProcessorDescriptor= descriptor;
 			fContext= context;
-			fProposals= proposals;
+			fLocations= locations;
 		}
 
-		public void setProblemLocations(IProblemLocation[] locations) {
-			fLocations= locations;
+		public void collect() {
+			long start= System.currentTimeMillis();
+			process(fProcessorDescriptor);
+			finished(System.currentTimeMillis() - start);
+		}
+
+		/**
+		 * Collects the proposals in a background thread. The processor gets a copy of the
+		 * invocation context with the private AST of the thread, and is not invoked at all if the
+		 * proposals are no longer waited for when the collector starts.
+		 *
+		 * @param asts the private ASTs of the threads
+		 * @param monitor the monitor that is cancelled when the proposals are no longer waited for
+		 */
+		public void collectConcurrently(AssistContext.ConcurrentASTs asts, IProgressMonitor monitor) {
+			if (monitor.isCanceled())
+				return;
+			fContext= ((AssistContext) fContext).createConcurrentCopy(asts);
+			collect();
+		}
+
+		private synchronized void finished(long latency) {
+			fLatency= latency;
+			if (fAbandoned) {
+				// the proposals arrive too late, but are not dropped silently
+				if (JavaPlugin.DEBUG_CORRECTION_PROCESSORS) {
+					System.out.println("Correction processor " + fProcessorDescriptor.getId() + ": finished after " + latency + "ms, " + fProposals.size() + " proposals dropped"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				}
+				if (fProcessorDescriptor.getTimeoutCount() == 1 && !fProposals.isEmpty()) {
+					JavaPlugin.log(new Status(IStatus.WARNING, JavaUI.ID_PLUGIN, fProposals.size() + " proposals of " + fProcessorDescriptor.getId() + " were dropped, the processor took " //$NON-NLS-1$ //$NON-NLS-2$
+							+ latency + "ms, longer than " + PROCESSOR_TIMEOUT + "ms")); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}
+		}
+
+		/**
+		 * Stops waiting for the proposals of this collector, unless the processor has finished.
+		 *
+		 * @return <code>true</code> if the processor has not finished
+		 */
+		public synchronized boolean abandon() {
+			if (fLatency >= 0)
+				return false;
+			fAbandoned= true;
+			return true;
+		}
+
+		public synchronized long getLatency() {
+			return fLatency;
+		}
+
+		protected void addAll(IJavaCompletionProposal[] res) {
+			if (res != null) {
+				for (int k= 0; k < res.length; k++) {
+					fProposals.add(res[k]);
+				}
+			}
+		}
+
+		public List<IJavaCompletionProposal> getProposals() {
+			return fProposals;
+		}
+	}
+
+	private static class SafeCorrectionCollector extends SafeProposalCollector {
+
+		public SafeCorrectionCollector(ContributedProcessorDescriptor descriptor, IInvocationContext context, IProblemLocation[] locations) {
+			super(descriptor, context, locations);
 		}
 
 		@Override
 		public void safeRun(ContributedProcessorDescriptor desc) throws Exception {
 			IQuickFixProcessor curr= (IQuickFixProcessor) desc.getProcessor(fContext.getCompilationUnit(), IQuickFixProcessor.class);
 			if (curr != null) {
-				IJavaCompletionProposal[] res= curr.getCorrections(fContext, fLocations);
-				if (res != null) {
-					for (int k= 0; k < res.length; k++) {
-						fProposals.add(res[k]);
-					}
-				}
+				addAll(curr.getCorrections(fContext, fLocations));
 			}
 		}
 	}
 
-	private static class SafeAssistCollector extends SafeCorrectionProcessorAccess {
-		private final IInvocationContext fContext;
-		private final IProblemLocation[] fLocations;
-		private final Collection<IJavaCompletionProposal> fProposals;
+	private static class SafeAssistCollector extends SafeProposalCollector {
 
-		public SafeAssistCollector(IInvocationContext context, IProblemLocation[] locations, Collection<IJavaCompletionProposal> proposals) {
-			fContext= context;
-			fLocations= locations;
-			fProposals= proposals;
+		public SafeAssistCollector(ContributedProcessorDescriptor descriptor, IInvocationContext context, IProblemLocation[] locations) {
+			super(descriptor, context, locations);
 		}
 
 		@Override
 		public void safeRun(ContributedProcessorDescriptor desc) throws Exception {
 			IQuickAssistProcessor curr= (IQuickAssistProcessor) desc.getProcessor(fContext.getCompilationUnit(), IQuickAssistProcessor.class);
 			if (curr != null) {
-				IJavaCompletionProposal[] res= curr.getAssists(fContext, fLocations);
-				if (res != null) {
-					for (int k= 0; k < res.length; k++) {
-						fProposals.add(res[k]);
-					}
-				}
+				addAll(curr.getAssists(fContext, fLocations));
 			}
 		}
 	}
@@ -468,16 +545,130 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 
 	public static IStatus collectCorrections(IInvocationContext context, IProblemLocation[] locations, Collection<IJavaCompletionProposal> proposals) {
 		ContributedProcessorDescriptor[] processors= getCorrectionProcessors();
-		SafeCorrectionCollector collector= new SafeCorrectionCollector(context, proposals);
+		List<SafeProposalCollector> collectors= new ArrayList<>(processors.length);
 		for (int i= 0; i < processors.length; i++) {
 			ContributedProcessorDescriptor curr= processors[i];
 			IProblemLocation[] handled= getHandledProblems(locations, curr);
 			if (handled != null) {
-				collector.setProblemLocations(handled);
-				collector.process(curr);
+				collectors.add(new SafeCorrectionCollector(curr, context, handled));
 			}
 		}
-		return collector.getStatus();
+		return runCollectors(context, collectors, proposals);
+	}
+
+	/**
+	 * Runs the given collectors and adds their proposals in the order of the collectors.
+	 * <p>
+	 * If there is more than one collector and the context is an {@link AssistContext}, the first
+	 * processor runs in the calling thread with the given context, and the others run
+	 * concurrently on a bounded pool with copies of the context that use one private AST per pool
+	 * thread, since an AST and its bindings must not be accessed by several threads at once. Proposals of
+	 * processors that do not finish within {@link #PROCESSOR_TIMEOUT} are dropped: their tasks
+	 * are interrupted, the creation of their ASTs is cancelled, and their queued tasks are removed
+	 * so that they do not delay later invocations.
+	 * </p>
+	 *
+	 * @param context the invocation context
+	 * @param collectors the collectors, one per processor
+	 * @param proposals the collection to add the proposals to
+	 * @return the status of the processors
+	 */
+	private static IStatus runCollectors(IInvocationContext context, List<SafeProposalCollector> collectors, Collection<IJavaCompletionProposal> proposals) {
+		int count= collectors.size();
+		boolean[] finished= new boolean[count];
+		long[] latencies= new long[count];
+		if (count > 1 && context instanceof AssistContext) {
+			long start= System.currentTimeMillis();
+			IProgressMonitor monitor= new NullProgressMonitor();
+			AssistContext.ConcurrentASTs asts= new AssistContext.ConcurrentASTs(context.getCompilationUnit(), monitor);
+			ExecutorService executor= fgProcessorExecutor.get();
+			List<Future<?>> futures= new ArrayList<>(count);
+			futures.add(null);
+			for (int i= 1; i < count; i++) {
+				SafeProposalCollector collector= collectors.get(i);
+				futures.add(executor.submit(() -> collector.collectConcurrently(asts, monitor)));
+			}
+			collectors.get(0).collect();
+			latencies[0]= collectors.get(0).getLatency();
+			finished[0]= true;
+
+			boolean interrupted= false;
+			for (int i= 1; i < count; i++) {
+				Future<?> future= futures.get(i);
+				try {
+					if (!interrupted) {
+						long remaining= Math.max(0, start + PROCESSOR_TIMEOUT - System.currentTimeMillis());
+						future.get(remaining, TimeUnit.MILLISECONDS);
+					}
+				} catch (TimeoutException e) {
+					// abandoned below
+				} catch (InterruptedException e) {
+					interrupted= true;
+				} catch (ExecutionException e) {
+					// cannot happen, the collectors run the processors in a SafeRunner
+					JavaPlugin.log(e);
+				}
+				SafeProposalCollector collector= collectors.get(i);
+				if (collector.abandon()) {
+					latencies[i]= System.currentTimeMillis() - start;
+				} else {
+					latencies[i]= collector.getLatency();
+					finished[i]= true;
+				}
+			}
+			for (int i= 1; i < count; i++) {
+				if (!finished[i]) {
+					// only cancel once no other collector is waited for, as they share the monitor
+					monitor.setCanceled(true);
+					futures.get(i).cancel(true);
+				}
+			}
+			if (monitor.isCanceled()) {
+				fgProcessorExecutor.purge();
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			if (JavaPlugin.DEBUG_CORRECTION_PROCESSORS) {
+				System.out.println("Correction processors: " + (System.currentTimeMillis() - start) + "ms for " + count + " processors, " + asts.getCount() + " private ASTs"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			}
+		} else {
+			long start= System.currentTimeMillis();
+			for (int i= 0; i < count; i++) {
+				SafeProposalCollector collector= collectors.get(i);
+				collector.collect();
+				latencies[i]= collector.getLatency();
+				finished[i]= true;
+			}
+			if (JavaPlugin.DEBUG_CORRECTION_PROCESSORS) {
+				System.out.println("Correction processors: " + (System.currentTimeMillis() - start) + "ms for " + count + " processors, sequential"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		}
+
+		MultiStatus status= null;
+		for (int i= 0; i < count; i++) {
+			SafeProposalCollector collector= collectors.get(i);
+			ContributedProcessorDescriptor descriptor= collector.fProcessorDescriptor;
+			descriptor.recordLatency(latencies[i], !finished[i]);
+			if (JavaPlugin.DEBUG_CORRECTION_PROCESSORS) {
+				System.out.println("Correction processor " + descriptor.getId() + ": " + latencies[i] + "ms" + (finished[i] ? "" : " (timed out)")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			}
+			if (!finished[i]) {
+				continue;
+			}
+			proposals.addAll(collector.getProposals());
+			IStatus collectorStatus= collector.getStatus();
+			if (!collectorStatus.isOK()) {
+				if (status == null) {
+					status= new MultiStatus(JavaUI.ID_PLUGIN, IStatus.OK, CorrectionMessages.JavaCorrectionProcessor_error_status, null);
+				}
+				status.merge(collectorStatus);
+			}
+		}
+		if (status == null) {
+			return Status.OK_STATUS;
+		}
+		return status;
 	}
 
 	private static IProblemLocation[] getHandledProblems(IProblemLocation[] locations, ContributedProcessorDescriptor processor) {
@@ -514,10 +705,11 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 
 	public static IStatus collectAssists(IInvocationContext context, IProblemLocation[] locations, Collection<IJavaCompletionProposal> proposals) {
 		ContributedProcessorDescriptor[] processors= getAssistProcessors();
-		SafeAssistCollector collector= new SafeAssistCollector(context, locations, proposals);
-		collector.process(processors);
-
-		return collector.getStatus();
+		List<SafeProposalCollector> collectors= new ArrayList<>(processors.length);
+		for (int i= 0; i < processors.length; i++) {
+			collectors.add(new SafeAssistCollector(processors[i], context, locations));
+		}
+		return runCollectors(context, collectors, proposals);
 	}
 
 	/*
@@ -18,6 +18,7 @@ package org.eclipse.jdt.internal.ui.text.java;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
 import java.net.URL;
 
 import org.osgi.framework.Bundle;
@@ -50,6 +51,7 @@ import org.eclipse.jface.preference.PreferenceConverter;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.jface.viewers.StyledString.Styler;
 
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
@@ -57,6 +59,7 @@ import org.eclipse.jface.text.DefaultPositionUpdater;
 import org.eclipse.jface.text.DocumentCommand;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IInformationControlCreator;
 import org.eclipse.jface.text.IPositionUpdater;
 import org.eclipse.jface.text.IRegion;
@@ -239,6 +242,58 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 
 	private int fPatternMatchRule= -1;
 
+	/**
+	 * The display string from which {@link #fDeprocessedDisplayString} was computed.
+	 * @since 3.16
+	 */
+	private StyledString fDeprocessedSource;
+	private String fDeprocessedDisplayString;
+
+	/**
+	 * The result of the last call to
+	 * {@link #getStyledDisplayString(IDocument, int, BoldStylerProvider)}, together with the
+	 * display string, pattern and styler it was computed from.
+	 * @since 3.16
+	 */
+	private StyledString fEmphasizedDisplayString;
+	private StyledString fEmphasizedSource;
+	private String fEmphasizedPattern;
+	private Styler fEmphasizedStyler;
+
+	/**
+	 * The CamelCase and substring matching options, read once per proposal.
+	 * @since 3.16
+	 */
+	private Boolean fIsCamelCaseMatching;
+	private Boolean fIsSubstringMatching;
+
+	/**
+	 * Text read from a document at a given modification stamp.
+	 * @since 3.16
+	 */
+	private static final class DocumentText {
+		final WeakReference<IDocument> fDocument;
+		final long fModificationStamp;
+		final int fOffset;
+		final int fLength;
+		final String fText;
+
+		DocumentText(IDocument document, long modificationStamp, int offset, int length, String text) {
+			fDocument= new WeakReference<>(document);
+			fModificationStamp= modificationStamp;
+			fOffset= offset;
+			fLength= length;
+			fText= text;
+		}
+	}
+
+	/**
+	 * The last prefix read by {@link #getDocumentText(IDocument, int, int)}. While the proposal
+	 * popup is open, all proposals are validated against the same prefix on every keystroke.
+	 * @since 3.16
+	 */
+	private static volatile DocumentText fgLastDocumentText;
+
 	private StyleRange fRememberedStyleRange;
 
 	private boolean fToggleEating;
@@ -845,7 +900,23 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 		 * for performance reasons, as computing the
 		 * replacement string can be expensive.
 		 */
-		return isPrefix(pattern, TextProcessor.deprocess(getDisplayString()));
+		return isPrefix(pattern, getDeprocessedDisplayString());
+	}
+
+	/**
+	 * Returns the {@link TextProcessor#deprocess(String) deprocessed} display string, which is
+	 * computed only once for each display string.
+	 *
+	 * @return the deprocessed display string
+	 * @since 3.16
+	 */
+	protected final String getDeprocessedDisplayString() {
+		String displayString= getDisplayString();
+		if (fDeprocessedDisplayString == null || fDeprocessedSource != fDisplayString) {
+			fDeprocessedDisplayString= TextProcessor.deprocess(displayString);
+			fDeprocessedSource= fDisplayString;
+		}
+		return fDeprocessedDisplayString;
 	}
 
 	/**
@@ -882,12 +953,38 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 		try {
 			int length= offset - getReplacementOffset();
 			if (length > 0)
-				return document.get(getReplacementOffset(), length);
+				return getDocumentText(document, getReplacementOffset(), length);
 		} catch (BadLocationException x) {
 		}
 		return ""; //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns the text of the given range of the document. The last result is shared by all
+	 * proposals until the document is modified.
+	 *
+	 * @param document the document
+	 * @param offset the start of the range
+	 * @param length the length of the range
+	 * @return the text of the range
+	 * @throws BadLocationException if the range is invalid in the document
+	 * @since 3.16
+	 */
+	private static String getDocumentText(IDocument document, int offset, int length) throws BadLocationException {
+		if (!(document instanceof IDocumentExtension4))
+			return document.get(offset, length);
+		long stamp= ((IDocumentExtension4) document).getModificationStamp();
+		if (stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+			return document.get(offset, length);
+
+		DocumentText last= fgLastDocumentText;
+		if (last != null && last.fModificationStamp == stamp && last.fOffset == offset && last.fLength == length && last.fDocument.get() == document)
+			return last.fText;
+		String text= document.get(offset, length);
+		fgLastDocumentText= new DocumentText(document, stamp, offset, length, text);
+		return text;
+	}
+
 	/**
 	 * Case insensitive matching of the <code>pattern</code> within the given <code>string</code>.
 	 *
@@ -979,8 +1076,11 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 	 * @since 3.2
 	 */
 	protected boolean isCamelCaseMatching() {
-		String value= JavaCore.getOption(JavaCore.CODEASSIST_CAMEL_CASE_MATCH);
-		return JavaCore.ENABLED.equals(value);
+		if (fIsCamelCaseMatching == null) {
+			String value= JavaCore.getOption(JavaCore.CODEASSIST_CAMEL_CASE_MATCH);
+			fIsCamelCaseMatching= Boolean.valueOf(JavaCore.ENABLED.equals(value));
+		}
+		return fIsCamelCaseMatching.booleanValue();
 	}
 
 	/**
@@ -990,8 +1090,11 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 	 * @since 3.12
 	 */
 	protected boolean isSubstringMatching() {
-		String value= JavaCore.getOption(JavaCore.CODEASSIST_SUBSTRING_MATCH);
-		return JavaCore.ENABLED.equals(value);
+		if (fIsSubstringMatching == null) {
+			String value= JavaCore.getOption(JavaCore.CODEASSIST_SUBSTRING_MATCH);
+			fIsSubstringMatching= Boolean.valueOf(JavaCore.ENABLED.equals(value));
+		}
+		return fIsSubstringMatching.booleanValue();
 	}
 
 	protected static boolean insertCompletion() {
@@ -1250,19 +1353,61 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 
 	@Override
 	public StyledString getStyledDisplayString(IDocument document, int offset, BoldStylerProvider boldStylerProvider) {
-		StyledString styledDisplayString= new StyledString();
-		styledDisplayString.append(getStyledDisplayString());
-
+		StyledString source= getStyledDisplayString();
 		String pattern= getPatternToEmphasizeMatch(document, offset);
+		Styler boldStyler= boldStylerProvider.getBoldStyler();
+		StyledString cached= getEmphasizedDisplayString(source, pattern, boldStyler);
+		if (cached != null)
+			return cached;
+
+		StyledString styledDisplayString= new StyledString();
+		styledDisplayString.append(source);
 		if (pattern != null && pattern.length() > 0) {
 			String displayString= styledDisplayString.getString();
 			int patternMatchRule= getPatternMatchRule(pattern, displayString);
 			int[] matchingRegions= SearchPattern.getMatchingRegions(pattern, displayString, patternMatchRule);
-			Strings.markMatchingRegions(styledDisplayString, 0, matchingRegions, boldStylerProvider.getBoldStyler());
+			Strings.markMatchingRegions(styledDisplayString, 0, matchingRegions, boldStyler);
 		}
+		setEmphasizedDisplayString(source, pattern, boldStyler, styledDisplayString);
 		return styledDisplayString;
 	}
 
+	/**
+	 * Returns the emphasized display string last computed by
+	 * {@link #getStyledDisplayString(IDocument, int, BoldStylerProvider)} if it was computed
+	 * from the same display string, pattern and styler. The proposal popup asks for the
+	 * emphasized label of every visible proposal whenever it is repainted.
+	 *
+	 * @param source the styled display string
+	 * @param pattern the pattern to emphasize, can be <code>null</code>
+	 * @param styler the styler used to emphasize the pattern
+	 * @return the cached emphasized display string or <code>null</code>
+	 * @since 3.16
+	 */
+	protected final StyledString getEmphasizedDisplayString(StyledString source, String pattern, Styler styler) {
+		if (fEmphasizedDisplayString != null && fEmphasizedSource == source && fEmphasizedStyler == styler
+				&& (pattern == null ? fEmphasizedPattern == null : pattern.equals(fEmphasizedPattern)))
+			return fEmphasizedDisplayString;
+		return null;
+	}
+
+	/**
+	 * Remembers the result of {@link #getStyledDisplayString(IDocument, int, BoldStylerProvider)}.
+	 *
+	 * @param source the styled display string
+	 * @param pattern the emphasized pattern, can be <code>null</code>
+	 * @param styler the styler used to emphasize the pattern
+	 * @param emphasized the emphasized display string
+	 * @see #getEmphasizedDisplayString(StyledString, String, Styler)
+	 * @since 3.16
+	 */
+	protected final void setEmphasizedDisplayString(StyledString source, String pattern, Styler styler, StyledString emphasized) {
+		fEmphasizedSource= source;
+		fEmphasizedPattern= pattern;
+		fEmphasizedStyler= styler;
+		fEmphasizedDisplayString= emphasized;
+	}
+
 	/**
 	 * Computes the token at the given <code>offset</code> in <code>document</code> to emphasize the
 	 * ranges matching this token in proposal's display string.
@@ -1278,7 +1423,7 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 		int patternLength= offset - start;
 		String pattern= null;
 		try {
-			pattern= document.get(start, patternLength);
+			pattern= getDocumentText(document, start, patternLength);
 		} catch (BadLocationException e) {
 			// return null
 		}
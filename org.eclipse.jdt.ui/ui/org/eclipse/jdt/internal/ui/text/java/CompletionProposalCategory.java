@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2013 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,7 +18,11 @@ package org.eclipse.jdt.internal.ui.text.java;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Future;
 
 import org.osgi.framework.Bundle;
 
@@ -41,15 +45,19 @@ import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.jface.action.LegacyActionTools;
 import org.eclipse.jface.resource.ImageDescriptor;
 
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.text.contentassist.IContextInformation;
 
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 
 import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
 import org.eclipse.jdt.ui.text.java.IJavaCompletionProposalComputer;
+import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 
@@ -63,6 +71,12 @@ public final class CompletionProposalCategory {
 	/** The extension schema name of the icon attribute. */
 	private static final String ICON= "icon"; //$NON-NLS-1$
 
+	/**
+	 * Time in milliseconds, counted from the start of a computation, after which the proposals
+	 * of computers running in the background are no longer waited for.
+	 */
+	private static final long BACKGROUND_DEADLINE= 3000;
+
 	private final String fId;
 	private final String fName;
 	private final IConfigurationElement fElement;
@@ -80,6 +94,14 @@ public final class CompletionProposalCategory {
 	private int fSortOrder= 0xffff - 1;
 	private String fLastError= null;
 
+	/**
+	 * The pending results of the computers running in the background, or <code>null</code> if
+	 * no background computation has been started.
+	 */
+	private Map<CompletionProposalComputerDescriptor, Future<List<ICompletionProposal>>> fBackgroundComputations;
+
+	private long fBackgroundStart;
+
 	/**
 	 * Flag indicating whether any completion engine associated with this category requests
 	 * resorting of its proposals after filtering is triggered. Filtering is, e.g., triggered when a
@@ -333,17 +355,92 @@ public final class CompletionProposalCategory {
 	 */
 	public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, String partition, SubProgressMonitor monitor) {
 		fLastError= null;
-		List<ICompletionProposal> result= new ArrayList<>();
+		if (fBackgroundComputations == null)
+			startBackgroundComputations(context, partition);
+		Map<CompletionProposalComputerDescriptor, Future<List<ICompletionProposal>>> pending= fBackgroundComputations;
+		fBackgroundComputations= null;
+
+		// run the other computers in the UI thread while the background computers proceed
 		List<CompletionProposalComputerDescriptor> descriptors= new ArrayList<>(fRegistry.getProposalComputerDescriptors(partition));
+		List<List<ICompletionProposal>> computed= new ArrayList<>(descriptors.size());
 		for (CompletionProposalComputerDescriptor desc : descriptors) {
-			if (desc.getCategory() == this)
-				result.addAll(desc.computeCompletionProposals(context, monitor));
+			if (desc.getCategory() == this && !pending.containsKey(desc))
+				computed.add(desc.computeCompletionProposals(context, monitor));
+			else
+				computed.add(null);
+		}
+
+		// merge in the order of the computers, so that the result does not depend on timing
+		long deadline= fBackgroundStart + BACKGROUND_DEADLINE;
+		List<ICompletionProposal> result= new ArrayList<>();
+		for (int i= 0; i < descriptors.size(); i++) {
+			CompletionProposalComputerDescriptor desc= descriptors.get(i);
+			List<ICompletionProposal> proposals= computed.get(i);
+			Future<List<ICompletionProposal>> background= pending.get(desc);
+			if (background != null)
+				proposals= desc.getBackgroundCompletionProposals(background, deadline);
+			if (proposals != null)
+				result.addAll(proposals);
 			if (fLastError == null && desc.getErrorMessage() != null)
 				fLastError= desc.getErrorMessage();
 		}
 		return result;
 	}
 
+	/**
+	 * Starts the computers of this category that compute proposals in the background. Their
+	 * proposals are collected by the next call to
+	 * {@link #computeCompletionProposals(ContentAssistInvocationContext, String, SubProgressMonitor)},
+	 * which allows them to run concurrently with the computers of other categories. Must be
+	 * called in the UI thread.
+	 *
+	 * @param context the invocation context, of which each computer gets a copy
+	 * @param partition the partition type where to invocation occurred
+	 * @since 3.16
+	 */
+	public void startBackgroundComputations(ContentAssistInvocationContext context, String partition) {
+		if (fBackgroundComputations != null) {
+			// results of an earlier start were never collected
+			for (Entry<CompletionProposalComputerDescriptor, Future<List<ICompletionProposal>>> entry : fBackgroundComputations.entrySet()) {
+				entry.getKey().cancelBackgroundComputation(entry.getValue());
+			}
+		}
+		Map<CompletionProposalComputerDescriptor, Future<List<ICompletionProposal>>> pending= new HashMap<>();
+		fBackgroundStart= System.currentTimeMillis();
+		String text= null;
+		for (CompletionProposalComputerDescriptor desc : fRegistry.getProposalComputerDescriptors(partition)) {
+			if (desc.getCategory() == this && desc.isRunningInBackground()) {
+				if (text == null) {
+					IDocument document= context.getDocument();
+					if (document == null || context.getInvocationOffset() < 0)
+						break; // no state to copy, the computers run in the UI thread
+					text= document.get();
+				}
+				pending.put(desc, desc.computeCompletionProposalsInBackground(createBackgroundContext(context, text)));
+			}
+		}
+		fBackgroundComputations= pending;
+	}
+
+	/**
+	 * Creates a copy of an invocation context for a computer that runs on a background thread.
+	 * Invocation contexts are not thread-safe and the viewer must only be accessed in the UI
+	 * thread, so the copy has its own document with the text of the viewer's document, and no
+	 * viewer or editor.
+	 *
+	 * @param context the invocation context to copy
+	 * @param text the text of the document of the invocation context
+	 * @return the copy
+	 */
+	private static ContentAssistInvocationContext createBackgroundContext(ContentAssistInvocationContext context, String text) {
+		IDocument document= new Document(text);
+		if (context instanceof JavaContentAssistInvocationContext) {
+			ICompilationUnit unit= ((JavaContentAssistInvocationContext) context).getCompilationUnit();
+			return new JavaContentAssistInvocationContext(document, context.getInvocationOffset(), unit);
+		}
+		return new ContentAssistInvocationContext(document, context.getInvocationOffset());
+	}
+
 	/**
 	 * Safely computes context information objects of all computers of this category through their
 	 * extension. If an extension is disabled, throws an exception or otherwise does not adhere to
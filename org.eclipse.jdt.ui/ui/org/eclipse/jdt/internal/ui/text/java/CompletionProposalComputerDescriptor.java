@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2012 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.osgi.framework.Bundle;
 
@@ -30,6 +37,7 @@ import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.InvalidRegistryObjectException;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
@@ -67,6 +75,8 @@ final class CompletionProposalComputerDescriptor {
 	private static final String ACTIVATE= "activate"; //$NON-NLS-1$
 	/** The extension schema name of the needsSortingAfterFiltering attribute. */
 	private static final String NEEDS_SORTING_AFTER_FILTERING= "needsSortingAfterFiltering"; //$NON-NLS-1$
+
+	private static final String RUNS_IN_BACKGROUND= "runsInBackground"; //$NON-NLS-1$
 	/** The extension schema name of the partition child elements. */
 	private static final String PARTITION= "partition"; //$NON-NLS-1$
 	/** Set of Java partition types. */
@@ -147,6 +157,18 @@ final class CompletionProposalComputerDescriptor {
 	 */
 	private boolean fNeedsSortingAfterFiltering;
 
+	/**
+	 * Tells whether the computer can compute proposals on a background thread.
+	 * @since 3.16
+	 */
+	private final boolean fRunsInBackground;
+
+	/**
+	 * Tells whether a background computation has missed its deadline before.
+	 * @since 3.16
+	 */
+	private boolean fHasMissedDeadline;
+
 
 	/**
 	 * Creates a new descriptor.
@@ -192,6 +214,8 @@ final class CompletionProposalComputerDescriptor {
 		String needsSortingAfterFilteringAttribute= element.getAttribute(NEEDS_SORTING_AFTER_FILTERING);
 		fNeedsSortingAfterFiltering= Boolean.valueOf(needsSortingAfterFilteringAttribute).booleanValue();
 
+		fRunsInBackground= Boolean.valueOf(element.getAttribute(RUNS_IN_BACKGROUND)).booleanValue();
+
 		fClass= element.getAttribute(CLASS);
 		checkNotNull(fClass, CLASS);
 
@@ -322,6 +346,26 @@ final class CompletionProposalComputerDescriptor {
 	 *         {@link org.eclipse.jface.text.contentassist.ICompletionProposal})
 	 */
 	public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
+		try {
+			return internalComputeCompletionProposals(context, monitor, false);
+		} catch (CoreException x) {
+			fRegistry.informUser(this, x.getStatus());
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Computes completion proposals through the described extension.
+	 *
+	 * @param context the invocation context passed on to the extension
+	 * @param monitor the progress monitor passed on to the extension
+	 * @param inBackground <code>true</code> if the computation runs on a background thread, where
+	 *            the state of this descriptor must not be changed and the user must not be informed
+	 *            about delays
+	 * @return the list of computed completion proposals
+	 * @throws CoreException if the extension failed, with the status to report to the user
+	 */
+	private List<ICompletionProposal> internalComputeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor, boolean inBackground) throws CoreException {
 		if (!isEnabled())
 			return Collections.emptyList();
 
@@ -334,14 +378,20 @@ final class CompletionProposalComputerDescriptor {
 			try {
 				PerformanceStats stats= startMeter(context, computer);
 				List<ICompletionProposal> proposals= computer.computeCompletionProposals(context, monitor);
-				stopMeter(stats, COMPUTE_COMPLETION_PROPOSALS);
+				if (!inBackground)
+					stopMeter(stats, COMPUTE_COMPLETION_PROPOSALS);
+				else if (stats != null)
+					stats.endRun();
 
 				if (proposals != null) {
-					fLastError= computer.getErrorMessage();
+					// the error message of a background computation is read in the UI thread
+					if (!inBackground)
+						fLastError= computer.getErrorMessage();
 					return proposals;
 				}
 			} finally {
-				fIsReportingDelay= true;
+				if (!inBackground)
+					fIsReportingDelay= true;
 			}
 			status= createAPIViolationStatus(COMPUTE_COMPLETION_PROPOSALS);
 		} catch (InvalidRegistryObjectException x) {
@@ -354,11 +404,114 @@ final class CompletionProposalComputerDescriptor {
 			monitor.done();
 		}
 
+		throw new CoreException(status);
+	}
+
+	/**
+	 * Returns whether the described computer can compute proposals on a background thread,
+	 * concurrently with other computers.
+	 *
+	 * @return <code>true</code> if the computer runs in the background
+	 * @since 3.16
+	 */
+	public boolean isRunningInBackground() {
+		return fRunsInBackground;
+	}
+
+	/**
+	 * Starts computing completion proposals on a background thread. Must only be called if
+	 * {@link #isRunningInBackground()} is <code>true</code>.
+	 *
+	 * @param context the invocation context passed on to the extension, which must not be
+	 *            accessed by any other thread
+	 * @return the pending result, to be passed to {@link #getBackgroundCompletionProposals(Future, long)}
+	 * @since 3.16
+	 */
+	public Future<List<ICompletionProposal>> computeCompletionProposalsInBackground(final ContentAssistInvocationContext context) {
+		final IProgressMonitor monitor= new NullProgressMonitor();
+		BackgroundComputation computation= new BackgroundComputation(() -> internalComputeCompletionProposals(context, monitor, true), monitor);
+		fRegistry.getBackgroundExecutor().execute(computation);
+		return computation;
+	}
+
+	/**
+	 * Cancels a background computation. The computer is interrupted and its progress monitor is
+	 * cancelled if it is running, and the computation is removed from the queue otherwise.
+	 *
+	 * @param pending the pending result
+	 * @since 3.16
+	 */
+	public void cancelBackgroundComputation(Future<List<ICompletionProposal>> pending) {
+		if (pending.cancel(true))
+			fRegistry.purgeBackgroundExecutor();
+	}
+
+	/**
+	 * Waits for the result of a background computation. Proposals that are not available at
+	 * the given deadline are dropped. Must be called in the UI thread.
+	 *
+	 * @param pending the pending result
+	 * @param deadline the time in milliseconds until which to wait for the result
+	 * @return the list of computed completion proposals
+	 * @since 3.16
+	 */
+	public List<ICompletionProposal> getBackgroundCompletionProposals(Future<List<ICompletionProposal>> pending, long deadline) {
+		IStatus status;
+		try {
+			List<ICompletionProposal> proposals= pending.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			IJavaCompletionProposalComputer computer= getComputer(false);
+			fLastError= computer == null ? null : computer.getErrorMessage();
+			return proposals;
+		} catch (TimeoutException x) {
+			cancelBackgroundComputation(pending);
+			if (!fHasMissedDeadline) {
+				fHasMissedDeadline= true;
+				JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), IStatus.OK, "Proposals of " + getId() + " were dropped, the computer missed the deadline", null)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return Collections.emptyList();
+		} catch (InterruptedException x) {
+			cancelBackgroundComputation(pending);
+			Thread.currentThread().interrupt();
+			return Collections.emptyList();
+		} catch (CancellationException x) {
+			return Collections.emptyList();
+		} catch (CoreException x) {
+			status= x.getStatus();
+		} catch (ExecutionException x) {
+			Throwable cause= x.getCause();
+			if (cause instanceof CoreException)
+				status= ((CoreException) cause).getStatus();
+			else
+				status= createExceptionStatus(cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause));
+		}
+
 		fRegistry.informUser(this, status);
 
 		return Collections.emptyList();
 	}
 
+	/**
+	 * A computation on a background thread whose progress monitor is cancelled together with
+	 * the computation.
+	 *
+	 * @since 3.16
+	 */
+	private static final class BackgroundComputation extends FutureTask<List<ICompletionProposal>> {
+
+		private final IProgressMonitor fMonitor;
+
+		BackgroundComputation(Callable<List<ICompletionProposal>> callable, IProgressMonitor monitor) {
+			super(callable);
+			fMonitor= monitor;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			fMonitor.setCanceled(true);
+			return super.cancel(mayInterruptIfRunning);
+		}
+	}
+
 	/**
 	 * Safely computes context information objects through the described extension. If the extension
 	 * is disabled, throws an exception or otherwise does not adhere to the contract described in
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -50,6 +51,7 @@ import org.eclipse.jface.text.IDocument;
 
 import org.eclipse.ui.dialogs.PreferencesUtil;
 
+import org.eclipse.jdt.internal.corext.util.BackgroundExecutor;
 import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.ui.PreferenceConstants;
@@ -120,6 +122,12 @@ public final class CompletionProposalComputerRegistry {
 	 */
 	private boolean fLoaded= false;
 
+	/**
+	 * The pool running the computers that compute proposals in the background.
+	 * @since 3.16
+	 */
+	private final BackgroundExecutor fBackgroundExecutor= new BackgroundExecutor("Java Completion Proposal Computer", 2, 4); //$NON-NLS-1$
+
 
 	private boolean fIsFirstTimeCheckForUninstalledComputers= false;
 	private boolean fHasUninstalledComputers= false;
@@ -468,6 +476,25 @@ public final class CompletionProposalComputerRegistry {
         dialog.open();
 	}
 
+	/**
+	 * Returns the bounded pool that runs the computers that compute proposals in the background.
+	 *
+	 * @return the executor
+	 * @since 3.16
+	 */
+	ExecutorService getBackgroundExecutor() {
+		return fBackgroundExecutor.get();
+	}
+
+	/**
+	 * Removes the cancelled computations from the queue of the background executor.
+	 *
+	 * @since 3.16
+	 */
+	void purgeBackgroundExecutor() {
+		fBackgroundExecutor.purge();
+	}
+
 	/**
 	 * Returns the names of contributors affected by disabling a category.
 	 *
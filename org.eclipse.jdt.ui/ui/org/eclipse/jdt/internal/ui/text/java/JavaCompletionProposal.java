@@ -13,8 +13,6 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.java;
 
-import org.eclipse.osgi.util.TextProcessor;
-
 import org.eclipse.swt.graphics.Image;
 
 import org.eclipse.core.runtime.Assert;
@@ -113,7 +111,7 @@ public class JavaCompletionProposal extends AbstractJavaCompletionProposal {
 
 	@Override
 	protected boolean isValidPrefix(String prefix) {
-		String word= TextProcessor.deprocess(getDisplayString());
+		String word= getDeprocessedDisplayString();
 		if (isInJavadoc()) {
 			if (word.indexOf("{@link ") == 0) { //$NON-NLS-1$
 				word= word.substring(7);
@@ -21,6 +21,7 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.jface.viewers.StyledString.Styler;
 
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITextViewer;
@@ -469,10 +470,16 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 
 	@Override
 	public StyledString getStyledDisplayString(IDocument document, int offset, BoldStylerProvider boldStylerProvider) {
-		StyledString styledDisplayString= new StyledString();
-		styledDisplayString.append(getStyledDisplayString());
-
+		StyledString source= getStyledDisplayString();
 		String pattern= getPatternToEmphasizeMatch(document, offset);
+		Styler boldStyler= boldStylerProvider.getBoldStyler();
+		StyledString cached= getEmphasizedDisplayString(source, pattern, boldStyler);
+		if (cached != null)
+			return cached;
+
+		StyledString styledDisplayString= new StyledString();
+		styledDisplayString.append(source);
+		String emphasizedPattern= pattern;
 		if (pattern != null && pattern.length() > 0) {
 			String displayString= styledDisplayString.getString();
 			boolean isJavadocTag= isInJavadoc() && displayString.charAt(0) == '@' && pattern.charAt(0) == '@';
@@ -483,13 +490,14 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 			int patternMatchRule= getPatternMatchRule(pattern, displayString);
 			int[] matchingRegions= SearchPattern.getMatchingRegions(pattern, displayString, patternMatchRule);
 			if (isJavadocTag && matchingRegions != null) {
-				Strings.markMatchingRegions(styledDisplayString, 0, new int[] { 0, 1 }, boldStylerProvider.getBoldStyler());
+				Strings.markMatchingRegions(styledDisplayString, 0, new int[] { 0, 1 }, boldStyler);
 				for (int i= 0; i < matchingRegions.length; i+= 2) {
 					matchingRegions[i]++;
 				}
 			}
-			Strings.markMatchingRegions(styledDisplayString, 0, matchingRegions, boldStylerProvider.getBoldStyler());
+			Strings.markMatchingRegions(styledDisplayString, 0, matchingRegions, boldStyler);
 		}
+		setEmphasizedDisplayString(source, emphasizedPattern, boldStyler, styledDisplayString);
 		return styledDisplayString;
 	}
 
@@ -22,7 +22,7 @@ import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.internal.corext.javadoc.JavaDocLocations;
 
-import org.eclipse.jdt.internal.ui.text.javadoc.JavadocContentAccess2;
+import org.eclipse.jdt.internal.ui.JavaPlugin;
 
 
 public class ProposalInfo {
@@ -90,7 +90,7 @@ public class ProposalInfo {
 	 * @throws CoreException if fetching the Javadoc for the given element failed connected
 	 */
 	private String extractJavadoc(IJavaElement element) throws CoreException {
-		return JavadocContentAccess2.getHTMLContent(element, true);
+		return JavaPlugin.getDefault().getJavadocContentCache().getHTMLContent(element);
 	}
 
 }
@@ -40,6 +40,7 @@ final class JavaDocMessages extends NLS {
 	public static String JavaDoc2HTMLTextReader_version_section;
 	public static String JavadocContentAccess2_getproperty_message;
 	public static String JavadocContentAccess2_setproperty_message;
+	public static String JavadocContentCache_precompute_job;
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, JavaDocMessages.class);
@@ -0,0 +1,443 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.javadoc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IOrdinaryClassFile;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.ui.JavaUI;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Bounded cache of the rendered Javadoc HTML computed by
+ * {@link JavadocContentAccess2#getHTMLContent(IJavaElement, boolean)}, shared by the
+ * Javadoc hover and the Javadoc view.
+ * <p>
+ * Entries are keyed by the element's handle identifier and validated against a stamp:
+ * <ul>
+ * <li>for library elements, the resolved classpath entry (which includes source and
+ * Javadoc attachments) and the time stamp of the archive,</li>
+ * <li>for source elements, the modification stamp of the compilation unit.</li>
+ * </ul>
+ * Elements in working copies with unsaved changes are not cached.
+ * </p>
+ * <p>
+ * Java element changes only invalidate the entries of the compilation units in the delta.
+ * Methods that can inherit Javadoc from overridden methods are also invalidated when any
+ * compilation unit is saved, and all source entries are invalidated when a classpath changes.
+ * </p>
+ * <p>
+ * Library entries are persisted in the plug-in's state location on shutdown and restored
+ * on first access.
+ * </p>
+ *
+ * @since 3.16
+ */
+public class JavadocContentCache implements IElementChangedListener {
+
+	private static final int MAX_ENTRIES= 1000;
+
+	private static final int MAX_PRECOMPUTED_MEMBERS= 50;
+
+	private static final String STORE_FILE= "javadoc_cache.dat"; //$NON-NLS-1$
+
+	private static final int STORE_VERSION= 1;
+
+	private static final String BINARY_STAMP_PREFIX= "B:"; //$NON-NLS-1$
+
+	private static final int CLASSPATH_FLAGS= IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+
+	private static final class Entry {
+		final String fStamp;
+		final String fContent;
+		/** <code>true</code> if the content can contain Javadoc of other compilation units */
+		final boolean fInherits;
+
+		Entry(String stamp, String content, boolean inherits) {
+			fStamp= stamp;
+			fContent= content;
+			fInherits= inherits;
+		}
+
+		boolean isBinary() {
+			return fStamp.startsWith(BINARY_STAMP_PREFIX);
+		}
+	}
+
+	private final class PrecomputeJob extends Job {
+		private final ITypeRoot fTypeRoot;
+
+		PrecomputeJob(ITypeRoot typeRoot) {
+			super(JavaDocMessages.JavadocContentCache_precompute_job);
+			fTypeRoot= typeRoot;
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				List<IJavaElement> members= new ArrayList<>();
+				IType[] types;
+				if (fTypeRoot instanceof ICompilationUnit) {
+					types= ((ICompilationUnit) fTypeRoot).getAllTypes();
+				} else if (fTypeRoot instanceof IOrdinaryClassFile) {
+					if (isRemoteJavadoc((IOrdinaryClassFile) fTypeRoot))
+						return Status.OK_STATUS;
+					types= new IType[] { ((IOrdinaryClassFile) fTypeRoot).getType() };
+				} else {
+					return Status.OK_STATUS;
+				}
+				for (IType type : types) {
+					members.add(type);
+					addAll(members, type.getFields());
+					addAll(members, type.getMethods());
+				}
+				for (int i= 0; i < members.size() && i < MAX_PRECOMPUTED_MEMBERS; i++) {
+					if (monitor.isCanceled())
+						return Status.CANCEL_STATUS;
+					try {
+						getHTMLContent(members.get(i));
+					} catch (CoreException e) {
+						// ignore, the hover reports failures when the element is requested
+					}
+				}
+			} catch (JavaModelException e) {
+				// type root is gone
+			}
+			return Status.OK_STATUS;
+		}
+
+		private void addAll(List<IJavaElement> list, IJavaElement[] elements) {
+			for (IJavaElement element : elements) {
+				list.add(element);
+			}
+		}
+
+		/*
+		 * Without source, the Javadoc of a class file is read from its Javadoc location, which
+		 * should only be accessed on request if it is not a local file.
+		 */
+		private boolean isRemoteJavadoc(IOrdinaryClassFile classFile) throws JavaModelException {
+			if (classFile.getSourceRange() != null)
+				return false;
+			URL location= JavaUI.getJavadocBaseLocation(classFile);
+			if (location == null)
+				return false;
+			String url= location.toExternalForm();
+			return !url.startsWith("file:") && !url.startsWith("jar:file:"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * LRU map of handle identifiers to entries.
+	 */
+	private final LinkedHashMap<String, Entry> fEntries= new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/** Incremented when entries are invalidated, so that content computed concurrently is not cached */
+	private int fGeneration;
+
+	private boolean fRestored;
+
+	private ITypeRoot fLastPrecomputed;
+
+	private PrecomputeJob fPrecomputeJob;
+
+	public JavadocContentCache() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	/**
+	 * Returns the rendered Javadoc of the given element, using attached Javadoc if no
+	 * source is available.
+	 *
+	 * @param element the element to get the Javadoc of
+	 * @return the Javadoc comment content in HTML or <code>null</code>
+	 * @throws CoreException if the element's Javadoc cannot be accessed
+	 * @see JavadocContentAccess2#getHTMLContent(IJavaElement, boolean)
+	 */
+	public String getHTMLContent(IJavaElement element) throws CoreException {
+		String stamp= computeStamp(element);
+		if (stamp == null)
+			return JavadocContentAccess2.getHTMLContent(element, true);
+
+		String key= element.getHandleIdentifier();
+		int generation;
+		synchronized (this) {
+			restore();
+			Entry entry= fEntries.get(key);
+			if (entry != null && entry.fStamp.equals(stamp))
+				return entry.fContent;
+			generation= fGeneration;
+		}
+		String content= JavadocContentAccess2.getHTMLContent(element, true);
+		Entry entry= new Entry(stamp, content, !stamp.startsWith(BINARY_STAMP_PREFIX) && canInheritJavadoc(element));
+		synchronized (this) {
+			if (generation == fGeneration)
+				fEntries.put(key, entry);
+		}
+		return content;
+	}
+
+	/**
+	 * Returns whether a valid rendering of the Javadoc of the given element is cached.
+	 *
+	 * @param element the element
+	 * @return <code>true</code> if the Javadoc of the element is served from the cache
+	 * @throws JavaModelException if the element cannot be accessed
+	 */
+	public boolean isCached(IJavaElement element) throws JavaModelException {
+		String stamp= computeStamp(element);
+		if (stamp == null)
+			return false;
+		synchronized (this) {
+			Entry entry= fEntries.get(element.getHandleIdentifier());
+			return entry != null && entry.fStamp.equals(stamp);
+		}
+	}
+
+	private static boolean canInheritJavadoc(IJavaElement element) throws JavaModelException {
+		if (element.getElementType() != IJavaElement.METHOD)
+			return false;
+		IMethod method= (IMethod) element;
+		int flags= method.getFlags();
+		return !method.isConstructor() && !Flags.isStatic(flags) && !Flags.isPrivate(flags);
+	}
+
+	/**
+	 * Computes the Javadoc of the members of the given type root in the background, so
+	 * that subsequent requests for them are served from the cache.
+	 *
+	 * @param typeRoot the type root shown in the active editor, can be <code>null</code>
+	 */
+	public synchronized void precompute(ITypeRoot typeRoot) {
+		if (typeRoot == null || typeRoot.equals(fLastPrecomputed))
+			return;
+		fLastPrecomputed= typeRoot;
+		if (fPrecomputeJob != null)
+			fPrecomputeJob.cancel();
+		fPrecomputeJob= new PrecomputeJob(typeRoot);
+		fPrecomputeJob.schedule();
+	}
+
+	private String computeStamp(IJavaElement element) throws JavaModelException {
+		IPackageFragmentRoot root= (IPackageFragmentRoot) element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		if (root == null || !root.exists())
+			return null;
+
+		if (root.getKind() == IPackageFragmentRoot.K_BINARY) {
+			IClasspathEntry entry= root.getResolvedClasspathEntry();
+			IResource resource= root.getResource();
+			long timeStamp= resource != null ? resource.getModificationStamp() : root.getPath().toFile().lastModified();
+			return BINARY_STAMP_PREFIX + timeStamp + ':' + entry;
+		}
+
+		ICompilationUnit cu= (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
+		if (cu == null || (cu.isWorkingCopy() && cu.hasUnsavedChanges()))
+			return null;
+		IResource resource= cu.getResource();
+		if (resource == null)
+			return null;
+		return "S:" + resource.getModificationStamp(); //$NON-NLS-1$
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		Set<String> changed= new HashSet<>();
+		boolean invalidateAll= collectChangedElements(event.getDelta(), changed);
+		if (!invalidateAll && changed.isEmpty())
+			return;
+		// while typing, Javadoc inherited from the reconciled unit is refreshed when it is saved
+		boolean invalidateInherited= event.getType() == ElementChangedEvent.POST_CHANGE;
+		synchronized (this) {
+			fGeneration++;
+			for (Iterator<Map.Entry<String, Entry>> iter= fEntries.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<String, Entry> mapEntry= iter.next();
+				Entry entry= mapEntry.getValue();
+				if (entry.isBinary())
+					continue;
+				if (invalidateAll || (invalidateInherited && entry.fInherits) || startsWithAny(mapEntry.getKey(), changed))
+					iter.remove();
+			}
+			if (fLastPrecomputed != null && (invalidateAll || startsWithAny(fLastPrecomputed.getHandleIdentifier(), changed)))
+				fLastPrecomputed= null;
+		}
+	}
+
+	/**
+	 * Collects the handle identifiers of the changed compilation units and of the removed
+	 * containers in the given delta. Handle identifiers of members start with the identifier
+	 * of their compilation unit.
+	 *
+	 * @param delta the delta
+	 * @param changed the set to add the handle identifiers to
+	 * @return <code>true</code> if a classpath has changed and all source entries are stale
+	 */
+	private static boolean collectChangedElements(IJavaElementDelta delta, Set<String> changed) {
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.COMPILATION_UNIT:
+				if (delta.getKind() == IJavaElementDelta.CHANGED && (delta.getFlags() & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_CHILDREN)) == 0)
+					return false; // e.g. a working copy has been opened
+				changed.add(((ICompilationUnit) element).getPrimary().getHandleIdentifier());
+				return false;
+			case IJavaElement.JAVA_MODEL:
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if ((delta.getFlags() & CLASSPATH_FLAGS) != 0)
+					return true;
+				if (delta.getKind() == IJavaElementDelta.REMOVED) {
+					changed.add(element.getHandleIdentifier());
+					return false;
+				}
+				IJavaElementDelta[] children= delta.getAffectedChildren();
+				for (int i= 0; i < children.length; i++) {
+					if (collectChangedElements(children[i], changed))
+						return true;
+				}
+				return false;
+			default:
+				// class files are validated by the stamp of their library
+				return false;
+		}
+	}
+
+	private static boolean startsWithAny(String handleIdentifier, Set<String> prefixes) {
+		for (String prefix : prefixes) {
+			if (handleIdentifier.startsWith(prefix))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Persists the library entries and stops listening to Java element changes.
+	 */
+	public void dispose() {
+		JavaCore.removeElementChangedListener(this);
+		synchronized (this) {
+			if (fPrecomputeJob != null)
+				fPrecomputeJob.cancel();
+			if (fRestored)
+				save();
+			fEntries.clear();
+		}
+	}
+
+	private File getStoreFile() {
+		return JavaPlugin.getDefault().getStateLocation().append(STORE_FILE).toFile();
+	}
+
+	private void restore() {
+		if (fRestored)
+			return;
+		fRestored= true;
+		File file= getStoreFile();
+		if (!file.isFile())
+			return;
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != STORE_VERSION)
+				return;
+			int count= in.readInt();
+			for (int i= 0; i < count; i++) {
+				String key= in.readUTF();
+				String stamp= in.readUTF();
+				String content= null;
+				int length= in.readInt();
+				if (length >= 0) {
+					byte[] bytes= new byte[length];
+					in.readFully(bytes);
+					content= new String(bytes, StandardCharsets.UTF_8);
+				}
+				fEntries.put(key, new Entry(stamp, content, false));
+			}
+		} catch (IOException e) {
+			fEntries.clear();
+			JavaPlugin.log(e);
+		}
+	}
+
+	private void save() {
+		List<Map.Entry<String, Entry>> binaryEntries= new ArrayList<>();
+		for (Map.Entry<String, Entry> entry : fEntries.entrySet()) {
+			if (entry.getValue().isBinary())
+				binaryEntries.add(entry);
+		}
+		try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getStoreFile())))) {
+			out.writeInt(STORE_VERSION);
+			out.writeInt(binaryEntries.size());
+			for (Map.Entry<String, Entry> entry : binaryEntries) {
+				out.writeUTF(entry.getKey());
+				out.writeUTF(entry.getValue().fStamp);
+				String content= entry.getValue().fContent;
+				if (content == null) {
+					out.writeInt(-1);
+				} else {
+					byte[] bytes= content.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+			}
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -136,14 +136,28 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 			return null;
 		}
 
+		IMethod res= findDeclaringMethod(method);
+		if (res != null) {
+			return res.getDeclaringType();
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the method that declares the given method, see
+	 * {@link MethodOverrideTester#findDeclaringMethod(IMethod, boolean)}.
+	 *
+	 * @param method the method
+	 * @return the declaring method, or <code>null</code>
+	 * @throws JavaModelException if a problem occurs
+	 * @since 3.16
+	 */
+	protected IMethod findDeclaringMethod(IMethod method) throws JavaModelException {
 		IType declaringType= method.getDeclaringType();
 		ITypeHierarchy hierarchy= getHierarchy(declaringType);
 		if (hierarchy != null) {
 			MethodOverrideTester tester= new MethodOverrideTester(declaringType, hierarchy);
-			IMethod res= tester.findDeclaringMethod(method, true);
-			if (res != null) {
-				return res.getDeclaringType();
-			}
+			return tester.findDeclaringMethod(method, true);
 		}
 		return null;
 	}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
+
+/**
+ * The members of the types in a type hierarchy, as shown by the methods viewer. The members of a
+ * type, the members including the inherited ones and the methods declaring overridden methods are
+ * computed once and reused until the members of the type change.
+ */
+final class HierarchyMemberTable {
+
+	private static final Object[] NO_ELEMENTS= new Object[0];
+
+	private final ITypeHierarchy fHierarchy;
+
+	/** The methods, initializers and fields declared by a type */
+	private final Map<IType, Object[]> fMembers= new HashMap<>();
+	/** The members of a type and of all its super types, in hierarchy order */
+	private final Map<IType, Object[]> fInheritedMembers= new HashMap<>();
+	/** The override tester of a type, which caches the type variable substitutions */
+	private final Map<IType, MethodOverrideTester> fOverrideTesters= new HashMap<>();
+	/** The declaring method of a method, or <code>null</code> if it does not override a method */
+	private final Map<IMethod, IMethod> fDeclaringMethods= new HashMap<>();
+
+	HierarchyMemberTable(ITypeHierarchy hierarchy) {
+		fHierarchy= hierarchy;
+	}
+
+	public ITypeHierarchy getHierarchy() {
+		return fHierarchy;
+	}
+
+	/**
+	 * Returns the methods, initializers and fields declared by the given type.
+	 *
+	 * @param type the type
+	 * @return the members of the type
+	 * @throws JavaModelException if the members cannot be accessed
+	 */
+	public synchronized Object[] getMembers(IType type) throws JavaModelException {
+		Object[] members= fMembers.get(type);
+		if (members == null) {
+			members= computeMembers(type);
+			fMembers.put(type, members);
+		}
+		return members;
+	}
+
+	/**
+	 * Computes the methods, initializers and fields declared by the given type, without caching.
+	 *
+	 * @param type the type
+	 * @return the members of the type, or an empty array if the type does not exist
+	 * @throws JavaModelException if the members cannot be accessed
+	 */
+	public static Object[] computeMembers(IType type) throws JavaModelException {
+		if (!type.exists())
+			return NO_ELEMENTS;
+		List<Object> res= new ArrayList<>();
+		addAll(type.getMethods(), res);
+		addAll(type.getInitializers(), res);
+		addAll(type.getFields(), res);
+		return res.toArray();
+	}
+
+	/**
+	 * Returns the members of the given type and of all its super types. Members of super types
+	 * come first, so that elements with the same name show up in hierarchy order.
+	 *
+	 * @param type the type
+	 * @return the members including the inherited ones
+	 * @throws JavaModelException if the members cannot be accessed
+	 */
+	public synchronized Object[] getMembersWithInherited(IType type) throws JavaModelException {
+		Object[] members= fInheritedMembers.get(type);
+		if (members == null) {
+			List<Object> res= new ArrayList<>();
+			IType[] allSupertypes= fHierarchy.getAllSupertypes(type);
+			for (int i= allSupertypes.length - 1; i >= 0; i--) {
+				addAll(getMembers(allSupertypes[i]), res);
+			}
+			addAll(getMembers(type), res);
+			members= res.toArray();
+			fInheritedMembers.put(type, members);
+		}
+		return members;
+	}
+
+	/**
+	 * Returns the method that declares the given method, see
+	 * {@link MethodOverrideTester#findDeclaringMethod(IMethod, boolean)}.
+	 *
+	 * @param method the method
+	 * @return the declaring method, or <code>null</code> if the method does not override a
+	 *         visible method
+	 * @throws JavaModelException if the members cannot be accessed
+	 */
+	public synchronized IMethod findDeclaringMethod(IMethod method) throws JavaModelException {
+		if (fDeclaringMethods.containsKey(method))
+			return fDeclaringMethods.get(method);
+
+		IType declaringType= method.getDeclaringType();
+		MethodOverrideTester tester= fOverrideTesters.get(declaringType);
+		if (tester == null) {
+			tester= new MethodOverrideTester(declaringType, fHierarchy);
+			fOverrideTesters.put(declaringType, tester);
+		}
+		IMethod res= tester.findDeclaringMethod(method, true);
+		fDeclaringMethods.put(method, res);
+		return res;
+	}
+
+	/**
+	 * Discards the members of the given types, and all results that depend on them.
+	 *
+	 * @param changedTypes the types whose members have changed
+	 */
+	public synchronized void invalidate(IType[] changedTypes) {
+		for (int i= 0; i < changedTypes.length; i++) {
+			fMembers.remove(changedTypes[i]);
+		}
+		// inherited members and overrides of the subtypes are affected as well
+		fInheritedMembers.clear();
+		fOverrideTesters.clear();
+		fDeclaringMethods.clear();
+	}
+
+	private static void addAll(Object[] arr, List<Object> res) {
+		for (int j= 0; j < arr.length; j++) {
+			res.add(arr[j]);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,8 +13,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.typehierarchy;
 
+import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
 
 /**
   */
@@ -55,4 +57,13 @@ public class HierarchyViewerSorter extends AbstractHierarchyViewerSorter {
 		return fHierarchy.getHierarchy(); // hierarchy contains all types shown
 	}
 
+	@Override
+	protected IMethod findDeclaringMethod(IMethod method) throws JavaModelException {
+		HierarchyMemberTable table= fHierarchy.getMemberTable();
+		if (table != null) {
+			return table.findDeclaringMethod(method);
+		}
+		return null;
+	}
+
 }
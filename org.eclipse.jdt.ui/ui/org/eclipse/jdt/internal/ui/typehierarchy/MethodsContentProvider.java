@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,9 +13,6 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.typehierarchy;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.jface.viewers.IStructuredContentProvider;
@@ -23,7 +20,6 @@ import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
 
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.ui.IWorkingCopyProvider;
@@ -74,15 +70,6 @@ public class MethodsContentProvider implements IStructuredContentProvider, IWork
 		return fShowInheritedMethods;
 	}
 
-
-	private void addAll(Object[] arr, List<Object> res) {
-		if (arr != null) {
-			for (int j= 0; j < arr.length; j++) {
-				res.add(arr[j]);
-			}
-		}
-	}
-
 	/*
 	 * @see IStructuredContentProvider#getElements
 	 */
@@ -91,31 +78,18 @@ public class MethodsContentProvider implements IStructuredContentProvider, IWork
 		if (element instanceof IType) {
 			IType type= (IType)element;
 
-			List<Object> res= new ArrayList<>();
 			try {
-				ITypeHierarchy hierarchy= fHierarchyLifeCycle.getHierarchy();
-				if (fShowInheritedMethods && hierarchy != null) {
-					IType[] allSupertypes= hierarchy.getAllSupertypes(type);
-					// sort in from last to first: elements with same name
-					// will show up in hierarchy order
-					for (int i= allSupertypes.length - 1; i >= 0; i--) {
-						IType superType= allSupertypes[i];
-						if (superType.exists()) {
-							addAll(superType.getMethods(), res);
-							addAll(superType.getInitializers(), res);
-							addAll(superType.getFields(), res);
-						}
-					}
-				}
-				if (type.exists()) {
-					addAll(type.getMethods(), res);
-					addAll(type.getInitializers(), res);
-					addAll(type.getFields(), res);
+				HierarchyMemberTable table= fHierarchyLifeCycle.getMemberTable();
+				if (table == null) {
+					return HierarchyMemberTable.computeMembers(type);
 				}
+				// the viewer sorts the returned array in place
+				Object[] members= fShowInheritedMethods ? table.getMembersWithInherited(type) : table.getMembers(type);
+				return members.clone();
 			} catch (JavaModelException e) {
 				JavaPlugin.log(e);
 			}
-			return res.toArray();
+			return NO_ELEMENTS;
 		}
 		return NO_ELEMENTS;
 	}
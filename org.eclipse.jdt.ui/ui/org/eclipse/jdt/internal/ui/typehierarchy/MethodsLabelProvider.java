@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -25,11 +25,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
-import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
-
 import org.eclipse.jdt.ui.JavaElementLabels;
 
 import org.eclipse.jdt.internal.ui.viewsupport.AppearanceAwareLabelProvider;
@@ -80,13 +77,12 @@ public class MethodsLabelProvider extends AppearanceAwareLabelProvider {
 		if (kind != IJavaElement.METHOD) {
 			return declaringType;
 		}
-		ITypeHierarchy hierarchy= fHierarchy.getHierarchy();
-		if (hierarchy == null) {
+		HierarchyMemberTable table= fHierarchy.getMemberTable();
+		if (table == null) {
 			return declaringType;
 		}
 		IMethod method= (IMethod) element;
-		MethodOverrideTester tester= new MethodOverrideTester(declaringType, hierarchy);
-		IMethod res= tester.findDeclaringMethod(method, true);
+		IMethod res= table.findDeclaringMethod(method);
 		if (res == null || method.equals(res)) {
 			return declaringType;
 		}
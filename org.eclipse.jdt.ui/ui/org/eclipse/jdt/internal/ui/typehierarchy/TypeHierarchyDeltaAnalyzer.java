@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Decides whether a Java element delta changes the structure of a type hierarchy on a type, i.e.
+ * the types it contains, their super types or their kinds.
+ * <p>
+ * Changes of the classpath, of class files and additions or removals of packages are always
+ * structural. For changed compilation units, the types declared in the unit are compared with the
+ * types of the hierarchy: their declared super types are resolved in the unit and compared by
+ * qualified name, so that a changed qualifier or import is detected, and new types are part of the
+ * hierarchy if they name the focus type or one of its subtypes as super type.
+ * </p>
+ * <p>
+ * The analysis compares the current state of the compilation units with the hierarchy, so it can be
+ * applied to any number of deltas after the hierarchy has been computed.
+ * </p>
+ */
+final class TypeHierarchyDeltaAnalyzer {
+
+	private static final int CLASSPATH_FLAGS= IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+			| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+			| IJavaElementDelta.F_REORDER | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+
+	/** The flags of a type that are shown in the hierarchy */
+	private static final int TYPE_FLAGS= Flags.AccInterface | Flags.AccAnnotation | Flags.AccEnum | Flags.AccAbstract | Flags.AccFinal
+			| Flags.AccStatic | Flags.AccPublic | Flags.AccProtected | Flags.AccPrivate;
+
+	private static final String OBJECT= "Object"; //$NON-NLS-1$
+	private static final String QUALIFIED_OBJECT= "java.lang.Object"; //$NON-NLS-1$
+
+	private final ITypeHierarchy fHierarchy;
+	private final boolean fIsSuperTypesOnly;
+
+	/** The source types of the hierarchy by compilation unit, computed lazily */
+	private Map<ICompilationUnit, Set<IType>> fTypesByUnit;
+	/** The simple names of the focus type and its subtypes, computed lazily */
+	private Set<String> fSubtypeNames;
+
+	/**
+	 * Creates an analyzer for the given hierarchy.
+	 *
+	 * @param hierarchy a type hierarchy on a type
+	 * @param isSuperTypesOnly <code>true</code> if the hierarchy only contains the super types of
+	 *            the focus type
+	 */
+	TypeHierarchyDeltaAnalyzer(ITypeHierarchy hierarchy, boolean isSuperTypesOnly) {
+		fHierarchy= hierarchy;
+		fIsSuperTypesOnly= isSuperTypesOnly;
+	}
+
+	/**
+	 * Returns whether the given delta can change the structure of the hierarchy.
+	 *
+	 * @param delta the delta
+	 * @return <code>true</code> if the hierarchy needs to be recomputed
+	 */
+	public synchronized boolean isStructuralChange(IJavaElementDelta delta) {
+		try {
+			return isStructuralDelta(delta);
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+			return true;
+		}
+	}
+
+	private boolean isStructuralDelta(IJavaElementDelta delta) throws JavaModelException {
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				return isStructuralDelta(delta.getAffectedChildren());
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_FLAGS) != 0)
+					return true;
+				return isStructuralDelta(delta.getAffectedChildren());
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED)
+					return true;
+				return isStructuralDelta(delta.getAffectedChildren());
+			case IJavaElement.COMPILATION_UNIT:
+				return isStructuralDelta((ICompilationUnit) element, delta);
+			default:
+				// class files
+				return true;
+		}
+	}
+
+	private boolean isStructuralDelta(IJavaElementDelta[] deltas) throws JavaModelException {
+		for (int i= 0; i < deltas.length; i++) {
+			if (isStructuralDelta(deltas[i]))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean isStructuralDelta(ICompilationUnit cu, IJavaElementDelta delta) throws JavaModelException {
+		if (!JavaModelUtil.isPrimary(cu))
+			return false;
+		if (delta.getKind() == IJavaElementDelta.CHANGED && (delta.getFlags() & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_CHILDREN)) == 0)
+			return false;
+
+		Set<IType> hierarchyTypes= getTypesByUnit().get(cu);
+		if (hierarchyTypes == null)
+			hierarchyTypes= new HashSet<>();
+		List<IType> types= new ArrayList<>();
+		if (delta.getKind() != IJavaElementDelta.REMOVED && cu.exists())
+			collectTypes(cu.getChildren(), types);
+
+		int found= 0;
+		for (int i= 0; i < types.size(); i++) {
+			IType type= types.get(i);
+			if (hierarchyTypes.contains(type)) {
+				found++;
+				if (!hasSameSuperTypes(type) || (type.getFlags() & TYPE_FLAGS) != (fHierarchy.getCachedFlags(type) & TYPE_FLAGS))
+					return true;
+			} else if (isNewSubtype(type)) {
+				return true;
+			}
+		}
+		// types removed from the unit
+		return found != hierarchyTypes.size();
+	}
+
+	private static void collectTypes(IJavaElement[] children, List<IType> result) throws JavaModelException {
+		for (int i= 0; i < children.length; i++) {
+			IJavaElement child= children[i];
+			if (child instanceof IType)
+				result.add((IType) child);
+			// local and anonymous types are children of members
+			if (child instanceof IMember && child instanceof IParent)
+				collectTypes(((IParent) child).getChildren(), result);
+		}
+	}
+
+	private boolean hasSameSuperTypes(IType type) throws JavaModelException {
+		Set<String> computed= new HashSet<>();
+		IType superclass= fHierarchy.getSuperclass(type);
+		if (superclass != null)
+			computed.add(superclass.getFullyQualifiedName('.'));
+		IType[] interfaces= fHierarchy.getSuperInterfaces(type);
+		for (int i= 0; i < interfaces.length; i++) {
+			computed.add(interfaces[i].getFullyQualifiedName('.'));
+		}
+		Set<String> declared= new HashSet<>();
+		String superclassName= type.getSuperclassName();
+		if (superclassName != null) {
+			declared.add(resolveSuperTypeName(type, superclassName, computed));
+		} else if (type.isEnum()) {
+			declared.add("java.lang.Enum"); //$NON-NLS-1$
+		}
+		String[] interfaceNames= type.getSuperInterfaceNames();
+		for (int i= 0; i < interfaceNames.length; i++) {
+			declared.add(resolveSuperTypeName(type, interfaceNames[i], computed));
+		}
+		if (type.isAnnotation())
+			declared.add("java.lang.annotation.Annotation"); //$NON-NLS-1$
+		// implicit for classes, and the superclass of anonymous types that implement an interface
+		computed.remove(QUALIFIED_OBJECT);
+		declared.remove(QUALIFIED_OBJECT);
+		return declared.equals(computed);
+	}
+
+	/**
+	 * Resolves a super type name as declared in the source of a type.
+	 *
+	 * @param type the type
+	 * @param typeName the declared name, possibly qualified and with type arguments
+	 * @param computed the qualified names of the super types in the hierarchy
+	 * @return the qualified name of the super type. If the name cannot be resolved, the name
+	 *         itself if it is qualified, or else the qualified name of the super type in the
+	 *         hierarchy with the same simple name
+	 * @throws JavaModelException if the type does not exist
+	 */
+	private static String resolveSuperTypeName(IType type, String typeName, Set<String> computed) throws JavaModelException {
+		String name= getErasedName(typeName);
+		String[][] resolved= type.resolveType(name);
+		if (resolved != null && resolved.length == 1)
+			return JavaModelUtil.concatenateName(resolved[0][0], resolved[0][1]);
+		if (name.indexOf('.') == -1) {
+			// e.g. super types of local types, which are not always resolved
+			for (String qualified : computed) {
+				if (name.equals(getSimpleName(qualified)))
+					return qualified;
+			}
+		}
+		return name;
+	}
+	private boolean isNewSubtype(IType type) throws JavaModelException {
+		if (fIsSuperTypesOnly)
+			return false;
+		if (isObject(fHierarchy.getType()))
+			return true;
+		Set<String> subtypeNames= getSubtypeNames();
+		Set<String> names= getDeclaredSuperTypeNames(type);
+		for (String name : names) {
+			if (subtypeNames.contains(name))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isObject(IType type) {
+		return OBJECT.equals(type.getElementName()) && type.getDeclaringType() == null && "java.lang".equals(type.getPackageFragment().getElementName()); //$NON-NLS-1$
+	}
+
+	private static Set<String> getDeclaredSuperTypeNames(IType type) throws JavaModelException {
+		Set<String> names= new HashSet<>();
+		String superclassName= type.getSuperclassName();
+		if (superclassName != null) {
+			names.add(getSimpleName(superclassName));
+		} else if (type.isEnum()) {
+			names.add("Enum"); //$NON-NLS-1$
+		}
+		String[] interfaceNames= type.getSuperInterfaceNames();
+		for (int i= 0; i < interfaceNames.length; i++) {
+			names.add(getSimpleName(interfaceNames[i]));
+		}
+		if (type.isAnnotation())
+			names.add("Annotation"); //$NON-NLS-1$
+		return names;
+	}
+
+	private static String getSimpleName(String typeName) {
+		int end= typeName.indexOf('<');
+		if (end == -1)
+			end= typeName.length();
+		int start= Math.max(typeName.lastIndexOf('.', end - 1), typeName.lastIndexOf(' ', end - 1)) + 1;
+		return typeName.substring(start, end).trim();
+	}
+
+	private static String getErasedName(String typeName) {
+		int end= typeName.indexOf('<');
+		if (end == -1)
+			end= typeName.length();
+		// type annotations precede the simple name
+		StringBuilder builder= new StringBuilder();
+		String[] segments= typeName.substring(0, end).split("\\."); //$NON-NLS-1$
+		for (int i= 0; i < segments.length; i++) {
+			String segment= segments[i].trim();
+			if (i > 0)
+				builder.append('.');
+			builder.append(segment.substring(segment.lastIndexOf(' ') + 1));
+		}
+		return builder.toString();
+	}
+
+	private Map<ICompilationUnit, Set<IType>> getTypesByUnit() {
+		if (fTypesByUnit == null) {
+			fTypesByUnit= new HashMap<>();
+			IType[] types= fHierarchy.getAllTypes();
+			for (int i= 0; i < types.length; i++) {
+				ICompilationUnit cu= types[i].getCompilationUnit();
+				if (cu != null) {
+					Set<IType> unitTypes= fTypesByUnit.get(cu);
+					if (unitTypes == null) {
+						unitTypes= new HashSet<>();
+						fTypesByUnit.put(cu, unitTypes);
+					}
+					unitTypes.add(types[i]);
+				}
+			}
+		}
+		return fTypesByUnit;
+	}
+
+	private Set<String> getSubtypeNames() {
+		if (fSubtypeNames == null) {
+			fSubtypeNames= new HashSet<>();
+			IType focus= fHierarchy.getType();
+			fSubtypeNames.add(focus.getElementName());
+			IType[] subtypes= fHierarchy.getAllSubtypes(focus);
+			for (int i= 0; i < subtypes.length; i++) {
+				fSubtypeNames.add(subtypes[i].getElementName());
+			}
+		}
+		return fSubtypeNames;
+	}
+}
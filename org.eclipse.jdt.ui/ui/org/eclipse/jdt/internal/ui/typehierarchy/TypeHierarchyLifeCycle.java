@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -53,6 +53,11 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 
 /**
  * Manages a type hierarchy, to keep it refreshed, and to allow it to be shared.
+ * <p>
+ * Changes reported by a hierarchy on a type are analyzed with a {@link TypeHierarchyDeltaAnalyzer}:
+ * the hierarchy is only recomputed if the change can affect its structure. Other changes are
+ * reported to the listeners as changes of the affected types.
+ * </p>
  */
 public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IElementChangedListener {
 
@@ -63,6 +68,37 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 
 	private List<ITypeHierarchyLifeCycleListener> fChangeListeners;
 
+	/**
+	 * Decides whether changes affect the structure of the hierarchy, or <code>null</code> if every
+	 * change reported by the hierarchy requires a refresh.
+	 *
+	 * @since 3.16
+	 */
+	private TypeHierarchyDeltaAnalyzer fDeltaAnalyzer;
+
+	/**
+	 * Indicates whether the hierarchy reported a change, which is analyzed when the corresponding
+	 * delta is received by {@link #elementChanged(ElementChangedEvent)}.
+	 *
+	 * @since 3.16
+	 */
+	private boolean fHierarchyChangeReported;
+
+	/**
+	 * Indicates whether all deltas must be analyzed, because the hierarchy has reported a change
+	 * and does not report further changes until it is refreshed.
+	 *
+	 * @since 3.16
+	 */
+	private boolean fAnalyzeAllDeltas;
+
+	/**
+	 * The members of the types in the hierarchy, or <code>null</code> if not computed yet.
+	 *
+	 * @since 3.16
+	 */
+	private volatile HierarchyMemberTable fMemberTable;
+
 	/**
 	 * The type hierarchy view part.
 	 *
@@ -107,6 +143,25 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		return fHierarchy;
 	}
 
+	/**
+	 * Returns the table of the members of the types in the hierarchy. The table is discarded
+	 * when the hierarchy changes, and updated when the members of its types change.
+	 *
+	 * @return the member table, or <code>null</code> if there is no hierarchy
+	 * @since 3.16
+	 */
+	HierarchyMemberTable getMemberTable() {
+		ITypeHierarchy hierarchy= fHierarchy;
+		if (hierarchy == null)
+			return null;
+		HierarchyMemberTable table= fMemberTable;
+		if (table == null || table.getHierarchy() != hierarchy) {
+			table= new HierarchyMemberTable(hierarchy);
+			fMemberTable= table;
+		}
+		return table;
+	}
+
 	/**
 	 * Returns the array of input elements.
 	 * 
@@ -123,6 +178,8 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			JavaCore.removeElementChangedListener(this);
 			fHierarchy= null;
 			fInputElements= null;
+			fDeltaAnalyzer= null;
+			fMemberTable= null;
 		}
 		synchronized (this) {
 			if (fRefreshHierarchyJob != null) {
@@ -143,6 +200,14 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	}
 
 	private void fireChange(IType[] changedTypes) {
+		HierarchyMemberTable table= fMemberTable;
+		if (table != null) {
+			if (changedTypes == null) {
+				fMemberTable= null;
+			} else {
+				table.invalidate(changedTypes);
+			}
+		}
 		for (int i= fChangeListeners.size()-1; i>=0; i--) {
 			ITypeHierarchyLifeCycleListener curr= fChangeListeners.get(i);
 			curr.typeHierarchyChanged(this, changedTypes);
@@ -342,6 +407,10 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			if (pm != null && pm.isCanceled())
 				throw new OperationCanceledException();
 		}
+		fDeltaAnalyzer= fHierarchy.getType() != null ? new TypeHierarchyDeltaAnalyzer(fHierarchy, fIsSuperTypesOnly) : null;
+		fHierarchyChangeReported= false;
+		fAnalyzeAllDeltas= false;
+		fMemberTable= null;
 		fHierarchy.addTypeHierarchyChangedListener(this);
 		JavaCore.addElementChangedListener(this);
 		fHierarchyRefreshNeeded= false;
@@ -352,8 +421,23 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	@Override
 	public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
-	 	fHierarchyRefreshNeeded= true;
- 		fireChange(null);
+		if (fDeltaAnalyzer != null) {
+			// the hierarchy is notified before this life cycle, the delta is analyzed in elementChanged(..)
+			fHierarchyChangeReported= true;
+			return;
+		}
+		invalidateHierarchy();
+	}
+
+	/**
+	 * Marks the hierarchy as outdated and notifies the listeners. The hierarchy is recomputed
+	 * by the next call of <code>ensureRefreshedTypeHierarchy</code>.
+	 *
+	 * @since 3.16
+	 */
+	public void invalidateHierarchy() {
+		fHierarchyRefreshNeeded= true;
+		fireChange(null);
 	}
 
 	/*
@@ -361,11 +445,22 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	@Override
 	public void elementChanged(ElementChangedEvent event) {
-		if (fChangeListeners.isEmpty()) {
+		if (fHierarchyRefreshNeeded) {
 			return;
 		}
+		TypeHierarchyDeltaAnalyzer analyzer= fDeltaAnalyzer;
+		if (analyzer != null && (fHierarchyChangeReported || fAnalyzeAllDeltas)) {
+			fHierarchyChangeReported= false;
+			fAnalyzeAllDeltas= true;
+			if (analyzer.isStructuralChange(event.getDelta())) {
+				invalidateHierarchy();
+				return;
+			}
+		}
 
-		if (fHierarchyRefreshNeeded) {
+		if (fChangeListeners.isEmpty()) {
+			// members are not tracked without listeners
+			fMemberTable= null;
 			return;
 		} else {
 			ArrayList<IType> changedTypes= new ArrayList<>();
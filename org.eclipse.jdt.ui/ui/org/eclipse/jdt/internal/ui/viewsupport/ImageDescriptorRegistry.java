@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,12 +13,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.viewsupport;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.Assert;
@@ -27,12 +30,115 @@ import org.eclipse.jface.resource.ImageDescriptor;
 
 import org.eclipse.ui.PlatformUI;
 
+import org.eclipse.jdt.ui.JavaElementImageDescriptor;
+
 /**
  * A registry that maps <code>ImageDescriptors</code> to <code>Image</code>.
+ * <p>
+ * Images returned by {@link #get(ImageDescriptor)} live until the registry is disposed.
+ * Images returned by {@link #acquire(ImageDescriptor)} are reference counted: once all
+ * references have been released, the image is kept in a bounded pool of unreferenced
+ * images, and disposed when it is evicted from that pool.
+ * </p>
+ * <p>
+ * Clients with a life cycle, e.g. label providers, should get their images from an
+ * {@link Owner}, which releases them when the client is disposed. Otherwise the number
+ * of images held by the registry only grows.
+ * </p>
+ * <p>
+ * The registry can be accessed from any thread. Lookups of existing images do not lock.
+ * </p>
  */
 public class ImageDescriptorRegistry {
 
-	private Map<ImageDescriptor, Image> fRegistry= Collections.synchronizedMap(new HashMap<ImageDescriptor, Image>(10));
+	/** The maximal number of unreferenced images that are kept for reuse */
+	private static final int MAX_UNREFERENCED= 32;
+
+	private static final class Entry {
+		final Image fImage;
+		/** <code>true</code> if the image has been returned by {@link ImageDescriptorRegistry#get(ImageDescriptor)} */
+		volatile boolean fPinned;
+		/** The number of unreleased acquisitions, guarded by the pool of unreferenced images */
+		int fReferences;
+		/** <code>true</code> if the image has been evicted, guarded by the pool of unreferenced images */
+		boolean fDisposed;
+
+		Entry(Image image) {
+			fImage= image;
+		}
+	}
+
+	/**
+	 * The images used by one client of the registry, e.g. a label provider. The images
+	 * are acquired on first use and released together when the owner is disposed, so
+	 * that the images of disposed clients can be evicted.
+	 *
+	 * @since 3.16
+	 */
+	public final class Owner {
+
+		private final ConcurrentHashMap<ImageDescriptor, Image> fImages= new ConcurrentHashMap<>();
+
+		private Owner() {
+		}
+
+		/**
+		 * Returns the image associated with the given image descriptor. The image stays
+		 * valid until this owner is disposed.
+		 *
+		 * @param descriptor the image descriptor, or <code>null</code> for a missing image descriptor
+		 * @return the image associated with the image descriptor or <code>null</code>
+		 *  if the image descriptor can't create the requested image
+		 */
+		public Image get(ImageDescriptor descriptor) {
+			if (descriptor == null)
+				descriptor= ImageDescriptor.getMissingImageDescriptor();
+			Image image= fImages.get(descriptor);
+			if (image != null)
+				return image;
+			image= acquire(descriptor);
+			if (image == null)
+				return null;
+			Image existing= fImages.putIfAbsent(descriptor, image);
+			if (existing != null) {
+				// another thread has acquired the image in the meantime
+				release(descriptor);
+				return existing;
+			}
+			return image;
+		}
+
+		/**
+		 * Returns the image of a {@link JavaElementImageDescriptor} with the given base image,
+		 * adornments and size, like <code>get(new JavaElementImageDescriptor(baseImage, flags, size))</code>.
+		 *
+		 * @param baseImage the base image
+		 * @param flags the adornments, see {@link JavaElementImageDescriptor}
+		 * @param size the size of the image
+		 * @return the decorated image or <code>null</code> if it can't be created
+		 */
+		public Image getDecorated(ImageDescriptor baseImage, int flags, Point size) {
+			return get(new JavaElementImageDescriptor(baseImage, flags, size));
+		}
+
+		/**
+		 * Releases all images of this owner. The owner can still be used afterwards.
+		 */
+		public void dispose() {
+			for (Iterator<ImageDescriptor> iter= fImages.keySet().iterator(); iter.hasNext();) {
+				ImageDescriptor descriptor= iter.next();
+				iter.remove();
+				release(descriptor);
+			}
+		}
+	}
+
+	private final ConcurrentHashMap<ImageDescriptor, Entry> fRegistry= new ConcurrentHashMap<>(64);
+	/** The entries without references that have not been returned by {@link #get(ImageDescriptor)}, least recently released first */
+	private final LinkedHashMap<ImageDescriptor, Entry> fUnreferenced= new LinkedHashMap<>();
+	private final LongAdder fHits= new LongAdder();
+	private final LongAdder fMisses= new LongAdder();
+	private final AtomicInteger fImageCount= new AtomicInteger();
 	private Display fDisplay;
 
 	/**
@@ -56,26 +162,196 @@ public class ImageDescriptorRegistry {
 	public Image get(ImageDescriptor descriptor) {
 		if (descriptor == null)
 			descriptor= ImageDescriptor.getMissingImageDescriptor();
+		return getPinned(descriptor);
+	}
 
-		Image result= fRegistry.get(descriptor);
-		if (result != null)
-			return result;
+	/**
+	 * Returns the image of a {@link JavaElementImageDescriptor} with the given base image,
+	 * adornments and size, like <code>get(new JavaElementImageDescriptor(baseImage, flags, size))</code>.
+	 *
+	 * @param baseImage the base image
+	 * @param flags the adornments, see {@link JavaElementImageDescriptor}
+	 * @param size the size of the image
+	 * @return the decorated image or <code>null</code> if it can't be created
+	 * @since 3.16
+	 */
+	public Image getDecorated(ImageDescriptor baseImage, int flags, Point size) {
+		return getPinned(new JavaElementImageDescriptor(baseImage, flags, size));
+	}
 
-		result= descriptor.createImage();
-		if (result != null)
-			fRegistry.put(descriptor, result);
-		return result;
+	/**
+	 * Returns the image associated with the given image descriptor and adds a reference to it.
+	 * The reference must be released with {@link #release(ImageDescriptor)} when the image
+	 * is no longer used.
+	 *
+	 * @param descriptor the image descriptor, or <code>null</code> for a missing image descriptor
+	 * @return the image associated with the image descriptor or <code>null</code>
+	 *  if the image descriptor can't create the requested image, in which case no
+	 *  reference is added
+	 * @since 3.16
+	 */
+	public Image acquire(ImageDescriptor descriptor) {
+		if (descriptor == null)
+			descriptor= ImageDescriptor.getMissingImageDescriptor();
+		while (true) {
+			Entry entry= getEntry(descriptor);
+			if (entry == null)
+				return null;
+			synchronized (fUnreferenced) {
+				if (!entry.fDisposed) {
+					entry.fReferences++;
+					fUnreferenced.remove(descriptor);
+					return entry.fImage;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Releases a reference added by {@link #acquire(ImageDescriptor)}.
+	 *
+	 * @param descriptor the image descriptor, or <code>null</code> for a missing image descriptor
+	 * @since 3.16
+	 */
+	public void release(ImageDescriptor descriptor) {
+		if (descriptor == null)
+			descriptor= ImageDescriptor.getMissingImageDescriptor();
+		synchronized (fUnreferenced) {
+			Entry entry= fRegistry.get(descriptor);
+			if (entry == null || entry.fReferences == 0)
+				return;
+			if (--entry.fReferences == 0 && !entry.fPinned) {
+				fUnreferenced.put(descriptor, entry);
+				evict();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of lookups that found a registered image.
+	 *
+	 * @return the number of hits
+	 * @since 3.16
+	 */
+	public long getHitCount() {
+		return fHits.sum();
+	}
+
+	/**
+	 * Returns the number of lookups that had to create an image.
+	 *
+	 * @return the number of misses
+	 * @since 3.16
+	 */
+	public long getMissCount() {
+		return fMisses.sum();
+	}
+
+	/**
+	 * Returns the number of images that are currently held by this registry, i.e. the
+	 * number of SWT image handles that are disposed with the registry.
+	 *
+	 * @return the number of images
+	 * @since 3.16
+	 */
+	public int getImageCount() {
+		return fImageCount.get();
+	}
+
+	/**
+	 * Creates an owner which releases the images it has returned when it is disposed.
+	 *
+	 * @return the owner
+	 * @since 3.16
+	 */
+	public Owner createOwner() {
+		return new Owner();
 	}
 
 	/**
 	 * Disposes all images managed by this registry.
 	 */
 	public void dispose() {
-		for (Iterator<Image> iter= fRegistry.values().iterator(); iter.hasNext(); ) {
-			Image image= iter.next();
+		synchronized (fUnreferenced) {
+			for (Iterator<Entry> iter= fRegistry.values().iterator(); iter.hasNext(); ) {
+				Entry entry= iter.next();
+				entry.fDisposed= true;
+				entry.fImage.dispose();
+			}
+			fRegistry.clear();
+			fUnreferenced.clear();
+			fImageCount.set(0);
+		}
+	}
+
+	private Image getPinned(ImageDescriptor key) {
+		while (true) {
+			Entry entry= getEntry(key);
+			if (entry == null)
+				return null;
+			if (entry.fPinned)
+				return entry.fImage;
+			synchronized (fUnreferenced) {
+				if (!entry.fDisposed) {
+					entry.fPinned= true;
+					fUnreferenced.remove(key);
+					return entry.fImage;
+				}
+			}
+		}
+	}
+
+	private Entry getEntry(ImageDescriptor descriptor) {
+		Entry entry= fRegistry.get(descriptor);
+		if (entry != null) {
+			fHits.increment();
+			return entry;
+		}
+		fMisses.increment();
+
+		Image image= descriptor.createImage();
+		if (image == null)
+			return null;
+		Entry created= new Entry(image);
+		Entry existing= fRegistry.putIfAbsent(descriptor, created);
+		if (existing != null) {
+			// another thread has registered the image in the meantime
+			disposeImage(image);
+			return existing;
+		}
+		fImageCount.incrementAndGet();
+		return created;
+	}
+
+	/**
+	 * Disposes the least recently released unreferenced images beyond the limit.
+	 * Must be called while holding the lock of the pool of unreferenced images.
+	 */
+	private void evict() {
+		Iterator<Map.Entry<ImageDescriptor, Entry>> iter= fUnreferenced.entrySet().iterator();
+		while (fUnreferenced.size() > MAX_UNREFERENCED && iter.hasNext()) {
+			Map.Entry<ImageDescriptor, Entry> eldest= iter.next();
+			iter.remove();
+			Entry entry= eldest.getValue();
+			if (fRegistry.remove(eldest.getKey(), entry)) {
+				entry.fDisposed= true;
+				fImageCount.decrementAndGet();
+				disposeImage(entry.fImage);
+			}
+		}
+	}
+
+	private void disposeImage(final Image image) {
+		if (fDisplay.isDisposed() || Display.getCurrent() == fDisplay) {
 			image.dispose();
+		} else {
+			fDisplay.asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					image.dispose();
+				}
+			});
 		}
-		fRegistry.clear();
 	}
 
 	private void hookDisplay() {
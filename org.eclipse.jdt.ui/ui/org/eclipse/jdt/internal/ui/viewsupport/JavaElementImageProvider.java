@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -85,12 +85,13 @@ public class JavaElementImageProvider {
 		DESC_OBJ_PROJECT= 		 images.getImageDescriptor(IDE.SharedImages.IMG_OBJ_PROJECT);
 	}
 
-	private ImageDescriptorRegistry fRegistry;
+	/** The images returned by this provider, which are released when it is disposed */
+	private ImageDescriptorRegistry.Owner fImages;
 	
 	private boolean fDecorateTestCodeContainerIcons;
 
 	public JavaElementImageProvider() {
-		fRegistry= null; // lazy initialization
+		fImages= null; // lazy initialization
 		IPreferenceStore store= PreferenceConstants.getPreferenceStore();
 		fDecorateTestCodeContainerIcons= store.getBoolean(PreferenceConstants.DECORATE_TEST_CODE_CONTAINER_ICONS);
 	}
@@ -110,14 +111,14 @@ public class JavaElementImageProvider {
 	private Image getImageLabel(ImageDescriptor descriptor){
 		if (descriptor == null)
 			return null;
-		return getRegistry().get(descriptor);
+		return getImages().get(descriptor);
 	}
 
-	private ImageDescriptorRegistry getRegistry() {
-		if (fRegistry == null) {
-			fRegistry= JavaPlugin.getImageDescriptorRegistry();
+	private ImageDescriptorRegistry.Owner getImages() {
+		if (fImages == null) {
+			fImages= JavaPlugin.getImageDescriptorRegistry().createOwner();
 		}
-		return fRegistry;
+		return fImages;
 	}
 
 
@@ -383,6 +384,9 @@ public class JavaElementImageProvider {
 	}
 
 	public void dispose() {
+		if (fImages != null) {
+			fImages.dispose();
+		}
 	}
 
 	// ---- Methods to compute the adornments flags ---------------------------------
@@ -527,7 +531,7 @@ public class JavaElementImageProvider {
 
 
 	public static Image getDecoratedImage(ImageDescriptor baseImage, int adornments, Point size) {
-		return JavaPlugin.getImageDescriptorRegistry().get(new JavaElementImageDescriptor(baseImage, adornments, size));
+		return JavaPlugin.getImageDescriptorRegistry().getDecorated(baseImage, adornments, size);
 	}
 
 
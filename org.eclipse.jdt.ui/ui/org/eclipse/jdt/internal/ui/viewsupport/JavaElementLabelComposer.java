@@ -103,6 +103,113 @@ public class JavaElementLabelComposer extends JavaElementLabelComposerCore {
 	}
 
 
+	/**
+	 * A buffer backed by a {@link StringBuilder}, for labels that are composed by a single thread.
+	 *
+	 * @since 3.16
+	 */
+	public static class FlexibleStringBuilder extends FlexibleBuffer {
+		private final StringBuilder fStringBuilder;
+
+		public FlexibleStringBuilder(StringBuilder stringBuilder) {
+			fStringBuilder= stringBuilder;
+		}
+
+		@Override
+		public FlexibleBuffer append(char ch) {
+			fStringBuilder.append(ch);
+			return this;
+		}
+
+		@Override
+		public FlexibleBuffer append(String string) {
+			fStringBuilder.append(string);
+			return this;
+		}
+
+		@Override
+		public int length() {
+			return fStringBuilder.length();
+		}
+
+		@Override
+		public String toString() {
+			return fStringBuilder.toString();
+		}
+
+		@Override
+		public void setStyle(int offset, int length, Styler styler) {
+			// no style
+		}
+	}
+
+	/**
+	 * A buffer that records the styles set on a label, so that the composed label can be kept
+	 * and turned into new {@link StyledString}s without composing it again. The buffer must not
+	 * be modified once {@link #toStyledString()} has been called.
+	 *
+	 * @since 3.16
+	 */
+	public static class FlexibleStyleRecorder extends FlexibleBuffer {
+		private final StringBuilder fStringBuilder= new StringBuilder();
+		private final ArrayList<Styler> fStylers= new ArrayList<>(2);
+		private int[] fRanges= new int[4];
+		private String fString;
+
+		@Override
+		public FlexibleBuffer append(char ch) {
+			fStringBuilder.append(ch);
+			return this;
+		}
+
+		@Override
+		public FlexibleBuffer append(String string) {
+			fStringBuilder.append(string);
+			return this;
+		}
+
+		@Override
+		public int length() {
+			return fStringBuilder.length();
+		}
+
+		@Override
+		public void setStyle(int offset, int length, Styler styler) {
+			int index= fStylers.size() * 2;
+			if (index == fRanges.length) {
+				int[] ranges= new int[index * 2];
+				System.arraycopy(fRanges, 0, ranges, 0, index);
+				fRanges= ranges;
+			}
+			fRanges[index]= offset;
+			fRanges[index + 1]= length;
+			fStylers.add(styler);
+		}
+
+		/**
+		 * Creates a new styled string with the recorded label and styles.
+		 *
+		 * @return the styled string
+		 */
+		public StyledString toStyledString() {
+			String string;
+			synchronized (this) {
+				if (fString == null)
+					fString= fStringBuilder.toString();
+				string= fString;
+			}
+			StyledString result= new StyledString(string);
+			for (int i= 0; i < fStylers.size(); i++)
+				result.setStyle(fRanges[i * 2], fRanges[i * 2 + 1], fStylers.get(i));
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return fStringBuilder.toString();
+		}
+	}
+
 	public static class FlexibleStyledString extends FlexibleBuffer {
 		private final StyledString fStyledString;
 
@@ -213,6 +320,16 @@ public class JavaElementLabelComposer extends JavaElementLabelComposerCore {
 		this(new FlexibleStringBuffer(buffer));
 	}
 
+	/**
+	 * Creates a new java element composer based on the given builder.
+	 *
+	 * @param builder the string builder
+	 * @since 3.16
+	 */
+	public JavaElementLabelComposer(StringBuilder builder) {
+		this(new FlexibleStringBuilder(builder));
+	}
+
 
 
 	@Override
@@ -50,6 +50,7 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.internal.corext.util.JdtFlags;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.packageview.ChildrenPage;
 import org.eclipse.jdt.internal.ui.packageview.PackageFragmentRootContainer;
 import org.eclipse.jdt.internal.ui.preferences.MembersOrderPreferenceCache;
 
@@ -200,6 +201,10 @@ public class JavaElementComparator extends ViewerComparator {
 
 	@Override
 	public int compare(Viewer viewer, Object e1, Object e2) {
+		if (e1 instanceof ChildrenPage && e2 instanceof ChildrenPage) {
+			return ((ChildrenPage) e1).getIndex() - ((ChildrenPage) e2).getIndex();
+		}
+
 		int cat1= category(e1);
 		int cat2= category(e2);
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -205,7 +205,7 @@ public class JavaElementImageDescriptor extends CompositeImageDescriptor {
 
 	@Override
 	public int hashCode() {
-		return fBaseImage.hashCode() | fFlags | fSize.hashCode();
+		return (fBaseImage.hashCode() * 31 + fFlags) * 31 + fSize.hashCode();
 	}
 
 	@Override
@@ -22,6 +22,8 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IStorage;
 
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.jface.viewers.StyledString.Styler;
 
@@ -44,6 +46,8 @@ import org.eclipse.jdt.core.ITypeParameter;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 
+import org.eclipse.jdt.internal.core.manipulation.JavaElementLabelCache;
+import org.eclipse.jdt.internal.core.manipulation.JavaElementLabelComposerCore;
 import org.eclipse.jdt.internal.core.manipulation.JavaElementLabelsCore;
 import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
 import org.eclipse.jdt.internal.corext.util.Strings;
@@ -52,6 +56,7 @@ import org.eclipse.jdt.launching.JavaRuntime;
 
 import org.eclipse.jdt.internal.ui.packageview.ClassPathContainer;
 import org.eclipse.jdt.internal.ui.viewsupport.JavaElementLabelComposer;
+import org.eclipse.jdt.internal.ui.viewsupport.JavaElementLabelComposer.FlexibleStyleRecorder;
 
 
 /**
@@ -385,6 +390,27 @@ public class JavaElementLabels {
 	private JavaElementLabels() {
 	}
 
+	/**
+	 * The caches of the labels returned by {@link JavaElementLabels#getElementLabel(IJavaElement, long)}
+	 * and {@link JavaElementLabels#getStyledElementLabel(IJavaElement, long)}. The labels of changed Java
+	 * elements are removed, and all labels are removed when the preferences change.
+	 */
+	private static class LabelCaches {
+		static final JavaElementLabelCache<String> TEXT_LABELS= new JavaElementLabelCache<>();
+		static final JavaElementLabelCache<FlexibleStyleRecorder> STYLED_LABELS= new JavaElementLabelCache<>();
+
+		static {
+			// package name compression and abbreviation are configured in the preferences
+			PreferenceConstants.getPreferenceStore().addPropertyChangeListener(new IPropertyChangeListener() {
+				@Override
+				public void propertyChange(PropertyChangeEvent event) {
+					TEXT_LABELS.clear();
+					STYLED_LABELS.clear();
+				}
+			});
+		}
+	}
+
 	/**
 	 * Returns the label of the given object. The object must be of type {@link IJavaElement} or adapt to {@link IWorkbenchAdapter}.
 	 * If the element type is not known, the empty string is returned.
@@ -491,9 +517,28 @@ public class JavaElementLabels {
 	 * @return the label of the Java element
 	 */
 	public static String getElementLabel(IJavaElement element, long flags) {
-		StringBuffer result= new StringBuffer();
-		getElementLabel(element, flags, result);
-		return org.eclipse.jdt.internal.core.manipulation.util.Strings.markJavaElementLabelLTR(result.toString());
+		boolean cacheable= JavaElementLabelCache.isCacheable(element);
+		JavaElementLabelCache<String> cache= null;
+		int generation= 0;
+		if (cacheable) {
+			cache= LabelCaches.TEXT_LABELS;
+			generation= cache.getGeneration();
+			String label= cache.get(element, flags);
+			if (label != null)
+				return label;
+		}
+
+		StringBuilder builder= JavaElementLabelComposerCore.acquireBuilder();
+		String label;
+		try {
+			new JavaElementLabelComposer(builder).appendElementLabel(element, flags);
+			label= org.eclipse.jdt.internal.core.manipulation.util.Strings.markJavaElementLabelLTR(builder.toString());
+		} finally {
+			JavaElementLabelComposerCore.releaseBuilder(builder);
+		}
+		if (cacheable)
+			cache.put(element, flags, label, generation);
+		return label;
 	}
 
 	/**
@@ -506,9 +551,21 @@ public class JavaElementLabels {
 	 * @since 3.4
 	 */
 	public static StyledString getStyledElementLabel(IJavaElement element, long flags) {
-		StyledString result= new StyledString();
-		getElementLabel(element, flags, result);
-		return Strings.markJavaElementLabelLTR(result);
+		if (!JavaElementLabelCache.isCacheable(element)) {
+			StyledString result= new StyledString();
+			getElementLabel(element, flags, result);
+			return Strings.markJavaElementLabelLTR(result);
+		}
+
+		JavaElementLabelCache<FlexibleStyleRecorder> cache= LabelCaches.STYLED_LABELS;
+		int generation= cache.getGeneration();
+		FlexibleStyleRecorder label= cache.get(element, flags);
+		if (label == null) {
+			label= new FlexibleStyleRecorder();
+			new JavaElementLabelComposer(label).appendElementLabel(element, flags);
+			cache.put(element, flags, label, generation);
+		}
+		return Strings.markJavaElementLabelLTR(label.toStyledString());
 	}
 
 	/**
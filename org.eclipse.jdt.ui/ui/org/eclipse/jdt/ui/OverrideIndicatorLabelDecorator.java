@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -62,6 +62,7 @@ import org.eclipse.jdt.internal.ui.viewsupport.ImageImageDescriptor;
 public class OverrideIndicatorLabelDecorator implements ILabelDecorator, ILightweightLabelDecorator {
 
 	private ImageDescriptorRegistry fRegistry;
+	private ImageDescriptorRegistry.Owner fImages;
 	private boolean fUseNewRegistry= false;
 
 	/**
@@ -96,6 +97,13 @@ public class OverrideIndicatorLabelDecorator implements ILabelDecorator, ILightw
 		return fRegistry;
 	}
 
+	private ImageDescriptorRegistry.Owner getImages() {
+		if (fImages == null) {
+			fImages= getRegistry().createOwner();
+		}
+		return fImages;
+	}
+
 
 	@Override
 	public String decorateText(String text, Object element) {
@@ -111,7 +119,7 @@ public class OverrideIndicatorLabelDecorator implements ILabelDecorator, ILightw
 		if (adornmentFlags != 0) {
 			ImageDescriptor baseImage= new ImageImageDescriptor(image);
 			Rectangle bounds= image.getBounds();
-			return getRegistry().get(new JavaElementImageDescriptor(baseImage, adornmentFlags, new Point(bounds.width, bounds.height)));
+			return getImages().getDecorated(baseImage, adornmentFlags, new Point(bounds.width, bounds.height));
 		}
 		return image;
 	}
@@ -245,6 +253,10 @@ public class OverrideIndicatorLabelDecorator implements ILabelDecorator, ILightw
 
 	@Override
 	public void dispose() {
+		if (fImages != null) {
+			fImages.dispose();
+			fImages= null;
+		}
 		if (fRegistry != null && fUseNewRegistry) {
 			fRegistry.dispose();
 		}
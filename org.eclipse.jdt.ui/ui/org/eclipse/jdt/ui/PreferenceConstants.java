@@ -3267,6 +3267,17 @@ public class PreferenceConstants {
 	 */
 	public static final String SEARCH_USE_REDUCED_MENU= "Search.usereducemenu"; //$NON-NLS-1$
 
+	/**
+	 * A named preference that controls whether Java searches over several projects search the
+	 * projects and libraries concurrently. Query participants which are declared thread-safe run
+	 * concurrently as well, all other participants run one after the other.
+	 * <p>
+	 * Value is of type <code>Boolean</code>.
+	 * </p>
+	 * @since 3.16
+	 */
+	public static final String SEARCH_IN_PARALLEL= "Search.inParallel"; //$NON-NLS-1$
+
 	/**
 	 * A named preference that controls if the Java Browsing views are linked to the active editor.
 	 * <p>
@@ -3816,6 +3827,7 @@ public class PreferenceConstants {
 		store.setDefault(PreferenceConstants.LINK_BROWSING_MEMBERS_TO_EDITOR, true);
 
 		store.setDefault(PreferenceConstants.SEARCH_USE_REDUCED_MENU, true);
+		store.setDefault(PreferenceConstants.SEARCH_IN_PARALLEL, true);
 
 		// AppearancePreferencePage
 		store.setDefault(PreferenceConstants.APPEARANCE_COMPRESS_PACKAGE_NAMES, false);
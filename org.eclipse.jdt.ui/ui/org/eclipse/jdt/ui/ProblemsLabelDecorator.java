@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -123,6 +123,7 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 	private static final int ERRORTICK_INFO= JavaElementImageDescriptor.INFO;
 
 	private ImageDescriptorRegistry fRegistry;
+	private ImageDescriptorRegistry.Owner fImages;
 	private boolean fUseNewRegistry= false;
 	private IProblemChangedListener fProblemChangedListener;
 
@@ -156,6 +157,13 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 		return fRegistry;
 	}
 
+	private ImageDescriptorRegistry.Owner getImages() {
+		if (fImages == null) {
+			fImages= getRegistry().createOwner();
+		}
+		return fImages;
+	}
+
 
 	@Override
 	public String decorateText(String text, Object element) {
@@ -171,7 +179,7 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 		if (adornmentFlags != 0) {
 			ImageDescriptor baseImage= new ImageImageDescriptor(image);
 			Rectangle bounds= image.getBounds();
-			return getRegistry().get(new JavaElementImageDescriptor(baseImage, adornmentFlags, new Point(bounds.width, bounds.height)));
+			return getImages().getDecorated(baseImage, adornmentFlags, new Point(bounds.width, bounds.height));
 		}
 		return image;
 	}
@@ -454,6 +462,10 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 			JavaPlugin.getDefault().getProblemMarkerManager().removeListener(fProblemChangedListener);
 			fProblemChangedListener= null;
 		}
+		if (fImages != null) {
+			fImages.dispose();
+			fImages= null;
+		}
 		if (fRegistry != null && fUseNewRegistry) {
 			fRegistry.dispose();
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2012 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.jdt.ui.text.java;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITextViewer;
 
 import org.eclipse.ui.IEditorPart;
@@ -85,6 +86,21 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 		fEditor= null;
 	}
 
+	/**
+	 * Creates a new context for the given document and offset, without a viewer or editor.
+	 *
+	 * @param document the document that content assist is invoked in
+	 * @param offset the offset into the document where content assist is invoked at
+	 * @param unit the compilation unit in <code>document</code>, or <code>null</code> if none
+	 * @since 3.16
+	 */
+	public JavaContentAssistInvocationContext(IDocument document, int offset, ICompilationUnit unit) {
+		super(document, offset);
+		fCU= unit;
+		fCUComputed= true;
+		fEditor= null;
+	}
+
 	/**
 	 * Creates a new context.
 	 * 
@@ -27,6 +27,9 @@ public class AllTests {
 		TestSuite suite= new TestSuite(AllTests.class.getName());
 		
 		suite.addTestSuite(RefactoringContextTest.class);
+		suite.addTestSuite(TextChangePreviewTest.class);
+		suite.addTestSuite(CompactUndoEditTest.class);
+		suite.addTestSuite(CompositeChangeTest.class);
 		
 		suite.addTest(ParticipantTests.suite());
 		suite.addTest(RefactoringHistoryTests.suite());
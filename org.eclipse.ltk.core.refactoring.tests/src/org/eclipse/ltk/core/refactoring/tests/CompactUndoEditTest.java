@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MoveSourceEdit;
+import org.eclipse.text.edits.MoveTargetEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.UndoEdit;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.ltk.internal.core.refactoring.CompactUndoEdit;
+
+public class CompactUndoEditTest extends TestCase {
+
+	private static final String CONTENT= "class A { int field; void method() { field= 1; } }";
+
+	private static UndoEdit perform(IDocument document, TextEdit[] edits) throws Exception {
+		MultiTextEdit root= new MultiTextEdit();
+		for (int i= 0; i < edits.length; i++)
+			root.addChild(edits[i]);
+		return root.apply(document, TextEdit.CREATE_UNDO);
+	}
+
+	public void testReplaceInsertDelete() throws Exception {
+		IDocument document= new Document(CONTENT);
+		UndoEdit undo= perform(document, new TextEdit[] {
+				new ReplaceEdit(CONTENT.indexOf("A"), 1, "Renamed"),
+				new InsertEdit(CONTENT.indexOf("int"), "private "),
+				new DeleteEdit(CONTENT.indexOf("void"), 5),
+				new ReplaceEdit(CONTENT.indexOf("field="), 5, "value"),
+				new ReplaceEdit(CONTENT.indexOf("field;"), 5, "value") });
+		String modified= document.get();
+
+		long retained= CompactUndoEdit.getRetainedMemory();
+		CompactUndoEdit compact= CompactUndoEdit.create(undo);
+		assertNotNull(compact);
+		assertTrue(CompactUndoEdit.getRetainedMemory() > retained);
+
+		UndoEdit redo= compact.createEdit().apply(document, TextEdit.CREATE_UNDO);
+		assertEquals(CONTENT, document.get());
+
+		CompactUndoEdit compactRedo= CompactUndoEdit.create(redo);
+		assertNotNull(compactRedo);
+		compactRedo.createEdit().apply(document);
+		assertEquals(modified, document.get());
+
+		compact.dispose();
+		compactRedo.dispose();
+		compact.dispose();
+		assertEquals(retained, CompactUndoEdit.getRetainedMemory());
+	}
+
+	public void testAdjacentReplaceEdits() throws Exception {
+		IDocument document= new Document("abcdef");
+		UndoEdit undo= perform(document, new TextEdit[] {
+				new ReplaceEdit(0, 2, "Q"),
+				new ReplaceEdit(2, 2, "XYZ") });
+		assertEquals("QXYZef", document.get());
+
+		CompactUndoEdit compact= CompactUndoEdit.create(undo);
+		assertNotNull(compact);
+		compact.createEdit().apply(document);
+		compact.dispose();
+		assertEquals("abcdef", document.get());
+	}
+
+	public void testAdjacentInsertIsNotCompacted() throws Exception {
+		IDocument document= new Document("abcdef");
+		UndoEdit undo= perform(document, new TextEdit[] {
+				new DeleteEdit(0, 2),
+				new ReplaceEdit(2, 2, "XYZ"),
+				new InsertEdit(4, "-") });
+		assertEquals("XYZ-ef", document.get());
+
+		// the undo of the delete is an insert at the offset of the next edit
+		assertNull(CompactUndoEdit.create(undo));
+		undo.apply(document);
+		assertEquals("abcdef", document.get());
+	}
+
+	public void testMove() throws Exception {
+		IDocument document= new Document(CONTENT);
+		int offset= CONTENT.indexOf("int field;");
+		MoveSourceEdit source= new MoveSourceEdit(offset, 10);
+		MoveTargetEdit target= new MoveTargetEdit(CONTENT.length() - 1, source);
+		UndoEdit undo= perform(document, new TextEdit[] { source, target });
+		assertEquals("class A {  void method() { field= 1; } int field;}", document.get());
+
+		// the undo of a move is a delete and an insert, which do not overlap
+		CompactUndoEdit compact= CompactUndoEdit.create(undo);
+		assertNotNull(compact);
+		compact.createEdit().apply(document);
+		compact.dispose();
+		assertEquals(CONTENT, document.get());
+	}
+
+	public void testLargeTextsAreSpilled() throws Exception {
+		StringBuilder buffer= new StringBuilder();
+		while (buffer.length() <= 200 * 1024)
+			buffer.append(CONTENT).append('\n');
+		String content= buffer.toString();
+		IDocument document= new Document(content);
+		UndoEdit undo= perform(document, new TextEdit[] {
+				new ReplaceEdit(0, 5, "interface"),
+				new DeleteEdit(CONTENT.length(), content.length() - CONTENT.length()) });
+		assertEquals("interface A { int field; void method() { field= 1; } }", document.get());
+
+		long retained= CompactUndoEdit.getRetainedMemory();
+		long spilled= CompactUndoEdit.getSpilledSize();
+		CompactUndoEdit compact= CompactUndoEdit.create(undo);
+		assertNotNull(compact);
+		assertTrue(CompactUndoEdit.getSpilledSize() > spilled);
+		assertTrue(CompactUndoEdit.getRetainedMemory() - retained < 1024);
+
+		compact.createEdit().apply(document);
+		assertEquals(content, document.get());
+
+		compact.dispose();
+		assertEquals(spilled, CompactUndoEdit.getSpilledSize());
+		assertEquals(retained, CompactUndoEdit.getRetainedMemory());
+		try {
+			compact.createEdit();
+			fail();
+		} catch (CoreException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.text.edits.ReplaceEdit;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.NullChange;
+import org.eclipse.ltk.core.refactoring.TextFileChange;
+import org.eclipse.ltk.core.refactoring.tests.util.SimpleTestProject;
+
+public class CompositeChangeTest extends TestCase {
+
+	private SimpleTestProject fProject;
+
+	@Override
+	protected void setUp() throws Exception {
+		fProject= new SimpleTestProject();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fProject.delete();
+	}
+
+	private IFile[] createFiles(int count) throws CoreException {
+		IFile[] files= new IFile[count];
+		for (int i= 0; i < count; i++)
+			files[i]= fProject.createFile(fProject.getProject(), "file" + i + ".txt", "content of file " + i);
+		return files;
+	}
+
+	private static TextFileChange createChange(IFile file, int offset, int length, String text) {
+		TextFileChange change= new TextFileChange(file.getName(), file);
+		change.setEdit(new ReplaceEdit(offset, length, text));
+		change.initializeValidationData(new NullProgressMonitor());
+		return change;
+	}
+
+	private void assertContents(IFile[] files, String[] expected) throws Exception {
+		for (int i= 0; i < files.length; i++)
+			assertEquals(expected[i], fProject.getContent(files[i]));
+	}
+
+	public void testBatchedTextFileChanges() throws Exception {
+		IFile[] files= createFiles(5);
+		CompositeChange composite= new CompositeChange("composite");
+		String[] original= new String[files.length];
+		String[] modified= new String[files.length];
+		for (int i= 0; i < files.length; i++) {
+			original[i]= "content of file " + i;
+			modified[i]= "changed of file " + i;
+			composite.add(createChange(files[i], 0, 7, "changed"));
+			if (i == 2)
+				composite.add(new NullChange("in between"));
+		}
+
+		Change undo= composite.perform(new NullProgressMonitor());
+		assertContents(files, modified);
+		assertEquals(0, composite.getChildren().length);
+
+		assertNotNull(undo);
+		undo.initializeValidationData(new NullProgressMonitor());
+		Change redo= undo.perform(new NullProgressMonitor());
+		assertContents(files, original);
+
+		redo.initializeValidationData(new NullProgressMonitor());
+		redo.perform(new NullProgressMonitor());
+		assertContents(files, modified);
+	}
+
+	public void testFailingChangeInBatch() throws Exception {
+		IFile[] files= createFiles(4);
+		CompositeChange composite= new CompositeChange("composite");
+		composite.add(createChange(files[0], 0, 7, "changed"));
+		composite.add(createChange(files[1], 0, 7, "changed"));
+		composite.add(createChange(files[2], 1000, 7, "changed"));
+		composite.add(createChange(files[3], 0, 7, "changed"));
+
+		try {
+			composite.perform(new NullProgressMonitor());
+			fail("change on invalid region performed");
+		} catch (CoreException e) {
+			// expected
+		}
+		assertContents(files, new String[] { "changed of file 0", "changed of file 1", "content of file 2", "content of file 3" });
+		assertEquals(2, composite.getChildren().length);
+
+		Change undo= composite.getUndoUntilException();
+		assertNotNull(undo);
+		undo.initializeValidationData(new NullProgressMonitor());
+		undo.perform(new NullProgressMonitor());
+		assertContents(files, new String[] { "content of file 0", "content of file 1", "content of file 2", "content of file 3" });
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.TextEditGroup;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IRegion;
+
+import org.eclipse.ltk.core.refactoring.DocumentChange;
+import org.eclipse.ltk.core.refactoring.TextEditChangeGroup;
+
+public class TextChangePreviewTest extends TestCase {
+
+	private static final String CONTENT= "line0\nline1\nline2\nline3\nline4\nline5\nline6\nline7\nline8\nline9";
+
+	private DocumentChange fChange;
+	private TextEditChangeGroup fReplaceGroup;
+	private TextEditChangeGroup fInsertGroup;
+	private TextEditChangeGroup fDeleteGroup;
+
+	@Override
+	protected void setUp() throws Exception {
+		fChange= new DocumentChange("preview", new Document(CONTENT));
+		fChange.setEdit(new MultiTextEdit());
+		fReplaceGroup= addGroup("replace", new ReplaceEdit(CONTENT.indexOf("line3"), 5, "LINE_THREE"));
+		fInsertGroup= addGroup("insert", new InsertEdit(CONTENT.indexOf("line7"), "new\n"));
+		fDeleteGroup= addGroup("delete", new DeleteEdit(CONTENT.indexOf("line9") + 4, 1));
+	}
+
+	private TextEditChangeGroup addGroup(String name, TextEdit edit) {
+		fChange.addEdit(edit);
+		TextEditChangeGroup group= new TextEditChangeGroup(fChange, new TextEditGroup(name, edit));
+		fChange.addTextEditChangeGroup(group);
+		return group;
+	}
+
+	private String getPreview(TextEditChangeGroup group, int surroundingLines, boolean fullPreview) throws Exception {
+		fChange.setKeepPreviewEdits(fullPreview);
+		try {
+			IRegion region= group.getRegion();
+			return fChange.getPreviewContent(new TextEditChangeGroup[] { group }, region, true, surroundingLines, null);
+		} finally {
+			fChange.setKeepPreviewEdits(false);
+		}
+	}
+
+	private void assertPreview(String expected, TextEditChangeGroup group, int surroundingLines) throws Exception {
+		assertEquals(expected, getPreview(group, surroundingLines, false));
+		assertEquals(expected, getPreview(group, surroundingLines, true));
+	}
+
+	public void testReplace() throws Exception {
+		assertPreview("line1\nline2\nLINE_THREE\nline4\nline5", fReplaceGroup, 2);
+		assertPreview("LINE_THREE", fReplaceGroup, 0);
+	}
+
+	public void testInsert() throws Exception {
+		assertPreview("line5\nline6\nnew\nline7\nline8", fInsertGroup, 2);
+		assertPreview("new", fInsertGroup, 0);
+	}
+
+	public void testDeleteAtEnd() throws Exception {
+		assertPreview("line8\nline", fDeleteGroup, 1);
+	}
+
+	public void testOtherGroupsAreNotApplied() throws Exception {
+		fReplaceGroup.setEnabled(false);
+		assertPreview("line5\nline6\nnew\nline7\nline8", fInsertGroup, 2);
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.history;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.NullChange;
+import org.eclipse.ltk.core.refactoring.Refactoring;
+import org.eclipse.ltk.core.refactoring.RefactoringContribution;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptor;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+
+/**
+ * A contribution declared thread-safe whose refactorings only pass their
+ * condition check if the expected number of them check their conditions at the
+ * same time, and which may run a workspace operation while checking them.
+ */
+public class ConcurrentMockRefactoringContribution extends RefactoringContribution {
+
+	public static final String ID= "org.eclipse.ltk.core.mock.concurrent";
+
+	static CountDownLatch fgLatch;
+
+	static boolean fgAcquireRule;
+
+	public static class ConcurrentMockDescriptor extends RefactoringDescriptor {
+
+		public ConcurrentMockDescriptor(String project, String description) {
+			super(ID, project, description, null, RefactoringDescriptor.NONE);
+		}
+
+		@Override
+		public Refactoring createRefactoring(RefactoringStatus status) throws CoreException {
+			return new ConcurrentMockRefactoring(getDescription());
+		}
+	}
+
+	public static class ConcurrentMockRefactoring extends Refactoring {
+
+		private final String fName;
+
+		public ConcurrentMockRefactoring(String name) {
+			fName= name;
+		}
+
+		@Override
+		public String getName() {
+			return fName;
+		}
+
+		@Override
+		public RefactoringStatus checkInitialConditions(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+			if (fgAcquireRule)
+				ResourcesPlugin.getWorkspace().run(monitor -> {
+					// only acquires the workspace rule
+				}, pm);
+			CountDownLatch latch= fgLatch;
+			if (latch != null) {
+				latch.countDown();
+				try {
+					if (!latch.await(10, TimeUnit.SECONDS))
+						return RefactoringStatus.createErrorStatus("conditions not checked concurrently");
+				} catch (InterruptedException e) {
+					return RefactoringStatus.createErrorStatus("interrupted");
+				}
+			}
+			return RefactoringStatus.createWarningStatus(Thread.currentThread().getName());
+		}
+
+		@Override
+		public RefactoringStatus checkFinalConditions(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+			return new RefactoringStatus();
+		}
+
+		@Override
+		public Change createChange(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+			return new NullChange(fName);
+		}
+	}
+
+	@Override
+	public RefactoringDescriptor createDescriptor(String id, String project, String description, String comment, Map<String, String> arguments, int flags) {
+		return new ConcurrentMockDescriptor(project, description);
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.history;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.ltk.core.refactoring.PerformRefactoringHistoryOperation;
+import org.eclipse.ltk.core.refactoring.Refactoring;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptor;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.RefactoringStatusEntry;
+import org.eclipse.ltk.core.refactoring.tests.history.ConcurrentMockRefactoringContribution.ConcurrentMockDescriptor;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringDescriptorProxyAdapter;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryImplementation;
+
+public class PerformRefactoringHistoryOperationTests extends TestCase {
+
+	private IProject fProject1;
+	private IProject fProject2;
+
+	@Override
+	protected void setUp() throws Exception {
+		IWorkspaceRoot root= ResourcesPlugin.getWorkspace().getRoot();
+		fProject1= root.getProject("HistoryProject1");
+		fProject1.create(null);
+		fProject1.open(null);
+		fProject2= root.getProject("HistoryProject2");
+		fProject2.create(null);
+		fProject2.open(null);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		ConcurrentMockRefactoringContribution.fgLatch= null;
+		ConcurrentMockRefactoringContribution.fgAcquireRule= false;
+		fProject2.delete(IResource.ALWAYS_DELETE_PROJECT_CONTENT | IResource.FORCE, null);
+		fProject1.delete(IResource.ALWAYS_DELETE_PROJECT_CONTENT | IResource.FORCE, null);
+	}
+
+	private RefactoringHistoryImplementation createHistory() {
+		RefactoringDescriptorProxyAdapter[] proxies= new RefactoringDescriptorProxyAdapter[] {
+				new RefactoringDescriptorProxyAdapter(new ConcurrentMockDescriptor(fProject1.getName(), "first")),
+				new RefactoringDescriptorProxyAdapter(new ConcurrentMockDescriptor(fProject2.getName(), "second"))
+		};
+		return new RefactoringHistoryImplementation(proxies);
+	}
+
+	private RefactoringStatus performHistory() throws CoreException {
+		PerformRefactoringHistoryOperation operation= new PerformRefactoringHistoryOperation(createHistory());
+		ResourcesPlugin.getWorkspace().run(operation, null);
+		return operation.getExecutionStatus();
+	}
+
+	public void testIndependentProjectsAreCheckedConcurrently() throws Exception {
+		ConcurrentMockRefactoringContribution.fgLatch= new CountDownLatch(2);
+
+		RefactoringStatus status= performHistory();
+
+		assertFalse(status.toString(), status.hasError());
+		RefactoringStatusEntry[] entries= status.getEntries();
+		assertEquals(2, entries.length);
+		String thread= Thread.currentThread().getName();
+		assertFalse(thread.equals(entries[0].getMessage()));
+		assertFalse(thread.equals(entries[1].getMessage()));
+	}
+
+	public void testDependentProjectsAreCheckedSequentially() throws Exception {
+		IProjectDescription description= fProject2.getDescription();
+		description.setReferencedProjects(new IProject[] { fProject1 });
+		fProject2.setDescription(description, null);
+
+		RefactoringStatus status= performHistory();
+
+		assertFalse(status.toString(), status.hasError());
+		RefactoringStatusEntry[] entries= status.getEntries();
+		assertEquals(2, entries.length);
+		String thread= Thread.currentThread().getName();
+		assertEquals(thread, entries[0].getMessage());
+		assertEquals(thread, entries[1].getMessage());
+	}
+
+	public void testConcurrentCheckMustNotAcquireRule() throws Exception {
+		ConcurrentMockRefactoringContribution.fgAcquireRule= true;
+
+		try {
+			performHistory();
+			fail("acquiring a rule while the history is performed must fail");
+		} catch (IllegalArgumentException e) {
+			// expected, instead of a deadlock
+		}
+	}
+
+	public void testAboutToPerformIsCalledBeforeEachRefactoring() throws Exception {
+		final List<String> events= new ArrayList<>();
+		PerformRefactoringHistoryOperation operation= new PerformRefactoringHistoryOperation(createHistory()) {
+
+			@Override
+			protected RefactoringStatus aboutToPerformRefactoring(Refactoring refactoring, RefactoringDescriptor descriptor, IProgressMonitor monitor) {
+				events.add("about " + refactoring.getName());
+				return super.aboutToPerformRefactoring(refactoring, descriptor, monitor);
+			}
+
+			@Override
+			protected void refactoringPerformed(Refactoring refactoring, IProgressMonitor monitor) {
+				events.add("performed " + refactoring.getName());
+				super.refactoringPerformed(refactoring, monitor);
+			}
+		};
+		ResourcesPlugin.getWorkspace().run(operation, null);
+
+		assertFalse(operation.getExecutionStatus().toString(), operation.getExecutionStatus().hasError());
+		assertEquals(Arrays.asList("about first", "performed first", "about second", "performed second"), events);
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.RefactoringStatusEntry;
+import org.eclipse.ltk.core.refactoring.tests.util.SimpleTestProject;
+
+public class ConcurrentParticipantTests extends TestCase {
+
+	public void testThreadSafeParticipantsCheckConcurrently() throws Exception {
+		ConcurrentParticipant.fgLatch= new CountDownLatch(2);
+		ElementRenameRefactoring refactoring= new ElementRenameRefactoring(ElementRenameRefactoring.CONCURRENT);
+
+		RefactoringStatus status= refactoring.checkAllConditions(new NullProgressMonitor());
+
+		assertFalse(status.toString(), status.hasError());
+		RefactoringStatusEntry[] entries= status.getEntries();
+		assertEquals(2, entries.length);
+		String thread= Thread.currentThread().getName();
+		assertFalse(thread.equals(entries[0].getMessage()) && thread.equals(entries[1].getMessage()));
+	}
+
+	public void testThreadSafeParticipantsShareResourceChangeChecker() throws Exception {
+		SimpleTestProject project= new SimpleTestProject();
+		try {
+			IFile[] files= new IFile[200];
+			for (int i= 0; i < files.length; i++) {
+				IFolder folder= project.getProject().getFolder("folder" + (i % 10));
+				if (!folder.exists())
+					folder.create(true, true, null);
+				files[i]= project.createFile(folder, "file" + i + ".txt", "content");
+			}
+			ResourceChangeParticipant.fgFiles= files;
+			ResourceChangeParticipant.fgNextIndex= new AtomicInteger();
+			ResourceChangeParticipant.fgLatch= new CountDownLatch(ResourceChangeParticipant.INSTANCES);
+			ElementRenameRefactoring refactoring= new ElementRenameRefactoring(ElementRenameRefactoring.RESOURCE_CHANGES);
+
+			RefactoringStatus status= refactoring.checkAllConditions(new NullProgressMonitor());
+
+			assertFalse(status.toString(), status.hasError());
+			final Set<IResource> changed= new HashSet<>();
+			ResourceChangeParticipant.fgChecker.getDeltaFactory().getDelta().accept(delta -> {
+				if (delta.getResource().getType() == IResource.FILE && delta.getKind() == IResourceDelta.CHANGED)
+					changed.add(delta.getResource());
+				return true;
+			});
+			assertEquals(files.length, changed.size());
+		} finally {
+			ResourceChangeParticipant.fgFiles= null;
+			ResourceChangeParticipant.fgChecker= null;
+			project.delete();
+		}
+	}
+}
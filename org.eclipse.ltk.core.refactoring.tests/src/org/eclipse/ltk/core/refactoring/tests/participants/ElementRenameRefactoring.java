@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,12 @@ public class ElementRenameRefactoring extends RenameRefactoring {
 	// Use the participants that are never disabled
 	public static final int ALWAYS_ENABLED= 0x08;
 
+	// Use the thread-safe participants
+	public static final int CONCURRENT= 0x10;
+
+	// Use the thread-safe participants which record resource changes
+	public static final int RESOURCE_CHANGES= 0x20;
+
 	public ElementRenameRefactoring(int options) {
 		super(new ElementRenameProcessor(options));
 	}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.participants.ParticipantManager;
+import org.eclipse.ltk.core.refactoring.participants.RenameArguments;
+import org.eclipse.ltk.core.refactoring.participants.RenameParticipant;
+import org.eclipse.ltk.core.refactoring.participants.SharableParticipants;
+
+public class ParticipantLoadingTests extends TestCase {
+
+	private static final String EQUALS_ELEMENT= "org.eclipse.ltk.core.refactoring.tests.participants.equalsElement";
+
+	private ElementRenameProcessor fProcessor;
+	private RefactoringStatus fStatus;
+
+	@Override
+	protected void setUp() throws Exception {
+		fProcessor= new ElementRenameProcessor(ElementRenameRefactoring.WORKING);
+		fStatus= new RefactoringStatus();
+	}
+
+	private RenameParticipant[] load(Object element) {
+		return ParticipantManager.loadRenameParticipants(fStatus, fProcessor, element, new RenameArguments("newName", true), new String[0], new SharableParticipants());
+	}
+
+	private static int count(RenameParticipant[] participants, Class<?> clazz) {
+		int result= 0;
+		for (int i= 0; i < participants.length; i++) {
+			if (participants[i].getClass() == clazz)
+				result++;
+		}
+		return result;
+	}
+
+	public void testSameClassSameParticipants() throws Exception {
+		for (int i= 0; i < 100; i++) {
+			RenameParticipant[] participants= load(new ElementWorkingPre());
+			assertEquals(1, count(participants, WorkingParticipant.class));
+			assertEquals(1, count(participants, WorkingParticipantPre.class));
+		}
+		RenameParticipant[] participants= load(new ElementWorking());
+		assertEquals(1, count(participants, WorkingParticipant.class));
+		assertEquals(0, count(participants, WorkingParticipantPre.class));
+		assertTrue(fStatus.toString(), fStatus.isOK());
+	}
+
+	public void testEnablementDependingOnElementIsEvaluatedPerElement() throws Exception {
+		assertEquals(1, count(load(new String(EQUALS_ELEMENT)), WorkingParticipant.class));
+		assertEquals(0, count(load("otherElement"), WorkingParticipant.class));
+		assertEquals(1, count(load(new String(EQUALS_ELEMENT)), WorkingParticipant.class));
+		assertTrue(fStatus.toString(), fStatus.isOK());
+	}
+}
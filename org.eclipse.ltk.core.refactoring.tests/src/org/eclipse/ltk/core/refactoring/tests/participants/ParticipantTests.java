@@ -23,6 +23,8 @@ public class ParticipantTests {
 		suite.addTestSuite(FailingParticipantTests.class);
 		suite.addTestSuite(SharedTextChangeTests.class);
 		suite.addTestSuite(CancelingParticipantTests.class);
+		suite.addTestSuite(ConcurrentParticipantTests.class);
+		suite.addTestSuite(ParticipantLoadingTests.class);
 		return suite;
 	}
 }
\ No newline at end of file
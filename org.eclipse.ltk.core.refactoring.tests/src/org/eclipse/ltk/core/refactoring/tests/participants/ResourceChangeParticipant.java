@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.mapping.IResourceChangeDescriptionFactory;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.participants.CheckConditionsContext;
+import org.eclipse.ltk.core.refactoring.participants.RenameParticipant;
+import org.eclipse.ltk.core.refactoring.participants.ResourceChangeChecker;
+
+/**
+ * A thread-safe participant which records changes of its share of the files
+ * in the shared {@link ResourceChangeChecker} at the same time as the other
+ * instances.
+ */
+public class ResourceChangeParticipant extends RenameParticipant {
+
+	/** The number of instances registered in the plugin.xml */
+	static final int INSTANCES= 2;
+
+	static CountDownLatch fgLatch;
+	static IFile[] fgFiles;
+	static AtomicInteger fgNextIndex;
+	static volatile ResourceChangeChecker fgChecker;
+
+	@Override
+	protected boolean initialize(Object element) {
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		return ResourceChangeParticipant.class.getName();
+	}
+
+	@Override
+	public RefactoringStatus checkConditions(IProgressMonitor pm, CheckConditionsContext context) throws OperationCanceledException {
+		CountDownLatch latch= fgLatch;
+		int index= fgNextIndex.getAndIncrement();
+		ResourceChangeChecker checker= context.getChecker(ResourceChangeChecker.class);
+		fgChecker= checker;
+		latch.countDown();
+		try {
+			if (!latch.await(10, TimeUnit.SECONDS))
+				return RefactoringStatus.createErrorStatus("conditions not checked concurrently");
+		} catch (InterruptedException e) {
+			return RefactoringStatus.createErrorStatus("interrupted");
+		}
+		for (int i= index; i < fgFiles.length; i+= INSTANCES) {
+			IResourceChangeDescriptionFactory factory= checker.getDeltaFactory();
+			factory.change(fgFiles[i]);
+		}
+		return new RefactoringStatus();
+	}
+
+	@Override
+	public Change createChange(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+		return null;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,17 +16,37 @@ package org.eclipse.ltk.core.refactoring;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.text.edits.MalformedTreeException;
+import org.eclipse.text.edits.UndoEdit;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.ltk.internal.core.refactoring.BackgroundExecutor;
+import org.eclipse.ltk.internal.core.refactoring.Changes;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
 
@@ -44,6 +64,13 @@ import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
  */
 public class CompositeChange extends Change {
 
+	/**
+	 * The maximal number of text file changes that are performed as one batch.
+	 */
+	private static final int MAX_BATCH_SIZE= 100;
+
+	private static final BackgroundExecutor fgEditExecutor= new BackgroundExecutor("Refactoring Text Edit Performer", 2, 4); //$NON-NLS-1$
+
 	private String fName;
 	private List<Change> fChanges;
 	private boolean fIsSynthetic;
@@ -260,6 +287,13 @@ public class CompositeChange extends Change {
 	 * undo objects of all executed children.
 	 * </p>
 	 * <p>
+	 * Consecutive text file changes on different files are performed as a batch: their
+	 * file buffers are connected first, then the edits are applied, and the buffers
+	 * are committed under a single workspace operation. The result, including the undo
+	 * change and the handling of exceptions, is the same as if the children had been
+	 * performed one after the other.
+	 * </p>
+	 * <p>
 	 * Client are allowed to extend this method.
 	 * </p>
 	 */
@@ -272,11 +306,35 @@ public class CompositeChange extends Change {
 		Change change= null;
 		boolean canceled= false;
 		try {
-			for (Iterator<Change> iter= fChanges.iterator(); iter.hasNext();) {
+			for (ListIterator<Change> iter= fChanges.listIterator(); iter.hasNext();) {
 				change= iter.next();
 				if (canceled && !internalProcessOnCancel(change))
 					continue;
 
+				if (!canceled && isBatchable(change)) {
+					List<TextFileChange> batch= collectBatch((TextFileChange) change, iter);
+					if (batch.size() > 1) {
+						List<Change> batchUndos= new ArrayList<>(batch.size());
+						Change[] current= new Change[] { change };
+						try {
+							performBatch(batch, batchUndos, iter, current, new SubProgressMonitor(pm, batch.size()));
+						} finally {
+							change= current[0];
+							if (undos != null) {
+								for (Iterator<Change> undo= batchUndos.iterator(); undo.hasNext() && undos != null;) {
+									Change undoChange= undo.next();
+									if (undoChange == null) {
+										undos= null;
+									} else {
+										undos.add(undoChange);
+									}
+								}
+							}
+						}
+						continue;
+					}
+				}
+
 				if (change.isEnabled()) {
 					Change undoChange= null;
 					try {
@@ -302,17 +360,7 @@ public class CompositeChange extends Change {
 				iter.remove();
 				// Make sure we dispose the change since it will now longer be
 				// in the list of children when call CompositeChange#dispose()
-				final Change changeToDispose= change;
-				SafeRunner.run(new ISafeRunnable() {
-					@Override
-					public void run() throws Exception {
-						changeToDispose.dispose();
-					}
-					@Override
-					public void handleException(Throwable exception) {
-						RefactoringCorePlugin.log(exception);
-					}
-				});
+				disposeChange(change);
 			}
 			if (canceled)
 				throw new OperationCanceledException();
@@ -333,6 +381,222 @@ public class CompositeChange extends Change {
 		}
 	}
 
+	private static void disposeChange(final Change change) {
+		SafeRunner.run(new ISafeRunnable() {
+			@Override
+			public void run() throws Exception {
+				change.dispose();
+			}
+			@Override
+			public void handleException(Throwable exception) {
+				RefactoringCorePlugin.log(exception);
+			}
+		});
+	}
+
+	//---- Batched text file changes ---------------------------------------------------------
+
+	/**
+	 * Returns whether the given change is an enabled text file change that uses the
+	 * standard implementation of {@link TextChange#perform(IProgressMonitor)}, so
+	 * that it can be performed through its acquire, perform edits, commit and
+	 * release steps.
+	 */
+	private static boolean isBatchable(Change change) {
+		if (!(change instanceof TextFileChange) || !change.isEnabled())
+			return false;
+		try {
+			return change.getClass().getMethod("perform", IProgressMonitor.class).getDeclaringClass() == TextChange.class; //$NON-NLS-1$
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Collects the given change and the batchable changes following it, up to the
+	 * first change that is not batchable or modifies a file already in the batch.
+	 * The iterator is not advanced.
+	 */
+	private List<TextFileChange> collectBatch(TextFileChange first, ListIterator<Change> iter) {
+		List<TextFileChange> result= new ArrayList<>();
+		Set<IFile> files= new HashSet<>();
+		result.add(first);
+		files.add(first.getFile());
+		for (int index= iter.nextIndex(); index < fChanges.size() && result.size() < MAX_BATCH_SIZE; index++) {
+			Change next= fChanges.get(index);
+			if (!isBatchable(next) || !files.add(((TextFileChange) next).getFile()))
+				break;
+			result.add((TextFileChange) next);
+		}
+		return result;
+	}
+
+	/**
+	 * Performs a batch of text file changes on different files. The first change of
+	 * the batch has just been returned by the iterator. Each change that is performed
+	 * successfully is removed from the children and disposed, and its undo change is
+	 * added to the given list. If a change fails, the changes before it stay performed,
+	 * the changes after it are not performed, and the exception of the failed change is
+	 * thrown, exactly like when performing the changes one after the other.
+	 *
+	 * @param batch the changes to perform
+	 * @param undos the list to add the undo changes to
+	 * @param iter the iterator over the children
+	 * @param current an array whose element is set to the change being performed
+	 * @param pm a progress monitor
+	 * @throws CoreException if a change fails
+	 */
+	private void performBatch(final List<TextFileChange> batch, final List<Change> undos, final ListIterator<Change> iter, final Change[] current, IProgressMonitor pm) throws CoreException {
+		IWorkspaceRunnable runnable= monitor -> {
+			int size= batch.size();
+			IDocument[] documents= new IDocument[size];
+			IProgressMonitor[] monitors= new IProgressMonitor[size];
+			monitor.beginTask("", size); //$NON-NLS-1$
+			try {
+				// connect all file buffers first
+				int acquired= 0;
+				Exception acquireFailure= null;
+				for (; acquired < size; acquired++) {
+					monitors[acquired]= new SubProgressMonitor(monitor, 1);
+					monitors[acquired].beginTask("", 3); //$NON-NLS-1$
+					try {
+						documents[acquired]= batch.get(acquired).acquireDocument(new SubProgressMonitor(monitors[acquired], 1));
+					} catch (CoreException | RuntimeException e) {
+						acquireFailure= e;
+						// released like in TextChange#perform(IProgressMonitor)
+						try {
+							batch.get(acquired).releaseDocument(null, new SubProgressMonitor(monitors[acquired], 1));
+						} catch (CoreException | RuntimeException releaseFailure) {
+							RefactoringCorePlugin.log(releaseFailure);
+						}
+						break;
+					}
+				}
+
+				// apply the edits of independent plain text files concurrently
+				Future<?>[] concurrentEdits= new Future<?>[size];
+				List<Integer> concurrent= new ArrayList<>();
+				for (int index= 0; index < acquired; index++) {
+					if (canPerformEditsConcurrently(batch.get(index)))
+						concurrent.add(Integer.valueOf(index));
+				}
+				if (concurrent.size() > 1) {
+					ExecutorService executor= fgEditExecutor.get();
+					for (Iterator<Integer> iterator= concurrent.iterator(); iterator.hasNext();) {
+						final int index= iterator.next().intValue();
+						concurrentEdits[index]= executor.submit(() -> performEdits(batch.get(index), documents[index]));
+					}
+				}
+
+				// commit in order, like performing the changes one after the other
+				int index= 0;
+				try {
+					for (; index < acquired; index++) {
+						TextFileChange change= batch.get(index);
+						current[0]= change;
+						UndoEdit edit;
+						if (concurrentEdits[index] != null) {
+							edit= getConcurrentEdit(concurrentEdits[index]);
+						} else {
+							edit= performEdits(change, documents[index]);
+						}
+						change.commit(documents[index], new SubProgressMonitor(monitors[index], 1));
+						Change undoChange= change.createUndoChange(edit);
+						IDocument document= documents[index];
+						documents[index]= null;
+						change.releaseDocument(document, new SubProgressMonitor(monitors[index], 1));
+						monitors[index].done();
+						undos.add(undoChange);
+
+						if (index > 0)
+							iter.next();
+						iter.remove();
+						disposeChange(change);
+					}
+				} finally {
+					if (index < acquired) {
+						releaseRemaining(batch, documents, concurrentEdits, index);
+					}
+				}
+
+				if (acquireFailure != null) {
+					current[0]= batch.get(acquired);
+					if (acquireFailure instanceof CoreException)
+						throw (CoreException) acquireFailure;
+					throw (RuntimeException) acquireFailure;
+				}
+			} finally {
+				monitor.done();
+			}
+		};
+		ResourcesPlugin.getWorkspace().run(runnable, null, IWorkspace.AVOID_UPDATE, pm);
+	}
+
+	/**
+	 * Plain text file changes are performed on documents that are not shared with
+	 * other models, so the edits on different files can be applied concurrently.
+	 * Subclasses, e.g. changes on compilation units, update other models when the
+	 * document changes and are performed in the calling thread.
+	 */
+	private static boolean canPerformEditsConcurrently(TextFileChange change) {
+		return change.getClass() == TextFileChange.class && !change.isSynchronizationContextRequested();
+	}
+
+	private static UndoEdit performEdits(TextFileChange change, IDocument document) throws CoreException {
+		try {
+			return change.performEdits(document);
+		} catch (BadLocationException e) {
+			throw Changes.asCoreException(e);
+		} catch (MalformedTreeException e) {
+			throw Changes.asCoreException(e);
+		}
+	}
+
+	private static UndoEdit getConcurrentEdit(Future<?> future) throws CoreException {
+		try {
+			return (UndoEdit) future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause= e.getCause();
+			if (cause instanceof CoreException)
+				throw (CoreException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Releases the documents of the changes starting at the given index after a
+	 * change of the batch failed. Edits that have already been applied concurrently
+	 * to documents of changes after the failed one are reverted first, so that these
+	 * changes are not performed.
+	 */
+	private static void releaseRemaining(List<TextFileChange> batch, IDocument[] documents, Future<?>[] concurrentEdits, int failed) {
+		for (int index= failed; index < documents.length; index++) {
+			if (documents[index] == null)
+				continue;
+			try {
+				if (index > failed && concurrentEdits[index] != null) {
+					UndoEdit edit= getConcurrentEdit(concurrentEdits[index]);
+					if (edit != null)
+						edit.apply(documents[index]);
+				}
+			} catch (CoreException | RuntimeException | BadLocationException e) {
+				// the change failed itself, so its document is released like after a failure
+			}
+			try {
+				batch.get(index).releaseDocument(documents[index], new NullProgressMonitor());
+			} catch (CoreException | RuntimeException e) {
+				RefactoringCorePlugin.log(e);
+			}
+		}
+	}
+
 	private void handleUndos(Change failedChange, List<Change> undos) {
 		if (undos == null) {
 			fUndoUntilException= null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,23 +14,52 @@
  *******************************************************************************/
 package org.eclipse.ltk.core.refactoring;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.IJobManager;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
 
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 
 import org.eclipse.ltk.core.refactoring.history.IRefactoringHistoryService;
 import org.eclipse.ltk.core.refactoring.history.RefactoringHistory;
+import org.eclipse.ltk.internal.core.refactoring.BackgroundExecutor;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringContributionManager;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistorySerializer;
 import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryService;
 
 /**
  * Operation that, when run, executes a series of refactoring sequentially.
  * Refactorings are executed using {@link PerformRefactoringOperation}.
  * <p>
+ * The conditions of consecutive refactorings whose contributions are declared
+ * thread-safe are checked concurrently if none of them can affect the projects
+ * of the others, i.e. if no project is or references the project of another
+ * refactoring. The refactorings are still performed in order. The checks run
+ * in other threads while the caller holds the workspace rule, so they must
+ * not acquire scheduling rules.
+ * </p>
+ * <p>
  * The operation should be executed via the run method offered by
  * <code>IWorkspace</code> to achieve proper delta batching.
  * </p>
@@ -51,6 +80,12 @@ import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryServi
  */
 public class PerformRefactoringHistoryOperation implements IWorkspaceRunnable {
 
+	private static final String PERF_CREATE_REFACTORING= "org.eclipse.ltk.core.refactoring/perf/history/createRefactoring"; //$NON-NLS-1$
+	private static final String PERF_PERFORM_REFACTORING= "org.eclipse.ltk.core.refactoring/perf/history/performRefactoring"; //$NON-NLS-1$
+
+	/** The threads checking the conditions of independent refactorings concurrently */
+	private static final BackgroundExecutor fgCheckExecutor= new BackgroundExecutor("Refactoring History Condition Checker", 2, 4); //$NON-NLS-1$
+
 	/** The status of the execution */
 	private RefactoringStatus fExecutionStatus= new RefactoringStatus();
 
@@ -71,6 +106,13 @@ public class PerformRefactoringHistoryOperation implements IWorkspaceRunnable {
 	/**
 	 * Hook method which is called when the specified refactoring is going to be
 	 * executed.
+	 * <p>
+	 * The method is called immediately before the refactoring is performed,
+	 * after the preceding refactorings have been performed. If the conditions
+	 * of the refactoring are checked concurrently with those of other
+	 * refactorings, they have already been checked when this method is called.
+	 * Otherwise they are checked after this method returns.
+	 * </p>
 	 *
 	 * @param refactoring
 	 *            the refactoring about to be executed
@@ -208,50 +250,256 @@ public class PerformRefactoringHistoryOperation implements IWorkspaceRunnable {
 		// Do nothing
 	}
 
-	@Override
-	public void run(final IProgressMonitor monitor) throws CoreException {
-		fExecutionStatus= new RefactoringStatus();
-		final RefactoringDescriptorProxy[] proxies= fRefactoringHistory.getDescriptors();
-		monitor.beginTask(RefactoringCoreMessages.PerformRefactoringHistoryOperation_perform_refactorings, 170 * proxies.length);
-		final IRefactoringHistoryService service= RefactoringHistoryService.getInstance();
+	/**
+	 * Returns the projects that the specified refactoring may modify, namely
+	 * its project and the projects that reference it.
+	 *
+	 * @param descriptor
+	 *            the refactoring descriptor
+	 * @return the projects, or <code>null</code> if the conditions of the
+	 *         refactoring must not be checked concurrently with others
+	 */
+	private static Set<IProject> getAffectedProjects(final RefactoringDescriptor descriptor) {
+		final String name= descriptor.getProject();
+		if (name == null || "".equals(name) || !RefactoringContributionManager.getInstance().isThreadSafe(descriptor.getID())) //$NON-NLS-1$
+			return null;
+		final IProject project= ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		if (!project.isAccessible())
+			return null;
+		final Set<IProject> projects= new HashSet<>();
+		final List<IProject> pending= new ArrayList<>();
+		pending.add(project);
+		while (!pending.isEmpty()) {
+			final IProject current= pending.remove(pending.size() - 1);
+			if (projects.add(current)) {
+				final IProject[] referencing= current.getReferencingProjects();
+				for (int index= 0; index < referencing.length; index++)
+					pending.add(referencing[index]);
+			}
+		}
+		return projects;
+	}
+
+	/**
+	 * Checks the conditions of the specified refactoring in a thread of the
+	 * condition checker.
+	 * <p>
+	 * The caller of this operation holds the workspace rule while it waits for
+	 * the result, so a check that acquired a scheduling rule would deadlock.
+	 * The check therefore runs inside a private rule, which makes the job
+	 * manager reject any nested rule with an
+	 * <code>IllegalArgumentException</code> instead of blocking.
+	 * </p>
+	 *
+	 * @param refactoring
+	 *            the refactoring
+	 * @return the status of the check
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	private static RefactoringStatus checkConditions(final Refactoring refactoring) throws CoreException {
+		final ISchedulingRule rule= new ISchedulingRule() {
+
+			@Override
+			public boolean contains(final ISchedulingRule other) {
+				return other == this;
+			}
+
+			@Override
+			public boolean isConflicting(final ISchedulingRule other) {
+				return other == this;
+			}
+		};
+		final IJobManager manager= Job.getJobManager();
+		manager.beginRule(rule, null);
 		try {
-			service.connect();
-			for (int index= 0; index < proxies.length; index++) {
-				final RefactoringDescriptor descriptor= proxies[index].requestDescriptor(new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
-				if (descriptor != null) {
-					RefactoringContext context= null;
-					RefactoringStatus status= new RefactoringStatus();
+			return refactoring.checkAllConditions(new NullProgressMonitor());
+		} finally {
+			manager.endRule(rule);
+		}
+	}
+
+	private static RefactoringStatus getCheckResult(final Future<RefactoringStatus> check, final IProgressMonitor monitor) throws CoreException {
+		while (true) {
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+			try {
+				return check.get(100, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException exception) {
+				// check for cancellation again
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException exception) {
+				final Throwable cause= exception.getCause();
+				if (cause instanceof CoreException)
+					throw (CoreException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new RuntimeException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Creates the change of a refactoring whose conditions have been checked
+	 * and performs it.
+	 *
+	 * @param refactoring
+	 *            the refactoring
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @return the validation status of the change, or <code>null</code>
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	private static RefactoringStatus performCheckedRefactoring(final Refactoring refactoring, final IProgressMonitor monitor) throws CoreException {
+		final RefactoringStatus[] validation= new RefactoringStatus[1];
+		ResourcesPlugin.getWorkspace().run(pm -> {
+			pm.beginTask("", 10); //$NON-NLS-1$
+			try {
+				final CreateChangeOperation create= new CreateChangeOperation(refactoring);
+				create.run(new SubProgressMonitor(pm, 6));
+				final Change change= create.getChange();
+				if (change != null) {
+					final PerformChangeOperation perform= new PerformChangeOperation(change);
+					perform.setUndoManager(RefactoringCore.getUndoManager(), refactoring.getName());
+					perform.run(new SubProgressMonitor(pm, 4));
+					validation[0]= perform.getValidationStatus();
+				}
+			} finally {
+				pm.done();
+			}
+		}, monitor);
+		return validation[0];
+	}
+
+	/**
+	 * Performs the specified refactorings in order. If there is more than one
+	 * refactoring, their conditions are checked concurrently.
+	 *
+	 * @param descriptors
+	 *            the descriptors of the refactorings
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	private void performRefactorings(final List<RefactoringDescriptor> descriptors, final IProgressMonitor monitor) throws CoreException {
+		final int size= descriptors.size();
+		final RefactoringContext[] contexts= new RefactoringContext[size];
+		final RefactoringStatus[] statuses= new RefactoringStatus[size];
+		final List<Future<RefactoringStatus>> checks= new ArrayList<>(size);
+		try {
+			for (int index= 0; index < size; index++) {
+				final RefactoringDescriptor descriptor= descriptors.get(index);
+				final RefactoringStatus status= new RefactoringStatus();
+				statuses[index]= status;
+				final PerformanceStats createStats= PerformanceStats.getStats(PERF_CREATE_REFACTORING, descriptor.getDescription());
+				createStats.startRun();
+				try {
+					contexts[index]= createRefactoringContext(descriptor, status, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+				} catch (CoreException exception) {
+					status.merge(RefactoringStatus.create(exception.getStatus()));
+				} finally {
+					createStats.endRun();
+				}
+				Future<RefactoringStatus> check= null;
+				if (size > 1 && contexts[index] != null && !status.hasFatalError()) {
+					final Refactoring refactoring= contexts[index].getRefactoring();
+					check= fgCheckExecutor.get().submit(() -> checkConditions(refactoring));
+				}
+				checks.add(check);
+			}
+			for (int index= 0; index < size; index++) {
+				final RefactoringStatus status= statuses[index];
+				if (contexts[index] != null && !status.hasFatalError()) {
+					final RefactoringDescriptor descriptor= descriptors.get(index);
+					final Refactoring refactoring= contexts[index].getRefactoring();
 					try {
-						try {
-							context= createRefactoringContext(descriptor, status, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
-						} catch (CoreException exception) {
-							status.merge(RefactoringStatus.create(exception.getStatus()));
-						}
-						if (context != null && !status.hasFatalError()) {
-							Refactoring refactoring= context.getRefactoring();
-							final PerformRefactoringOperation operation= new PerformRefactoringOperation(refactoring, CheckConditionsOperation.ALL_CONDITIONS);
+						status.merge(aboutToPerformRefactoring(refactoring, descriptor, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)));
+						final Future<RefactoringStatus> check= checks.get(index);
+						if (check != null && !status.hasFatalError())
+							status.merge(getCheckResult(check, monitor));
+						if (!status.hasFatalError()) {
+							final PerformanceStats performStats= PerformanceStats.getStats(PERF_PERFORM_REFACTORING, descriptor.getDescription());
+							performStats.startRun();
 							try {
-								status.merge(aboutToPerformRefactoring(refactoring, descriptor, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)));
-								if (!status.hasFatalError()) {
+								if (check != null) {
+									status.merge(performCheckedRefactoring(refactoring, new SubProgressMonitor(monitor, 90, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)));
+								} else {
+									final PerformRefactoringOperation operation= new PerformRefactoringOperation(refactoring, CheckConditionsOperation.ALL_CONDITIONS);
 									ResourcesPlugin.getWorkspace().run(operation, new SubProgressMonitor(monitor, 90, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
 									status.merge(operation.getConditionStatus());
 									if (!status.hasFatalError())
 										status.merge(operation.getValidationStatus());
 								}
 							} finally {
-								refactoringPerformed(refactoring, new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+								performStats.endRun();
 							}
 						}
 					} finally {
-						fExecutionStatus.merge(status);
-						if (context != null)
-							context.dispose();
+						refactoringPerformed(refactoring, new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
 					}
 				}
 			}
 		} finally {
-			service.disconnect();
-			monitor.done();
+			for (int index= 0; index < checks.size(); index++) {
+				final Future<RefactoringStatus> check= checks.get(index);
+				if (check != null)
+					check.cancel(true);
+			}
+			fgCheckExecutor.purge();
+			for (int index= 0; index < size; index++) {
+				if (statuses[index] != null)
+					fExecutionStatus.merge(statuses[index]);
+				if (contexts[index] != null)
+					contexts[index].dispose();
+			}
+		}
+	}
+
+	@Override
+	public void run(final IProgressMonitor monitor) throws CoreException {
+		fExecutionStatus= new RefactoringStatus();
+		final RefactoringDescriptorProxy[] proxies= fRefactoringHistory.getDescriptors();
+		monitor.beginTask(RefactoringCoreMessages.PerformRefactoringHistoryOperation_perform_refactorings, 170 * proxies.length);
+		final IRefactoringHistoryService service= RefactoringHistoryService.getInstance();
+		final RefactoringCorePlugin plugin= RefactoringCorePlugin.getDefault();
+		final RefactoringHistorySerializer serializer= plugin != null ? plugin.getRefactoringHistorySerializer() : null;
+		try {
+			service.connect();
+			if (serializer != null)
+				serializer.beginBatch();
+			final List<RefactoringDescriptor> independent= new ArrayList<>();
+			final Set<IProject> affected= new HashSet<>();
+			for (int index= 0; index < proxies.length; index++) {
+				final RefactoringDescriptor descriptor= proxies[index].requestDescriptor(new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+				if (descriptor != null) {
+					final Set<IProject> projects= getAffectedProjects(descriptor);
+					if (projects == null || !Collections.disjoint(affected, projects) || independent.size() == fgCheckExecutor.getThreadCount()) {
+						performRefactorings(independent, monitor);
+						independent.clear();
+						affected.clear();
+					}
+					if (projects != null) {
+						independent.add(descriptor);
+						affected.addAll(projects);
+					} else
+						performRefactorings(Collections.singletonList(descriptor), monitor);
+				}
+			}
+			performRefactorings(independent, monitor);
+		} finally {
+			try {
+				if (serializer != null)
+					serializer.endBatch();
+			} finally {
+				service.disconnect();
+				monitor.done();
+			}
 		}
 	}
 }
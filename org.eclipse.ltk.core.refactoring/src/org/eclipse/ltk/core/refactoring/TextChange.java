@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,7 +15,9 @@ package org.eclipse.ltk.core.refactoring;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
@@ -23,8 +25,11 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
 import org.eclipse.text.edits.MalformedTreeException;
 import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 import org.eclipse.text.edits.TextEditCopier;
 import org.eclipse.text.edits.TextEditGroup;
@@ -507,6 +512,11 @@ public abstract class TextChange extends TextEditBasedChange {
 				// Assert.isTrue(root == edits[e].getRoot(), "Wrong root edit"); //$NON-NLS-1$
 			}
 		}
+		if (!getKeepPreviewEdits()) {
+			String content= getClippedPreviewContent(changeGroups, currentRegion, region, expandRegionToFullLine, surroundingLines, pm);
+			if (content != null)
+				return content;
+		}
 		PreviewAndRegion result= getPreviewDocument(changeGroups, pm);
 		int delta;
 		if (result.region == null) {	// all edits were delete edits so no new region
@@ -520,6 +530,66 @@ public abstract class TextChange extends TextEditBasedChange {
 
 	//---- private helper methods --------------------------------------------------
 
+	/**
+	 * Computes a clipped preview by applying the edits of the given change groups
+	 * to a copy of the clipped part of the document only, instead of to a copy of
+	 * the whole document. This is only possible if all groups are enabled and all
+	 * their edits are independent insertions, deletions and replacements at distinct
+	 * offsets.
+	 *
+	 * @return the clipped preview or <code>null</code> if the full preview has to be
+	 *  computed
+	 */
+	private String getClippedPreviewContent(TextEditBasedChangeGroup[] changeGroups, IRegion currentRegion, IRegion region, boolean expandRegionToFullLine, int surroundingLines, IProgressMonitor pm) throws CoreException {
+		if (currentRegion == null)
+			return null;
+		List<TextEdit> edits= new ArrayList<>();
+		for (int c= 0; c < changeGroups.length; c++) {
+			TextEditBasedChangeGroup group= changeGroups[c];
+			if (!group.isEnabled())
+				return null;
+			TextEdit[] groupEdits= group.getTextEdits();
+			for (int e= 0; e < groupEdits.length; e++) {
+				TextEdit edit= groupEdits[e];
+				if (edit.hasChildren() || !(edit instanceof ReplaceEdit || edit instanceof InsertEdit || edit instanceof DeleteEdit))
+					return null;
+				edits.add(edit);
+			}
+		}
+		if (edits.isEmpty())
+			return null;
+		IDocument document= getCurrentDocument(pm);
+		try {
+			IRegion clip= region;
+			if (expandRegionToFullLine) {
+				int end= region.getOffset() + region.getLength();
+				int startLine= Math.max(document.getLineOfOffset(region.getOffset()) - surroundingLines, 0);
+				int endLine= Math.min(document.getLineOfOffset(end) + surroundingLines, document.getNumberOfLines() - 1);
+				int offset= document.getLineOffset(startLine);
+				IRegion endLineRegion= document.getLineInformation(endLine);
+				clip= new Region(offset, endLineRegion.getOffset() + endLineRegion.getLength() - offset);
+			}
+			MultiTextEdit root= new MultiTextEdit();
+			TextEdit[] copies= new TextEdit[edits.size()];
+			Set<Integer> offsets= new HashSet<>();
+			for (int i= 0; i < copies.length; i++) {
+				copies[i]= edits.get(i).copy();
+				copies[i].moveTree(-clip.getOffset());
+				if (!offsets.add(Integer.valueOf(copies[i].getOffset())))
+					return null; // the order of edits at the same offset is defined by the edit tree
+				root.addChild(copies[i]);
+			}
+			IDocument clipped= new Document(document.get(clip.getOffset(), clip.getLength()));
+			new TextEditProcessor(clipped, root, TextEdit.UPDATE_REGIONS).performEdits();
+			int delta= TextEdit.getCoverage(copies).getLength() - currentRegion.getLength();
+			return getContent(clipped, new Region(region.getOffset() - clip.getOffset(), region.getLength() + delta), expandRegionToFullLine, surroundingLines);
+		} catch (MalformedTreeException e) {
+			return null;
+		} catch (BadLocationException e) {
+			throw Changes.asCoreException(e);
+		}
+	}
+
 	private PreviewAndRegion getPreviewDocument(TextEditBasedChangeGroup[] changes, IProgressMonitor pm) throws CoreException {
 		IDocument document= new Document(getCurrentDocument(pm).get());
 		boolean trackChanges= getKeepPreviewEdits();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -308,6 +308,17 @@ public class TextFileChange extends TextChange {
 		return fAcquireCount > 0;
 	}
 
+	/**
+	 * Returns whether the buffer of the acquired document requests that edits
+	 * are performed in its synchronization context, e.g. because the document
+	 * is shown in an editor.
+	 *
+	 * @return <code>true</code> if the synchronization context is requested
+	 */
+	boolean isSynchronizationContextRequested() {
+		return fBuffer.isSynchronizationContextRequested();
+	}
+
 	/**
 	 * Has the document been modified since it has been first acquired by the change?
 	 *
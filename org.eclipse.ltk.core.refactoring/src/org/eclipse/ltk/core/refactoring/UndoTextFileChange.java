@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -38,6 +38,7 @@ import org.eclipse.jface.text.link.LinkedModeModel;
 
 import org.eclipse.ltk.internal.core.refactoring.BufferValidationState;
 import org.eclipse.ltk.internal.core.refactoring.Changes;
+import org.eclipse.ltk.internal.core.refactoring.CompactUndoEdit;
 import org.eclipse.ltk.internal.core.refactoring.ContentStamps;
 import org.eclipse.ltk.internal.core.refactoring.Lock;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
@@ -58,6 +59,7 @@ public class UndoTextFileChange extends Change {
 
 	private String fName;
 	private UndoEdit fUndo;
+	private CompactUndoEdit fCompactUndo;
 	private IFile fFile;
 	private ContentStamp fContentStampToRestore;
 	private int fSaveMode;
@@ -84,7 +86,10 @@ public class UndoTextFileChange extends Change {
 		Assert.isNotNull(undo);
 		fName= name;
 		fFile= file;
-		fUndo= undo;
+		// large refactorings keep many undo changes, so only keep the compact form of the edits if possible
+		fCompactUndo= CompactUndoEdit.create(undo);
+		if (fCompactUndo == null)
+			fUndo= undo;
 		fContentStampToRestore= stamp;
 		fSaveMode= saveMode;
 	}
@@ -270,7 +275,8 @@ public class UndoTextFileChange extends Change {
 	private UndoEdit doPerformEdits(IDocument document, boolean[] setContentStampSuccess) throws MalformedTreeException, BadLocationException, CoreException {
 		// perform the changes
 		LinkedModeModel.closeAllModels(document);
-		UndoEdit redo= fUndo.apply(document, TextEdit.CREATE_UNDO);
+		TextEdit undo= fCompactUndo != null ? fCompactUndo.createEdit() : fUndo;
+		UndoEdit redo= undo.apply(document, TextEdit.CREATE_UNDO);
 
 		// try to restore the document content stamp
 		setContentStampSuccess[0]= ContentStamps.set(document, fContentStampToRestore);
@@ -282,6 +288,9 @@ public class UndoTextFileChange extends Change {
 		if (fValidationState != null) {
 			fValidationState.dispose();
 		}
+		if (fCompactUndo != null) {
+			fCompactUndo.dispose();
+		}
 	}
 
 	private boolean needsSaving() {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,12 @@ package org.eclipse.ltk.core.refactoring.participants;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.expressions.EvaluationContext;
 
@@ -51,6 +55,45 @@ public class ParticipantExtensionPoint {
 	private Class<?> fParticipantClass;
 	private String fPluginId;
 
+	/**
+	 * The maximal number of cached candidate lists.
+	 */
+	private static final int MAX_CANDIDATES= 100;
+
+	/**
+	 * Maps element classes, affected natures and processors to the enabled
+	 * descriptors that are candidates for elements of that class. A candidate
+	 * either has a cacheable enablement expression which evaluated to
+	 * <code>true</code>, or an expression that has to be evaluated per element.
+	 */
+	private Map<CandidatesKey, List<ParticipantDescriptor>> fCandidates= new HashMap<>();
+
+	private static final class CandidatesKey {
+		private final Class<?> fElementClass;
+		private final Set<String> fNatures;
+		private final String fProcessorId;
+
+		public CandidatesKey(Object element, String[] affectedNatures, String processorId) {
+			fElementClass= element.getClass();
+			fNatures= new HashSet<>(Arrays.asList(affectedNatures));
+			fProcessorId= processorId;
+		}
+
+		@Override
+		public int hashCode() {
+			return fElementClass.hashCode() * 31 + fNatures.hashCode() * 17 + (fProcessorId != null ? fProcessorId.hashCode() : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CandidatesKey))
+				return false;
+			CandidatesKey other= (CandidatesKey) obj;
+			return fElementClass == other.fElementClass && fNatures.equals(other.fNatures)
+					&& (fProcessorId != null ? fProcessorId.equals(other.fProcessorId) : other.fProcessorId == null);
+		}
+	}
+
 	/**
 	 * Creates a {@link ParticipantExtensionPoint}.
 	 *
@@ -86,14 +129,19 @@ public class ParticipantExtensionPoint {
 
 		EvaluationContext evalContext= createEvaluationContext(processor, element, affectedNatures);
 		List<RefactoringParticipant> result= new ArrayList<>();
-		for (Iterator<ParticipantDescriptor> iter= fParticipants.iterator(); iter.hasNext();) {
+		List<ParticipantDescriptor> candidates= getCandidates(evalContext, processor, element, affectedNatures);
+		boolean preselected= candidates != null;
+		if (!preselected)
+			candidates= new ArrayList<>(fParticipants);
+		for (Iterator<ParticipantDescriptor> iter= candidates.iterator(); iter.hasNext();) {
 			ParticipantDescriptor descriptor= iter.next();
 			if (!descriptor.isEnabled()) {
-				iter.remove();
+				removeDescriptor(descriptor);
 			} else {
 				try {
 					RefactoringStatus filterStatus= new RefactoringStatus();
-					if (descriptor.matches(evalContext, filter, filterStatus)) {
+					// candidates with a cacheable enablement are known to be enabled for the element
+					if ((preselected && descriptor.isEnablementCacheable() || descriptor.matchesEnablement(evalContext)) && descriptor.matchesFilter(filter, filterStatus)) {
 						RefactoringParticipant participant= shared.get(descriptor);
 						if (participant != null) {
 							((ISharableParticipant)participant).addElement(element, arguments);
@@ -114,7 +162,7 @@ public class ParticipantExtensionPoint {
 									Messages.format(
 										RefactoringCoreMessages.ParticipantExtensionPoint_wrong_type,
 										new String[] {descriptor.getName(), fParticipantClass.getName()}));
-								iter.remove();
+								removeDescriptor(descriptor);
 							}
 						}
 					} else {
@@ -122,10 +170,10 @@ public class ParticipantExtensionPoint {
 					}
 				} catch (CoreException e) {
 					logMalfunctioningParticipant(status, descriptor, e);
-					iter.remove();
+					removeDescriptor(descriptor);
 				} catch (RuntimeException e) {
 					logMalfunctioningParticipant(status, descriptor, e);
-					iter.remove();
+					removeDescriptor(descriptor);
 				}
 			}
 		}
@@ -133,6 +181,50 @@ public class ParticipantExtensionPoint {
 		return result.toArray(new RefactoringParticipant[result.size()]);
 	}
 
+	/**
+	 * Returns the descriptors that can match the given element. The result for
+	 * descriptors with a cacheable enablement expression is computed once per element
+	 * class, affected natures and processor, so that loading the participants of many
+	 * elements does not evaluate the same expressions over and over again.
+	 *
+	 * @return the candidates, or <code>null</code> if all descriptors have to be evaluated
+	 */
+	private List<ParticipantDescriptor> getCandidates(EvaluationContext evalContext, RefactoringProcessor processor, Object element, String[] affectedNatures) {
+		if (element == null)
+			return null;
+		CandidatesKey key= new CandidatesKey(element, affectedNatures, processor.getIdentifier());
+		List<ParticipantDescriptor> candidates= fCandidates.get(key);
+		if (candidates != null)
+			return candidates;
+
+		candidates= new ArrayList<>();
+		for (Iterator<ParticipantDescriptor> iter= fParticipants.iterator(); iter.hasNext();) {
+			ParticipantDescriptor descriptor= iter.next();
+			if (descriptor.isEnabled() && descriptor.isEnablementCacheable()) {
+				try {
+					if (descriptor.matchesEnablement(evalContext))
+						candidates.add(descriptor);
+					continue;
+				} catch (CoreException e) {
+					// evaluate all descriptors per element, which reports the problem
+				} catch (RuntimeException e) {
+					// evaluate all descriptors per element, which reports the problem
+				}
+				return null;
+			}
+			candidates.add(descriptor);
+		}
+		if (fCandidates.size() >= MAX_CANDIDATES)
+			fCandidates.clear();
+		fCandidates.put(key, candidates);
+		return candidates;
+	}
+
+	private void removeDescriptor(ParticipantDescriptor descriptor) {
+		fParticipants.remove(descriptor);
+		fCandidates.clear();
+	}
+
 	private void logMalfunctioningParticipant(RefactoringStatus status, ParticipantDescriptor descriptor, Throwable e) {
 		status.addError(Messages.format(
 			RefactoringCoreMessages.ParticipantExtensionPoint_participant_removed,
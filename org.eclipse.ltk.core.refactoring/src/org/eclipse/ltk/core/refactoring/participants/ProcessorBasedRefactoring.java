@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -41,6 +45,7 @@ import org.eclipse.ltk.core.refactoring.Refactoring;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.TextChange;
 import org.eclipse.ltk.core.refactoring.TextFileChange;
+import org.eclipse.ltk.internal.core.refactoring.BackgroundExecutor;
 import org.eclipse.ltk.internal.core.refactoring.Messages;
 import org.eclipse.ltk.internal.core.refactoring.ParticipantDescriptor;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
@@ -74,6 +79,8 @@ public class ProcessorBasedRefactoring extends Refactoring {
 
 	private static final List<RefactoringParticipant> EMPTY_PARTICIPANTS= Collections.emptyList();
 
+	private static final BackgroundExecutor fgParticipantExecutor= new BackgroundExecutor("Refactoring Participant Condition Checker", 2, 4); //$NON-NLS-1$
+
 	private static class ProcessorChange extends CompositeChange {
 		private Map<Change, RefactoringParticipant> fParticipantMap;
 		private List<RefactoringParticipant> fPreChangeParticipants; // can be null
@@ -247,30 +254,41 @@ public class ProcessorBasedRefactoring extends Refactoring {
 		IProgressMonitor sm= new SubProgressMonitor(pm, 2);
 
 		sm.beginTask("", fParticipants.size()); //$NON-NLS-1$
-		for (Iterator<RefactoringParticipant> iter= fParticipants.iterator(); iter.hasNext() && !result.hasFatalError(); ) {
-
-			RefactoringParticipant participant= iter.next();
-
-			final PerformanceStats stats= PerformanceStats.getStats(PERF_CHECK_CONDITIONS, getName() + ", " + participant.getName()); //$NON-NLS-1$
-			stats.startRun();
+		AtomicBoolean stopConcurrentChecks= new AtomicBoolean();
+		Map<RefactoringParticipant, Future<RefactoringStatus>> concurrentChecks= startConcurrentChecks(context, sm, stopConcurrentChecks);
+		try {
+			for (Iterator<RefactoringParticipant> iter= fParticipants.iterator(); iter.hasNext() && !result.hasFatalError(); ) {
+
+				RefactoringParticipant participant= iter.next();
+				Future<RefactoringStatus> concurrentCheck= concurrentChecks.get(participant);
+
+				try {
+					if (concurrentCheck != null) {
+						result.merge(getConcurrentCheckResult(concurrentCheck));
+						sm.worked(1);
+					} else {
+						final PerformanceStats stats= PerformanceStats.getStats(PERF_CHECK_CONDITIONS, getName() + ", " + participant.getName()); //$NON-NLS-1$
+						stats.startRun();
+						result.merge(participant.checkConditions(new SubProgressMonitor(sm, 1), context));
+						stats.endRun();
+					}
+				} catch (OperationCanceledException e) {
+					throw e;
+				} catch (RuntimeException e) {
+					// remove the participant so that it will be ignored during change execution.
+					RefactoringCorePlugin.log(e);
+					result.merge(RefactoringStatus.createErrorStatus(Messages.format(
+						RefactoringCoreMessages.ProcessorBasedRefactoring_check_condition_participant_failed,
+						participant.getName())));
+					iter.remove();
+				}
 
-			try {
-				result.merge(participant.checkConditions(new SubProgressMonitor(sm, 1), context));
-			} catch (OperationCanceledException e) {
-				throw e;
-			} catch (RuntimeException e) {
-				// remove the participant so that it will be ignored during change execution.
-				RefactoringCorePlugin.log(e);
-				result.merge(RefactoringStatus.createErrorStatus(Messages.format(
-					RefactoringCoreMessages.ProcessorBasedRefactoring_check_condition_participant_failed,
-					participant.getName())));
-				iter.remove();
+				if (sm.isCanceled())
+					throw new OperationCanceledException();
 			}
-
-			stats.endRun();
-
-			if (sm.isCanceled())
-				throw new OperationCanceledException();
+		} finally {
+			// the results of checks after a fatal error are not needed
+			stopConcurrentChecks.set(true);
 		}
 		sm.done();
 		if (result.hasFatalError()) {
@@ -413,6 +431,62 @@ public class ProcessorBasedRefactoring extends Refactoring {
 
 	//---- Helper methods ---------------------------------------------------------------------
 
+	/**
+	 * Starts checking the conditions of the participants that are declared thread-safe
+	 * concurrently, if there are at least two of them. The statuses are merged in the
+	 * order of the participants, so the result does not depend on timing.
+	 */
+	private Map<RefactoringParticipant, Future<RefactoringStatus>> startConcurrentChecks(final CheckConditionsContext context, final IProgressMonitor pm, final AtomicBoolean stop) {
+		List<RefactoringParticipant> threadSafe= new ArrayList<>();
+		for (Iterator<RefactoringParticipant> iter= fParticipants.iterator(); iter.hasNext();) {
+			RefactoringParticipant participant= iter.next();
+			ParticipantDescriptor descriptor= participant.getDescriptor();
+			if (descriptor != null && descriptor.isThreadSafe())
+				threadSafe.add(participant);
+		}
+		if (threadSafe.size() < 2)
+			return Collections.emptyMap();
+
+		final IProgressMonitor monitor= new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return stop.get() || pm.isCanceled();
+			}
+		};
+		final String name= getName();
+		Map<RefactoringParticipant, Future<RefactoringStatus>> result= new HashMap<>();
+		ExecutorService executor= fgParticipantExecutor.get();
+		for (Iterator<RefactoringParticipant> iter= threadSafe.iterator(); iter.hasNext();) {
+			final RefactoringParticipant participant= iter.next();
+			result.put(participant, executor.submit(() -> {
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				PerformanceStats stats= PerformanceStats.getStats(PERF_CHECK_CONDITIONS, name + ", " + participant.getName()); //$NON-NLS-1$
+				stats.startRun();
+				RefactoringStatus status= participant.checkConditions(monitor, context);
+				stats.endRun();
+				return status;
+			}));
+		}
+		return result;
+	}
+
+	private static RefactoringStatus getConcurrentCheckResult(Future<RefactoringStatus> check) {
+		try {
+			return check.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause= e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new RuntimeException(cause);
+		}
+	}
+
 	private CheckConditionsContext createCheckConditionsContext() throws CoreException {
 		CheckConditionsContext result= new CheckConditionsContext();
 		result.add(new ValidateEditChecker(getValidationContext()));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,10 +17,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
@@ -37,6 +39,10 @@ import org.eclipse.ltk.core.refactoring.RefactoringStatus;
  * add their content changes to this checker there is no need to add
  * them to the {@link ValidateEditChecker} as well.
  * <p>
+ * Since 3.10 the checker and its delta factory may be used by several
+ * thread-safe participants concurrently.
+ * </p>
+ * <p>
  * Note: this class is not intended to be extended by clients.
  * </p>
  *
@@ -48,10 +54,72 @@ import org.eclipse.ltk.core.refactoring.RefactoringStatus;
  */
 public class ResourceChangeChecker implements IConditionChecker {
 
-	private IResourceChangeDescriptionFactory fDeltaFactory;
+	/**
+	 * A delta factory which records the resource operations of concurrent
+	 * participants one at a time.
+	 */
+	private final class SynchronizedDeltaFactory implements IResourceChangeDescriptionFactory {
+
+		private final IResourceChangeDescriptionFactory fDelegate;
+
+		public SynchronizedDeltaFactory(IResourceChangeDescriptionFactory delegate) {
+			fDelegate= delegate;
+		}
+
+		@Override
+		public void change(IFile file) {
+			synchronized (ResourceChangeChecker.this) {
+				fDelegate.change(file);
+			}
+		}
+
+		@Override
+		public void close(IProject project) {
+			synchronized (ResourceChangeChecker.this) {
+				fDelegate.close(project);
+			}
+		}
+
+		@Override
+		public void copy(IResource resource, IPath destination) {
+			synchronized (ResourceChangeChecker.this) {
+				fDelegate.copy(resource, destination);
+			}
+		}
+
+		@Override
+		public void create(IResource resource) {
+			synchronized (ResourceChangeChecker.this) {
+				fDelegate.create(resource);
+			}
+		}
+
+		@Override
+		public void delete(IResource resource) {
+			synchronized (ResourceChangeChecker.this) {
+				fDelegate.delete(resource);
+			}
+		}
+
+		@Override
+		public IResourceDelta getDelta() {
+			synchronized (ResourceChangeChecker.this) {
+				return fDelegate.getDelta();
+			}
+		}
+
+		@Override
+		public void move(IResource resource, IPath destination) {
+			synchronized (ResourceChangeChecker.this) {
+				fDelegate.move(resource, destination);
+			}
+		}
+	}
+
+	private final IResourceChangeDescriptionFactory fDeltaFactory;
 
 	public ResourceChangeChecker() {
-		fDeltaFactory= ResourceChangeValidator.getValidator().createDeltaFactory();
+		fDeltaFactory= new SynchronizedDeltaFactory(ResourceChangeValidator.getValidator().createDeltaFactory());
 	}
 
 	/**
@@ -80,17 +148,17 @@ public class ResourceChangeChecker implements IConditionChecker {
 	 *
 	 * @return the delta factory
 	 */
-	public IResourceChangeDescriptionFactory getDeltaFactory() {
+	public synchronized IResourceChangeDescriptionFactory getDeltaFactory() {
 		return fDeltaFactory;
 	}
 
 	@Override
-	public RefactoringStatus check(IProgressMonitor monitor) throws CoreException {
+	public synchronized RefactoringStatus check(IProgressMonitor monitor) throws CoreException {
 		IStatus status= ResourceChangeValidator.getValidator().validateChange(fDeltaFactory.getDelta(), monitor);
 		return createFrom(status);
 	}
 
-	/* package */ IFile[] getChangedFiles() throws CoreException {
+	/* package */ synchronized IFile[] getChangedFiles() throws CoreException {
 		IResourceDelta root= fDeltaFactory.getDelta();
 		final List<IFile> result= new ArrayList<>();
 		root.accept(new IResourceDeltaVisitor() {
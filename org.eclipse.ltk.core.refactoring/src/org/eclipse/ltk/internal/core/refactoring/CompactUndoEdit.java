@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.internal.core.refactoring;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.UndoEdit;
+
+/**
+ * A compact form of the {@link UndoEdit} of a text file change, which keeps
+ * the offsets, lengths and texts of the undo edit in arrays instead of a tree
+ * of edit objects. Texts larger than a threshold are written to a file in the
+ * plug-in's state location and only read back when the undo is performed.
+ * <p>
+ * Only undo edits of changes that were performed from the end to the
+ * beginning of the document without overlapping edits, e.g. changes made of
+ * insert, delete and replace edits, can be compacted. Such undo edits are
+ * replayed as a single {@link MultiTextEdit}, so that the document is modified
+ * exactly like by the original undo edit.
+ * </p>
+ */
+public final class CompactUndoEdit {
+
+	/** The number of characters beyond which texts are spilled to disk */
+	private static final int SPILL_THRESHOLD= 128 * 1024;
+
+	/** The name of the folder holding spilled texts */
+	private static final String SPILL_FOLDER= ".undo"; //$NON-NLS-1$
+
+	/** The memory retained by all compact undo edits, in bytes */
+	private static final AtomicLong fgRetainedMemory= new AtomicLong();
+
+	/** The size of all spilled texts, in bytes */
+	private static final AtomicLong fgSpilledSize= new AtomicLong();
+
+	/** The offsets of the edits in the current document, in ascending order */
+	private final int[] fOffsets;
+
+	/** The lengths of the edits in the current document */
+	private final int[] fLengths;
+
+	/** The end indices of the texts of the edits in the concatenated texts */
+	private final int[] fTextEnds;
+
+	/** The concatenated texts, or <code>null</code> if spilled or disposed */
+	private String fTexts;
+
+	/** The file holding the spilled texts, or <code>null</code> */
+	private File fSpillFile;
+
+	private final long fRetainedMemory;
+	private long fSpilledSize;
+	private boolean fDisposed;
+
+	private CompactUndoEdit(int[] offsets, int[] lengths, int[] textEnds, String texts) {
+		fOffsets= offsets;
+		fLengths= lengths;
+		fTextEnds= textEnds;
+		fTexts= texts;
+		if (texts.length() > SPILL_THRESHOLD)
+			spill();
+		fRetainedMemory= 12L * offsets.length + (fTexts != null ? 2L * fTexts.length() : 0);
+		fgRetainedMemory.addAndGet(fRetainedMemory);
+	}
+
+	/**
+	 * Creates the compact form of the given undo edit.
+	 *
+	 * @param edit the undo edit
+	 * @return the compact undo edit, or <code>null</code> if the undo edit
+	 *         cannot be compacted
+	 */
+	public static CompactUndoEdit create(UndoEdit edit) {
+		TextEdit[] children= edit.getChildren();
+		int count= children.length;
+		if (count == 0)
+			return null;
+		// the children are in the order in which the document was modified,
+		// which must be from the end to the beginning of the document
+		int[] offsets= new int[count];
+		int[] lengths= new int[count];
+		String[] texts= new String[count];
+		int totalLength= 0;
+		for (int index= 0; index < count; index++) {
+			TextEdit child= children[index];
+			if (!(child instanceof ReplaceEdit) || child.hasChildren())
+				return null;
+			String text= ((ReplaceEdit) child).getText();
+			if (index > 0) {
+				int end= child.getOffset() + text.length();
+				int previous= offsets[count - index];
+				if (end > previous || end == previous && (child.getLength() == 0 || lengths[count - index] == 0))
+					return null;
+			}
+			offsets[count - index - 1]= child.getOffset();
+			lengths[count - index - 1]= child.getLength();
+			texts[count - index - 1]= text;
+			totalLength+= text.length();
+		}
+		// map the offsets to the current document, in which the edits made
+		// later at lower offsets have shifted the edits made earlier
+		int delta= 0;
+		int[] textEnds= new int[count];
+		StringBuilder buffer= new StringBuilder(totalLength);
+		for (int index= 0; index < count; index++) {
+			offsets[index]+= delta;
+			delta+= lengths[index] - texts[index].length();
+			buffer.append(texts[index]);
+			textEnds[index]= buffer.length();
+		}
+		return new CompactUndoEdit(offsets, lengths, textEnds, buffer.toString());
+	}
+
+	/**
+	 * Creates the edit to apply to the current document to undo the change.
+	 *
+	 * @return the edit
+	 * @throws CoreException if the spilled texts cannot be read
+	 */
+	public TextEdit createEdit() throws CoreException {
+		String texts= getTexts();
+		MultiTextEdit result= new MultiTextEdit();
+		int start= 0;
+		for (int index= 0; index < fOffsets.length; index++) {
+			result.addChild(new ReplaceEdit(fOffsets[index], fLengths[index], texts.substring(start, fTextEnds[index])));
+			start= fTextEnds[index];
+		}
+		return result;
+	}
+
+	/**
+	 * Releases the memory and the spill file of this undo edit.
+	 */
+	public synchronized void dispose() {
+		if (fDisposed)
+			return;
+		fDisposed= true;
+		fTexts= null;
+		fgRetainedMemory.addAndGet(-fRetainedMemory);
+		if (fSpillFile != null) {
+			fSpillFile.delete();
+			fSpillFile= null;
+			fgSpilledSize.addAndGet(-fSpilledSize);
+		}
+	}
+
+	/**
+	 * Returns the memory retained by all undo edits that are not disposed.
+	 *
+	 * @return the retained memory, in bytes
+	 */
+	public static long getRetainedMemory() {
+		return fgRetainedMemory.get();
+	}
+
+	/**
+	 * Returns the size of the spilled texts of all undo edits that are not
+	 * disposed.
+	 *
+	 * @return the size of the spill files, in bytes
+	 */
+	public static long getSpilledSize() {
+		return fgSpilledSize.get();
+	}
+
+	/**
+	 * Deletes the spill files left over from a previous session.
+	 */
+	public static void deleteSpillFiles() {
+		File folder= getSpillFolder();
+		File[] files= folder != null ? folder.listFiles() : null;
+		if (files != null) {
+			for (int index= 0; index < files.length; index++)
+				files[index].delete();
+		}
+	}
+
+	private static File getSpillFolder() {
+		RefactoringCorePlugin plugin= RefactoringCorePlugin.getDefault();
+		if (plugin == null)
+			return null;
+		return plugin.getStateLocation().append(SPILL_FOLDER).toFile();
+	}
+
+	private void spill() {
+		File folder= getSpillFolder();
+		if (folder == null || !folder.isDirectory() && !folder.mkdirs())
+			return;
+		File file= null;
+		try {
+			file= File.createTempFile("undo", ".txt", folder); //$NON-NLS-1$ //$NON-NLS-2$
+			try (DataOutputStream stream= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+				stream.writeInt(fTexts.length());
+				stream.writeChars(fTexts);
+			}
+			fSpillFile= file;
+			fSpilledSize= file.length();
+			fgSpilledSize.addAndGet(fSpilledSize);
+			fTexts= null;
+		} catch (IOException exception) {
+			// keep the texts in memory
+			if (file != null)
+				file.delete();
+			RefactoringCorePlugin.log(exception);
+		}
+	}
+
+	private synchronized String getTexts() throws CoreException {
+		if (fTexts != null)
+			return fTexts;
+		if (fDisposed)
+			throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), "Undo edit has been disposed")); //$NON-NLS-1$
+		try (DataInputStream stream= new DataInputStream(new BufferedInputStream(new FileInputStream(fSpillFile)))) {
+			char[] chars= new char[stream.readInt()];
+			for (int index= 0; index < chars.length; index++)
+				chars[index]= stream.readChar();
+			return new String(chars);
+		} catch (IOException exception) {
+			throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IStatus.ERROR, RefactoringCoreMessages.RefactoringCorePlugin_internal_error, exception));
+		}
+	}
+}
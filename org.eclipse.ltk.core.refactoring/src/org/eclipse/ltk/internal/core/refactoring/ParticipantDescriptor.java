@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -33,11 +33,19 @@ public class ParticipantDescriptor {
 
 	private IConfigurationElement fConfigurationElement;
 	private boolean fEnabled;
+	private Expression fEnablement;
+	private Boolean fEnablementCacheable;
 
 	private static final String ID= "id"; //$NON-NLS-1$
 	private static final String NAME= "name";  //$NON-NLS-1$
 	private static final String CLASS= "class"; //$NON-NLS-1$
 	private static final String PROCESS_ON_CANCEL= "processOnCancel";  //$NON-NLS-1$
+	private static final String THREAD_SAFE= "threadSafe";  //$NON-NLS-1$
+
+	private static final String VARIABLE= "variable"; //$NON-NLS-1$
+	private static final String ELEMENT= "element"; //$NON-NLS-1$
+	private static final String AFFECTED_NATURES= "affectedNatures"; //$NON-NLS-1$
+	private static final String PROCESSOR_IDENTIFIER= "processorIdentifier"; //$NON-NLS-1$
 
 	public ParticipantDescriptor(IConfigurationElement element) {
 		fConfigurationElement= element;
@@ -71,19 +79,94 @@ public class ParticipantDescriptor {
 	}
 
 	public boolean matches(IEvaluationContext context, IParticipantDescriptorFilter filter, RefactoringStatus status) throws CoreException {
-		IConfigurationElement[] elements= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
-		if (elements.length == 0)
+		if (!matchesEnablement(context))
 			return false;
-		Assert.isTrue(elements.length == 1);
-		Expression exp= ExpressionConverter.getDefault().perform(elements[0]);
-		if (!convert(exp.evaluate(context)))
+		return matchesFilter(filter, status);
+	}
+
+	/**
+	 * Evaluates the enablement expression of this participant.
+	 *
+	 * @param context the evaluation context
+	 * @return <code>true</code> if the participant is enabled in the context
+	 * @throws CoreException if the expression cannot be converted or evaluated
+	 */
+	public boolean matchesEnablement(IEvaluationContext context) throws CoreException {
+		Expression expression= getEnablement();
+		if (expression == null)
 			return false;
+		return convert(expression.evaluate(context));
+	}
+
+	/**
+	 * Checks whether the given filter selects this participant.
+	 *
+	 * @param filter the filter, or <code>null</code>
+	 * @param status the status to add problems reported by the filter to
+	 * @return <code>true</code> if there is no filter or the filter selects the participant
+	 */
+	public boolean matchesFilter(IParticipantDescriptorFilter filter, RefactoringStatus status) {
 		if (filter != null && !filter.select(fConfigurationElement, status))
 			return false;
+		return true;
+	}
+
+	/**
+	 * Returns whether the result of the enablement expression only depends on the
+	 * class of the element, the affected natures and the processor identifier. This
+	 * is the case if the expression only tests the element with <code>instanceof</code>
+	 * and does not call property testers, adapt the element or access other variables.
+	 * The result of such an expression can be reused for all elements of the same class.
+	 *
+	 * @return <code>true</code> if the result of the enablement expression can be cached
+	 */
+	public boolean isEnablementCacheable() {
+		if (fEnablementCacheable == null) {
+			IConfigurationElement[] elements= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
+			fEnablementCacheable= Boolean.valueOf(elements.length == 0 || isCacheable(elements[0], true));
+		}
+		return fEnablementCacheable.booleanValue();
+	}
 
+	private static boolean isCacheable(IConfigurationElement element, boolean elementScope) {
+		String name= element.getName();
+		boolean scope= elementScope;
+		if (ExpressionTagNames.WITH.equals(name)) {
+			String variable= element.getAttribute(VARIABLE);
+			if (ELEMENT.equals(variable)) {
+				scope= true;
+			} else if (AFFECTED_NATURES.equals(variable) || PROCESSOR_IDENTIFIER.equals(variable)) {
+				scope= false;
+			} else {
+				return false;
+			}
+		} else if (ExpressionTagNames.EQUALS.equals(name) || ExpressionTagNames.ITERATE.equals(name) || ExpressionTagNames.COUNT.equals(name)) {
+			// these depend on the element itself, not only on its class
+			if (elementScope)
+				return false;
+		} else if (!ExpressionTagNames.ENABLEMENT.equals(name) && !ExpressionTagNames.AND.equals(name) && !ExpressionTagNames.OR.equals(name)
+				&& !ExpressionTagNames.NOT.equals(name) && !ExpressionTagNames.INSTANCEOF.equals(name)) {
+			return false;
+		}
+		IConfigurationElement[] children= element.getChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (!isCacheable(children[i], scope))
+				return false;
+		}
 		return true;
 	}
 
+	private synchronized Expression getEnablement() throws CoreException {
+		if (fEnablement == null) {
+			IConfigurationElement[] elements= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
+			if (elements.length == 0)
+				return null;
+			Assert.isTrue(elements.length == 1);
+			fEnablement= ExpressionConverter.getDefault().perform(elements[0]);
+		}
+		return fEnablement;
+	}
+
 	public RefactoringParticipant createParticipant() throws CoreException {
 		return (RefactoringParticipant)fConfigurationElement.createExecutableExtension(CLASS);
 	}
@@ -103,6 +186,10 @@ public class ParticipantDescriptor {
 		return Boolean.valueOf(attr).booleanValue();
 	}
 
+	public boolean isThreadSafe() {
+		return Boolean.valueOf(fConfigurationElement.getAttribute(THREAD_SAFE)).booleanValue();
+	}
+
 	private boolean convert(EvaluationResult eval) {
 		if (eval == EvaluationResult.FALSE)
 			return false;
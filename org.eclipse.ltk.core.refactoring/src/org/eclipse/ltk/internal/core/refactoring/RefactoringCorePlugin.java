@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,7 +31,6 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.ltk.core.refactoring.IRefactoringCoreStatusCodes;
 import org.eclipse.ltk.core.refactoring.IUndoManager;
 import org.eclipse.ltk.core.refactoring.RefactoringCore;
-import org.eclipse.ltk.core.refactoring.history.IRefactoringHistoryListener;
 import org.eclipse.ltk.internal.core.refactoring.history.RefactoringContributionManager;
 import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistorySerializer;
 import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryService;
@@ -43,7 +42,7 @@ public class RefactoringCorePlugin extends Plugin {
 
 	private static IUndoContext fRefactoringUndoContext;
 
-	private IRefactoringHistoryListener fRefactoringHistoryListener= null;
+	private RefactoringHistorySerializer fRefactoringHistoryListener= null;
 
 	public RefactoringCorePlugin() {
 		fgDefault= this;
@@ -107,6 +106,16 @@ public class RefactoringCorePlugin extends Plugin {
 		log(new Status(IStatus.ERROR, getPluginId(), IRefactoringCoreStatusCodes.INTERNAL_ERROR, message, null));
 	}
 
+	/**
+	 * Returns the listener which persists the refactoring history.
+	 *
+	 * @return the refactoring history serializer, or <code>null</code> if the
+	 *         plug-in is not started
+	 */
+	public RefactoringHistorySerializer getRefactoringHistorySerializer() {
+		return fRefactoringHistoryListener;
+	}
+
 	public static IUndoManager getUndoManager() {
 		if (fgUndoManager == null)
 			fgUndoManager= createUndoManager();
@@ -116,6 +125,7 @@ public class RefactoringCorePlugin extends Plugin {
 	@Override
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
+		CompactUndoEdit.deleteSpillFiles();
 		RefactoringContributionManager.getInstance().connect();
 		final RefactoringHistoryService service= RefactoringHistoryService.getInstance();
 		service.connect();
@@ -138,6 +148,7 @@ public class RefactoringCorePlugin extends Plugin {
 		if (fRefactoringHistoryListener != null)
 			service.removeHistoryListener(fRefactoringHistoryListener);
 		RefactoringContributionManager.getInstance().disconnect();
+		CompactUndoEdit.deleteSpillFiles();
 		super.stop(context);
 	}
 
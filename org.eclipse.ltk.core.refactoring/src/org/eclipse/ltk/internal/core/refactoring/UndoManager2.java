@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -355,6 +355,16 @@ public class UndoManager2 implements IUndoManager {
 		}
 	}
 
+	/**
+	 * Returns the memory retained by the undo and redo changes of text files,
+	 * not counting texts that have been spilled to disk.
+	 *
+	 * @return the retained memory, in bytes
+	 */
+	public long getRetainedUndoMemory() {
+		return CompactUndoEdit.getRetainedMemory();
+	}
+
 	//---- testing methods ---------------------------------------------
 
 	public boolean testHasNumberOfUndos(int number) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,9 @@
 package org.eclipse.ltk.internal.core.refactoring.history;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
@@ -43,6 +45,9 @@ public final class RefactoringContributionManager implements IRegistryChangeList
 	/** The id attribute */
 	private static final String ATTRIBUTE_ID= "id"; //$NON-NLS-1$
 
+	/** The thread-safe attribute */
+	private static final String ATTRIBUTE_THREAD_SAFE= "threadSafe"; //$NON-NLS-1$
+
 	/** The singleton instance */
 	private static RefactoringContributionManager fInstance= null;
 
@@ -70,6 +75,9 @@ public final class RefactoringContributionManager implements IRegistryChangeList
 	 */
 	private Map<RefactoringContribution, String> fIdCache= null;
 
+	/** The ids of the thread-safe refactoring contributions */
+	private Set<String> fThreadSafeIds= null;
+
 	/**
 	 * Creates a new refactoring contribution manager.
 	 */
@@ -137,6 +145,22 @@ public final class RefactoringContributionManager implements IRegistryChangeList
 		return fContributionCache.get(id);
 	}
 
+	/**
+	 * Returns whether the refactoring contribution with the specified id has
+	 * been declared thread-safe.
+	 *
+	 * @param id
+	 *            the unique id of the refactoring
+	 * @return <code>true</code> if the conditions of the refactoring may be
+	 *         checked concurrently with other thread-safe refactorings,
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isThreadSafe(final String id) {
+		Assert.isNotNull(id);
+		populateCache();
+		return fThreadSafeIds.contains(id);
+	}
+
 	/**
 	 * Returns the refactoring id for the specified refactoring contribution.
 	 *
@@ -158,9 +182,10 @@ public final class RefactoringContributionManager implements IRegistryChangeList
 	 * @since 3.3
 	 */
 	private void populateCache() {
-		if (fContributionCache == null || fIdCache == null) {
+		if (fContributionCache == null || fIdCache == null || fThreadSafeIds == null) {
 			fContributionCache= new HashMap<>(32);
 			fIdCache= new HashMap<>(32);
+			fThreadSafeIds= new HashSet<>();
 			final IConfigurationElement[] elements= Platform.getExtensionRegistry().getConfigurationElementsFor(RefactoringCore.ID_PLUGIN, REFACTORING_CONTRIBUTIONS_EXTENSION_POINT);
 			for (int index= 0; index < elements.length; index++) {
 				final IConfigurationElement element= elements[index];
@@ -176,6 +201,8 @@ public final class RefactoringContributionManager implements IRegistryChangeList
 									RefactoringCorePlugin.logErrorMessage(Messages.format(RefactoringCoreMessages.RefactoringCorePlugin_duplicate_warning, new String[] { attributeId, point}));
 								fContributionCache.put(attributeId, (RefactoringContribution) implementation);
 								fIdCache.put((RefactoringContribution) implementation, attributeId);
+								if (Boolean.valueOf(element.getAttribute(ATTRIBUTE_THREAD_SAFE)).booleanValue())
+									fThreadSafeIds.add(attributeId);
 							} else
 								RefactoringCorePlugin.logErrorMessage(Messages.format(RefactoringCoreMessages.RefactoringCorePlugin_creation_error, new String[] { point, attributeId}));
 						} catch (CoreException exception) {
@@ -193,5 +220,6 @@ public final class RefactoringContributionManager implements IRegistryChangeList
 	public void registryChanged(final IRegistryChangeEvent event) {
 		fContributionCache= null;
 		fIdCache= null;
+		fThreadSafeIds= null;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 package org.eclipse.ltk.internal.core.refactoring.history;
 
 import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
@@ -41,6 +43,55 @@ import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
  */
 public final class RefactoringHistorySerializer implements IRefactoringHistoryListener {
 
+	/** The nesting depth of batches */
+	private int fBatchDepth= 0;
+
+	/** The projects with shared histories to refresh at the end of the batch */
+	private final Set<IProject> fProjectsToRefresh= new LinkedHashSet<>();
+
+	/**
+	 * Begins a batch of refactorings, e.g. while a refactoring history is
+	 * performed. Until the matching {@link #endBatch()}, projects with shared
+	 * refactoring histories are refreshed only once, at the end of the batch,
+	 * instead of after every refactoring.
+	 */
+	public synchronized void beginBatch() {
+		fBatchDepth++;
+	}
+
+	/**
+	 * Ends a batch of refactorings and refreshes the projects whose shared
+	 * refactoring history has changed.
+	 *
+	 * @see #beginBatch()
+	 */
+	public void endBatch() {
+		final IProject[] projects;
+		synchronized (this) {
+			Assert.isTrue(fBatchDepth > 0);
+			if (--fBatchDepth > 0)
+				return;
+			projects= fProjectsToRefresh.toArray(new IProject[fProjectsToRefresh.size()]);
+			fProjectsToRefresh.clear();
+		}
+		for (int index= 0; index < projects.length; index++)
+			refresh(projects[index]);
+	}
+
+	private void refresh(final IProject project) {
+		synchronized (this) {
+			if (fBatchDepth > 0) {
+				fProjectsToRefresh.add(project);
+				return;
+			}
+		}
+		try {
+			project.refreshLocal(IResource.DEPTH_INFINITE, null);
+		} catch (CoreException exception) {
+			RefactoringCorePlugin.log(exception);
+		}
+	}
+
 	@Override
 	public void historyNotification(final RefactoringHistoryEvent event) {
 		Assert.isNotNull(event);
@@ -64,11 +115,7 @@ public final class RefactoringHistorySerializer implements IRefactoringHistoryLi
 									} catch (CoreException exception) {
 										RefactoringCorePlugin.log(exception);
 									} finally {
-										try {
-											project.refreshLocal(IResource.DEPTH_INFINITE, null);
-										} catch (CoreException exception) {
-											RefactoringCorePlugin.log(exception);
-										}
+										refresh(project);
 									}
 								}
 							} else {
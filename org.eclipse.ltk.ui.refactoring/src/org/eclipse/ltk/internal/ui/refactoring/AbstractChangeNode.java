@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,6 +35,7 @@ public abstract class AbstractChangeNode extends PreviewNode {
 
 	private final Change fChange;
 	private PreviewNode[] fChildren;
+	private Boolean fHasDerived;
 
 	public static PreviewNode createNode(PreviewNode parent, RefactoringPreviewChangeFilter filter, Change change) {
 		if (change instanceof CompositeChange) {
@@ -88,6 +89,15 @@ public abstract class AbstractChangeNode extends PreviewNode {
 
 	abstract PreviewNode[] doCreateChildren();
 
+	/**
+	 * Returns whether the children of this node have already been created.
+	 *
+	 * @return <code>true</code> if the children have been created
+	 */
+	final boolean hasCreatedChildren() {
+		return fChildren != null;
+	}
+
 	@Override
 	public String getText() {
 		return fChange.getName();
@@ -129,7 +139,14 @@ public abstract class AbstractChangeNode extends PreviewNode {
 	}
 
 	@Override
-	boolean hasDerived() {
+	final boolean hasDerived() {
+		// asked repeatedly by the viewer's filter, comparator and label provider
+		if (fHasDerived == null)
+			fHasDerived= Boolean.valueOf(computeHasDerived());
+		return fHasDerived.booleanValue();
+	}
+
+	boolean computeHasDerived() {
 		if (hasDerivedResourceChange(fChange))
 			return true;
 		PreviewNode[] children= getChildren();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,15 +13,32 @@
  *******************************************************************************/
 package org.eclipse.ltk.internal.ui.refactoring;
 
+import java.util.List;
+
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.Viewer;
 
+import org.eclipse.ltk.core.refactoring.GroupCategory;
+
 /**
  * A default content provider to present a hierarchy of <code>IChange</code>
  * objects in a tree viewer.
  */
 class ChangeElementContentProvider  implements ITreeContentProvider {
 
+	private List<GroupCategory> fGroupCategories;
+
+	/**
+	 * Sets the group categories the viewer filters for, so that elements
+	 * whose children are all filtered are not shown as expandable.
+	 *
+	 * @param groupCategories the group categories or <code>null</code>
+	 *  if the viewer does not filter
+	 */
+	public void setGroupCategory(List<GroupCategory> groupCategories) {
+		fGroupCategories= groupCategories;
+	}
+
 	/* non Java-doc
 	 * @see ITreeContentProvider#inputChanged
 	 */
@@ -52,8 +69,7 @@ class ChangeElementContentProvider  implements ITreeContentProvider {
 	 */
 	@Override
 	public boolean hasChildren(Object element){
-		Object[] children= getChildren(element);
-		return children != null && children.length > 0;
+		return ((PreviewNode)element).hasChildren(fGroupCategories);
 	}
 
 	/* non Java-doc
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -89,6 +89,8 @@ class ChangeElementTreeViewer extends CheckboxTreeViewer {
 
 	public void setGroupCategory(List<GroupCategory> groupCategories) {
 		((GroupCategoryFilter)(getFilters()[0])).setGroupCategory(groupCategories);
+		if (getContentProvider() instanceof ChangeElementContentProvider)
+			((ChangeElementContentProvider)getContentProvider()).setGroupCategory(groupCategories);
 		refresh();
 	}
 
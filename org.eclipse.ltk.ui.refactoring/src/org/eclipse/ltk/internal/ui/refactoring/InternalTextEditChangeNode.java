@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@ import java.util.List;
 
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.GroupCategory;
+import org.eclipse.ltk.core.refactoring.MultiStateTextFileChange;
 import org.eclipse.ltk.core.refactoring.TextEditBasedChange;
 import org.eclipse.ltk.ui.refactoring.TextEditChangeNode;
 import org.eclipse.ltk.ui.refactoring.TextEditChangeNode.ChildNode;
@@ -41,6 +42,26 @@ public abstract class InternalTextEditChangeNode extends AbstractChangeNode {
 		return (TextEditBasedChange)getChange();
 	}
 
+	@Override
+	boolean hasChildren(List<GroupCategory> categories) {
+		if (hasCreatedChildren())
+			return super.hasChildren(categories);
+		// creating the child nodes can be expensive, e.g. when they are grouped by language element,
+		// so only create them when the node is expanded. Every change group is shown by a child node.
+		TextEditBasedChange change= getTextEditBasedChange();
+		if (change instanceof MultiStateTextFileChange)
+			return false;
+		if (categories == null)
+			return change.getChangeGroups().length > 0;
+		return change.hasOneGroupCategory(categories);
+	}
+
+	@Override
+	boolean computeHasDerived() {
+		// child nodes never refer to derived resources
+		return hasDerivedResourceChange(getChange());
+	}
+
 	@Override
 	final PreviewNode[] doCreateChildren() {
 		return createChildNodes();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -153,6 +153,26 @@ public abstract class PreviewNode {
 	 */
 	abstract PreviewNode[] getChildren();
 
+	/**
+	 * Returns whether the change element has children that are shown for the given
+	 * group categories. Unlike {@link #getChildren()}, implementations should avoid
+	 * creating the children if possible.
+	 *
+	 * @param categories the group categories to filter for or
+	 *  <code>null</code> if no filtering should take place
+	 * @return whether the change element has children
+	 */
+	boolean hasChildren(List<GroupCategory> categories) {
+		PreviewNode[] children= getChildren();
+		if (categories == null)
+			return children.length > 0;
+		for (int i= 0; i < children.length; i++) {
+			if (children[i].hasOneGroupCategory(categories))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Returns <code>true</code> if the change node has
 	 * one of the given group categories. Otherwise,